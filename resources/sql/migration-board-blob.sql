@@ -0,0 +1,4 @@
+-- stratego_status.board now holds a binary board (1 version byte + 100 squares).
+-- The bytes of existing JSON boards are kept as they are: they are still read
+-- and get rewritten in the binary format the next time each game is saved.
+ALTER TABLE `stratego_status` MODIFY `board` BLOB NOT NULL;
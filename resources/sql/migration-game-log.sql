@@ -0,0 +1,31 @@
+-- Game log: setups and board snapshots, and the state version produced by each
+-- movement, so the board at any version can be rebuilt. Games started before
+-- this migration have no setup events and cannot be rebuilt.
+ALTER TABLE `stratego_movement` ADD COLUMN `state_version` BIGINT DEFAULT NULL;
+CREATE INDEX `movement_game_version_idx` ON `stratego_movement`(`game_id`, `state_version`);
+
+CREATE TABLE `stratego_setup` (
+	id INTEGER NOT NULL AUTO_INCREMENT,
+	game_id INTEGER NOT NULL,
+
+	is_host INT(1) NOT NULL,
+	state_version BIGINT NOT NULL,
+
+	squares BLOB NOT NULL,
+
+	CONSTRAINT setup_pk PRIMARY KEY(`id`),
+	CONSTRAINT setup_game_fk FOREIGN KEY(`game_id`) REFERENCES `game`(`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `stratego_snapshot` (
+	id INTEGER NOT NULL AUTO_INCREMENT,
+	game_id INTEGER NOT NULL,
+
+	state_version BIGINT NOT NULL,
+
+	board BLOB NOT NULL,
+
+	CONSTRAINT snapshot_pk PRIMARY KEY(`id`),
+	CONSTRAINT snapshot_game_fk FOREIGN KEY(`game_id`) REFERENCES `game`(`id`),
+	INDEX snapshot_game_idx(`game_id`, `state_version`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,4 @@
+-- Time of the last setup or movement of each game, used to reap the games nobody plays any more.
+ALTER TABLE `stratego_status` ADD COLUMN `last_activity` TIMESTAMP NULL;
+-- Games in progress count their inactivity from the migration.
+UPDATE `stratego_status` SET `last_activity` = CURRENT_TIMESTAMP;
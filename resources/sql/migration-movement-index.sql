@@ -0,0 +1,3 @@
+-- Latest movement and keyset pages of the movement history are read by game
+-- and id, this index serves both without scanning the game's movements.
+CREATE INDEX `movement_game_idx` ON `stratego_movement`(`game_id`, `id`);
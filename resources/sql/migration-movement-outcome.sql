@@ -0,0 +1,8 @@
+-- Movements store their squares as one number, from index * 100 + to index, and the pieces
+-- removed as a two byte outcome. The JSON result is only read on rows without an outcome.
+ALTER TABLE `stratego_movement` ADD COLUMN `move` SMALLINT NULL AFTER `rank_`, ADD COLUMN `outcome` SMALLINT NULL AFTER `move`;
+UPDATE `stratego_movement` SET `move` = (`row_initial` * 10 + `col_initial`) * 100 + `row_final` * 10 + `col_final`;
+-- Movements without combat need no JSON either
+UPDATE `stratego_movement` SET `outcome` = 0, `result` = NULL WHERE `result` IS NULL OR `result` IN ('', '[]');
+ALTER TABLE `stratego_movement` MODIFY `move` SMALLINT NOT NULL, DROP COLUMN `row_initial`, DROP COLUMN `col_initial`,
+	DROP COLUMN `row_final`, DROP COLUMN `col_final`;
@@ -0,0 +1,5 @@
+-- Marks the account of the bot, whose user name players can no longer sign up with.
+ALTER TABLE `player` ADD COLUMN `is_bot` INT(1) NOT NULL DEFAULT 0;
+-- The account the bot created before. Check that it hosts no games first, a player
+-- who signed up with the bot name would, and the application refuses to start with it.
+UPDATE `player` SET `is_bot` = 1 WHERE `username` = 'StrategoBot';
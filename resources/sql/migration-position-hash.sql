@@ -0,0 +1,2 @@
+-- Zobrist hash of the board and the side to move, filled in when a game is next loaded.
+ALTER TABLE `stratego_status` ADD COLUMN `position_hash` BIGINT;
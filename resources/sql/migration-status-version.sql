@@ -0,0 +1,2 @@
+-- State version of each game, used for ETags and delta responses on /status.
+ALTER TABLE `stratego_status` ADD COLUMN `state_version` BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Turn deadline of each game, used to forfeit or abort games whose players stop responding.
+ALTER TABLE `stratego_status` ADD COLUMN `turn_deadline` TIMESTAMP NULL;
@@ -5,6 +5,7 @@ CREATE TABLE `player`(
 	id INTEGER NOT NULL AUTO_INCREMENT,
 	username VARCHAR(128) NOT NULL UNIQUE,
 	password VARCHAR(255) NOT NULL,
+	is_bot INT(1) NOT NULL DEFAULT 0,
     CONSTRAINT player_pk PRIMARY KEY(`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -32,10 +33,15 @@ CREATE TABLE `stratego_status` (
 	
 	is_guest_turn INT(1) NOT NULL,
 
-	board TEXT NOT NULL,
+	board BLOB NOT NULL,
 	
 	is_host_initialized INT(1) NOT NULL,
 	is_guest_initialized INT(1) NOT NULL,
+
+	state_version BIGINT NOT NULL DEFAULT 0,
+	position_hash BIGINT,
+	turn_deadline TIMESTAMP NULL,
+	last_activity TIMESTAMP NULL,
 	
 	CONSTRAINT status_pk PRIMARY KEY(`id`),
 	CONSTRAINT status_game_fk FOREIGN KEY(`game_id`) REFERENCES `game`(`id`)
@@ -49,15 +55,45 @@ CREATE TABLE `stratego_movement` (
 	is_guest_turn INT(1) NOT NULL,
 
 	rank_ VARCHAR(20) NOT NULL,
-	row_initial INTEGER NOT NULL,
-	col_initial INTEGER NOT NULL,
-	row_final INTEGER NOT NULL,
-	col_final INTEGER NOT NULL,
+	move SMALLINT NOT NULL,
 	
+	outcome SMALLINT DEFAULT NULL,
 	result TEXT DEFAULT NULL,
 
+	state_version BIGINT DEFAULT NULL,
+
 	CONSTRAINT movement_pk PRIMARY KEY(`id`),
-	CONSTRAINT movement_game_fk FOREIGN KEY(`game_id`) REFERENCES `game`(`id`)
+	CONSTRAINT movement_game_fk FOREIGN KEY(`game_id`) REFERENCES `game`(`id`),
+	INDEX movement_game_idx(`game_id`, `id`),
+	INDEX movement_game_version_idx(`game_id`, `state_version`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+DROP TABLE IF EXISTS `stratego_setup`;
+CREATE TABLE `stratego_setup` (
+	id INTEGER NOT NULL AUTO_INCREMENT,
+	game_id INTEGER NOT NULL,
+
+	is_host INT(1) NOT NULL,
+	state_version BIGINT NOT NULL,
+
+	squares BLOB NOT NULL,
+
+	CONSTRAINT setup_pk PRIMARY KEY(`id`),
+	CONSTRAINT setup_game_fk FOREIGN KEY(`game_id`) REFERENCES `game`(`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+DROP TABLE IF EXISTS `stratego_snapshot`;
+CREATE TABLE `stratego_snapshot` (
+	id INTEGER NOT NULL AUTO_INCREMENT,
+	game_id INTEGER NOT NULL,
+
+	state_version BIGINT NOT NULL,
+
+	board BLOB NOT NULL,
+
+	CONSTRAINT snapshot_pk PRIMARY KEY(`id`),
+	CONSTRAINT snapshot_game_fk FOREIGN KEY(`game_id`) REFERENCES `game`(`id`),
+	INDEX snapshot_game_idx(`game_id`, `state_version`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 DROP TABLE IF EXISTS `favourite_setup`;
@@ -0,0 +1,54 @@
+package com.pdrosoft.matchmaking.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, writes the results as JSON and compares them with the
+ * baseline, exiting with an error when any of them regressed. Run with
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec
+ * </pre>
+ *
+ * and {@code -Dbenchmark.update-baseline=true} to store the results as the
+ * new baseline, which has to be done by every change to a benchmark.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		var include = System.getProperty("benchmark.include", "com\\.pdrosoft\\..*Benchmark");
+		var result = Path.of(System.getProperty("benchmark.result", "target/jmh-result.json"));
+		var baseline = Path.of(System.getProperty("benchmark.baseline", "src/jmh/resources/jmh-baseline.json"));
+		var tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.25"));
+
+		Files.createDirectories(result.toAbsolutePath().getParent());
+		var options = new OptionsBuilder() //
+				.include(include) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result(result.toString()) //
+				.build();
+		new Runner(options).run();
+
+		if (Boolean.getBoolean("benchmark.update-baseline")) {
+			BaselineComparison.writeBaseline(result, baseline);
+			System.out.println("Baseline updated: %s".formatted(baseline));
+			return;
+		}
+		if (!Files.exists(baseline)) {
+			System.out.println("No baseline at %s".formatted(baseline));
+			return;
+		}
+
+		var entries = BaselineComparison.compare(result, baseline, tolerance);
+		System.out.println(BaselineComparison.format(entries));
+		if (entries.stream().anyMatch(BaselineComparison.Entry::regressed)) {
+			System.out.println("Benchmarks slower than the baseline by more than %.0f%%".formatted(tolerance * 100));
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.pdrosoft.matchmaking.converter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Board column round trip on a board with both armies, in the binary format
+ * and from the legacy JSON rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoardConverterBenchmark {
+
+	private final BoardConverter converter = new BoardConverter();
+
+	private StrategoBoard board;
+	private byte[] data;
+	private byte[] legacyJson;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		board = StrategoBoard.empty();
+		var ranks = Rank.values();
+		for (int row = 0; row < 4; row++) {
+			for (int col = 0; col < StrategoBoard.SIZE; col++) {
+				var rank = ranks[(row * StrategoBoard.SIZE + col) % Rank.DISABLED.ordinal()];
+				board.set(row, col, StrategoBoard.encode(rank, true));
+				board.set(9 - row, col, StrategoBoard.encode(rank, false));
+			}
+		}
+
+		data = converter.convertToDatabaseColumn(board);
+		legacyJson = new ObjectMapper().writeValueAsBytes(board.toTiles());
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return converter.convertToDatabaseColumn(board);
+	}
+
+	@Benchmark
+	public StrategoBoard decode() {
+		return converter.convertToEntityAttribute(data);
+	}
+
+	@Benchmark
+	public StrategoBoard decodeLegacyJson() {
+		return converter.convertToEntityAttribute(legacyJson);
+	}
+}
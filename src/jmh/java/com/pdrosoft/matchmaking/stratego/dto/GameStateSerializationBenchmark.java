@@ -0,0 +1,73 @@
+package com.pdrosoft.matchmaking.stratego.dto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdrosoft.matchmaking.dto.PlayerDTO;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+import com.pdrosoft.matchmaking.stratego.service.StrategoConfiguration;
+
+/**
+ * Serialization of a full {@code /status} response, with the application
+ * object mapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameStateSerializationBenchmark {
+
+	private final ObjectMapper mapper = new StrategoConfiguration().getObjectMapper();
+
+	private GameStateDTO gameState;
+
+	@Setup
+	public void setUp() {
+		var board = StrategoBoard.empty();
+		var ranks = Rank.values();
+		for (int row = 0; row < 4; row++) {
+			for (int col = 0; col < StrategoBoard.SIZE; col++) {
+				var rank = ranks[(row * StrategoBoard.SIZE + col) % Rank.DISABLED.ordinal()];
+				board.set(row, col, StrategoBoard.encode(rank, true));
+				board.set(9 - row, col, StrategoBoard.encode(rank, false));
+			}
+		}
+
+		var movement = StrategoMovementDTO.builder().id(10).rank(Rank.MAJOR).rowInitial(3).colInitial(0).rowFinal(4)
+				.colFinal(0).result(List.of(StrategoMovementResultDTO.builder().rank(Rank.CAPTAIN).isHost(false).build()))
+				.build();
+		gameState = GameStateDTO.builder() //
+				.currentPlayer(PlayerDTO.builder().id(1).username("testuser1").build()) //
+				.gameId(5L) //
+				.hostPlayerId(1) //
+				.guestPlayerId(2) //
+				.movement(movement) //
+				.phase(GamePhase.PLAYING) //
+				.version(12L) //
+				.board(board.toTiles()) //
+				.isMyTurn(true) //
+				.build();
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(gameState);
+	}
+}
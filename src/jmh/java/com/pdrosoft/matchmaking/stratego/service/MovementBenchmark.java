@@ -0,0 +1,111 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdrosoft.matchmaking.chat.service.NotificationService;
+import com.pdrosoft.matchmaking.datasource.ReadYourWritesGuard;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.model.StrategoStatus;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
+import com.pdrosoft.matchmaking.stratego.engine.PieceCounts;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.engine.Zobrist;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Validation and application of a host movement, to an empty square or
+ * attacking a guest piece. Collaborators the movement never reaches are mocks.
+ * {@code applyMovement} includes restoring the board it changes, but not the
+ * piece counts, which are only read to tell when a game is over.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MovementBenchmark {
+
+	private static final Integer HOST_ID = 1;
+
+	@Param({ "MOVE", "ATTACK" })
+	public String kind;
+
+	private StrategoServiceImpl strategoService;
+	private Game game;
+	private StrategoStatus status;
+	private StrategoBoard board;
+	private long positionHash;
+	private PieceCounts pieceCounts;
+	private StrategoMovementDTO movementDto;
+
+	private static Player getPlayer(Integer id) {
+		var player = new Player();
+		player.setId(id);
+		return player;
+	}
+
+	@Setup
+	public void setUp() {
+		strategoService = new StrategoServiceImpl(mock(GameRepository.class), mock(PasswordEncoder.class),
+				mock(StrategoMovementRepository.class), mock(ActiveGameCache.class), mock(GameExecutor.class),
+				mock(GameLogService.class), new RankServiceImpl(), new ObjectMapper(),
+				mock(NotificationService.class), mock(ApplicationEventPublisher.class), mock(TurnClockService.class),
+				mock(ReadYourWritesGuard.class));
+
+		game = new Game();
+		game.setHost(getPlayer(HOST_ID));
+		game.setGuest(getPlayer(2));
+
+		board = StrategoBoard.empty();
+		board.set(3, 0, StrategoBoard.encode(Rank.MAJOR, true));
+		board.set(3, 1, StrategoBoard.encode(Rank.SCOUT, true));
+		board.set(4, 0, StrategoBoard.encode(Rank.CAPTAIN, false));
+		positionHash = Zobrist.hash(board, false);
+		pieceCounts = PieceCounts.of(board);
+
+		status = new StrategoStatus();
+		status.setIsGuestTurn(false);
+		status.setBoard(board.copy());
+		status.setPositionHash(positionHash);
+
+		movementDto = "ATTACK".equals(kind) //
+				? StrategoMovementDTO.builder().rank(Rank.MAJOR).rowInitial(3).colInitial(0).rowFinal(4).colFinal(0)
+						.build()
+				: StrategoMovementDTO.builder().rank(Rank.SCOUT).rowInitial(3).colInitial(1).rowFinal(5).colFinal(1)
+						.build();
+	}
+
+	@Benchmark
+	public StrategoStatus checkValidMovement() {
+		strategoService.checkValidMovement(movementDto, game, status, HOST_ID);
+		return status;
+	}
+
+	@Benchmark
+	public short applyMovement() {
+		status.setBoard(board.copy());
+		status.setPositionHash(positionHash);
+		return strategoService.applyMovement(movementDto, status, pieceCounts);
+	}
+}
@@ -0,0 +1,76 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Every valid engagement, by rank and by ordinal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RankServiceBenchmark {
+
+	private final RankService rankService = new RankServiceImpl();
+
+	private Rank[] attackers;
+	private Rank[] defenders;
+	private int[] attackerOrdinals;
+	private int[] defenderOrdinals;
+
+	@Setup
+	public void setUp() {
+		var numEngagements = 0;
+		var ranks = Rank.values();
+		attackers = new Rank[ranks.length * ranks.length];
+		defenders = new Rank[ranks.length * ranks.length];
+		for (var attacker : ranks) {
+			if (Rank.BOMB.equals(attacker) || Rank.FLAG.equals(attacker) || Rank.DISABLED.equals(attacker)) {
+				continue;
+			}
+			for (var defender : ranks) {
+				if (!Rank.DISABLED.equals(defender)) {
+					attackers[numEngagements] = attacker;
+					defenders[numEngagements++] = defender;
+				}
+			}
+		}
+
+		attackerOrdinals = new int[numEngagements];
+		defenderOrdinals = new int[numEngagements];
+		for (int i = 0; i < numEngagements; i++) {
+			attackerOrdinals[i] = attackers[i].ordinal();
+			defenderOrdinals[i] = defenders[i].ordinal();
+		}
+	}
+
+	@Benchmark
+	public void compareRanks(Blackhole blackhole) {
+		for (int i = 0; i < attackerOrdinals.length; i++) {
+			blackhole.consume(rankService.compareRanks(attackers[i], defenders[i]));
+		}
+	}
+
+	@Benchmark
+	public void compareRankOrdinals(Blackhole blackhole) {
+		for (int i = 0; i < attackerOrdinals.length; i++) {
+			blackhole.consume(rankService.compareRanks(attackerOrdinals[i], defenderOrdinals[i]));
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.pdrosoft.matchmaking.stratego.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Validation of a shuffled army, and of the same army with one scout replaced
+ * by a second marshal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArmySetupValidatorBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean valid;
+
+	private final ArmySetupValidator validator = new ArmySetupValidator();
+
+	private List<List<Rank>> army;
+
+	@Setup
+	public void setUp() {
+		var ranks = new ArrayList<Rank>(40);
+		for (var rank : Rank.values()) {
+			ranks.addAll(Collections.nCopies(rank.getArmyCount(), rank));
+		}
+		Collections.shuffle(ranks, new Random(1L));
+		if (!valid) {
+			ranks.set(ranks.indexOf(Rank.SCOUT), Rank.MARSHAL);
+		}
+
+		army = new ArrayList<>(4);
+		for (int row = 0; row < 4; row++) {
+			army.add(List.copyOf(ranks.subList(row * 10, (row + 1) * 10)));
+		}
+	}
+
+	@Benchmark
+	public boolean isValid() {
+		return validator.isValid(army, null);
+	}
+}
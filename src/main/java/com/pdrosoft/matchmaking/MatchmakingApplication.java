@@ -14,6 +14,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 		"com.pdrosoft.matchmaking.dao", //
 		"com.pdrosoft.matchmaking.security", //
 		"com.pdrosoft.matchmaking.exception", //
+		"com.pdrosoft.matchmaking.datasource", //
 
 		"com.pdrosoft.matchmaking.stratego.controller", //
 		"com.pdrosoft.matchmaking.stratego.service", //
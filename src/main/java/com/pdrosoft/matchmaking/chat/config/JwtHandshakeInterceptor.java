@@ -66,8 +66,8 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
 			return extractToken(req) // Get token
 
-					.filter(jwtUtil::isTokenValid).map(token -> {
-						attributes.put("username", jwtUtil.extractUsername(token));
+					.flatMap(jwtUtil::verify).map(claims -> {
+						attributes.put("username", claims.getSubject());
 
 						return true;
 					}).orElse(false);
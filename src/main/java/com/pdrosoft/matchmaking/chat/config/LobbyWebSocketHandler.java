@@ -0,0 +1,282 @@
+package com.pdrosoft.matchmaking.chat.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdrosoft.matchmaking.dto.LobbyEventDTO;
+import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
+import com.pdrosoft.matchmaking.service.LobbyIndex;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lobby feed: a new session gets the open games listed by default by
+ * {@code GET /api/game}, those created in the last 10 minutes and at most 200,
+ * in a {@code SNAPSHOT} event and then every change of the {@link LobbyIndex},
+ * in order. Events are queued
+ * per session and written by a small pool of sender threads, so the requests
+ * publishing them never wait for a socket.
+ * <p>
+ * A write to a client that stops reading gives up after 10 seconds, and the
+ * sender closes the session. A client whose queue grows past 512 KB, or whose
+ * write has taken longer than that, is closed by the request that publishes
+ * the next event, so stalled clients never wait for a free sender to be
+ * dropped. The snapshot does not count against the queue limit.
+ */
+@Component
+@Slf4j
+public class LobbyWebSocketHandler extends TextWebSocketHandler {
+
+	private static final int SEND_TIME_LIMIT = 10_000;
+	private static final int BUFFER_SIZE_LIMIT = 512 * 1024;
+	private static final Duration SNAPSHOT_WINDOW = Duration.ofMinutes(10);
+	private static final int SNAPSHOT_LIMIT = 200;
+	// Time after which Tomcat gives up a blocking write of a session
+	private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+	@NonNull
+	private final ObjectMapper mapper;
+	@NonNull
+	private final LobbyIndex lobbyIndex;
+	@NonNull
+	private final Executor sender;
+
+	// By session id
+	private final Map<String, LobbySession> sessions = new ConcurrentHashMap<>();
+
+	/**
+	 * Messages of a session not sent yet. At most one sender drains the queue at
+	 * a time, so the session gets them in order.
+	 */
+	private final class LobbySession {
+		private final WebSocketSession session;
+		// Guarded by this
+		private final Queue<TextMessage> queue = new ArrayDeque<>();
+		private int queuedBytes = 0;
+		// Queued without counting it in queuedBytes
+		private TextMessage snapshot = null;
+		private boolean draining = false;
+		private boolean closed = false;
+		// Start of the send in progress, 0 when there is none
+		private volatile long sendStart = 0;
+
+		private LobbySession(WebSocketSession session) {
+			this.session = session;
+		}
+
+		private void enqueueSnapshot(TextMessage message) {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				snapshot = message;
+				queue.add(message);
+				if (draining) {
+					return;
+				}
+				draining = true;
+			}
+			sender.execute(this::drain);
+		}
+
+		private void enqueue(TextMessage message) {
+			var start = sendStart;
+			boolean overflow;
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				overflow = start != 0 && System.currentTimeMillis() - start > SEND_TIME_LIMIT
+						|| queuedBytes + message.getPayloadLength() > BUFFER_SIZE_LIMIT;
+				if (!overflow) {
+					queue.add(message);
+					queuedBytes += message.getPayloadLength();
+					if (draining) {
+						return;
+					}
+					draining = true;
+				}
+			}
+			if (overflow) {
+				disconnect();
+			} else {
+				sender.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			while (true) {
+				TextMessage message;
+				synchronized (this) {
+					message = closed ? null : queue.poll();
+					if (message == null) {
+						draining = false;
+						return;
+					}
+					if (message == snapshot) {
+						snapshot = null;
+					} else {
+						queuedBytes -= message.getPayloadLength();
+					}
+				}
+				sendStart = System.currentTimeMillis();
+				boolean sent;
+				try {
+					sent = send(session, message);
+				} finally {
+					sendStart = 0;
+				}
+				if (!sent) {
+					disconnect();
+				}
+			}
+		}
+
+		/**
+		 * Closes the session on the calling thread, a sender may be stuck writing to
+		 * it.
+		 */
+		private void disconnect() {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+				queue.clear();
+				queuedBytes = 0;
+				snapshot = null;
+			}
+			log.debug("Lobby session {} cannot keep up, disconnecting it", session.getId());
+			sessions.remove(session.getId(), this);
+			try {
+				session.close(CloseStatus.SESSION_NOT_RELIABLE);
+			} catch (IOException | RuntimeException e) {
+				log.debug("Error closing lobby session", e);
+			}
+		}
+	}
+
+	@Autowired
+	public LobbyWebSocketHandler(@NonNull ObjectMapper mapper, @NonNull LobbyIndex lobbyIndex,
+			@Value("${stratego.lobby.sender-threads:2}") int senderThreads) {
+		this(mapper, lobbyIndex, Executors.newFixedThreadPool(Math.max(1, senderThreads)));
+	}
+
+	LobbyWebSocketHandler(@NonNull ObjectMapper mapper, @NonNull LobbyIndex lobbyIndex, @NonNull Executor sender) {
+		this.mapper = mapper;
+		this.lobbyIndex = lobbyIndex;
+		this.sender = sender;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (sender instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	public Set<String> getSessionIds() {
+		return sessions.keySet();
+	}
+
+	private TextMessage toMessage(LobbyEventDTO event) {
+		try {
+			return new TextMessage(mapper.writeValueAsString(event));
+		} catch (JsonProcessingException e) {
+			throw new MatchmakingValidationException("Error serializing lobby event");
+		}
+	}
+
+	/**
+	 * Returns false when the message could not be written, because the session
+	 * is closed, the write failed or it timed out.
+	 */
+	private boolean send(WebSocketSession session, TextMessage message) {
+		if (!session.isOpen()) {
+			return false;
+		}
+		try {
+			session.sendMessage(message);
+			return true;
+		} catch (IOException | RuntimeException e) {
+			log.debug("Error sending lobby event", e);
+			return false;
+		}
+	}
+
+	private void setSendTimeout(WebSocketSession session) {
+		if (WebSocketSessionDecorator.unwrap(session) instanceof NativeWebSocketSession nativeSession
+				&& nativeSession.getNativeSession() instanceof Session standardSession) {
+			standardSession.getUserProperties().put(BLOCKING_SEND_TIMEOUT, (long) SEND_TIME_LIMIT);
+		}
+	}
+
+	@Override
+	public void afterConnectionEstablished(WebSocketSession session) {
+		setSendTimeout(session);
+		var lobbySession = new LobbySession(session);
+		// No change is published until the snapshot is queued and the session registered
+		lobbyIndex.withGames(Instant.now().minus(SNAPSHOT_WINDOW), SNAPSHOT_LIMIT, games -> {
+			// Registered first, a failed snapshot unregisters it
+			sessions.put(session.getId(), lobbySession);
+			lobbySession.enqueueSnapshot(
+					toMessage(LobbyEventDTO.builder().type(LobbyEventDTO.Type.SNAPSHOT).games(games).build()));
+		});
+
+		log.debug(session.getAttributes().get("username") + " connected to the lobby");
+	}
+
+	/**
+	 * Called by the {@link LobbyIndex} with its changes serialized, only queues
+	 * the event.
+	 */
+	@EventListener
+	public void onLobbyEvent(LobbyEventDTO event) {
+		if (sessions.isEmpty()) {
+			return;
+		}
+		var message = toMessage(event);
+		sessions.values().forEach(session -> session.enqueue(message));
+	}
+
+	@Override
+	protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+		;
+	}
+
+	@Override
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+		sessions.remove(session.getId());
+		log.debug("Player disconnected from the lobby");
+	}
+
+	@Override
+	public void handleTransportError(WebSocketSession session, Throwable exception) {
+		sessions.remove(session.getId());
+	}
+}
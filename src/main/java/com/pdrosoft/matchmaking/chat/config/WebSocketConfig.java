@@ -19,6 +19,8 @@ public class WebSocketConfig implements WebSocketConfigurer {
 	@NonNull
 	private final GameNotificationWebSocketHandler notificationHandler;
 	@NonNull
+	private final LobbyWebSocketHandler lobbyHandler;
+	@NonNull
 	private final JwtHandshakeInterceptor jwtInterceptor;
 
 	@Override
@@ -29,5 +31,8 @@ public class WebSocketConfig implements WebSocketConfigurer {
 		registry.addHandler(notificationHandler, "/wsn") //
 				.addInterceptors(jwtInterceptor) //
 				.setAllowedOrigins("*");
+		registry.addHandler(lobbyHandler, "/wsl") //
+				.addInterceptors(jwtInterceptor) //
+				.setAllowedOrigins("*");
 	}
 }
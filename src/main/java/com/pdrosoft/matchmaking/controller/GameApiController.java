@@ -45,17 +45,21 @@ public class GameApiController {
 		this.matchmakingService = matchmakingService;
 	}
 
-	@Operation(summary = "Get game list", description = "Get game list")
+	@Operation(summary = "Get game list", description = "Get the games waiting for a guest created after date_from, newest first, starting after the game created at before_date with id before_id")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Games found successfully", content = @Content(array = @ArraySchema(schema = @Schema(implementation = GameDTO.class)))), //
 			@ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema())), //
 			@ApiResponse(responseCode = "404", description = "invalid credentials", content = @Content(schema = @Schema())) //
 	})
 	@GetMapping(path = "/game", produces = { "application/json" })
-	public List<GameDTO> getGames(@RequestParam(name = "date_from", required = false) String dateFromStr) {
+	public List<GameDTO> getGames(@RequestParam(name = "date_from", required = false) String dateFromStr,
+			@RequestParam(name = "before_date", required = false) String beforeDateStr,
+			@RequestParam(name = "before_id", required = false) Integer beforeId,
+			@RequestParam(name = "limit", required = false) Integer limit) {
 		var dateFrom = Optional.ofNullable(dateFromStr).map(Instant::parse) //
 				.orElse(Instant.now().minus(Duration.ofMinutes(10)));
-		return matchmakingService.getGameList(dateFrom);
+		var beforeDate = Optional.ofNullable(beforeDateStr).map(Instant::parse).orElse(null);
+		return matchmakingService.getGameList(dateFrom, beforeDate, beforeId, limit);
 	}
 
 	@Operation(summary = "Create game", description = "Create game")
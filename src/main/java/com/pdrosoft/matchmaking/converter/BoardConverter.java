@@ -3,14 +3,27 @@ package com.pdrosoft.matchmaking.converter;
 import java.io.IOException;
 import java.util.List;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
 
 import jakarta.persistence.AttributeConverter;
 
-public class BoardConverter implements AttributeConverter<List<List<BoardTileDTO>>, String> {
+/**
+ * Stores a board as a version byte followed by its 100 squares. Rows written
+ * by older releases hold the board as a JSON array of tiles; those are still
+ * read and are rewritten in the binary format the next time the status is
+ * saved.
+ */
+public class BoardConverter implements AttributeConverter<StrategoBoard, byte[]> {
+
+	public static final byte FORMAT_V1 = 1;
+
+	private static final int V1_LENGTH = 1 + StrategoBoard.NUM_SQUARES;
+
+	private static final TypeReference<List<List<BoardTileDTO>>> BOARD_TYPE = new TypeReference<List<List<BoardTileDTO>>>() {
+	};
 
 	private static ObjectMapper objectMapper = null;
 
@@ -23,29 +36,40 @@ public class BoardConverter implements AttributeConverter<List<List<BoardTileDTO
 	}
 
 	@Override
-	public String convertToDatabaseColumn(List<List<BoardTileDTO>> board) {
-		String customerInfoJson = null;
-		try {
-			customerInfoJson = getObjectMapper().writeValueAsString(board);
-		} catch (final JsonProcessingException e) {
-			// logger.error("JSON writing error", e);
+	public byte[] convertToDatabaseColumn(StrategoBoard board) {
+		if (board == null) {
+			return null;
 		}
 
-		return customerInfoJson;
+		var data = new byte[V1_LENGTH];
+		data[0] = FORMAT_V1;
+		board.copyTo(data, 1);
+
+		return data;
 	}
 
 	@Override
-	public List<List<BoardTileDTO>> convertToEntityAttribute(String json) {
-		List<List<BoardTileDTO>> customerInfo = null;
+	public StrategoBoard convertToEntityAttribute(byte[] data) {
+		if (data == null || data.length == 0) {
+			return null;
+		}
+
+		if (data[0] == FORMAT_V1 && data.length == V1_LENGTH) {
+			return StrategoBoard.fromBytes(data, 1);
+		}
+
+		return fromLegacyJson(data);
+	}
+
+	private StrategoBoard fromLegacyJson(byte[] json) {
+		StrategoBoard board = null;
 		try {
-			customerInfo = getObjectMapper().readValue(json, //
-					new TypeReference<List<List<BoardTileDTO>>>() {
-					});
+			board = StrategoBoard.fromTiles(getObjectMapper().readValue(json, BOARD_TYPE));
 		} catch (final IOException e) {
 			// logger.error("JSON reading error", e);
 		}
 
-		return customerInfo;
+		return board;
 	}
 
 }
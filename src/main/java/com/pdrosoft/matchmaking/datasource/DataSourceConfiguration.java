@@ -0,0 +1,59 @@
+package com.pdrosoft.matchmaking.datasource;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primary and replica pools when a replica is configured. The application
+ * data source only takes a connection on the first statement of a
+ * transaction, so read-only transactions get one from the replica and the
+ * rest from the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "stratego.datasource.replica", name = "jdbc-url")
+public class DataSourceConfiguration {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	@ConfigurationProperties("stratego.datasource.replica")
+	public HikariDataSource replicaDataSource() {
+		return DataSourceBuilder.create().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	public ReplicaHealthMonitor replicaHealthMonitor(@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${stratego.datasource.replica-check.lag-query:}") String lagQuery,
+			@Value("${stratego.datasource.replica-check.max-lag:PT5S}") Duration maxLag) {
+		return new ReplicaHealthMonitor(replica, lagQuery, maxLag);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica, ReplicaHealthMonitor replicaHealthMonitor,
+			ReadYourWritesGuard readYourWritesGuard) {
+		var dataSource = new LazyConnectionDataSourceProxy(primary);
+		dataSource.setReadOnlyDataSource(
+				new ReplicaRoutingDataSource(primary, replica, replicaHealthMonitor, readYourWritesGuard));
+		return dataSource;
+	}
+}
@@ -0,0 +1,22 @@
+package com.pdrosoft.matchmaking.datasource;
+
+public interface ReadYourWritesGuard {
+
+	/**
+	 * Game written by the current transaction, or right now when there is none.
+	 * The write counts from the moment the transaction commits.
+	 */
+	void recordWrite(Long gameId);
+
+	/**
+	 * Game about to be read by the current read-only transaction, which then
+	 * reads from the primary database if the game was written too recently for
+	 * a replica to have it.
+	 */
+	void readGame(Long gameId);
+
+	/**
+	 * Whether the current transaction has to read from the primary database.
+	 */
+	boolean isPrimaryRequired();
+}
@@ -0,0 +1,88 @@
+package com.pdrosoft.matchmaking.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pdrosoft.matchmaking.stratego.service.GameUpdatedEvent;
+
+/**
+ * Games written on this node within the last window, so a player reading the
+ * game they just played is not served an older copy by a lagging replica. The
+ * window has to cover the replica lag plus, with write-behind, the delay of the
+ * group commits.
+ */
+@Service
+public class ReadYourWritesGuardImpl implements ReadYourWritesGuard {
+
+	// Writes kept before the ones out of the window are dropped
+	private static final int PRUNE_SIZE = 1024;
+
+	private final long windowMillis;
+	// Time of the last write by game id
+	private final Map<Long, Long> writes = new ConcurrentHashMap<>();
+	// Transaction resource marking the transactions that read from the primary
+	private final Object primaryRequiredKey = new Object();
+
+	@Autowired
+	public ReadYourWritesGuardImpl(@Value("${stratego.datasource.read-your-writes:PT10S}") Duration window) {
+		this.windowMillis = window.toMillis();
+	}
+
+	@Override
+	public void recordWrite(Long gameId) {
+		if (windowMillis <= 0) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					record(gameId, System.currentTimeMillis());
+				}
+			});
+		} else {
+			record(gameId, System.currentTimeMillis());
+		}
+	}
+
+	@EventListener
+	public void onGameUpdated(GameUpdatedEvent event) {
+		recordWrite(event.gameId());
+	}
+
+	private void record(Long gameId, long nowMillis) {
+		writes.put(gameId, nowMillis);
+		if (writes.size() > PRUNE_SIZE) {
+			writes.values().removeIf(time -> time < nowMillis - windowMillis);
+		}
+	}
+
+	@Override
+	public void readGame(Long gameId) {
+		var time = writes.get(gameId);
+		if (time == null || time < System.currentTimeMillis() - windowMillis
+				|| !TransactionSynchronizationManager.isSynchronizationActive() || isPrimaryRequired()) {
+			return;
+		}
+		TransactionSynchronizationManager.bindResource(primaryRequiredKey, Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(primaryRequiredKey);
+			}
+		});
+	}
+
+	@Override
+	public boolean isPrimaryRequired() {
+		return TransactionSynchronizationManager.hasResource(primaryRequiredKey);
+	}
+}
@@ -0,0 +1,70 @@
+package com.pdrosoft.matchmaking.datasource;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Health of the replica database, checked on a schedule. The replica is
+ * healthy while it answers and, when there is a lag query, while it is no
+ * further behind the primary than the maximum lag. The lag query returns the
+ * lag in seconds, and no row or a null lag when replication has stopped.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaHealthMonitor {
+
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+	@NonNull
+	private final DataSource replica;
+	private final String lagQuery;
+	@NonNull
+	private final Duration maxLag;
+
+	private volatile boolean healthy = false;
+
+	public boolean isHealthy() {
+		return healthy;
+	}
+
+	@Scheduled(fixedDelayString = "${stratego.datasource.replica-check.interval:PT5S}")
+	public void check() {
+		var wasHealthy = healthy;
+		healthy = isAvailable();
+		if (wasHealthy && !healthy) {
+			log.warn("The replica database is not available, reading from the primary");
+		} else if (!wasHealthy && healthy) {
+			log.info("Reading from the replica database");
+		}
+	}
+
+	private boolean isAvailable() {
+		try (var connection = replica.getConnection()) {
+			if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+				return false;
+			}
+			if (StringUtils.isBlank(lagQuery)) {
+				return true;
+			}
+			try (var statement = connection.createStatement(); var resultSet = statement.executeQuery(lagQuery)) {
+				if (!resultSet.next()) {
+					return false;
+				}
+				var lagSeconds = resultSet.getLong(1);
+				return !resultSet.wasNull() && lagSeconds <= maxLag.toSeconds();
+			}
+		} catch (SQLException e) {
+			log.debug("Error checking the replica database", e);
+			return false;
+		}
+	}
+}
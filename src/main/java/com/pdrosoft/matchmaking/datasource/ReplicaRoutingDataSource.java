@@ -0,0 +1,37 @@
+package com.pdrosoft.matchmaking.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Connections of the read-only transactions: from the replica while it is
+ * healthy, and from the primary when it is not or when the transaction reads
+ * games written too recently for the replica to have them.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private final ReplicaHealthMonitor monitor;
+	private final ReadYourWritesGuard readYourWritesGuard;
+
+	public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor monitor,
+			ReadYourWritesGuard readYourWritesGuard) {
+		this.monitor = monitor;
+		this.readYourWritesGuard = readYourWritesGuard;
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return monitor.isHealthy() && !readYourWritesGuard.isPrimaryRequired() ? Route.REPLICA : Route.PRIMARY;
+	}
+}
@@ -0,0 +1,32 @@
+package com.pdrosoft.matchmaking.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyEventDTO {
+
+	public enum Type {
+		// Every open game, sent first to a new subscriber
+		SNAPSHOT, //
+		ADDED, //
+		JOINED, //
+		REMOVED, //
+	}
+
+	private Type type;
+
+	// SNAPSHOT
+	private List<GameDTO> games;
+	// ADDED
+	private GameDTO game;
+	// JOINED and REMOVED
+	private Integer gameId;
+}
@@ -2,6 +2,7 @@ package com.pdrosoft.matchmaking.exception;
 
 import java.time.Instant;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -57,6 +58,12 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(body, HttpStatus.FORBIDDEN);
 	}
 
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<ErrorResultDTO> handleConflict(OptimisticLockingFailureException ex) {
+		var body = getErrorObject(ex.getMessage());
+		return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ErrorResultDTO> handleGeneric(Exception ex) {
 		var body = getErrorObject("Internal server error");
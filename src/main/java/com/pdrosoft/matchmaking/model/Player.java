@@ -1,5 +1,7 @@
 package com.pdrosoft.matchmaking.model;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -19,4 +21,9 @@ public class Player {
 	private String userName;
 
 	private String password;
+
+	// Set only on the account of the bot, a player cannot sign up as the bot
+	@Column(name = "is_bot", nullable = false)
+	@ColumnDefault("false")
+	private Boolean isBot = false;
 }
\ No newline at end of file
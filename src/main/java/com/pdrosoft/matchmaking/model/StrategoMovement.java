@@ -1,5 +1,6 @@
 package com.pdrosoft.matchmaking.model;
 
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
 import com.pdrosoft.matchmaking.stratego.enums.Rank;
 
 import jakarta.persistence.Column;
@@ -10,6 +11,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +19,8 @@ import lombok.Data;
 
 @Entity
 @Data
-@Table(name = "stratego_movement")
+@Table(name = "stratego_movement", indexes = { @Index(name = "movement_game_idx", columnList = "game_id, id"),
+		@Index(name = "movement_game_version_idx", columnList = "game_id, state_version") })
 public class StrategoMovement {
 
 	@Id
@@ -34,16 +37,62 @@ public class StrategoMovement {
 	@Column(name = "rank_", nullable = false)
 	@Enumerated(EnumType.STRING)
 	private Rank rank;
-	@Column(name = "row_initial", nullable = false)
-	private int rowInitial;
-	@Column(name = "col_initial", nullable = false)
-	private int colInitial;
-	@Column(name = "row_final", nullable = false)
-	private int rowFinal;
-	@Column(name = "col_final", nullable = false)
-	private int colFinal;
+	// Squares of the movement, from index * 100 + to index, see StrategoBoard#index
+	@Column(name = "move", nullable = false)
+	private short move;
 
+	// Pieces removed, see MovementOutcome. Null on movements stored with a JSON result
+	@Column(name = "outcome")
+	private Short outcome;
+	// JSON list of the pieces removed, only on movements stored before the outcome existed
 	@Column(name = "result")
 	private String result;
 
+	// State version produced by the movement, null on movements played before versions existed
+	@Column(name = "state_version")
+	private Long stateVersion;
+
+	public int getFromIndex() {
+		return move / StrategoBoard.NUM_SQUARES;
+	}
+
+	public int getToIndex() {
+		return move % StrategoBoard.NUM_SQUARES;
+	}
+
+	public void setSquares(int fromIndex, int toIndex) {
+		move = (short) (fromIndex * StrategoBoard.NUM_SQUARES + toIndex);
+	}
+
+	public int getRowInitial() {
+		return getFromIndex() / StrategoBoard.SIZE;
+	}
+
+	public int getColInitial() {
+		return getFromIndex() % StrategoBoard.SIZE;
+	}
+
+	public int getRowFinal() {
+		return getToIndex() / StrategoBoard.SIZE;
+	}
+
+	public int getColFinal() {
+		return getToIndex() % StrategoBoard.SIZE;
+	}
+
+	public void setRowInitial(int row) {
+		setSquares(StrategoBoard.index(row, getColInitial()), getToIndex());
+	}
+
+	public void setColInitial(int col) {
+		setSquares(StrategoBoard.index(getRowInitial(), col), getToIndex());
+	}
+
+	public void setRowFinal(int row) {
+		setSquares(getFromIndex(), StrategoBoard.index(row, getColFinal()));
+	}
+
+	public void setColFinal(int col) {
+		setSquares(getFromIndex(), StrategoBoard.index(getRowFinal(), col));
+	}
 }
@@ -0,0 +1,38 @@
+package com.pdrosoft.matchmaking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "stratego_setup")
+public class StrategoSetup {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "game_id", nullable = false)
+	private Game game;
+
+	@Column(name = "is_host", nullable = false)
+	private Boolean isHost;
+
+	@Column(name = "state_version", nullable = false)
+	private Long stateVersion;
+
+	// Encoded squares of the four rows of the player, in board order
+	@Lob
+	@Column(nullable = false)
+	private byte[] squares;
+}
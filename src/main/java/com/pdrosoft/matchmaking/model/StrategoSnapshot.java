@@ -0,0 +1,40 @@
+package com.pdrosoft.matchmaking.model;
+
+import com.pdrosoft.matchmaking.converter.BoardConverter;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "stratego_snapshot", indexes = @Index(name = "snapshot_game_idx", columnList = "game_id, state_version"))
+public class StrategoSnapshot {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "game_id", nullable = false)
+	private Game game;
+
+	@Column(name = "state_version", nullable = false)
+	private Long stateVersion;
+
+	@Lob
+	@Column(nullable = false)
+	@Convert(converter = BoardConverter.class)
+	private StrategoBoard board;
+}
@@ -1,9 +1,12 @@
 package com.pdrosoft.matchmaking.model;
 
-import java.util.List;
+import java.time.Instant;
+
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.type.descriptor.jdbc.TimestampJdbcType;
 
 import com.pdrosoft.matchmaking.converter.BoardConverter;
-import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
@@ -37,11 +40,29 @@ public class StrategoStatus {
 	@Lob
 	@Column(nullable = false)
 	@Convert(converter = BoardConverter.class)
-	private List<List<BoardTileDTO>> board;
+	private StrategoBoard board;
 	
 	@Column(name = "is_host_initialized",nullable = false)
 	private Boolean isHostInitialized;
 
 	@Column(name = "is_guest_initialized",nullable = false)
 	private Boolean isGuestInitialized;
+
+	// Incremented on every change of the board or the turn
+	@Column(name = "state_version", nullable = false)
+	private Long stateVersion;
+
+	// Zobrist hash of the board and the side to move
+	@Column(name = "position_hash")
+	private Long positionHash;
+
+	// When the player to move, or the players still setting up, run out of time
+	@Column(name = "turn_deadline")
+	@JdbcType(TimestampJdbcType.class)
+	private Instant turnDeadline;
+
+	// Time of the last setup or movement
+	@Column(name = "last_activity")
+	@JdbcType(TimestampJdbcType.class)
+	private Instant lastActivity;
 }
@@ -1,22 +1,91 @@
 package com.pdrosoft.matchmaking.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
 
 public interface GameRepository extends JpaRepository<Game, Long>, JpaSpecificationExecutor<Game> {
-	
-	public default List<Game> getGameList(Instant dateFrom) {
-	    return findAll((root, query, builder) -> {
-	        query.orderBy(builder.desc(root.get("creationDate")));
-	        return builder.and(
-	                builder.isNull(root.get("guest")),
-	                builder.greaterThan(root.get("creationDate"), dateFrom)
-	        );
-	    });
+
+	/**
+	 * Game with its host and guest, loaded in the same query. Every caller turns
+	 * the players into DTOs or compares them, and lazy proxies would cost one
+	 * query each.
+	 */
+	@Override
+	@EntityGraph(attributePaths = { "host", "guest" })
+	Optional<Game> findById(Long id);
+
+	interface TurnDeadline {
+		Integer getGameId();
+
+		GamePhase getPhase();
+
+		Instant getTurnDeadline();
 	}
+
+	/**
+	 * Turn deadlines of the games in {@code phases}, without loading their
+	 * boards. The deadline is null for games that have no status yet.
+	 */
+	@Query("select g.id as gameId, g.phase as phase, s.turnDeadline as turnDeadline from Game g "
+			+ "left join StrategoStatus s on s.game = g where g.phase in :phases")
+	List<TurnDeadline> findTurnDeadlines(Collection<GamePhase> phases);
+
+	/**
+	 * Phase and turn deadline of the game as stored, without loading its board.
+	 */
+	@Query("select g.id as gameId, g.phase as phase, s.turnDeadline as turnDeadline from Game g "
+			+ "left join StrategoStatus s on s.game = g where g.id = :gameId")
+	Optional<TurnDeadline> findTurnDeadline(Integer gameId);
+
+	/**
+	 * Keyset page of the ids after {@code afterId} of the games created before
+	 * {@code inactiveBefore} that are still waiting for a guest or in
+	 * {@code phases}, and have had no setup or movement since then.
+	 */
+	@Query("select g.id from Game g left join StrategoStatus s on s.game = g where g.id > :afterId "
+			+ "and g.creationDate < :inactiveBefore and (g.phase is null or g.phase in :phases) "
+			+ "and (s.lastActivity is null or s.lastActivity < :inactiveBefore) order by g.id")
+	List<Integer> findInactiveIds(Integer afterId, Instant inactiveBefore, Collection<GamePhase> phases,
+			Limit limit);
+
+	/**
+	 * Sets the phase of the game if it is still waiting for a guest or in
+	 * {@code phases}, and has had no setup or movement since
+	 * {@code inactiveBefore}, bypassing the persistence context. Checked in the
+	 * update itself, so a game played on another node meanwhile is left alone.
+	 */
+	@Modifying
+	@Query("update Game g set g.phase = :phase where g.id = :id and (g.phase is null or g.phase in :phases) "
+			+ "and not exists (select s.id from StrategoStatus s where s.game.id = g.id "
+			+ "and s.lastActivity >= :inactiveBefore)")
+	int updatePhaseIfInactive(Integer id, Collection<GamePhase> phases, Instant inactiveBefore, GamePhase phase);
+
+	/**
+	 * Ids of the games in {@code phase} joined by {@code guest} where it is the
+	 * guest's turn.
+	 */
+	@Query("select g.id from Game g join StrategoStatus s on s.game = g where g.guest = :guest "
+			+ "and g.phase = :phase and s.isGuestTurn = true")
+	List<Integer> findIdsOnGuestTurn(Player guest, GamePhase phase);
+
+	/**
+	 * Games without a guest that are not in {@code excludedPhases}, with their
+	 * hosts.
+	 */
+	@Query("select g from Game g left join fetch g.host where g.guest is null "
+			+ "and (g.phase is null or g.phase not in :excludedPhases)")
+	List<Game> findLobbyGames(Collection<GamePhase> excludedPhases);
 }
@@ -1,9 +1,16 @@
 package com.pdrosoft.matchmaking.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.pdrosoft.matchmaking.model.StrategoMovement;
@@ -12,7 +19,45 @@ import com.pdrosoft.matchmaking.model.StrategoMovement;
 public interface StrategoMovementRepository
 		extends JpaRepository<StrategoMovement, Long>, JpaSpecificationExecutor<StrategoMovement> {
 
-	default List<StrategoMovement> findAllByGameId(Long gameId) {
-		return findAll((root, query, cb) -> cb.equal(root.get("game").get("id"), gameId));
+	private static Specification<StrategoMovement> byGameId(Long gameId) {
+		return (root, query, cb) -> cb.equal(root.get("game").get("id"), gameId);
 	}
+
+	/**
+	 * Latest movement of the game, read through the (game_id, id) index.
+	 */
+	default Optional<StrategoMovement> findLastByGameId(Long gameId) {
+		return findBy(byGameId(gameId), query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id")).first());
+	}
+
+	/**
+	 * Movements that produced the state versions after {@code afterVersion} up to
+	 * {@code maxVersion}, in playing order.
+	 */
+	default List<StrategoMovement> findAllByGameId(Long gameId, long afterVersion, long maxVersion) {
+		return findAll((root, query, cb) -> cb.and(cb.equal(root.get("game").get("id"), gameId),
+				cb.greaterThan(root.get("stateVersion"), afterVersion),
+				cb.lessThanOrEqualTo(root.get("stateVersion"), maxVersion)), Sort.by("stateVersion"));
+	}
+
+	/**
+	 * Keyset page: the first {@code limit} movements of the game with an id
+	 * greater than {@code afterId}, in playing order.
+	 */
+	default List<StrategoMovement> findPageByGameId(Long gameId, Integer afterId, int limit) {
+		Specification<StrategoMovement> afterIdSpec = (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+		return findBy(byGameId(gameId).and(afterIdSpec),
+				query -> query.sortBy(Sort.by(Sort.Direction.ASC, "id")).limit(limit).all());
+	}
+
+	/**
+	 * First {@code limit} movement ids of the games in {@code gameIds}, so their
+	 * movements can be deleted in bounded batches.
+	 */
+	@Query("select m.id from StrategoMovement m where m.game.id in :gameIds order by m.id")
+	List<Integer> findIdsByGameIds(Collection<Integer> gameIds, Limit limit);
+
+	@Modifying
+	@Query("delete from StrategoMovement m where m.id in :ids")
+	int deleteByIds(Collection<Integer> ids);
 }
@@ -0,0 +1,27 @@
+package com.pdrosoft.matchmaking.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+
+@Repository
+public interface StrategoSetupRepository
+		extends JpaRepository<StrategoSetup, Long>, JpaSpecificationExecutor<StrategoSetup> {
+
+	default List<StrategoSetup> findAllByGameId(Long gameId, long maxVersion) {
+		return findAll((root, query, cb) -> cb.and(cb.equal(root.get("game").get("id"), gameId),
+				cb.lessThanOrEqualTo(root.get("stateVersion"), maxVersion)), Sort.by("stateVersion"));
+	}
+
+	@Modifying
+	@Query("delete from StrategoSetup s where s.game.id in :gameIds")
+	int deleteByGameIds(Collection<Integer> gameIds);
+}
@@ -0,0 +1,32 @@
+package com.pdrosoft.matchmaking.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+
+@Repository
+public interface StrategoSnapshotRepository
+		extends JpaRepository<StrategoSnapshot, Long>, JpaSpecificationExecutor<StrategoSnapshot> {
+
+	/**
+	 * Latest snapshot of the game taken at {@code maxVersion} or before.
+	 */
+	default Optional<StrategoSnapshot> findLatestByGameId(Long gameId, long maxVersion) {
+		return findBy(
+				(root, query, cb) -> cb.and(cb.equal(root.get("game").get("id"), gameId),
+						cb.lessThanOrEqualTo(root.get("stateVersion"), maxVersion)),
+				query -> query.sortBy(Sort.by(Sort.Direction.DESC, "stateVersion")).first());
+	}
+
+	@Modifying
+	@Query("delete from StrategoSnapshot s where s.game.id in :gameIds")
+	int deleteByGameIds(Collection<Integer> gameIds);
+}
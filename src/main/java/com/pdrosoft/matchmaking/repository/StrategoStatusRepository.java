@@ -1,12 +1,23 @@
 package com.pdrosoft.matchmaking.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.pdrosoft.matchmaking.model.StrategoStatus;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface StrategoStatusRepository
@@ -15,4 +26,33 @@ public interface StrategoStatusRepository
 	default Optional<StrategoStatus> findByGameId(Long gameId) {
 		return findOne((root, query, cb) -> cb.equal(root.get("game").get("id"), gameId));
 	}
+
+	@Query("select s.stateVersion from StrategoStatus s where s.game.id = :gameId")
+	Optional<Long> findStateVersionByGameId(Integer gameId);
+
+	/**
+	 * Moves the stored status from {@code storedVersion} to {@code stateVersion},
+	 * returns 0 when it is no longer at {@code storedVersion}. The row stays
+	 * locked until the transaction ends. Pending changes are not flushed before,
+	 * as the status being written may be managed and already hold its new
+	 * version.
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+	@Query("update StrategoStatus s set s.stateVersion = :stateVersion where s.id = :id "
+			+ "and s.stateVersion = :storedVersion")
+	int updateStateVersion(Integer id, Long storedVersion, Long stateVersion);
+
+	/**
+	 * Keyset page of the ids after {@code afterGameId} of the games created
+	 * before {@code createdBefore} in {@code phases} that still have a status.
+	 */
+	@Query("select s.game.id from StrategoStatus s where s.game.id > :afterGameId "
+			+ "and s.game.creationDate < :createdBefore and s.game.phase in :phases order by s.game.id")
+	List<Integer> findGameIdsInPhases(Integer afterGameId, Instant createdBefore, Collection<GamePhase> phases,
+			Limit limit);
+
+	@Modifying
+	@Query("delete from StrategoStatus s where s.game.id in :gameIds")
+	int deleteByGameIds(Collection<Integer> gameIds);
 }
@@ -9,8 +9,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.pdrosoft.matchmaking.service.MatchmakingUserDetailsService;
+import com.pdrosoft.matchmaking.service.PrincipalCache;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,11 +20,11 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 	private final JwtUtil jwtUtil;
-	private final MatchmakingUserDetailsService matchmakingUserDetailsService;
+	private final PrincipalCache principalCache;
 
-	public JwtAuthFilter(JwtUtil jwtUtil, @Autowired MatchmakingUserDetailsService matchmakingUserDetailsService) {
+	public JwtAuthFilter(JwtUtil jwtUtil, @Autowired PrincipalCache principalCache) {
 		this.jwtUtil = jwtUtil;
-		this.matchmakingUserDetailsService = matchmakingUserDetailsService;
+		this.principalCache = principalCache;
 	}
 
 	@Override
@@ -44,15 +45,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 		}
 
 		String token = authHeader.substring(7);
-		if (jwtUtil.isTokenValid(token)) {
-			String username = jwtUtil.extractUsername(token);
-
-			var user = matchmakingUserDetailsService.loadUserByUsername(username);
+		jwtUtil.verify(token).map(Claims::getSubject).ifPresent(username -> {
+			var user = principalCache.getPrincipal(username);
 			var auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
 			auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
 			SecurityContextHolder.getContext().setAuthentication(auth);
-		}
+		});
 
 		filterChain.doFilter(request, response);
 	}
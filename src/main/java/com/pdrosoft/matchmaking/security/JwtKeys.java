@@ -0,0 +1,109 @@
+package com.pdrosoft.matchmaking.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * HMAC keys of the tokens by key id, shared by every node so a token issued by
+ * one is accepted by all the others and survives restarts. Keys come from
+ * {@code stratego.jwt.keys}, as {@code kid:base64-secret} pairs, and from the
+ * secret key entries of a PKCS12 keystore, by alias.
+ * <p>
+ * Every key verifies, only the signing key signs. A key is rotated by adding
+ * the new key to every node, then making it the signing key, and removing the
+ * old one once the tokens it signed have expired.
+ */
+@Slf4j
+@Component
+public class JwtKeys {
+
+	private static final String LOCAL_KEY_ID = "local";
+
+	private final Map<String, Key> keys;
+	private final String signingKeyId;
+
+	@Autowired
+	public JwtKeys(@Value("${stratego.jwt.keys:}") String keys,
+			@Value("${stratego.jwt.signing-key-id:}") String signingKeyId,
+			@Value("${stratego.jwt.keystore:#{null}}") Resource keystore,
+			@Value("${stratego.jwt.keystore-password:}") String keystorePassword) {
+		var loadedKeys = new LinkedHashMap<String, Key>();
+		for (var pair : StringUtils.split(keys, ',')) {
+			var kid = StringUtils.trimToEmpty(StringUtils.substringBefore(pair, ':'));
+			var secret = StringUtils.trimToEmpty(StringUtils.substringAfter(pair, ':'));
+			if (kid.isEmpty() || secret.isEmpty()) {
+				throw new IllegalStateException("JWT keys must be kid:base64-secret pairs");
+			}
+			loadedKeys.put(kid, toKey(kid, Base64.getDecoder().decode(secret)));
+		}
+		if (keystore != null) {
+			loadedKeys.putAll(loadKeystore(keystore, keystorePassword.toCharArray()));
+		}
+
+		if (loadedKeys.isEmpty()) {
+			log.warn("No JWT keys configured, tokens are only valid on this node until it stops");
+			loadedKeys.put(LOCAL_KEY_ID, Keys.secretKeyFor(SignatureAlgorithm.HS256));
+		}
+		this.keys = Collections.unmodifiableMap(loadedKeys);
+		this.signingKeyId = StringUtils.isEmpty(signingKeyId) ? loadedKeys.keySet().iterator().next() : signingKeyId;
+		if (!this.keys.containsKey(this.signingKeyId)) {
+			throw new IllegalStateException("There is no JWT key %s to sign with".formatted(this.signingKeyId));
+		}
+	}
+
+	private static Key toKey(String kid, byte[] secret) {
+		try {
+			return Keys.hmacShaKeyFor(secret);
+		} catch (WeakKeyException e) {
+			throw new IllegalStateException("The JWT key %s is shorter than 256 bits".formatted(kid), e);
+		}
+	}
+
+	private static Map<String, Key> loadKeystore(Resource resource, char[] password) {
+		var loadedKeys = new LinkedHashMap<String, Key>();
+		try (var stream = resource.getInputStream()) {
+			var keystore = KeyStore.getInstance("PKCS12");
+			keystore.load(stream, password);
+			for (var alias : Collections.list(keystore.aliases())) {
+				if (keystore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+					loadedKeys.put(alias, toKey(alias, keystore.getKey(alias, password).getEncoded()));
+				}
+			}
+		} catch (IOException | GeneralSecurityException e) {
+			throw new IllegalStateException("Error reading the JWT keystore %s".formatted(resource), e);
+		}
+		return loadedKeys;
+	}
+
+	public String getSigningKeyId() {
+		return signingKeyId;
+	}
+
+	public Key getSigningKey() {
+		return keys.get(signingKeyId);
+	}
+
+	/**
+	 * Key with id {@code kid}, or null when there is none.
+	 */
+	public Key getKey(String kid) {
+		return kid == null ? null : keys.get(kid);
+	}
+}
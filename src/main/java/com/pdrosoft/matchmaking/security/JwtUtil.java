@@ -1,41 +1,128 @@
 package com.pdrosoft.matchmaking.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 
+/**
+ * Issues and verifies the session tokens, signed with the {@link JwtKeys}
+ * named by their {@code kid} header. Verified tokens are remembered by
+ * digest until they expire, in a small LRU, so the requests and handshakes of
+ * a session only check the signature of its token once.
+ */
 @Component
 public class JwtUtil {
 
-	private final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+
     private final long EXPIRATION_MS = 3600000; // 1 hour
 
+    private final JwtKeys jwtKeys;
+    // Immutable and thread safe, shared by all the verifications
+    private final JwtParser parser;
+    private final Map<String, VerifiedToken> verifiedTokens;
+
+    @Autowired
+    public JwtUtil(JwtKeys jwtKeys, @Value("${stratego.jwt.verified-cache-size:4096}") int verifiedCacheSize) {
+        this.jwtKeys = jwtKeys;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @SuppressWarnings("rawtypes")
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                var key = jwtKeys.getKey(header.getKeyId());
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown JWT key %s".formatted(header.getKeyId()));
+                }
+                return key;
+            }
+        }).build();
+        // Access ordered, the least recently used token goes first
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > verifiedCacheSize;
+            }
+        };
+    }
+
     public String generateToken(String username) {
         return Jwts.builder()
+            .setHeaderParam(JwsHeader.KEY_ID, jwtKeys.getSigningKeyId())
             .setSubject(username)
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
-            .signWith(SECRET_KEY)
+            .signWith(jwtKeys.getSigningKey())
             .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(SECRET_KEY).build()
-            .parseClaimsJws(token).getBody().getSubject();
+    /**
+     * Claims of {@code token} when it is signed by this application and has not
+     * expired. The claims may be shared by several calls and must not be
+     * changed.
+     */
+    public Optional<Claims> verify(String token) {
+        return verify(token, System.currentTimeMillis());
+    }
+
+    Optional<Claims> verify(String token, long nowMillis) {
+        // Only digests are kept, a heap dump does not give away live tokens
+        var digest = digest(token);
+        synchronized (verifiedTokens) {
+            var verified = verifiedTokens.get(digest);
+            if (verified != null && nowMillis < verified.expiresAt()) {
+                return Optional.of(verified.claims());
+            }
+            verifiedTokens.remove(digest);
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        // Tokens without expiration are not issued here, they are verified every time
+        if (claims.getExpiration() != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(digest, new VerifiedToken(claims, claims.getExpiration().getTime()));
+            }
+        }
+        return Optional.of(claims);
     }
 
-    public boolean isTokenValid(String token) {
+    private static String digest(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(SECRET_KEY).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            var sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    int getVerifiedCount() {
+        synchronized (verifiedTokens) {
+            return verifiedTokens.size();
         }
     }
 }
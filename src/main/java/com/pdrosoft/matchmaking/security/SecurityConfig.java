@@ -88,6 +88,7 @@ public class SecurityConfig {
 						.permitAll() // Swagger
 						.requestMatchers("/ws", "/ws/**").permitAll() // chat websocket
 						.requestMatchers("/wsn", "/wsn/**").permitAll() // notification websocket
+						.requestMatchers("/wsl", "/wsl/**").permitAll() // lobby websocket
 						.anyRequest().authenticated() //
 				).addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
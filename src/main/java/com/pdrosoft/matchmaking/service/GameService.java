@@ -9,7 +9,7 @@ import com.pdrosoft.matchmaking.dto.GameInputDTO;
 import com.pdrosoft.matchmaking.model.Player;
 
 public interface GameService {
-	List<GameDTO> getGameList(Instant dateFrom);
+	List<GameDTO> getGameList(Instant dateFrom, Instant beforeDate, Integer beforeId, Integer limit);
 
 	GameDTO addGame(Player host, GameInputDTO gameInputDto);
 
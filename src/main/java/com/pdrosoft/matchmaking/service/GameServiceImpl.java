@@ -8,7 +8,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.pdrosoft.matchmaking.datasource.ReadYourWritesGuard;
 import com.pdrosoft.matchmaking.dto.GameDTO;
 import com.pdrosoft.matchmaking.dto.GameExtendedDTO;
 import com.pdrosoft.matchmaking.dto.GameInputDTO;
@@ -19,6 +22,9 @@ import com.pdrosoft.matchmaking.model.Game;
 import com.pdrosoft.matchmaking.model.Player;
 import com.pdrosoft.matchmaking.repository.GameRepository;
 import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.pdrosoft.matchmaking.stratego.service.ActiveGameCache;
+import com.pdrosoft.matchmaking.stratego.service.GameExecutor;
+import com.pdrosoft.matchmaking.stratego.service.TurnClockService;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -27,8 +33,21 @@ import lombok.RequiredArgsConstructor;
 @Service
 public class GameServiceImpl implements GameService {
 
+	private static final int DEFAULT_GAMES_LIMIT = 50;
+	private static final int MAX_GAMES_LIMIT = 200;
+
 	@NonNull
 	private final GameRepository gameRepository;
+	@NonNull
+	private final ActiveGameCache activeGameCache;
+	@NonNull
+	private final GameExecutor gameExecutor;
+	@NonNull
+	private final TurnClockService turnClockService;
+	@NonNull
+	private final LobbyIndex lobbyIndex;
+	@NonNull
+	private final ReadYourWritesGuard readYourWritesGuard;
 
 	private PlayerDTO toPlayerDTO(Player player) {
 		return Optional.ofNullable(player).map(x -> PlayerDTO.builder() //
@@ -61,9 +80,13 @@ public class GameServiceImpl implements GameService {
 	}
 
 	@Override
-	@Transactional(readOnly = true)
-	public List<GameDTO> getGameList(Instant dateFrom) {
-		return gameRepository.getGameList(dateFrom).stream().map(this::toGameDTO).toList();
+	public List<GameDTO> getGameList(Instant dateFrom, Instant beforeDate, Integer beforeId, Integer limit) {
+		var pageSize = Optional.ofNullable(limit).orElse(DEFAULT_GAMES_LIMIT);
+		if (pageSize < 1 || pageSize > MAX_GAMES_LIMIT) {
+			throw new MatchmakingValidationException("The limit must be between 1 and %d".formatted(MAX_GAMES_LIMIT));
+		}
+
+		return lobbyIndex.getGames(dateFrom, beforeDate, beforeId, pageSize);
 	}
 
 	private String getDefaultGameDescription(Player host) {
@@ -80,24 +103,66 @@ public class GameServiceImpl implements GameService {
 		game.setJoinCode(gameInputDto.getJoinCode());
 		game.setHost(host);
 
-		return Optional.of(gameRepository.save(game)).map(this::toGameDTO).orElseThrow();
+		var gameDto = Optional.of(gameRepository.save(game)).map(this::toGameDTO).orElseThrow();
+		lobbyIndex.add(gameDto);
+		readYourWritesGuard.recordWrite(gameDto.getId().longValue());
+		return gameDto;
 	}
 
 	private Optional<Game> loadGame(Long gameId) {
 		return gameRepository.findById(gameId);
 	}
 
+	/**
+	 * Runs {@code action} with the game locked once the current transaction
+	 * commits, so a rolled back change does not touch the turn clock.
+	 */
+	private void afterCommit(Long gameId, Runnable action) {
+		Runnable afterCommitAction = () -> gameExecutor.execute(gameId, () -> {
+			action.run();
+			return null;
+		});
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			afterCommitAction.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				afterCommitAction.run();
+			}
+		});
+	}
+
 	@Override
-	@Transactional(rollbackFor = Exception.class)
 	public GameExtendedDTO joinGame(Player guest, Long gameId) {
+		// The phase changes outside the game engine. The cached copy is dropped and
+		// the game stays locked until the change commits, so no request caches it
+		// in between
+		return gameExecutor.executeInTransaction(gameId, () -> doJoinGame(guest, gameId));
+	}
+
+	private GameExtendedDTO doJoinGame(Player guest, Long gameId) {
+		activeGameCache.evict(gameId);
+		readYourWritesGuard.recordWrite(gameId);
 		var game = loadGame(gameId)
 				.orElseThrow(() -> new NotFoundException("Game %d does not exist".formatted(gameId)));
 		if (game.getHost().equals(guest)) {
 			throw new MatchmakingValidationException("In a game, the host and the guest cannot be the same user");
 		}
+		if (game.getGuest() != null) {
+			throw new MatchmakingValidationException("The game already has a guest");
+		}
+		if (game.getPhase() != null && !GamePhase.WAITING_FOR_SETUP_2_PLAYERS.equals(game.getPhase())) {
+			throw new MatchmakingValidationException("The game cannot be joined anymore");
+		}
 
 		game.setGuest(guest);
 		game.setPhase(GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
+		lobbyIndex.join(game.getId());
+		// The game has no status until the first setup, this deadline is only kept in memory
+		var deadline = turnClockService.getDeadline(game.getPhase());
+		afterCommit(gameId, () -> turnClockService.schedule(gameId, deadline));
 
 		return Optional.ofNullable(gameRepository.save(game)).map(this::toGameExtendedDTO) //
 				.orElseThrow(() -> new MatchmakingValidationException("Error saving game"));
@@ -106,19 +171,27 @@ public class GameServiceImpl implements GameService {
 	@Override
 	@Transactional(readOnly = true)
 	public GameExtendedDTO getGame(Player guest, Long gameId) {
+		readYourWritesGuard.readGame(gameId);
 		return loadGame(gameId).map(this::toGameExtendedDTO)
 				.orElseThrow(() -> new NotFoundException("Game %d does not exist".formatted(gameId)));
 	}
 
 	@Override
-	@Transactional(rollbackFor = Exception.class)
 	public GameDTO leaveGame(Player player, Long gameId) {
+		return gameExecutor.executeInTransaction(gameId, () -> doLeaveGame(player, gameId));
+	}
+
+	private GameDTO doLeaveGame(Player player, Long gameId) {
+		activeGameCache.evict(gameId);
+		readYourWritesGuard.recordWrite(gameId);
 		return loadGame(gameId).map(game -> {
 
 			if (player.equals(game.getHost())) {
 				// gameRepository.delete(game);
 				game.setHost(null);
 				game.setPhase(GamePhase.ABORTED);
+				afterCommit(gameId, () -> turnClockService.cancel(gameId));
+				lobbyIndex.remove(game.getId());
 				return Optional.ofNullable(gameRepository.save(game)).map(this::toGameDTO) //
 						.orElseThrow(() -> new MatchmakingValidationException("Error saving game"));
 			}
@@ -126,6 +199,8 @@ public class GameServiceImpl implements GameService {
 			if (player.equals(game.getGuest())) {
 				game.setGuest(null);
 				game.setPhase(GamePhase.ABORTED);
+				afterCommit(gameId, () -> turnClockService.cancel(gameId));
+				lobbyIndex.remove(game.getId());
 				return Optional.ofNullable(gameRepository.save(game)).map(this::toGameDTO) //
 						.orElseThrow(() -> new MatchmakingValidationException("Error saving game"));
 
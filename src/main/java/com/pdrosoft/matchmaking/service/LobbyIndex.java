@@ -0,0 +1,44 @@
+package com.pdrosoft.matchmaking.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.pdrosoft.matchmaking.dto.GameDTO;
+import com.pdrosoft.matchmaking.dto.LobbyEventDTO;
+
+public interface LobbyIndex {
+
+	/**
+	 * Keyset page of the games waiting for a guest created after
+	 * {@code dateFrom}, newest first. The page starts after the game created at
+	 * {@code beforeDate} with id {@code beforeId}, usually the last one of the
+	 * previous page, or with the newest game when {@code beforeDate} is null.
+	 */
+	List<GameDTO> getGames(Instant dateFrom, Instant beforeDate, Integer beforeId, int limit);
+
+	/**
+	 * Calls {@code action} with the first page of
+	 * {@link #getGames(Instant, Instant, Integer, int)} while no change can be
+	 * applied. Changes are published in order as {@link LobbyEventDTO}
+	 * application events, so a subscriber registered by {@code action} misses
+	 * none of them.
+	 */
+	void withGames(Instant dateFrom, int limit, Consumer<List<GameDTO>> action);
+
+	/**
+	 * New game waiting for a guest, listed when the current transaction commits.
+	 */
+	void add(GameDTO game);
+
+	/**
+	 * Game that has got a guest, dropped when the current transaction commits.
+	 */
+	void join(Integer gameId);
+
+	/**
+	 * Game that no longer waits for a guest for any other reason, dropped when
+	 * the current transaction commits.
+	 */
+	void remove(Integer gameId);
+}
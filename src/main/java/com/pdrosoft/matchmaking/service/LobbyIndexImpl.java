@@ -0,0 +1,259 @@
+package com.pdrosoft.matchmaking.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pdrosoft.matchmaking.dto.GameDTO;
+import com.pdrosoft.matchmaking.dto.LobbyEventDTO;
+import com.pdrosoft.matchmaking.dto.PlayerDTO;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Games waiting for a guest, newest first, so the lobby is listed without
+ * querying the database. The index is filled from the database on first use
+ * and then follows the games created, joined and left on this node. With
+ * several nodes, the changes made on the others are only picked up when the
+ * index is refreshed from the primary database, every
+ * {@code stratego.lobby.refresh-interval}.
+ * <p>
+ * Reads do not lock. Changes are serialized and applied after their
+ * transaction commits, and they are idempotent, so a change committed while
+ * the index is being filled is not lost. Every change that alters the index is
+ * published as a {@link LobbyEventDTO} while the changes are still serialized,
+ * so listeners get them in order. Listeners run with the index locked and
+ * must hand the events off instead of blocking.
+ */
+@Slf4j
+@RequiredArgsConstructor(onConstructor_ = { @Autowired })
+@Service
+public class LobbyIndexImpl implements LobbyIndex {
+
+	private record LobbyKey(Instant creationDate, Integer id) {
+	}
+
+	private static final Comparator<LobbyKey> NEWEST_FIRST = Comparator.comparing(LobbyKey::creationDate)
+			.thenComparing(LobbyKey::id).reversed();
+
+	@NonNull
+	private final GameRepository gameRepository;
+	@NonNull
+	private final ApplicationEventPublisher eventPublisher;
+	@NonNull
+	private final PlatformTransactionManager transactionManager;
+
+	private final ConcurrentSkipListMap<LobbyKey, GameDTO> games = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+	// Guarded by itself, as are all the changes of the index
+	private final Map<Integer, LobbyKey> keys = new HashMap<>();
+	private volatile boolean loaded = false;
+	// Games changed on this node while a refresh reads the database, which may
+	// not see their change yet. Guarded by keys.
+	private final Set<Integer> changedDuringRefresh = new HashSet<>();
+	private boolean refreshing = false;
+
+	private PlayerDTO toPlayerDTO(Player player) {
+		return Optional.ofNullable(player).map(x -> PlayerDTO.builder() //
+				.id(player.getId()) //
+				.username(player.getUserName()) //
+				.build()).orElse(null);
+	}
+
+	private GameDTO toGameDTO(Game game) {
+		return GameDTO.builder() //
+				.id(game.getId()) //
+				.creationDate(game.getCreationDate()) //
+				.name(game.getName()) //
+				.host(toPlayerDTO(game.getHost())) //
+				.phase(Optional.ofNullable(game.getPhase()).orElse(GamePhase.WAITING_FOR_SETUP_2_PLAYERS)) //
+				.build();
+	}
+
+	/**
+	 * Reads the lobby from the primary database: a lagging replica would list
+	 * games joined before the index follows the changes of this node.
+	 */
+	private List<Game> findLobbyGames() {
+		// Read-write and never joining the read-only transaction of a caller
+		var template = new TransactionTemplate(transactionManager);
+		template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		return template.execute(tx -> gameRepository.findLobbyGames(EnumSet.of(GamePhase.FINISHED, GamePhase.ABORTED)));
+	}
+
+	private void load() {
+		synchronized (keys) {
+			if (loaded) {
+				return;
+			}
+			var lobbyGames = findLobbyGames();
+			lobbyGames.stream().map(this::toGameDTO).forEach(this::put);
+			loaded = true;
+			log.info("Loaded {} games into the lobby", lobbyGames.size());
+		}
+	}
+
+	private boolean put(GameDTO game) {
+		var key = new LobbyKey(game.getCreationDate(), game.getId());
+		keys.put(game.getId(), key);
+		return games.put(key, game) == null;
+	}
+
+	private boolean delete(Integer gameId) {
+		var key = keys.remove(gameId);
+		return key != null && games.remove(key) != null;
+	}
+
+	/**
+	 * Brings in the games added and dropped on other nodes.
+	 */
+	@Scheduled(fixedDelayString = "${stratego.lobby.refresh-interval:PT30S}",
+			initialDelayString = "${stratego.lobby.refresh-interval:PT30S}")
+	public void refresh() {
+		synchronized (keys) {
+			if (!loaded) {
+				return;
+			}
+			refreshing = true;
+		}
+		Map<Integer, GameDTO> lobbyGames;
+		try {
+			lobbyGames = findLobbyGames().stream().map(this::toGameDTO)
+					.collect(Collectors.toMap(GameDTO::getId, Function.identity()));
+		} catch (RuntimeException e) {
+			synchronized (keys) {
+				refreshing = false;
+				changedDuringRefresh.clear();
+			}
+			throw e;
+		}
+
+		synchronized (keys) {
+			for (var gameId : List.copyOf(keys.keySet())) {
+				if (!lobbyGames.containsKey(gameId) && !changedDuringRefresh.contains(gameId) && delete(gameId)) {
+					eventPublisher.publishEvent(
+							LobbyEventDTO.builder().type(LobbyEventDTO.Type.REMOVED).gameId(gameId).build());
+				}
+			}
+			for (var game : lobbyGames.values()) {
+				if (!keys.containsKey(game.getId()) && !changedDuringRefresh.contains(game.getId()) && put(game)) {
+					eventPublisher
+							.publishEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.ADDED).game(game).build());
+				}
+			}
+			refreshing = false;
+			changedDuringRefresh.clear();
+		}
+	}
+
+	@Override
+	public List<GameDTO> getGames(Instant dateFrom, Instant beforeDate, Integer beforeId, int limit) {
+		if (!loaded) {
+			load();
+		}
+		return page(dateFrom, beforeDate, beforeId, limit);
+	}
+
+	private List<GameDTO> page(Instant dateFrom, Instant beforeDate, Integer beforeId, int limit) {
+		var page = beforeDate == null ? games
+				: games.tailMap(new LobbyKey(beforeDate, Optional.ofNullable(beforeId).orElse(Integer.MIN_VALUE)),
+						false);
+		var result = new ArrayList<GameDTO>();
+		for (var game : page.values()) {
+			if (result.size() == limit || !game.getCreationDate().isAfter(dateFrom)) {
+				break;
+			}
+			result.add(game);
+		}
+		return result;
+	}
+
+	@Override
+	public void withGames(Instant dateFrom, int limit, Consumer<List<GameDTO>> action) {
+		if (!loaded) {
+			load();
+		}
+		synchronized (keys) {
+			action.accept(page(dateFrom, null, null, limit));
+		}
+	}
+
+	@Override
+	public void add(GameDTO game) {
+		afterCommit(game.getId(), () -> {
+			if (put(game)) {
+				eventPublisher.publishEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.ADDED).game(game).build());
+			}
+		});
+	}
+
+	@Override
+	public void join(Integer gameId) {
+		afterCommit(gameId, () -> {
+			if (delete(gameId)) {
+				eventPublisher.publishEvent(
+						LobbyEventDTO.builder().type(LobbyEventDTO.Type.JOINED).gameId(gameId).build());
+			}
+		});
+	}
+
+	@Override
+	public void remove(Integer gameId) {
+		afterCommit(gameId, () -> {
+			if (delete(gameId)) {
+				eventPublisher.publishEvent(
+						LobbyEventDTO.builder().type(LobbyEventDTO.Type.REMOVED).gameId(gameId).build());
+			}
+		});
+	}
+
+	private void afterCommit(Integer gameId, Runnable change) {
+		Runnable apply = () -> {
+			synchronized (keys) {
+				// Until the index is filled, the database already has the change
+				if (loaded) {
+					change.run();
+				}
+				if (refreshing) {
+					changedDuringRefresh.add(gameId);
+				}
+			}
+		};
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				apply.run();
+			}
+		});
+	}
+}
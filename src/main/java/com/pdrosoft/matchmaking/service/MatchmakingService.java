@@ -11,7 +11,7 @@ import com.pdrosoft.matchmaking.model.Player;
 
 public interface MatchmakingService {
 
-	List<GameDTO> getGameList(Instant dateFrom);
+	List<GameDTO> getGameList(Instant dateFrom, Instant beforeDate, Integer beforeId, Integer limit);
 
 	PlayerDTO addPlayer(String name, String password);
 
@@ -16,6 +16,7 @@ import com.pdrosoft.matchmaking.dto.PlayerDTO;
 import com.pdrosoft.matchmaking.exception.PlayerExistsException;
 import com.pdrosoft.matchmaking.model.Player;
 import com.pdrosoft.matchmaking.repository.PlayerRepository;
+import com.pdrosoft.matchmaking.stratego.service.BotService;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -30,11 +31,12 @@ public class MatchmakingServiceImpl implements MatchmakingService {
 	private final PlayerRepository playerRepository;
 	@NonNull
 	private final PasswordEncoder passwordEncoder;
+	@NonNull
+	private final BotService botService;
 
 	@Override
-	@Transactional(readOnly = true)
-	public List<GameDTO> getGameList(Instant dateFrom) {
-		return gameService.getGameList(dateFrom);
+	public List<GameDTO> getGameList(Instant dateFrom, Instant beforeDate, Integer beforeId, Integer limit) {
+		return gameService.getGameList(dateFrom, beforeDate, beforeId, limit);
 	}
 
 	private PlayerDTO toPlayerDTO(Player player) {
@@ -47,7 +49,7 @@ public class MatchmakingServiceImpl implements MatchmakingService {
 	public PlayerDTO addPlayer(String name, String password) {
 		var playerOpt = playerRepository.findPlayersByName(name);
 
-		if (playerOpt.isPresent()) {
+		if (playerOpt.isPresent() || botService.isBotName(name)) {
 			throw new PlayerExistsException("player already exists '%s'".formatted(name));
 		}
 
@@ -65,13 +67,11 @@ public class MatchmakingServiceImpl implements MatchmakingService {
 	}
 
 	@Override
-	@Transactional(rollbackFor = Exception.class)
 	public GameExtendedDTO joinGame(Player guest, Long gameId) {
 		return gameService.joinGame(guest, gameId);
 	}
 
 	@Override
-	@Transactional(rollbackFor = Exception.class)
 	public GameDTO leaveGame(Player player, Long gameId) {
 		return gameService.leaveGame(player, gameId);
 	}
@@ -0,0 +1,22 @@
+package com.pdrosoft.matchmaking.service;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.pdrosoft.matchmaking.model.Player;
+
+public interface PrincipalCache {
+
+	/**
+	 * Principal of {@code username}, loaded by the
+	 * {@link MatchmakingUserDetailsService} when it is not cached or has expired.
+	 */
+	UserDetails getPrincipal(String username) throws UsernameNotFoundException;
+
+	/**
+	 * Drops the principal of a player that has changed, now and again once the
+	 * current transaction commits. Players cannot be changed yet, so nothing
+	 * calls it and cached principals only go stale for the cache ttl.
+	 */
+	void invalidate(Player player);
+}
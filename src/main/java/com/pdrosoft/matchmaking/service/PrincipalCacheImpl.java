@@ -0,0 +1,149 @@
+package com.pdrosoft.matchmaking.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.security.payload.MatchmakingUserDetails;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+
+/**
+ * Principals of the players that sent an authenticated request lately, so the
+ * JWT filter does not query the player table on every request. The cache is
+ * bounded, least recently used principals go first, and every principal is
+ * loaded again after the time to live, which bounds how long a change made on
+ * another node goes unseen.
+ */
+@Service
+public class PrincipalCacheImpl implements PrincipalCache {
+
+	private record Entry(UserDetails principal, Integer playerId, long loadedAt) {
+	}
+
+	@NonNull
+	private final MatchmakingUserDetailsService userDetailsService;
+
+	private final int maxSize;
+	private final long ttlMillis;
+
+	// Access ordered by username, so the first entry is the least recently used
+	private final LinkedHashMap<String, Entry> principals = new LinkedHashMap<>(16, 0.75f, true);
+	// Username of every cached player id, guarded by principals
+	private final Map<Integer, String> usernames = new HashMap<>();
+
+	private final Counter hits;
+	private final Counter misses;
+
+	@Autowired
+	public PrincipalCacheImpl(@NonNull MatchmakingUserDetailsService userDetailsService,
+			@NonNull MeterRegistry meterRegistry,
+			@Value("${stratego.auth.principal-cache.max-size:10000}") int maxSize,
+			@Value("${stratego.auth.principal-cache.ttl:PT5M}") Duration ttl) {
+		this.userDetailsService = userDetailsService;
+		this.maxSize = maxSize;
+		this.ttlMillis = ttl.toMillis();
+
+		this.hits = Counter.builder("stratego.auth.principal.cache").tag("result", "hit")
+				.description("Principals found in the cache").register(meterRegistry);
+		this.misses = Counter.builder("stratego.auth.principal.cache").tag("result", "miss")
+				.description("Principals loaded from the database").register(meterRegistry);
+		Gauge.builder("stratego.auth.principal.cache.size", this, PrincipalCacheImpl::size)
+				.description("Principals in the cache").register(meterRegistry);
+	}
+
+	@Override
+	public UserDetails getPrincipal(String username) {
+		return getPrincipal(username, System.currentTimeMillis());
+	}
+
+	UserDetails getPrincipal(String username, long nowMillis) {
+		if (ttlMillis <= 0 || maxSize <= 0) {
+			misses.increment();
+			return userDetailsService.loadUserByUsername(username);
+		}
+
+		synchronized (principals) {
+			var entry = principals.get(username);
+			if (entry != null && nowMillis - entry.loadedAt() < ttlMillis) {
+				hits.increment();
+				return entry.principal();
+			}
+		}
+
+		misses.increment();
+		// Loaded without the lock, a concurrent load of the same player only wastes a query
+		var principal = userDetailsService.loadUserByUsername(username);
+		var playerId = principal instanceof MatchmakingUserDetails details && details.getPlayer() != null
+				? details.getPlayer().getId()
+				: null;
+		synchronized (principals) {
+			remove(username);
+			principals.put(username, new Entry(principal, playerId, nowMillis));
+			if (playerId != null) {
+				usernames.put(playerId, username);
+			}
+			var iterator = principals.entrySet().iterator();
+			while (principals.size() > maxSize && iterator.hasNext()) {
+				var eldest = iterator.next();
+				iterator.remove();
+				removePlayerId(eldest.getValue());
+			}
+		}
+		return principal;
+	}
+
+	private void remove(String username) {
+		if (username != null) {
+			removePlayerId(principals.remove(username));
+		}
+	}
+
+	private void removePlayerId(Entry entry) {
+		if (entry != null && entry.playerId() != null) {
+			usernames.remove(entry.playerId());
+		}
+	}
+
+	@Override
+	public void invalidate(Player player) {
+		evict(player);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			// A request may load the old player before the change commits
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(player);
+				}
+			});
+		}
+	}
+
+	private void evict(Player player) {
+		synchronized (principals) {
+			// The username may be the one that changed
+			if (player.getId() != null) {
+				remove(usernames.get(player.getId()));
+			}
+			remove(player.getUserName());
+		}
+	}
+
+	int size() {
+		synchronized (principals) {
+			return principals.size();
+		}
+	}
+}
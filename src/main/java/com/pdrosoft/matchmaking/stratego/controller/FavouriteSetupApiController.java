@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.pdrosoft.matchmaking.security.payload.MatchmakingUserDetails;
+import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
 import com.pdrosoft.matchmaking.stratego.dto.FavouriteSetupDTO;
 import com.pdrosoft.matchmaking.stratego.dto.FavouriteSetupInputDTO;
 import com.pdrosoft.matchmaking.stratego.service.FavouriteSetupService;
@@ -98,4 +99,14 @@ public class FavouriteSetupApiController {
 		return favouriteSetupService.deleteSetup(setupId, userDetails.getPlayer());
 	}
 
+	@Operation(summary = "Validate setups", description = "Validate a batch of setups, one result per setup")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Setups validated", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Boolean.class)))), //
+			@ApiResponse(responseCode = "400", description = "Too many setups", content = @Content(schema = @Schema())) //
+	})
+	@PutMapping(path = "/setup/validate", produces = { "application/json" })
+	public List<Boolean> validateSetups(@RequestBody List<ArmySetupDTO> setups) {
+		return favouriteSetupService.validateSetups(setups);
+	}
+
 }
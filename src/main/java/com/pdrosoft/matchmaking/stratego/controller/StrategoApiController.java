@@ -1,21 +1,31 @@
 package com.pdrosoft.matchmaking.stratego.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.pdrosoft.matchmaking.dto.GameExtendedDTO;
 import com.pdrosoft.matchmaking.security.payload.MatchmakingUserDetails;
 import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
+import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
 import com.pdrosoft.matchmaking.stratego.dto.GameStateDTO;
 import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
+import com.pdrosoft.matchmaking.stratego.service.BotService;
 import com.pdrosoft.matchmaking.stratego.service.StrategoService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -33,9 +43,12 @@ public class StrategoApiController {
 
 	@NonNull
 	private final StrategoService strategoService;
+	@NonNull
+	private final BotService botService;
 
-	public StrategoApiController(@Autowired StrategoService strategoService) {
+	public StrategoApiController(@Autowired StrategoService strategoService, @Autowired BotService botService) {
 		this.strategoService = strategoService;
+		this.botService = botService;
 	}
 
 	@Operation(summary = "Add player setup", description = "Add player setup")
@@ -51,6 +64,18 @@ public class StrategoApiController {
 		return strategoService.addSetup(gameId, userDetails.getPlayer(), setupDto);
 	}
 
+	@Operation(summary = "Add bot", description = "Add a bot as the guest of the game. Only the host can add it")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Bot added successfully", content = @Content(schema = @Schema(implementation = GameExtendedDTO.class))), //
+			@ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema())), //
+			@ApiResponse(responseCode = "404", description = "invalid credentials", content = @Content(schema = @Schema())) //
+	})
+	@PutMapping(path = "/bot", produces = { "application/json" })
+	public GameExtendedDTO addBot(@AuthenticationPrincipal MatchmakingUserDetails userDetails,
+			@PathVariable("gameId") Long gameId) {
+		return botService.addBot(userDetails.getPlayer(), gameId);
+	}
+
 	@Operation(summary = "Add movement", description = "Add movement")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Movement added successfully", content = @Content(schema = @Schema(implementation = GameStateDTO.class))), //
@@ -63,16 +88,53 @@ public class StrategoApiController {
 		return strategoService.addMovement(gameId, userDetails.getPlayer(), movementDto);
 	}
 
-	@Operation(summary = "Get status", description = "Get status")
+	@Operation(summary = "Get status", description = "Get status. With sinceVersion, only the squares changed since that version are returned when possible")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Game status found", content = @Content(schema = @Schema(implementation = GameStateDTO.class))), //
+			@ApiResponse(responseCode = "304", description = "Game status not modified", content = @Content(schema = @Schema())), //
 			@ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema())), //
 			@ApiResponse(responseCode = "404", description = "invalid credentials", content = @Content(schema = @Schema())) //
 	})
 	@GetMapping(path = "/status", produces = { "application/json" })
-	public GameStateDTO getStatus(@AuthenticationPrincipal MatchmakingUserDetails userDetails,
-			@PathVariable("gameId") Long gameId) {
-		return strategoService.getStatus(gameId, userDetails.getPlayer());
+	public ResponseEntity<byte[]> getStatus(@AuthenticationPrincipal MatchmakingUserDetails userDetails,
+			@PathVariable("gameId") Long gameId,
+			@RequestParam(name = "sinceVersion", required = false) Long sinceVersion, WebRequest webRequest) {
+		var gameState = strategoService.getSerializedStatus(gameId, userDetails.getPlayer(), sinceVersion);
+
+		// The response depends on the viewer and on the version it is a delta from, and the phase may change
+		// without a new version
+		var representation = sinceVersion == null ? "full" : "since-%d".formatted(sinceVersion);
+		var etag = "\"%d-%d-%s-%s\"".formatted(gameState.version(), gameState.playerId(), gameState.phase(),
+				representation);
+		if (webRequest.checkNotModified(etag)) {
+			return null;
+		}
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(gameState.json());
+	}
+
+	@Operation(summary = "Get board at version", description = "Get the board as it was at a state version, rebuilt from the game log")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Board rebuilt", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BoardTileDTO.class)))), //
+			@ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema())), //
+			@ApiResponse(responseCode = "404", description = "invalid credentials", content = @Content(schema = @Schema())) //
+	})
+	@GetMapping(path = "/board", produces = { "application/json" })
+	public List<List<BoardTileDTO>> getBoard(@AuthenticationPrincipal MatchmakingUserDetails userDetails,
+			@PathVariable("gameId") Long gameId, @RequestParam(name = "version") Long version) {
+		return strategoService.getBoard(gameId, userDetails.getPlayer(), version);
+	}
+
+	@Operation(summary = "Get movements", description = "Get the movements played after the one with id afterId, oldest first")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Movements found", content = @Content(array = @ArraySchema(schema = @Schema(implementation = StrategoMovementDTO.class)))), //
+			@ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(schema = @Schema())), //
+			@ApiResponse(responseCode = "404", description = "invalid credentials", content = @Content(schema = @Schema())) //
+	})
+	@GetMapping(path = "/movements", produces = { "application/json" })
+	public List<StrategoMovementDTO> getMovements(@AuthenticationPrincipal MatchmakingUserDetails userDetails,
+			@PathVariable("gameId") Long gameId, @RequestParam(name = "afterId", required = false) Integer afterId,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		return strategoService.getMovements(gameId, userDetails.getPlayer(), afterId, limit);
 	}
 
 }
@@ -0,0 +1,21 @@
+package com.pdrosoft.matchmaking.stratego.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BoardChangeDTO implements Serializable {
+	private static final long serialVersionUID = 4127953392817045377L;
+
+	private int row;
+	private int col;
+	// null when the square is now empty
+	private BoardTileDTO tile;
+}
@@ -1,6 +1,7 @@
 package com.pdrosoft.matchmaking.stratego.dto;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.List;
 
 import com.pdrosoft.matchmaking.dto.PlayerDTO;
@@ -27,7 +28,13 @@ public class GameStateDTO implements Serializable {
 	private StrategoMovementDTO movement;
 	private GamePhase phase;
 
+	private Long version;
+
 	private List<List<BoardTileDTO>> board;
-	
+	// Delta mode: squares changed since the version sent by the client, instead of the board
+	private List<BoardChangeDTO> changes;
+	// When the player to move, or the players still setting up, run out of time
+	private Instant turnDeadline;
+
 	private boolean isMyTurn;
 }
@@ -18,6 +18,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class StrategoMovementDTO {
 
+	// Only set on stored movements
+	private Integer id;
+
 	@NotNull
 	private Rank rank;
 
@@ -0,0 +1,82 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+/**
+ * Squares changed by the last state versions of a board. Every version keeps a
+ * 100 bit mask of its changed squares in two longs, so the squares changed
+ * since any logged version are the union of a few masks.
+ */
+public final class BoardChangeLog {
+
+	private final long[] versions;
+	private final long[] lowMasks;
+	private final long[] highMasks;
+
+	private int size = 0;
+	private int next = 0;
+
+	public BoardChangeLog(int capacity) {
+		versions = new long[capacity];
+		lowMasks = new long[capacity];
+		highMasks = new long[capacity];
+	}
+
+	/**
+	 * Records the squares changed by {@code version}, which must be the version
+	 * after the last one recorded.
+	 */
+	public void record(long version, int... indices) {
+		var low = 0L;
+		var high = 0L;
+		for (var index : indices) {
+			if (index < Long.SIZE) {
+				low |= 1L << index;
+			} else {
+				high |= 1L << (index - Long.SIZE);
+			}
+		}
+
+		versions[next] = version;
+		lowMasks[next] = low;
+		highMasks[next] = high;
+		next = (next + 1) % versions.length;
+		size = Math.min(size + 1, versions.length);
+	}
+
+	/**
+	 * Indices of the squares changed after {@code sinceVersion} up to
+	 * {@code currentVersion}, in board order, or {@code null} when the log does
+	 * not go back that far.
+	 */
+	public int[] changedSince(long sinceVersion, long currentVersion) {
+		if (sinceVersion > currentVersion) {
+			return null;
+		}
+		if (sinceVersion == currentVersion) {
+			return new int[0];
+		}
+
+		var low = 0L;
+		var high = 0L;
+		var oldestVersion = Long.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			if (versions[i] > sinceVersion && versions[i] <= currentVersion) {
+				low |= lowMasks[i];
+				high |= highMasks[i];
+				oldestVersion = Math.min(oldestVersion, versions[i]);
+			}
+		}
+		if (oldestVersion != sinceVersion + 1) {
+			return null;
+		}
+
+		var indices = new int[Long.bitCount(low) + Long.bitCount(high)];
+		var count = 0;
+		for (; low != 0; low &= low - 1) {
+			indices[count++] = Long.numberOfTrailingZeros(low);
+		}
+		for (; high != 0; high &= high - 1) {
+			indices[count++] = Long.SIZE + Long.numberOfTrailingZeros(high);
+		}
+		return indices;
+	}
+}
@@ -0,0 +1,294 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Time-budgeted Monte Carlo tree search for imperfect information. The hidden
+ * opponent pieces are determinized {@code parallelism} times, every
+ * determinization is searched as a perfect information tree in its own
+ * fork-join task, and the movement with the most visits over all the trees is
+ * played.
+ */
+public final class MonteCarloTreeSearch {
+
+	private static final double EXPLORATION = 1.4;
+	private static final int PLAYOUT_DEPTH = 60;
+	private static final int MAX_NODES = 100_000;
+	// Searched even when the searches of other games keep the pool busy and a tree
+	// starts after the budget is already spent
+	private static final int MIN_ITERATIONS = 64;
+
+	// Piece values by rank ordinal, to score playouts that are cut before the end
+	private static final int[] MATERIAL = { 20, 16, 12, 9, 7, 5, 4, 6, 3, 8, 4, 0, 0 };
+
+	private final IntBinaryOperator combat;
+	private final ForkJoinPool pool;
+	private final long budgetNanos;
+	private final int parallelism;
+
+	/**
+	 * @param combat      outcome of an attack from the rank ordinals of the
+	 *                    attacker and the defender, as in
+	 *                    {@link StrategoBoard#move(int, int, int)}
+	 * @param pool        pool the trees are searched in
+	 * @param budget      time spent on every search
+	 * @param parallelism number of determinizations, each with its own tree
+	 */
+	public MonteCarloTreeSearch(IntBinaryOperator combat, ForkJoinPool pool, Duration budget, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("At least one tree is needed");
+		}
+		this.combat = combat;
+		this.pool = pool;
+		this.budgetNanos = budget.toNanos();
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Best movement, as packed by {@link MoveGenerator}, for the side to move on
+	 * {@code board}, or -1 when it cannot move.
+	 *
+	 * @param determinizer builds a board with the hidden opponent pieces filled
+	 *                     in
+	 */
+	public int search(StrategoBoard board, boolean isHost, Function<SplittableRandom, StrategoBoard> determinizer,
+			long seed) {
+		var buffer = new int[MoveGenerator.MAX_MOVES];
+		var numMoves = MoveGenerator.generate(board, isHost, buffer);
+		if (numMoves <= 1) {
+			return numMoves == 0 ? -1 : buffer[0];
+		}
+
+		// Hidden ranks do not change which squares hold pieces, every tree has the same root movements
+		var moves = Arrays.copyOf(buffer, numMoves);
+		var deadline = System.nanoTime() + budgetNanos;
+		var random = new SplittableRandom(seed);
+		var trees = new ArrayList<TreeSearch>(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			trees.add(new TreeSearch(determinizer.apply(random), isHost, moves, deadline, random.split()));
+		}
+
+		var visits = pool.invoke(new RootSearch(trees, numMoves));
+		var best = 0;
+		for (int i = 1; i < numMoves; i++) {
+			if (visits[i] > visits[best]) {
+				best = i;
+			}
+		}
+		return moves[best];
+	}
+
+	private final class RootSearch extends RecursiveTask<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<TreeSearch> trees;
+		private final int numMoves;
+
+		private RootSearch(List<TreeSearch> trees, int numMoves) {
+			this.trees = trees;
+			this.numMoves = numMoves;
+		}
+
+		@Override
+		protected int[] compute() {
+			invokeAll(trees);
+			var visits = new int[numMoves];
+			for (var tree : trees) {
+				var treeVisits = tree.join();
+				for (int i = 0; i < numMoves; i++) {
+					visits[i] += treeVisits[i];
+				}
+			}
+			return visits;
+		}
+	}
+
+	private static final class Node {
+		private final int move;
+		private final Node parent;
+		private final boolean isHostMove;
+		private final List<Node> children = new ArrayList<>();
+		private int[] untried;
+		private int numUntried;
+		private int visits;
+		// Summed from the point of view of the side that played the move
+		private double value;
+		// Host value when the game is over at this node
+		private double terminal = Double.NaN;
+
+		private Node(int move, Node parent, boolean isHostMove) {
+			this.move = move;
+			this.parent = parent;
+			this.isHostMove = isHostMove;
+		}
+	}
+
+	private final class TreeSearch extends RecursiveTask<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final StrategoBoard determinization;
+		private final boolean isHost;
+		private final int[] rootMoves;
+		private final long deadline;
+		private final SplittableRandom random;
+		private final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+		private int numNodes = 1;
+
+		private TreeSearch(StrategoBoard determinization, boolean isHost, int[] rootMoves, long deadline,
+				SplittableRandom random) {
+			this.determinization = determinization;
+			this.isHost = isHost;
+			this.rootMoves = rootMoves;
+			this.deadline = deadline;
+			this.random = random;
+		}
+
+		@Override
+		protected int[] compute() {
+			var root = new Node(-1, null, !isHost);
+			root.untried = rootMoves.clone();
+			root.numUntried = rootMoves.length;
+
+			for (int i = 0; i < MIN_ITERATIONS || System.nanoTime() < deadline; i++) {
+				iterate(root);
+			}
+
+			var visits = new int[rootMoves.length];
+			for (var child : root.children) {
+				for (int i = 0; i < rootMoves.length; i++) {
+					if (rootMoves[i] == child.move) {
+						visits[i] = child.visits;
+						break;
+					}
+				}
+			}
+			return visits;
+		}
+
+		private void iterate(Node root) {
+			var board = determinization.copy();
+			var node = root;
+			var hostToMove = isHost;
+
+			// Selection
+			while (node.untried != null && node.numUntried == 0 && !node.children.isEmpty()) {
+				node = select(node);
+				play(board, node.move);
+				hostToMove = !hostToMove;
+			}
+
+			// Expansion
+			if (Double.isNaN(node.terminal)) {
+				if (node.untried == null) {
+					var numMoves = MoveGenerator.generate(board, hostToMove, buffer);
+					node.untried = Arrays.copyOf(buffer, numMoves);
+					node.numUntried = numMoves;
+					if (numMoves == 0) {
+						// Nothing left to move, the side to move loses
+						node.terminal = hostToMove ? 0 : 1;
+					}
+				}
+				if (node.numUntried > 0 && numNodes < MAX_NODES) {
+					var i = random.nextInt(node.numUntried);
+					var move = node.untried[i];
+					node.untried[i] = node.untried[--node.numUntried];
+
+					var child = new Node(move, node, hostToMove);
+					node.children.add(child);
+					numNodes++;
+					if (play(board, move)) {
+						child.terminal = hostToMove ? 1 : 0;
+					}
+					hostToMove = !hostToMove;
+					node = child;
+				}
+			}
+
+			var hostValue = Double.isNaN(node.terminal) ? playout(board, hostToMove) : node.terminal;
+
+			// Backpropagation
+			for (var current = node; current != null; current = current.parent) {
+				current.visits++;
+				current.value += current.isHostMove ? hostValue : 1 - hostValue;
+			}
+		}
+
+		private Node select(Node node) {
+			var logVisits = Math.log(node.visits);
+			Node best = null;
+			var bestScore = Double.NEGATIVE_INFINITY;
+			for (var child : node.children) {
+				var score = child.value / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+				if (score > bestScore) {
+					bestScore = score;
+					best = child;
+				}
+			}
+			return best;
+		}
+
+		private double playout(StrategoBoard board, boolean hostToMove) {
+			for (int depth = 0; depth < PLAYOUT_DEPTH; depth++) {
+				var numMoves = MoveGenerator.generate(board, hostToMove, buffer);
+				if (numMoves == 0) {
+					return hostToMove ? 0 : 1;
+				}
+				if (play(board, buffer[random.nextInt(numMoves)])) {
+					return hostToMove ? 1 : 0;
+				}
+				hostToMove = !hostToMove;
+			}
+			return evaluate(board);
+		}
+	}
+
+	/**
+	 * Plays {@code move} and tells whether it captured a flag.
+	 */
+	private boolean play(StrategoBoard board, int move) {
+		var fromIndex = MoveGenerator.fromIndex(move);
+		var toIndex = MoveGenerator.toIndex(move);
+		var defender = board.get(toIndex);
+		if (StrategoBoard.isEmpty(defender)) {
+			board.move(fromIndex, toIndex, 1);
+			return false;
+		}
+
+		var result = combat.applyAsInt(StrategoBoard.rankOrdinal(board.get(fromIndex)),
+				StrategoBoard.rankOrdinal(defender));
+		board.move(fromIndex, toIndex, result);
+		return StrategoBoard.rankOrdinal(defender) == Rank.FLAG.ordinal();
+	}
+
+	/**
+	 * Host value between 0 and 1 from the material left on the board.
+	 */
+	static double evaluate(StrategoBoard board) {
+		var host = 0;
+		var guest = 0;
+		for (int index = 0; index < StrategoBoard.NUM_SQUARES; index++) {
+			var square = board.get(index);
+			if (StrategoBoard.isEmpty(square)) {
+				continue;
+			}
+			if (StrategoBoard.isHostOwner(square)) {
+				host += MATERIAL[StrategoBoard.rankOrdinal(square)];
+			} else {
+				guest += MATERIAL[StrategoBoard.rankOrdinal(square)];
+			}
+		}
+		return host + guest == 0 ? 0.5 : 0.5 + 0.5 * (host - guest) / (host + guest);
+	}
+}
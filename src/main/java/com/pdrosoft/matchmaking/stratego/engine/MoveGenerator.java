@@ -0,0 +1,74 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Legal movements of one side on a {@link StrategoBoard}. A movement is packed
+ * in an int as {@code fromIndex * NUM_SQUARES + toIndex} so move lists are
+ * plain int arrays.
+ */
+public final class MoveGenerator {
+
+	// At most 40 pieces, a scout with open lines reaches 18 squares
+	public static final int MAX_MOVES = 40 * 18;
+
+	private static final int[] ROW_STEPS = { -1, 1, 0, 0 };
+	private static final int[] COL_STEPS = { 0, 0, -1, 1 };
+
+	private MoveGenerator() {
+	}
+
+	public static int encode(int fromIndex, int toIndex) {
+		return fromIndex * StrategoBoard.NUM_SQUARES + toIndex;
+	}
+
+	public static int fromIndex(int move) {
+		return move / StrategoBoard.NUM_SQUARES;
+	}
+
+	public static int toIndex(int move) {
+		return move % StrategoBoard.NUM_SQUARES;
+	}
+
+	/**
+	 * Writes the movements of the host or guest pieces into {@code moves}, which
+	 * needs room for {@link #MAX_MOVES}, and returns how many there are.
+	 */
+	public static int generate(StrategoBoard board, boolean isHost, int[] moves) {
+		var count = 0;
+		for (int index = 0; index < StrategoBoard.NUM_SQUARES; index++) {
+			var square = board.get(index);
+			if (StrategoBoard.isEmpty(square) || StrategoBoard.isHostOwner(square) != isHost
+					|| StrategoBoard.isInmobileRank(square)) {
+				continue;
+			}
+
+			var row = index / StrategoBoard.SIZE;
+			var col = index % StrategoBoard.SIZE;
+			var isScout = StrategoBoard.rankOrdinal(square) == Rank.SCOUT.ordinal();
+			for (int direction = 0; direction < ROW_STEPS.length; direction++) {
+				var targetRow = row + ROW_STEPS[direction];
+				var targetCol = col + COL_STEPS[direction];
+				while (targetRow >= 0 && targetRow < StrategoBoard.SIZE && targetCol >= 0
+						&& targetCol < StrategoBoard.SIZE) {
+					var target = StrategoBoard.index(targetRow, targetCol);
+					var targetSquare = board.get(target);
+					if (StrategoBoard.isEmpty(targetSquare)) {
+						moves[count++] = encode(index, target);
+					} else {
+						if (!StrategoBoard.isDisabled(targetSquare) && StrategoBoard.isHostOwner(targetSquare) != isHost) {
+							moves[count++] = encode(index, target);
+						}
+						break;
+					}
+					if (!isScout) {
+						break;
+					}
+					targetRow += ROW_STEPS[direction];
+					targetCol += COL_STEPS[direction];
+				}
+			}
+		}
+		return count;
+	}
+}
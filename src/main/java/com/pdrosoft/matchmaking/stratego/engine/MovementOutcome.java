@@ -0,0 +1,36 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+/**
+ * Pieces removed by a movement, packed in a short: one byte per piece, the
+ * first one in the low byte, each one encoded like a {@link StrategoBoard}
+ * square without the revealed flag. A movement removes no piece, the attacker
+ * or the defender, or both on a tie.
+ */
+public final class MovementOutcome {
+
+	public static final short NONE = 0;
+
+	private static final int PIECE_MASK = 0x1F;
+
+	private MovementOutcome() {
+	}
+
+	public static short of(byte square) {
+		return (short) (square & PIECE_MASK);
+	}
+
+	public static short of(byte first, byte second) {
+		return (short) ((first & PIECE_MASK) | (second & PIECE_MASK) << 8);
+	}
+
+	public static int size(short outcome) {
+		return outcome == NONE ? 0 : (outcome & 0xFF00) == 0 ? 1 : 2;
+	}
+
+	/**
+	 * Square of the piece at {@code index}, 0 or 1.
+	 */
+	public static byte get(short outcome, int index) {
+		return (byte) (outcome >> (index * 8) & PIECE_MASK);
+	}
+}
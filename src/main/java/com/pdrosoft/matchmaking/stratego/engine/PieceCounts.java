@@ -0,0 +1,86 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Pieces left to each side of a {@link StrategoBoard}. The counts are taken
+ * from the board once and then follow the pieces removed in combat, so
+ * checking whether a game is over does not scan the board.
+ */
+public final class PieceCounts {
+
+	private int hostPieces;
+	private int guestPieces;
+	private int hostMovablePieces;
+	private int guestMovablePieces;
+	private int hostFlags;
+	private int guestFlags;
+
+	private PieceCounts() {
+	}
+
+	public static PieceCounts of(StrategoBoard board) {
+		var counts = new PieceCounts();
+		for (int index = 0; index < StrategoBoard.NUM_SQUARES; index++) {
+			var square = board.get(index);
+			if (!StrategoBoard.isEmpty(square) && !StrategoBoard.isDisabled(square)) {
+				counts.add(square, 1);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Piece removed from the board in combat.
+	 */
+	public void remove(byte square) {
+		add(square, -1);
+	}
+
+	private void add(byte square, int delta) {
+		var isHost = StrategoBoard.isHostOwner(square);
+		if (isHost) {
+			hostPieces += delta;
+		} else {
+			guestPieces += delta;
+		}
+
+		if (StrategoBoard.rankOrdinal(square) == Rank.FLAG.ordinal()) {
+			if (isHost) {
+				hostFlags += delta;
+			} else {
+				guestFlags += delta;
+			}
+		} else if (!StrategoBoard.isInmobileRank(square)) {
+			if (isHost) {
+				hostMovablePieces += delta;
+			} else {
+				guestMovablePieces += delta;
+			}
+		}
+	}
+
+	public int getPieces(boolean isHost) {
+		return isHost ? hostPieces : guestPieces;
+	}
+
+	/**
+	 * Pieces that are neither bombs nor the flag. A side may still be unable to
+	 * move when all of them are blocked.
+	 */
+	public int getMovablePieces(boolean isHost) {
+		return isHost ? hostMovablePieces : guestMovablePieces;
+	}
+
+	public boolean hasFlag(boolean isHost) {
+		return (isHost ? hostFlags : guestFlags) > 0;
+	}
+
+	/**
+	 * Whether one side has lost: its flag has been captured or it has no piece
+	 * left that can move.
+	 */
+	public boolean hasLost(boolean isHost) {
+		return !hasFlag(isHost) || getMovablePieces(isHost) == 0;
+	}
+}
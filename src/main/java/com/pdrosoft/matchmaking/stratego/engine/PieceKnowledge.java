@@ -0,0 +1,186 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import java.util.SplittableRandom;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * What both players know about the pieces on the board, followed from the
+ * movements of a game: which side owns every piece, which pieces have moved,
+ * which ranks have been revealed in combat or by a scout run and which ranks
+ * have been captured.
+ */
+public final class PieceKnowledge {
+
+	private static final Rank[] RANKS = Rank.values();
+
+	private static final byte OCCUPIED = 0x01;
+	private static final byte HOST = 0x02;
+	private static final byte MOVED = 0x04;
+	private static final byte REVEALED = 0x08;
+
+	private final byte[] flags = new byte[StrategoBoard.NUM_SQUARES];
+	private final int[] hostCaptured = new int[RANKS.length];
+	private final int[] guestCaptured = new int[RANKS.length];
+
+	/**
+	 * Knowledge right after both setups, with the four rows of each side full.
+	 */
+	public PieceKnowledge() {
+		for (int index = 0; index < StrategoBoard.index(4, 0); index++) {
+			flags[index] = OCCUPIED | HOST;
+		}
+		for (int index = StrategoBoard.index(6, 0); index < StrategoBoard.NUM_SQUARES; index++) {
+			flags[index] = OCCUPIED;
+		}
+	}
+
+	public boolean isOccupied(int index) {
+		return (flags[index] & OCCUPIED) != 0;
+	}
+
+	public boolean isHostPiece(int index) {
+		return (flags[index] & HOST) != 0;
+	}
+
+	public boolean hasMoved(int index) {
+		return (flags[index] & MOVED) != 0;
+	}
+
+	public boolean isRevealed(int index) {
+		return (flags[index] & REVEALED) != 0;
+	}
+
+	/**
+	 * Movement to an empty square. Only scouts move more than one square.
+	 */
+	public void move(int fromIndex, int toIndex) {
+		var distance = Math.abs(fromIndex - toIndex);
+		var isScoutRun = distance != 1 && distance != StrategoBoard.SIZE;
+		flags[toIndex] = (byte) (flags[fromIndex] | MOVED | (isScoutRun ? REVEALED : 0));
+		flags[fromIndex] = 0;
+	}
+
+	/**
+	 * Attack with the result of {@link StrategoBoard#move(int, int, int)}. Both
+	 * pieces are revealed.
+	 */
+	public void attack(int fromIndex, int toIndex, int combatResult) {
+		if (combatResult > 0) {
+			flags[toIndex] = (byte) (flags[fromIndex] | MOVED | REVEALED);
+		} else if (combatResult < 0) {
+			flags[toIndex] |= REVEALED;
+		} else {
+			flags[toIndex] = 0;
+		}
+		flags[fromIndex] = 0;
+	}
+
+	/**
+	 * Piece removed in combat, as listed in the movement result.
+	 */
+	public void capture(Rank rank, boolean isHost) {
+		(isHost ? hostCaptured : guestCaptured)[rank.ordinal()]++;
+	}
+
+	/**
+	 * Number of pieces of every rank ordinal of one side that are on the board
+	 * but not in sight: the whole army less the captured pieces and the ranks
+	 * shown on {@code board}.
+	 */
+	public int[] getHiddenCounts(StrategoBoard board, boolean isHost) {
+		var captured = isHost ? hostCaptured : guestCaptured;
+		var counts = new int[RANKS.length];
+		for (int ordinal = 0; ordinal < RANKS.length; ordinal++) {
+			counts[ordinal] = RANKS[ordinal].getArmyCount() - captured[ordinal];
+		}
+		for (int index = 0; index < StrategoBoard.NUM_SQUARES; index++) {
+			var square = board.get(index);
+			if (StrategoBoard.isEmpty(square) || StrategoBoard.isDisabled(square) || StrategoBoard.isHidden(square)
+					|| StrategoBoard.isHostOwner(square) != isHost) {
+				continue;
+			}
+			counts[StrategoBoard.rankOrdinal(square)]--;
+		}
+		for (int ordinal = 0; ordinal < RANKS.length; ordinal++) {
+			counts[ordinal] = Math.max(0, counts[ordinal]);
+		}
+		return counts;
+	}
+
+	/**
+	 * Copy of {@code board}, as projected for the opponent, where the hidden
+	 * pieces of one side get random ranks from {@code hiddenCounts}, indexed by
+	 * rank ordinal. Bombs and the flag only land on pieces that have never
+	 * moved.
+	 */
+	public StrategoBoard determinize(StrategoBoard board, boolean isHost, int[] hiddenCounts,
+			SplittableRandom random) {
+		var hidden = new int[StrategoBoard.NUM_SQUARES];
+		var numHidden = 0;
+		var unmoved = 0;
+		for (int index = 0; index < StrategoBoard.NUM_SQUARES; index++) {
+			var square = board.get(index);
+			if (!StrategoBoard.isHidden(square) || StrategoBoard.isHostOwner(square) != isHost) {
+				continue;
+			}
+			// Unmoved pieces first, they are the only ones that can be bombs or the flag
+			if (hasMoved(index)) {
+				hidden[numHidden++] = index;
+			} else {
+				hidden[numHidden++] = hidden[unmoved];
+				hidden[unmoved++] = index;
+			}
+		}
+
+		var numRanks = 0;
+		for (var count : hiddenCounts) {
+			numRanks += count;
+		}
+		var inmobile = new byte[numRanks];
+		var mobile = new byte[numRanks];
+		var numInmobile = 0;
+		var numMobile = 0;
+		for (int ordinal = 0; ordinal < hiddenCounts.length; ordinal++) {
+			var square = StrategoBoard.encode(RANKS[ordinal], isHost);
+			for (int i = 0; i < hiddenCounts[ordinal]; i++) {
+				if (StrategoBoard.isInmobileRank(square)) {
+					inmobile[numInmobile++] = square;
+				} else {
+					mobile[numMobile++] = square;
+				}
+			}
+		}
+
+		var result = board.copy();
+		shuffle(hidden, 0, unmoved, random);
+		numInmobile = Math.min(numInmobile, unmoved);
+		for (int i = 0; i < numInmobile; i++) {
+			result.set(hidden[i], inmobile[i]);
+		}
+		shuffle(mobile, numMobile, random);
+		for (int i = numInmobile; i < numHidden; i++) {
+			// Squares only run out of ranks when the counts do not match the board
+			result.set(hidden[i], i - numInmobile < numMobile ? mobile[i - numInmobile] : StrategoBoard.EMPTY);
+		}
+		return result;
+	}
+
+	private static void shuffle(int[] values, int from, int to, SplittableRandom random) {
+		for (int i = to - 1; i > from; i--) {
+			var j = from + random.nextInt(i - from + 1);
+			var value = values[i];
+			values[i] = values[j];
+			values[j] = value;
+		}
+	}
+
+	private static void shuffle(byte[] values, int length, SplittableRandom random) {
+		for (int i = length - 1; i > 0; i--) {
+			var j = random.nextInt(i + 1);
+			var value = values[i];
+			values[i] = values[j];
+			values[j] = value;
+		}
+	}
+}
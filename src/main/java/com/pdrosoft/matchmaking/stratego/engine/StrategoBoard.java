@@ -0,0 +1,268 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Compact 10x10 Stratego board. Every square is a single byte that packs the
+ * rank (low nibble, {@code ordinal + 1}), the owner (host flag) and whether
+ * the rank has been revealed to the opponent, with {@code 0} meaning an empty
+ * square. Gameplay code works directly on the squares; {@link BoardTileDTO}
+ * lists are only built at the API edge, projected for their {@link Viewer}.
+ * <p>
+ * A board read back from a projection holds {@link #isHidden(byte) hidden}
+ * squares for the pieces whose rank the viewer does not know.
+ */
+public final class StrategoBoard {
+
+	public static final int SIZE = 10;
+	public static final int NUM_SQUARES = SIZE * SIZE;
+
+	public static final byte EMPTY = 0;
+
+	private static final int RANK_MASK = 0x0F;
+	private static final int HOST_OWNER_FLAG = 0x10;
+	private static final int REVEALED_FLAG = 0x20;
+	// Rank code of a piece of unknown rank, after every Rank ordinal + 1
+	private static final int HIDDEN_RANK = 0x0F;
+
+	private static final Rank[] RANKS = Rank.values();
+	private static final byte DISABLED_SQUARE = encode(Rank.DISABLED, false);
+
+	private final byte[] squares;
+
+	private StrategoBoard(byte[] squares) {
+		this.squares = squares;
+	}
+
+	/**
+	 * Board with no pieces, only the two lakes in the middle rows.
+	 */
+	public static StrategoBoard empty() {
+		var board = new StrategoBoard(new byte[NUM_SQUARES]);
+		for (int row = 4; row <= 5; row++) {
+			board.set(row, 2, DISABLED_SQUARE);
+			board.set(row, 3, DISABLED_SQUARE);
+			board.set(row, 6, DISABLED_SQUARE);
+			board.set(row, 7, DISABLED_SQUARE);
+		}
+		return board;
+	}
+
+	public static StrategoBoard fromBytes(byte[] squares) {
+		if (squares == null || squares.length != NUM_SQUARES) {
+			throw new IllegalArgumentException("A board needs exactly %d squares".formatted(NUM_SQUARES));
+		}
+		return new StrategoBoard(Arrays.copyOf(squares, NUM_SQUARES));
+	}
+
+	/**
+	 * Reads the {@value #NUM_SQUARES} squares stored in {@code data} from
+	 * {@code offset} on.
+	 */
+	public static StrategoBoard fromBytes(byte[] data, int offset) {
+		if (data == null || offset < 0 || data.length - offset < NUM_SQUARES) {
+			throw new IllegalArgumentException("A board needs exactly %d squares".formatted(NUM_SQUARES));
+		}
+		return new StrategoBoard(Arrays.copyOfRange(data, offset, offset + NUM_SQUARES));
+	}
+
+	/**
+	 * Builds a board from its tile representation. Missing rows or columns are
+	 * taken as empty squares, and tiles without a rank as hidden pieces.
+	 */
+	public static StrategoBoard fromTiles(List<List<BoardTileDTO>> tiles) {
+		var board = new StrategoBoard(new byte[NUM_SQUARES]);
+		var numRows = Math.min(SIZE, tiles.size());
+		for (int row = 0; row < numRows; row++) {
+			var tileRow = tiles.get(row);
+			var numCols = tileRow == null ? 0 : Math.min(SIZE, tileRow.size());
+			for (int col = 0; col < numCols; col++) {
+				var tile = tileRow.get(col);
+				if (tile != null) {
+					board.set(row, col, tile.getRank() != null ? encode(tile.getRank(), tile.isHostOwner())
+							: hidden(tile.isHostOwner()));
+				}
+			}
+		}
+		return board;
+	}
+
+	public List<List<BoardTileDTO>> toTiles() {
+		return toTiles(null);
+	}
+
+	/**
+	 * Tiles as seen by {@code viewer}: the ranks it cannot see are left out.
+	 */
+	public List<List<BoardTileDTO>> toTiles(Viewer viewer) {
+		var tiles = new ArrayList<List<BoardTileDTO>>(SIZE);
+		for (int row = 0; row < SIZE; row++) {
+			var tileRow = new ArrayList<BoardTileDTO>(SIZE);
+			for (int col = 0; col < SIZE; col++) {
+				tileRow.add(getTile(row, col, viewer));
+			}
+			tiles.add(tileRow);
+		}
+		return tiles;
+	}
+
+	public BoardTileDTO getTile(int row, int col) {
+		return getTile(row, col, null);
+	}
+
+	/**
+	 * Tile as seen by {@code viewer}, or with every rank when it is
+	 * {@code null}.
+	 */
+	public BoardTileDTO getTile(int row, int col, Viewer viewer) {
+		var square = get(row, col);
+		if (isEmpty(square)) {
+			return null;
+		}
+		var rank = viewer == null || isVisibleTo(square, viewer) ? rankOf(square) : null;
+		return BoardTileDTO.builder().rank(rank).isHostOwner(isHostOwner(square)).build();
+	}
+
+	public byte[] toBytes() {
+		return Arrays.copyOf(squares, NUM_SQUARES);
+	}
+
+	public void copyTo(byte[] data, int offset) {
+		System.arraycopy(squares, 0, data, offset, NUM_SQUARES);
+	}
+
+	public StrategoBoard copy() {
+		return new StrategoBoard(toBytes());
+	}
+
+	public static int index(int row, int col) {
+		return row * SIZE + col;
+	}
+
+	public byte get(int row, int col) {
+		return squares[index(row, col)];
+	}
+
+	public byte get(int index) {
+		return squares[index];
+	}
+
+	public void set(int row, int col, byte square) {
+		squares[index(row, col)] = square;
+	}
+
+	public void set(int index, byte square) {
+		squares[index] = square;
+	}
+
+	public void clear(int row, int col) {
+		squares[index(row, col)] = EMPTY;
+	}
+
+	public void clear(int index) {
+		squares[index] = EMPTY;
+	}
+
+	/**
+	 * Moves the piece on {@code fromIndex} to {@code toIndex}. When the
+	 * destination is taken, a negative {@code combatResult} means the attacker
+	 * lost, zero that both pieces are removed and a positive value that the
+	 * attacker takes the destination. Pieces that survive a combat, and scouts
+	 * that move more than one square, are revealed.
+	 */
+	public void move(int fromIndex, int toIndex, int combatResult) {
+		var attacker = squares[fromIndex];
+		var defender = squares[toIndex];
+		squares[fromIndex] = EMPTY;
+		if (isEmpty(defender)) {
+			var distance = Math.abs(fromIndex - toIndex);
+			squares[toIndex] = distance == 1 || distance == SIZE ? attacker : reveal(attacker);
+		} else if (combatResult > 0) {
+			squares[toIndex] = reveal(attacker);
+		} else if (combatResult == 0) {
+			squares[toIndex] = EMPTY;
+		} else {
+			squares[toIndex] = reveal(defender);
+		}
+	}
+
+	public static byte encode(Rank rank, boolean isHostOwner) {
+		return (byte) ((rank.ordinal() + 1) | (isHostOwner ? HOST_OWNER_FLAG : 0));
+	}
+
+	/**
+	 * Piece of the host or the guest whose rank is not known.
+	 */
+	public static byte hidden(boolean isHostOwner) {
+		return (byte) (HIDDEN_RANK | (isHostOwner ? HOST_OWNER_FLAG : 0));
+	}
+
+	public static byte reveal(byte square) {
+		return (byte) (square | REVEALED_FLAG);
+	}
+
+	public static boolean isRevealed(byte square) {
+		return (square & REVEALED_FLAG) != 0;
+	}
+
+	public static boolean isHidden(byte square) {
+		return (square & RANK_MASK) == HIDDEN_RANK;
+	}
+
+	/**
+	 * Whether {@code viewer} knows the rank on {@code square}: its own pieces,
+	 * revealed pieces and the lakes.
+	 */
+	public static boolean isVisibleTo(byte square, Viewer viewer) {
+		return isRevealed(square) || isDisabled(square) || viewer.owns(isHostOwner(square));
+	}
+
+	public static boolean isEmpty(byte square) {
+		return square == EMPTY;
+	}
+
+	public static boolean isHostOwner(byte square) {
+		return (square & HOST_OWNER_FLAG) != 0;
+	}
+
+	/**
+	 * Rank ordinal of the square, or -1 when the square is empty. Hidden
+	 * squares have no rank ordinal.
+	 */
+	public static int rankOrdinal(byte square) {
+		return (square & RANK_MASK) - 1;
+	}
+
+	public static Rank rankOf(byte square) {
+		return isEmpty(square) || isHidden(square) ? null : RANKS[rankOrdinal(square)];
+	}
+
+	public static boolean isDisabled(byte square) {
+		return rankOrdinal(square) == Rank.DISABLED.ordinal();
+	}
+
+	public static boolean isInmobileRank(byte square) {
+		var ordinal = rankOrdinal(square);
+		return ordinal == Rank.BOMB.ordinal() || ordinal == Rank.FLAG.ordinal() || ordinal == Rank.DISABLED.ordinal();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof StrategoBoard board && Arrays.equals(squares, board.squares);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(squares);
+	}
+
+	@Override
+	public String toString() {
+		return "StrategoBoard" + Arrays.toString(squares);
+	}
+}
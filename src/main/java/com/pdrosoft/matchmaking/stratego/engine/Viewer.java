@@ -0,0 +1,20 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+/**
+ * Who a board is shown to. Players see the ranks of their own pieces and of
+ * the revealed opponent pieces; spectators only see revealed ranks.
+ */
+public enum Viewer {
+	HOST, GUEST, SPECTATOR;
+
+	public static Viewer of(boolean isHost, boolean isGuest) {
+		return isHost ? HOST : isGuest ? GUEST : SPECTATOR;
+	}
+
+	/**
+	 * Whether this viewer owns the pieces of the host or of the guest.
+	 */
+	public boolean owns(boolean isHostPiece) {
+		return this == (isHostPiece ? HOST : GUEST);
+	}
+}
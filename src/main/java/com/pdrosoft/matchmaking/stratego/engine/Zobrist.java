@@ -0,0 +1,68 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * 64-bit Zobrist hashing of a {@link StrategoBoard} and the side to move. The
+ * hash is the XOR of a random key for every occupied square and of
+ * {@link #GUEST_TO_MOVE} when the guest has the turn, so a movement updates it
+ * by XORing out the squares it changes and XORing in their new contents.
+ * <p>
+ * Keys come from a fixed seed because hashes are stored with the game status
+ * and must stay valid across restarts.
+ */
+public final class Zobrist {
+
+	private static final long SEED = 0x5EED_57A7_E60L;
+
+	// Squares use the low five bits: rank (ordinal + 1) plus the host flag
+	private static final int SQUARE_VALUES = 32;
+	private static final int SQUARE_MASK = SQUARE_VALUES - 1;
+
+	private static final long[] KEYS = new long[StrategoBoard.NUM_SQUARES * SQUARE_VALUES];
+	public static final long GUEST_TO_MOVE;
+
+	static {
+		var random = new SplittableRandom(SEED);
+		for (int i = 0; i < KEYS.length; i++) {
+			// Empty squares do not contribute to the hash
+			KEYS[i] = i % SQUARE_VALUES == 0 ? 0L : random.nextLong();
+		}
+		GUEST_TO_MOVE = random.nextLong();
+	}
+
+	private Zobrist() {
+	}
+
+	public static long key(int index, byte square) {
+		return KEYS[index * SQUARE_VALUES + (square & SQUARE_MASK)];
+	}
+
+	/**
+	 * Full computation over the 100 squares.
+	 */
+	public static long hash(StrategoBoard board, boolean isGuestTurn) {
+		var hash = isGuestTurn ? GUEST_TO_MOVE : 0L;
+		for (int index = 0; index < StrategoBoard.NUM_SQUARES; index++) {
+			hash ^= key(index, board.get(index));
+		}
+		return hash;
+	}
+
+	/**
+	 * Hash after {@link StrategoBoard#move(int, int, int)} with the same
+	 * arguments, which also passes the turn to the other player.
+	 * {@code attacker} and {@code defender} are the squares before the
+	 * movement.
+	 */
+	public static long move(long hash, int fromIndex, int toIndex, byte attacker, byte defender,
+			int combatResult) {
+		hash ^= key(fromIndex, attacker) ^ GUEST_TO_MOVE;
+		if (combatResult > 0) {
+			hash ^= key(toIndex, defender) ^ key(toIndex, attacker);
+		} else if (combatResult == 0) {
+			hash ^= key(toIndex, defender);
+		}
+		return hash;
+	}
+}
@@ -1,17 +1,31 @@
 package com.pdrosoft.matchmaking.stratego.enums;
 
 public enum Rank {
-	MARSHAL, //
-	GENERAL, //
-	COLONEL, //
-	MAJOR, //
-	CAPTAIN, //
-	LIEUTENANT, //
-	SERGEANT, //
-	MINER, //
-	SCOUT, //
-	SPY, //
-	BOMB, //
-	FLAG, //
-	DISABLED, //
+	MARSHAL(1), //
+	GENERAL(1), //
+	COLONEL(2), //
+	MAJOR(3), //
+	CAPTAIN(4), //
+	LIEUTENANT(4), //
+	SERGEANT(4), //
+	MINER(5), //
+	SCOUT(8), //
+	SPY(1), //
+	BOMB(6), //
+	FLAG(1), //
+	DISABLED(0), //
+	;
+
+	private final int armyCount;
+
+	Rank(int armyCount) {
+		this.armyCount = armyCount;
+	}
+
+	/**
+	 * Pieces of this rank in the army of a player, zero for DISABLED.
+	 */
+	public int getArmyCount() {
+		return armyCount;
+	}
 }
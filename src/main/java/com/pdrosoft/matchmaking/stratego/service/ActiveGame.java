@@ -0,0 +1,53 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.StrategoMovement;
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+import com.pdrosoft.matchmaking.model.StrategoStatus;
+import com.pdrosoft.matchmaking.stratego.engine.BoardChangeLog;
+import com.pdrosoft.matchmaking.stratego.engine.PieceCounts;
+import com.pdrosoft.matchmaking.stratego.engine.Viewer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * In-memory state of a game held by {@link ActiveGameCache}. The entities are
+ * detached: only their ids are used to reach the players.
+ */
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class ActiveGame {
+
+	private static final int CHANGE_LOG_SIZE = 64;
+
+	private final Long gameId;
+
+	private Game game;
+	private StrategoStatus status;
+	// State version of the status in the database, the one the next write replaces
+	private Long storedVersion;
+	private StrategoMovement lastMovement;
+	// Taken from the board on the first movement after the game is loaded or set up
+	private PieceCounts pieceCounts;
+	// Squares changed by the versions played since the game was loaded
+	private final BoardChangeLog changeLog = new BoardChangeLog(CHANGE_LOG_SIZE);
+	// Whole status of the current version for each player, cleared by every new version
+	private final Map<Viewer, SerializedGameState> serializedStates = new EnumMap<>(Viewer.class);
+
+	// Write-behind mode only: changes not yet persisted
+	private final List<StrategoMovement> pendingMovements = new ArrayList<>();
+	private final List<StrategoSetup> pendingSetups = new ArrayList<>();
+	private final List<StrategoSnapshot> pendingSnapshots = new ArrayList<>();
+	private boolean dirty;
+
+	private volatile long lastAccess;
+}
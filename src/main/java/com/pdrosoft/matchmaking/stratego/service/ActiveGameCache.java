@@ -0,0 +1,48 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.util.Optional;
+
+import com.pdrosoft.matchmaking.model.StrategoMovement;
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+
+public interface ActiveGameCache {
+
+	/**
+	 * Returns the game with its status and last movement, loading it from the
+	 * database when it is not cached. Only games in a setup or playing phase are
+	 * kept in memory.
+	 */
+	Optional<ActiveGame> findGame(Long gameId);
+
+	void saveGame(ActiveGame activeGame);
+
+	void saveStatus(ActiveGame activeGame);
+
+	void addMovement(ActiveGame activeGame, StrategoMovement movement);
+
+	void addSetup(ActiveGame activeGame, StrategoSetup setup);
+
+	/**
+	 * Persisted with the movements up to its version, never before them.
+	 */
+	void addSnapshot(ActiveGame activeGame, StrategoSnapshot snapshot);
+
+	/**
+	 * Drops the cached game if the current transaction does not commit, so the
+	 * next access reloads it from the database.
+	 */
+	void evictOnRollback(Long gameId);
+
+	void evict(Long gameId);
+
+	/**
+	 * Whether the game is in memory, that is, it has been used within the idle
+	 * time of the cache or it still has changes to persist.
+	 */
+	boolean contains(Long gameId);
+
+	void flush();
+
+	int size();
+}
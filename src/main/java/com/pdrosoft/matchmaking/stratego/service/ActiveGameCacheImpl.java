@@ -0,0 +1,448 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pdrosoft.matchmaking.model.StrategoMovement;
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSetupRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSnapshotRepository;
+import com.pdrosoft.matchmaking.repository.StrategoStatusRepository;
+import com.pdrosoft.matchmaking.stratego.engine.Zobrist;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps games in a setup or playing phase in memory so that polling and moves
+ * do not reload them from the database. By default every change is written
+ * through; with {@code stratego.cache.write-behind} status updates,
+ * movements, setups and snapshots are queued and persisted together by
+ * {@link #flush()} every
+ * {@code stratego.cache.group-commit-interval} milliseconds. Whatever is not in
+ * memory is always reloaded from the database, so a restart only loses the
+ * changes of the last group commit.
+ * <p>
+ * Games are always loaded in a read-write transaction, so they come from the
+ * primary database and never from a lagging replica.
+ * <p>
+ * Cached games must only be read and changed through {@link GameExecutor}.
+ * <p>
+ * The cache is authoritative for the games it holds, and the game locks are
+ * node-local, so every request for a game must reach the same node: deploy a
+ * single node, or route requests by game id to one node per game. Should two
+ * nodes hold the same game anyway, the status is only written over the version
+ * it was loaded with, and the node that finds it changed drops its copy.
+ */
+@Slf4j
+@Service
+public class ActiveGameCacheImpl implements ActiveGameCache {
+
+	private static final Set<GamePhase> ACTIVE_PHASES = EnumSet.of(GamePhase.WAITING_FOR_SETUP_2_PLAYERS,
+			GamePhase.WAITING_FOR_SETUP_1_PLAYER, GamePhase.PLAYING);
+
+	@NonNull
+	private final GameRepository gameRepository;
+	@NonNull
+	private final StrategoStatusRepository strategoStatusRepository;
+	@NonNull
+	private final StrategoMovementRepository strategoMovementRepository;
+	@NonNull
+	private final StrategoSetupRepository strategoSetupRepository;
+	@NonNull
+	private final StrategoSnapshotRepository strategoSnapshotRepository;
+	@NonNull
+	private final GameExecutor gameExecutor;
+	@NonNull
+	private final GameLogService gameLogService;
+	@NonNull
+	private final TransactionTemplate loadTemplate;
+	// Loads called within a read-only transaction cannot join it
+	@NonNull
+	private final TransactionTemplate loadInNewTemplate;
+	// Flushes never join the transaction of a request, whose rollback would undo
+	// changes already taken as written
+	@NonNull
+	private final TransactionTemplate flushTemplate;
+
+	private final int maxGames;
+	private final Duration idleTtl;
+	private final boolean writeBehind;
+
+	// Access ordered, so the first entry is the least recently used game
+	private final LinkedHashMap<Long, ActiveGame> games = new LinkedHashMap<>(16, 0.75f, true);
+	// Games taken out of the cache that may still have unflushed changes. They are
+	// parked here before they leave the cache and stay until a flush under their
+	// own lock finds nothing left to write, so they are never reloaded stale.
+	private final Map<Long, ActiveGame> evictedGames = new ConcurrentHashMap<>();
+
+	@Autowired
+	public ActiveGameCacheImpl(@NonNull GameRepository gameRepository,
+			@NonNull StrategoStatusRepository strategoStatusRepository,
+			@NonNull StrategoMovementRepository strategoMovementRepository,
+			@NonNull StrategoSetupRepository strategoSetupRepository,
+			@NonNull StrategoSnapshotRepository strategoSnapshotRepository,
+			@NonNull GameExecutor gameExecutor, @NonNull GameLogService gameLogService,
+			@NonNull PlatformTransactionManager transactionManager,
+			@Value("${stratego.cache.max-games:10000}") int maxGames,
+			@Value("${stratego.cache.idle-ttl:PT30M}") Duration idleTtl,
+			@Value("${stratego.cache.write-behind:false}") boolean writeBehind) {
+		this.gameRepository = gameRepository;
+		this.strategoStatusRepository = strategoStatusRepository;
+		this.strategoMovementRepository = strategoMovementRepository;
+		this.strategoSetupRepository = strategoSetupRepository;
+		this.strategoSnapshotRepository = strategoSnapshotRepository;
+		this.gameExecutor = gameExecutor;
+		this.gameLogService = gameLogService;
+		this.loadTemplate = new TransactionTemplate(transactionManager);
+		this.loadInNewTemplate = new TransactionTemplate(transactionManager);
+		this.loadInNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.flushTemplate = new TransactionTemplate(transactionManager);
+		this.flushTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.maxGames = maxGames;
+		this.idleTtl = idleTtl;
+		this.writeBehind = writeBehind;
+	}
+
+	private boolean isActive(ActiveGame activeGame) {
+		return activeGame.getGame().getPhase() != null && ACTIVE_PHASES.contains(activeGame.getGame().getPhase());
+	}
+
+	@Override
+	public Optional<ActiveGame> findGame(Long gameId) {
+		ActiveGame activeGame;
+		synchronized (games) {
+			activeGame = games.get(gameId);
+		}
+		if (activeGame != null) {
+			activeGame.setLastAccess(System.currentTimeMillis());
+			return Optional.of(activeGame);
+		}
+
+		return load(gameId);
+	}
+
+	private Optional<ActiveGame> load(Long gameId) {
+		var template = TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? loadInNewTemplate
+				: loadTemplate;
+
+		var evictedGame = evictedGames.get(gameId);
+		if (evictedGame != null) {
+			// Its changes may not be in the database yet. The game itself is always
+			// written through, and may have been changed since by joining or leaving it.
+			template.execute(tx -> gameRepository.findById(gameId)).ifPresent(evictedGame::setGame);
+			evictedGame.setLastAccess(System.currentTimeMillis());
+			if (!isActive(evictedGame)) {
+				return Optional.of(evictedGame);
+			}
+			// Back in the cache it is flushed with the other games
+			evictedGames.remove(gameId, evictedGame);
+			return Optional.of(cache(evictedGame));
+		}
+
+		return template.execute(tx -> read(gameId))
+				.map(activeGame -> isActive(activeGame) ? cache(activeGame) : activeGame);
+	}
+
+	private Optional<ActiveGame> read(Long gameId) {
+		return gameRepository.findById(gameId).map(game -> {
+			var activeGame = new ActiveGame(gameId);
+			activeGame.setGame(game);
+			activeGame.setLastAccess(System.currentTimeMillis());
+			strategoStatusRepository.findByGameId(gameId).ifPresent(status -> {
+				if (status.getBoard() == null) {
+					// The stored board could not be read, rebuild it from the game log
+					log.warn("Rebuilding the board of game {} from its log", gameId);
+					status.setBoard(gameLogService.rebuildBoard(gameId, status.getStateVersion()));
+					status.setPositionHash(null);
+				}
+				if (status.getPositionHash() == null) {
+					status.setPositionHash(Zobrist.hash(status.getBoard(), status.getIsGuestTurn()));
+				}
+				activeGame.setStatus(status);
+				activeGame.setStoredVersion(status.getStateVersion());
+				activeGame.setLastMovement(strategoMovementRepository.findLastByGameId(gameId).orElse(null));
+			});
+			return activeGame;
+		});
+	}
+
+	private ActiveGame cache(ActiveGame activeGame) {
+		ActiveGame cached;
+		synchronized (games) {
+			// Another request may have loaded the game meanwhile, keep the first one
+			cached = games.putIfAbsent(activeGame.getGameId(), activeGame);
+			var iterator = games.values().iterator();
+			while (games.size() > maxGames && iterator.hasNext()) {
+				// A request may hold the game without having marked it dirty yet, and this
+				// one already holds the lock of another game, so the scheduler decides
+				park(iterator.next());
+				iterator.remove();
+			}
+		}
+
+		return cached != null ? cached : activeGame;
+	}
+
+	@Override
+	public void saveGame(ActiveGame activeGame) {
+		gameRepository.save(activeGame.getGame());
+		if (!isActive(activeGame)) {
+			evict(activeGame.getGameId());
+		}
+	}
+
+	@Override
+	public void saveStatus(ActiveGame activeGame) {
+		var status = activeGame.getStatus();
+		if (writeBehind && status.getId() != null) {
+			activeGame.setDirty(true);
+			return;
+		}
+
+		try {
+			writeStatus(activeGame);
+		} catch (OptimisticLockingFailureException e) {
+			// The cached game is stale, the next request reloads it
+			evict(activeGame.getGameId());
+			throw e;
+		}
+		activeGame.setStoredVersion(status.getStateVersion());
+	}
+
+	/**
+	 * Writes the status only over the version it was loaded or last written
+	 * with, so a node holding a stale copy of the game cannot overwrite the
+	 * movements played on another one.
+	 */
+	private void writeStatus(ActiveGame activeGame) {
+		var status = activeGame.getStatus();
+		if (status.getId() != null && strategoStatusRepository.updateStateVersion(status.getId(),
+				activeGame.getStoredVersion(), status.getStateVersion()) == 0) {
+			throw new OptimisticLockingFailureException(
+					"Game %d was changed by another node".formatted(activeGame.getGameId()));
+		}
+		strategoStatusRepository.save(status);
+	}
+
+	@Override
+	public void addMovement(ActiveGame activeGame, StrategoMovement movement) {
+		activeGame.setLastMovement(movement);
+		if (!writeBehind) {
+			strategoMovementRepository.save(movement);
+		} else {
+			activeGame.getPendingMovements().add(movement);
+			activeGame.setDirty(true);
+		}
+	}
+
+	@Override
+	public void addSetup(ActiveGame activeGame, StrategoSetup setup) {
+		if (!writeBehind) {
+			strategoSetupRepository.save(setup);
+		} else {
+			activeGame.getPendingSetups().add(setup);
+			activeGame.setDirty(true);
+		}
+	}
+
+	@Override
+	public void addSnapshot(ActiveGame activeGame, StrategoSnapshot snapshot) {
+		if (!writeBehind) {
+			strategoSnapshotRepository.save(snapshot);
+		} else {
+			activeGame.getPendingSnapshots().add(snapshot);
+			activeGame.setDirty(true);
+		}
+	}
+
+	@Override
+	public void evictOnRollback(Long gameId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					discard(gameId);
+				}
+			}
+		});
+	}
+
+	private void discard(Long gameId) {
+		synchronized (games) {
+			var activeGame = games.get(gameId);
+			// Unflushed changes were accepted by earlier requests and cannot be reloaded
+			if (activeGame != null && !activeGame.isDirty()) {
+				games.remove(gameId);
+			}
+		}
+	}
+
+	@Override
+	public void evict(Long gameId) {
+		ActiveGame activeGame;
+		synchronized (games) {
+			activeGame = games.get(gameId);
+			if (activeGame != null) {
+				park(activeGame);
+				games.remove(gameId);
+			}
+		}
+		if (activeGame == null) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			flushEvicted(activeGame);
+			return;
+		}
+		// The transaction may still hold locks the flush needs. Parked, the game is
+		// taken back with its changes whether the transaction commits or not
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				flushEvicted(activeGame);
+			}
+		});
+	}
+
+	private void park(ActiveGame activeGame) {
+		evictedGames.put(activeGame.getGameId(), activeGame);
+	}
+
+	@Override
+	public boolean contains(Long gameId) {
+		synchronized (games) {
+			if (games.containsKey(gameId)) {
+				return true;
+			}
+		}
+		return evictedGames.containsKey(gameId);
+	}
+
+	@Override
+	@Scheduled(fixedDelayString = "${stratego.cache.group-commit-interval:1000}")
+	public void flush() {
+		List<ActiveGame> dirtyGames;
+		synchronized (games) {
+			dirtyGames = games.values().stream().filter(ActiveGame::isDirty).toList();
+		}
+		dirtyGames.forEach(this::flush);
+
+		evictedGames.values().forEach(this::flushEvicted);
+	}
+
+	private void flushEvicted(ActiveGame evictedGame) {
+		gameExecutor.execute(evictedGame.getGameId(), () -> {
+			// A failed flush keeps the game parked, so the next one retries it
+			if (flush(evictedGame)) {
+				evictedGames.remove(evictedGame.getGameId(), evictedGame);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Persists the pending changes of the game, returns whether nothing is left
+	 * to write.
+	 */
+	private boolean flush(ActiveGame activeGame) {
+		return gameExecutor.execute(activeGame.getGameId(), () -> {
+			if (!activeGame.isDirty()) {
+				return true;
+			}
+			var movements = List.copyOf(activeGame.getPendingMovements());
+			var setups = List.copyOf(activeGame.getPendingSetups());
+			var snapshots = List.copyOf(activeGame.getPendingSnapshots());
+			try {
+				// One transaction, a snapshot is never committed ahead of its movements
+				flushTemplate.execute(tx -> {
+					writeStatus(activeGame);
+					strategoSetupRepository.saveAll(setups);
+					strategoMovementRepository.saveAll(movements);
+					return strategoSnapshotRepository.saveAll(snapshots);
+				});
+				activeGame.getPendingMovements().clear();
+				activeGame.getPendingSetups().clear();
+				activeGame.getPendingSnapshots().clear();
+				activeGame.setDirty(false);
+				activeGame.setStoredVersion(activeGame.getStatus().getStateVersion());
+				return true;
+			} catch (OptimisticLockingFailureException e) {
+				// Retrying would fail again, and the stored game has moved on without these changes
+				log.error("Dropping the unflushed changes of game {}", activeGame.getGameId(), e);
+				drop(activeGame);
+				return true;
+			} catch (RuntimeException e) {
+				log.error("Error persisting game {}", activeGame.getGameId(), e);
+				return false;
+			}
+		});
+	}
+
+	private void drop(ActiveGame activeGame) {
+		activeGame.getPendingMovements().clear();
+		activeGame.getPendingSetups().clear();
+		activeGame.getPendingSnapshots().clear();
+		activeGame.setDirty(false);
+		synchronized (games) {
+			games.remove(activeGame.getGameId(), activeGame);
+		}
+		evictedGames.remove(activeGame.getGameId(), activeGame);
+	}
+
+	@Scheduled(fixedDelayString = "${stratego.cache.eviction-interval:60000}")
+	public void evictIdleGames() {
+		var limit = System.currentTimeMillis() - idleTtl.toMillis();
+		var evicted = new ArrayList<ActiveGame>();
+		synchronized (games) {
+			var iterator = games.values().iterator();
+			while (iterator.hasNext()) {
+				var activeGame = iterator.next();
+				if (activeGame.getLastAccess() < limit) {
+					park(activeGame);
+					evicted.add(activeGame);
+					iterator.remove();
+				}
+			}
+		}
+		evicted.forEach(this::flushEvicted);
+	}
+
+	@PreDestroy
+	public void close() {
+		flush();
+	}
+
+	@Override
+	public int size() {
+		synchronized (games) {
+			return games.size();
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import com.pdrosoft.matchmaking.dto.GameExtendedDTO;
+import com.pdrosoft.matchmaking.model.Player;
+
+public interface BotService {
+
+	/**
+	 * Joins the game as its guest with a bot that sets up its army and answers
+	 * every movement of the host.
+	 */
+	GameExtendedDTO addBot(Player host, Long gameId);
+
+	/**
+	 * Whether the user name is the one of the bot, which no player can sign up
+	 * with.
+	 */
+	boolean isBotName(String userName);
+}
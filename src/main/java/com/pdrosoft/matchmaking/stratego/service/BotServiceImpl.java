@@ -0,0 +1,324 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.pdrosoft.matchmaking.dto.GameExtendedDTO;
+import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
+import com.pdrosoft.matchmaking.exception.NotFoundException;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.PlayerRepository;
+import com.pdrosoft.matchmaking.service.GameService;
+import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
+import com.pdrosoft.matchmaking.stratego.dto.GameStateDTO;
+import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
+import com.pdrosoft.matchmaking.stratego.engine.MonteCarloTreeSearch;
+import com.pdrosoft.matchmaking.stratego.engine.MoveGenerator;
+import com.pdrosoft.matchmaking.stratego.engine.PieceKnowledge;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The bot always plays as the guest. It sees the board as any guest does,
+ * follows which host pieces have moved and been captured from the movements of
+ * the game, and searches with {@link MonteCarloTreeSearch} over guesses of the
+ * hidden host ranks.
+ * Turns are played on {@code stratego.bot.threads} threads, which read the
+ * game and submit the movement, and only their searches run in one fork-join
+ * pool of {@code stratego.bot.pool-size} threads shared by all the bot games.
+ * <p>
+ * The bot joins a game and sets up its army in one transaction, so a game is
+ * never left with a bot that has not set up. When the application starts, the
+ * bot plays the turns it was due in the games it is playing.
+ * <p>
+ * The bot account is marked as such, and its user name is reserved, so a
+ * player who signs up with it is never taken for the bot.
+ */
+@Slf4j
+@Service
+public class BotServiceImpl implements BotService {
+
+	private static final int MOVEMENTS_PAGE = 200;
+
+	@NonNull
+	private final GameService gameService;
+	@NonNull
+	private final StrategoService strategoService;
+	@NonNull
+	private final PlayerRepository playerRepository;
+	@NonNull
+	private final GameRepository gameRepository;
+	@NonNull
+	private final GameExecutor gameExecutor;
+	@NonNull
+	private final PasswordEncoder passwordEncoder;
+
+	private final String botUserName;
+	private final ExecutorService turns;
+	private final ForkJoinPool pool;
+	private final MonteCarloTreeSearch search;
+
+	private final Map<Long, BotGame> botGames = new ConcurrentHashMap<>();
+	private final Random setupRandom = new Random();
+
+	private volatile Player botPlayer;
+	private volatile boolean botPlayerLoaded = false;
+
+	private static final class BotGame {
+		private final PieceKnowledge knowledge = new PieceKnowledge();
+		private boolean isHistoryLoaded;
+		private Integer lastMovementId;
+		// Version of the last state whose movement is known
+		private Long version;
+	}
+
+	@Autowired
+	public BotServiceImpl(@NonNull GameService gameService, @NonNull StrategoService strategoService,
+			@NonNull PlayerRepository playerRepository, @NonNull GameRepository gameRepository,
+			@NonNull GameExecutor gameExecutor, @NonNull PasswordEncoder passwordEncoder,
+			@NonNull RankService rankService, @Value("${stratego.bot.username:StrategoBot}") String botUserName,
+			@Value("${stratego.bot.think-time:PT2S}") Duration thinkTime,
+			@Value("${stratego.bot.parallelism:4}") int parallelism,
+			@Value("${stratego.bot.threads:2}") int threads,
+			@Value("${stratego.bot.pool-size:0}") int poolSize) {
+		this.gameService = gameService;
+		this.strategoService = strategoService;
+		this.playerRepository = playerRepository;
+		this.gameRepository = gameRepository;
+		this.gameExecutor = gameExecutor;
+		this.passwordEncoder = passwordEncoder;
+		this.botUserName = botUserName;
+		this.turns = Executors.newFixedThreadPool(Math.max(1, threads));
+		this.pool = new ForkJoinPool(poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors());
+		this.search = new MonteCarloTreeSearch(rankService::compareRanks, pool, thinkTime, parallelism);
+	}
+
+	@PostConstruct
+	public void checkBotPlayer() {
+		var player = playerRepository.findPlayersByName(botUserName);
+		if (player.isPresent() && !Boolean.TRUE.equals(player.get().getIsBot())) {
+			throw new IllegalStateException(
+					"The bot user name %s belongs to a player, configure another one".formatted(botUserName));
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		turns.shutdownNow();
+		pool.shutdownNow();
+	}
+
+	@Override
+	public boolean isBotName(String userName) {
+		return botUserName.equalsIgnoreCase(userName);
+	}
+
+	private Optional<Player> findBotPlayer() {
+		if (!botPlayerLoaded) {
+			botPlayer = playerRepository.findPlayersByName(botUserName)
+					.filter(player -> Boolean.TRUE.equals(player.getIsBot())).orElse(null);
+			botPlayerLoaded = true;
+		}
+		return Optional.ofNullable(botPlayer);
+	}
+
+	private synchronized Player getBotPlayer() {
+		return findBotPlayer().orElseGet(() -> {
+			var player = new Player();
+			player.setUserName(botUserName);
+			player.setIsBot(true);
+			// Nobody knows this password, the bot account cannot be logged into
+			player.setPassword(passwordEncoder.encode(UUID.randomUUID().toString()));
+			botPlayer = playerRepository.save(player);
+			return botPlayer;
+		});
+	}
+
+	ArmySetupDTO getRandomSetup() {
+		var ranks = new ArrayList<Rank>(40);
+		for (var rank : Rank.values()) {
+			ranks.addAll(Collections.nCopies(rank.getArmyCount(), rank));
+		}
+		Collections.shuffle(ranks, setupRandom);
+		// Keep the flag on the back row
+		Collections.swap(ranks, ranks.indexOf(Rank.FLAG), setupRandom.nextInt(StrategoBoard.SIZE));
+
+		var army = new ArrayList<List<Rank>>(4);
+		for (int row = 0; row < 4; row++) {
+			army.add(List.copyOf(ranks.subList(row * StrategoBoard.SIZE, (row + 1) * StrategoBoard.SIZE)));
+		}
+		return ArmySetupDTO.builder().army(army).build();
+	}
+
+	@Override
+	public GameExtendedDTO addBot(Player host, Long gameId) {
+		var bot = getBotPlayer();
+		// Checked under the game lock, so nobody joins meanwhile, and join and setup share the
+		// transaction, so a failed setup leaves the game without a guest
+		gameExecutor.executeInTransaction(gameId, () -> {
+			var game = gameRepository.findById(gameId)
+					.orElseThrow(() -> new NotFoundException("Game %d does not exist".formatted(gameId)));
+			if (game.getHost() == null || !game.getHost().getId().equals(host.getId())) {
+				throw new MatchmakingValidationException("Only the host can add a bot");
+			}
+			if (game.getGuest() != null) {
+				throw new MatchmakingValidationException("The game already has a guest");
+			}
+			if (game.getPhase() != null && !GamePhase.WAITING_FOR_SETUP_2_PLAYERS.equals(game.getPhase())) {
+				throw new MatchmakingValidationException("The game cannot be joined anymore");
+			}
+
+			gameService.joinGame(bot, gameId);
+			return strategoService.addSetup(gameId, bot, getRandomSetup());
+		});
+		return gameService.getGame(host, gameId);
+	}
+
+	/**
+	 * Turns due when the application stopped get no {@link GameUpdatedEvent},
+	 * they are played now.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void resumeGames() {
+		findBotPlayer().ifPresent(bot -> {
+			var gameIds = gameRepository.findIdsOnGuestTurn(bot, GamePhase.PLAYING);
+			gameIds.forEach(gameId -> turns.execute(() -> play(gameId.longValue(), bot)));
+			if (!gameIds.isEmpty()) {
+				log.info("The bot resumes {} games", gameIds.size());
+			}
+		});
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onGameUpdated(GameUpdatedEvent event) {
+		var bot = findBotPlayer().filter(player -> player.getId().equals(event.guestPlayerId()));
+		if (bot.isEmpty()) {
+			return;
+		}
+
+		if (!GamePhase.PLAYING.equals(event.phase())) {
+			botGames.remove(event.gameId());
+		} else if (event.isGuestTurn()) {
+			turns.execute(() -> play(event.gameId(), bot.get()));
+		}
+	}
+
+	void play(Long gameId, Player bot) {
+		try {
+			var botGame = botGames.computeIfAbsent(gameId, id -> new BotGame());
+			synchronized (botGame) {
+				var state = strategoService.getStatus(gameId, bot);
+				if (!GamePhase.PLAYING.equals(state.getPhase())) {
+					botGames.remove(gameId);
+					return;
+				}
+				if (!state.isMyTurn()) {
+					return;
+				}
+
+				updateKnowledge(gameId, bot, botGame, state);
+				var board = StrategoBoard.fromTiles(state.getBoard());
+				var knowledge = botGame.knowledge;
+				var hiddenCounts = knowledge.getHiddenCounts(board, true);
+				var move = search.search(board, false,
+						random -> knowledge.determinize(board, true, hiddenCounts, random), System.nanoTime());
+				if (move < 0) {
+					log.info("The bot has no movements left in game {}", gameId);
+					return;
+				}
+
+				var fromIndex = MoveGenerator.fromIndex(move);
+				var toIndex = MoveGenerator.toIndex(move);
+				var played = strategoService.addMovement(gameId, bot, StrategoMovementDTO.builder() //
+						.rank(StrategoBoard.rankOf(board.get(fromIndex))) //
+						.rowInitial(fromIndex / StrategoBoard.SIZE) //
+						.colInitial(fromIndex % StrategoBoard.SIZE) //
+						.rowFinal(toIndex / StrategoBoard.SIZE) //
+						.colFinal(toIndex % StrategoBoard.SIZE) //
+						.build());
+				learn(botGame, played);
+			}
+		} catch (RuntimeException e) {
+			log.warn("The bot could not play in game {}", gameId, e);
+		}
+	}
+
+	PieceKnowledge getKnowledge(Long gameId) {
+		return Optional.ofNullable(botGames.get(gameId)).map(botGame -> botGame.knowledge).orElse(null);
+	}
+
+	/**
+	 * The history only has the movements already written, with write-behind the
+	 * latest ones are still in memory. It is read once, then every state brings
+	 * the movement that led to it.
+	 */
+	private void updateKnowledge(Long gameId, Player bot, BotGame botGame, GameStateDTO state) {
+		if (!botGame.isHistoryLoaded) {
+			List<StrategoMovementDTO> movements;
+			do {
+				movements = strategoService.getMovements(gameId, bot, botGame.lastMovementId, MOVEMENTS_PAGE);
+				for (var movement : movements) {
+					apply(botGame, movement);
+					botGame.lastMovementId = movement.getId();
+				}
+			} while (movements.size() == MOVEMENTS_PAGE);
+			botGame.isHistoryLoaded = true;
+		}
+		learn(botGame, state);
+	}
+
+	private void learn(BotGame botGame, GameStateDTO state) {
+		var movement = state.getMovement();
+		if (movement == null || state.getVersion() != null && botGame.version != null
+				&& state.getVersion() <= botGame.version) {
+			return;
+		}
+		botGame.version = state.getVersion();
+		// Already in the history when it was read
+		if (movement.getId() != null && botGame.lastMovementId != null
+				&& movement.getId() <= botGame.lastMovementId) {
+			return;
+		}
+		apply(botGame, movement);
+	}
+
+	private void apply(BotGame botGame, StrategoMovementDTO movement) {
+		var fromIndex = StrategoBoard.index(movement.getRowInitial(), movement.getColInitial());
+		var toIndex = StrategoBoard.index(movement.getRowFinal(), movement.getColFinal());
+		var result = Optional.ofNullable(movement.getResult()).orElse(List.of());
+		if (result.isEmpty()) {
+			botGame.knowledge.move(fromIndex, toIndex);
+		} else if (result.size() > 1) {
+			botGame.knowledge.attack(fromIndex, toIndex, 0);
+		} else {
+			var attackerLost = result.get(0).isHost() == botGame.knowledge.isHostPiece(fromIndex);
+			botGame.knowledge.attack(fromIndex, toIndex, attackerLost ? -1 : 1);
+		}
+		result.forEach(captured -> botGame.knowledge.capture(captured.getRank(), captured.isHost()));
+	}
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
 import com.pdrosoft.matchmaking.stratego.dto.FavouriteSetupDTO;
 import com.pdrosoft.matchmaking.stratego.dto.FavouriteSetupInputDTO;
 
@@ -19,4 +20,9 @@ public interface FavouriteSetupService {
 
 	Optional<FavouriteSetupDTO> getSetup(Integer id, Player player);
 
+	/**
+	 * Validity of every setup, in the same order.
+	 */
+	List<Boolean> validateSetups(List<ArmySetupDTO> setups);
+
 }
@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
 import com.pdrosoft.matchmaking.model.FavouriteSetup;
 import com.pdrosoft.matchmaking.model.Player;
 import com.pdrosoft.matchmaking.repository.FavouriteSetupRepository;
@@ -17,6 +18,7 @@ import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
 import com.pdrosoft.matchmaking.stratego.dto.FavouriteSetupDTO;
 import com.pdrosoft.matchmaking.stratego.dto.FavouriteSetupInputDTO;
 import com.pdrosoft.matchmaking.stratego.enums.Rank;
+import com.pdrosoft.matchmaking.stratego.validation.ArmySetupValidator;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,8 @@ import lombok.RequiredArgsConstructor;
 @Service
 public class FavouriteSetupServiceImpl implements FavouriteSetupService {
 
+	private static final int MAX_VALIDATION_BATCH = 500;
+
 	@NonNull
 	FavouriteSetupRepository favouriteSetupRepository;
 
@@ -82,6 +86,17 @@ public class FavouriteSetupServiceImpl implements FavouriteSetupService {
 		return favouriteSetupRepository.findById(id, player).map(this::parse);
 	}
 
+	@Override
+	public List<Boolean> validateSetups(List<ArmySetupDTO> setups) {
+		if (setups == null || setups.size() > MAX_VALIDATION_BATCH) {
+			throw new MatchmakingValidationException(
+					"Up to %d setups can be validated at once".formatted(MAX_VALIDATION_BATCH));
+		}
+
+		return setups.stream().map(setup -> setup != null && ArmySetupValidator.isValidArmy(setup.getArmy()))
+				.toList();
+	}
+
 	private void updateEntity(FavouriteSetupInputDTO favouriteSetupDto, FavouriteSetup setup, Player owner) {
 		String json;
 
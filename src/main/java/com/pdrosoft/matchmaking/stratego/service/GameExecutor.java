@@ -0,0 +1,18 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Serializes the work done on each game, so concurrent requests for the same
+ * game run one after the other while different games run in parallel.
+ */
+public interface GameExecutor {
+
+	<T> T execute(Long gameId, Supplier<T> action);
+
+	/**
+	 * Same as {@link #execute(Long, Supplier)}, with the action running in a
+	 * transaction that is committed before the game is released.
+	 */
+	<T> T executeInTransaction(Long gameId, Supplier<T> action);
+}
@@ -0,0 +1,87 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.NonNull;
+
+/**
+ * Striped lock executor: every game maps to one of
+ * {@code stratego.executor.stripes} fair locks, so requests for a game are
+ * served in arrival order. Publishes the number of waiting requests
+ * ({@code stratego.executor.queue.depth}), the longest queue of a single
+ * stripe ({@code stratego.executor.queue.depth.max}) and the time spent
+ * waiting for a game ({@code stratego.executor.wait}).
+ */
+@Service
+public class GameExecutorImpl implements GameExecutor {
+
+	@NonNull
+	private final TransactionTemplate transactionTemplate;
+
+	private final ReentrantLock[] locks;
+	private final int mask;
+
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final Timer waitTimer;
+
+	@Autowired
+	public GameExecutorImpl(@NonNull PlatformTransactionManager transactionManager,
+			@NonNull MeterRegistry meterRegistry, @Value("${stratego.executor.stripes:256}") int stripes) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+		// Power of two, so the stripe is a mask of the spread hash
+		var size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+		this.locks = new ReentrantLock[size];
+		Arrays.setAll(locks, i -> new ReentrantLock(true));
+		this.mask = size - 1;
+
+		Gauge.builder("stratego.executor.queue.depth", waiting, AtomicInteger::get)
+				.description("Requests waiting for their game").register(meterRegistry);
+		Gauge.builder("stratego.executor.queue.depth.max", this, GameExecutorImpl::getMaxQueueDepth)
+				.description("Requests waiting on the busiest stripe").register(meterRegistry);
+		this.waitTimer = Timer.builder("stratego.executor.wait").description("Time waiting for a game")
+				.register(meterRegistry);
+	}
+
+	private int getMaxQueueDepth() {
+		return Arrays.stream(locks).mapToInt(ReentrantLock::getQueueLength).max().orElse(0);
+	}
+
+	int getStripe(Long gameId) {
+		var hash = gameId.hashCode();
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	@Override
+	public <T> T execute(Long gameId, Supplier<T> action) {
+		var lock = locks[getStripe(gameId)];
+		var start = System.nanoTime();
+		waiting.incrementAndGet();
+		lock.lock();
+		try {
+			waiting.decrementAndGet();
+			waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return action.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public <T> T executeInTransaction(Long gameId, Supplier<T> action) {
+		return execute(gameId, () -> transactionTemplate.execute(tx -> action.get()));
+	}
+}
@@ -0,0 +1,28 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.util.Optional;
+
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+
+/**
+ * Log of the events of a game (setups and movements) with board snapshots,
+ * from which the board at any state version can be rebuilt. The entries are
+ * persisted through {@link ActiveGameCache}, in order with the movements.
+ */
+public interface GameLogService {
+
+	/**
+	 * Setup of one of the players as it is on the current board.
+	 */
+	StrategoSetup getSetup(ActiveGame activeGame, boolean isHost);
+
+	/**
+	 * Snapshot of the current board if its version is a multiple of the
+	 * snapshot interval.
+	 */
+	Optional<StrategoSnapshot> getSnapshot(ActiveGame activeGame);
+
+	StrategoBoard rebuildBoard(Long gameId, long version);
+}
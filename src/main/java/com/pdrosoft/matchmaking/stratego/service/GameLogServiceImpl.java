@@ -0,0 +1,138 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
+import com.pdrosoft.matchmaking.model.StrategoMovement;
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSetupRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSnapshotRepository;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+
+import lombok.NonNull;
+
+/**
+ * Rebuilding a board starts from the latest snapshot before the requested
+ * version, or from the setups when there is none, and replays the movements
+ * after it. With a snapshot every {@code stratego.snapshot.interval} versions,
+ * no rebuild replays more movements than that. A zero or negative interval
+ * takes no snapshots, and rebuilds replay the whole game.
+ */
+@Service
+public class GameLogServiceImpl implements GameLogService {
+
+	private static final int SETUP_SQUARES = 4 * StrategoBoard.SIZE;
+
+	@NonNull
+	private final StrategoSetupRepository strategoSetupRepository;
+	@NonNull
+	private final StrategoSnapshotRepository strategoSnapshotRepository;
+	@NonNull
+	private final StrategoMovementRepository strategoMovementRepository;
+	@NonNull
+	private final RankService rankService;
+
+	private final int snapshotInterval;
+
+	@Autowired
+	public GameLogServiceImpl(@NonNull StrategoSetupRepository strategoSetupRepository,
+			@NonNull StrategoSnapshotRepository strategoSnapshotRepository,
+			@NonNull StrategoMovementRepository strategoMovementRepository, @NonNull RankService rankService,
+			@Value("${stratego.snapshot.interval:50}") int snapshotInterval) {
+		this.strategoSetupRepository = strategoSetupRepository;
+		this.strategoSnapshotRepository = strategoSnapshotRepository;
+		this.strategoMovementRepository = strategoMovementRepository;
+		this.rankService = rankService;
+		this.snapshotInterval = snapshotInterval;
+	}
+
+	private static int getSetupOffset(boolean isHost) {
+		return isHost ? 0 : StrategoBoard.NUM_SQUARES - SETUP_SQUARES;
+	}
+
+	@Override
+	public StrategoSetup getSetup(ActiveGame activeGame, boolean isHost) {
+		var status = activeGame.getStatus();
+		var offset = getSetupOffset(isHost);
+		var squares = new byte[SETUP_SQUARES];
+		for (int i = 0; i < SETUP_SQUARES; i++) {
+			squares[i] = status.getBoard().get(offset + i);
+		}
+
+		var setup = new StrategoSetup();
+		setup.setGame(activeGame.getGame());
+		setup.setIsHost(isHost);
+		setup.setStateVersion(status.getStateVersion());
+		setup.setSquares(squares);
+		return setup;
+	}
+
+	@Override
+	public Optional<StrategoSnapshot> getSnapshot(ActiveGame activeGame) {
+		var status = activeGame.getStatus();
+		if (snapshotInterval <= 0 || status.getStateVersion() % snapshotInterval != 0) {
+			return Optional.empty();
+		}
+
+		var snapshot = new StrategoSnapshot();
+		snapshot.setGame(activeGame.getGame());
+		snapshot.setStateVersion(status.getStateVersion());
+		snapshot.setBoard(status.getBoard().copy());
+		return Optional.of(snapshot);
+	}
+
+	@Override
+	public StrategoBoard rebuildBoard(Long gameId, long version) {
+		var snapshot = strategoSnapshotRepository.findLatestByGameId(gameId, version);
+
+		StrategoBoard board;
+		long fromVersion;
+		if (snapshot.isPresent()) {
+			// The snapshot may be managed, replaying on its board would update it
+			board = snapshot.get().getBoard().copy();
+			fromVersion = snapshot.get().getStateVersion();
+		} else {
+			var setups = strategoSetupRepository.findAllByGameId(gameId, version);
+			if (setups.isEmpty()) {
+				throw new MatchmakingValidationException("Game has not been started");
+			}
+
+			board = StrategoBoard.empty();
+			fromVersion = 0;
+			for (var setup : setups) {
+				var offset = getSetupOffset(setup.getIsHost());
+				for (int i = 0; i < SETUP_SQUARES; i++) {
+					board.set(offset + i, setup.getSquares()[i]);
+				}
+				fromVersion = Math.max(fromVersion, setup.getStateVersion());
+			}
+		}
+
+		for (var movement : strategoMovementRepository.findAllByGameId(gameId, fromVersion, version)) {
+			replay(board, movement);
+		}
+		return board;
+	}
+
+	private void replay(StrategoBoard board, StrategoMovement movement) {
+		var initialIndex = movement.getFromIndex();
+		var finalIndex = movement.getToIndex();
+		var initialSquare = board.get(initialIndex);
+		var finalSquare = board.get(finalIndex);
+		if (StrategoBoard.isEmpty(initialSquare)) {
+			throw new MatchmakingValidationException(
+					"Movement %d does not match the game log".formatted(movement.getId()));
+		}
+
+		var result = StrategoBoard.isEmpty(finalSquare) ? 1
+				: rankService.compareRanks(StrategoBoard.rankOrdinal(initialSquare),
+						StrategoBoard.rankOrdinal(finalSquare));
+		board.move(initialIndex, finalIndex, result);
+	}
+}
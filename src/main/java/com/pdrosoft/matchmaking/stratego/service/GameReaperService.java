@@ -0,0 +1,20 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.time.Instant;
+
+public interface GameReaperService {
+
+	/**
+	 * Aborts the games still waiting for a guest, in a setup phase or playing
+	 * that nobody has created, set up or moved in since {@code inactiveBefore}.
+	 * Returns the number of aborted games.
+	 */
+	int abortStaleGames(Instant inactiveBefore);
+
+	/**
+	 * Deletes the status, setups, snapshots and movements of the finished and
+	 * aborted games created before {@code createdBefore}. The games themselves
+	 * are kept. Returns the number of purged games.
+	 */
+	int purgeGames(Instant createdBefore);
+}
@@ -0,0 +1,211 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pdrosoft.matchmaking.chat.dto.NotificationDTO;
+import com.pdrosoft.matchmaking.chat.service.NotificationService;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSetupRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSnapshotRepository;
+import com.pdrosoft.matchmaking.repository.StrategoStatusRepository;
+import com.pdrosoft.matchmaking.service.LobbyIndex;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background cleanup of the game tables. Games are walked by id in keyset
+ * pages of {@code stratego.reaper.batch-size}, so the reaper never keeps many
+ * rows locked. Games are stale when nobody has set up or moved in them for
+ * {@code stratego.reaper.max-age}, as stored with their status. They are
+ * aborted one at a time, each in its own transaction under its game lock with
+ * a conditional update, so a game played meanwhile is left alone, and its
+ * players are notified. Old finished games are purged with bulk deletes, one
+ * short transaction per page.
+ */
+@Slf4j
+@Service
+public class GameReaperServiceImpl implements GameReaperService {
+
+	private static final Set<GamePhase> ACTIVE_PHASES = EnumSet.of(GamePhase.WAITING_FOR_SETUP_2_PLAYERS,
+			GamePhase.WAITING_FOR_SETUP_1_PLAYER, GamePhase.PLAYING);
+	private static final Set<GamePhase> INACTIVE_PHASES = EnumSet.of(GamePhase.FINISHED, GamePhase.ABORTED);
+
+	@NonNull
+	private final GameRepository gameRepository;
+	@NonNull
+	private final StrategoStatusRepository strategoStatusRepository;
+	@NonNull
+	private final StrategoMovementRepository strategoMovementRepository;
+	@NonNull
+	private final StrategoSetupRepository strategoSetupRepository;
+	@NonNull
+	private final StrategoSnapshotRepository strategoSnapshotRepository;
+	@NonNull
+	private final ActiveGameCache activeGameCache;
+	@NonNull
+	private final GameExecutor gameExecutor;
+	@NonNull
+	private final TurnClockService turnClockService;
+	@NonNull
+	private final LobbyIndex lobbyIndex;
+	@NonNull
+	private final NotificationService notificationService;
+	@NonNull
+	private final ApplicationEventPublisher eventPublisher;
+	@NonNull
+	private final TransactionTemplate transactionTemplate;
+
+	private final Duration maxAge;
+	private final Duration retention;
+	private final int batchSize;
+
+	@Autowired
+	public GameReaperServiceImpl(@NonNull GameRepository gameRepository,
+			@NonNull StrategoStatusRepository strategoStatusRepository,
+			@NonNull StrategoMovementRepository strategoMovementRepository,
+			@NonNull StrategoSetupRepository strategoSetupRepository,
+			@NonNull StrategoSnapshotRepository strategoSnapshotRepository,
+			@NonNull ActiveGameCache activeGameCache, @NonNull GameExecutor gameExecutor,
+			@NonNull TurnClockService turnClockService,
+			@NonNull LobbyIndex lobbyIndex, @NonNull NotificationService notificationService,
+			@NonNull ApplicationEventPublisher eventPublisher,
+			@NonNull PlatformTransactionManager transactionManager,
+			@Value("${stratego.reaper.max-age:P1D}") Duration maxAge,
+			@Value("${stratego.reaper.retention:P30D}") Duration retention,
+			@Value("${stratego.reaper.batch-size:500}") int batchSize) {
+		this.gameRepository = gameRepository;
+		this.strategoStatusRepository = strategoStatusRepository;
+		this.strategoMovementRepository = strategoMovementRepository;
+		this.strategoSetupRepository = strategoSetupRepository;
+		this.strategoSnapshotRepository = strategoSnapshotRepository;
+		this.activeGameCache = activeGameCache;
+		this.gameExecutor = gameExecutor;
+		this.turnClockService = turnClockService;
+		this.lobbyIndex = lobbyIndex;
+		this.notificationService = notificationService;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.maxAge = maxAge;
+		this.retention = retention;
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	@Scheduled(fixedDelayString = "${stratego.reaper.interval:PT10M}",
+			initialDelayString = "${stratego.reaper.interval:PT10M}")
+	public void reap() {
+		var now = Instant.now();
+		// A zero age turns each step off
+		if (maxAge.isPositive()) {
+			var aborted = abortStaleGames(now.minus(maxAge));
+			if (aborted > 0) {
+				log.info("Aborted {} stale games", aborted);
+			}
+		}
+		if (retention.isPositive()) {
+			var purged = purgeGames(now.minus(retention));
+			if (purged > 0) {
+				log.info("Purged the status and movements of {} games", purged);
+			}
+		}
+	}
+
+	@Override
+	public int abortStaleGames(Instant inactiveBefore) {
+		var aborted = 0;
+		var afterId = 0;
+		List<Integer> gameIds;
+		do {
+			gameIds = gameRepository.findInactiveIds(afterId, inactiveBefore, ACTIVE_PHASES, Limit.of(batchSize));
+			if (gameIds.isEmpty()) {
+				break;
+			}
+			afterId = gameIds.getLast();
+			for (var gameId : gameIds) {
+				if (abortStaleGame(gameId.longValue(), inactiveBefore)) {
+					aborted++;
+				}
+			}
+		} while (gameIds.size() == batchSize);
+		return aborted;
+	}
+
+	private boolean abortStaleGame(Long gameId, Instant inactiveBefore) {
+		return gameExecutor.executeInTransaction(gameId, () -> {
+			// A game in memory may have been played since its status was last written
+			if (activeGameCache.contains(gameId)) {
+				return false;
+			}
+			// Checked again by the update, the game may have been played on another node
+			if (gameRepository.updatePhaseIfInactive(gameId.intValue(), ACTIVE_PHASES, inactiveBefore,
+					GamePhase.ABORTED) == 0) {
+				return false;
+			}
+			turnClockService.cancel(gameId);
+			lobbyIndex.remove(gameId.intValue());
+
+			var guestPlayerId = gameRepository.findById(gameId).map(Game::getGuest).map(Player::getId).orElse(null);
+			var version = strategoStatusRepository.findStateVersionByGameId(gameId.intValue()).orElse(0L);
+			notificationService.sendNotification(Long.toString(gameId), NotificationDTO.builder() //
+					.gamePhase(GamePhase.ABORTED) //
+					.message("Nobody has played for too long, the game has been aborted") //
+					.build());
+			eventPublisher.publishEvent(new GameUpdatedEvent(gameId, GamePhase.ABORTED, guestPlayerId, false, version));
+			return true;
+		});
+	}
+
+	@Override
+	public int purgeGames(Instant createdBefore) {
+		var purged = 0;
+		var afterId = 0;
+		List<Integer> gameIds;
+		do {
+			gameIds = strategoStatusRepository.findGameIdsInPhases(afterId, createdBefore, INACTIVE_PHASES,
+					Limit.of(batchSize));
+			if (gameIds.isEmpty()) {
+				break;
+			}
+			afterId = gameIds.getLast();
+			purge(gameIds);
+			purged += gameIds.size();
+		} while (gameIds.size() == batchSize);
+		return purged;
+	}
+
+	private void purge(List<Integer> gameIds) {
+		// A long game has thousands of movements, they go in batches of rows
+		List<Integer> movementIds;
+		do {
+			movementIds = strategoMovementRepository.findIdsByGameIds(gameIds, Limit.of(batchSize));
+			if (!movementIds.isEmpty()) {
+				var ids = movementIds;
+				transactionTemplate.executeWithoutResult(tx -> strategoMovementRepository.deleteByIds(ids));
+			}
+		} while (movementIds.size() == batchSize);
+
+		// The status goes last, a purge interrupted halfway is found again on the next run
+		transactionTemplate.executeWithoutResult(tx -> {
+			strategoSetupRepository.deleteByGameIds(gameIds);
+			strategoSnapshotRepository.deleteByGameIds(gameIds);
+			strategoStatusRepository.deleteByGameIds(gameIds);
+		});
+	}
+}
@@ -0,0 +1,11 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+/**
+ * Published by the game engine after every setup and movement. Listeners
+ * should wait for the transaction to commit before acting on it.
+ */
+public record GameUpdatedEvent(Long gameId, GamePhase phase, Integer guestPlayerId, boolean isGuestTurn,
+		long version) {
+}
@@ -5,4 +5,16 @@ import com.pdrosoft.matchmaking.stratego.enums.Rank;
 public interface RankService {
 
 	int compareRanks(Rank rankAttacker, Rank rankDefender);
+
+	/**
+	 * Same as {@link #compareRanks(Rank, Rank)} but indexed by
+	 * {@link Rank#ordinal()}.
+	 */
+	int compareRanks(int attackerOrdinal, int defenderOrdinal);
+
+	/**
+	 * Resolves a batch of engagements, storing in {@code results[i]} the outcome
+	 * of {@code attackerOrdinals[i]} attacking {@code defenderOrdinals[i]}.
+	 */
+	void compareRanks(int[] attackerOrdinals, int[] defenderOrdinals, int[] results);
 }
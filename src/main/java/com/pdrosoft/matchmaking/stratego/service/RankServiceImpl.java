@@ -1,9 +1,5 @@
 package com.pdrosoft.matchmaking.stratego.service;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-
 import org.springframework.stereotype.Service;
 
 import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
@@ -12,61 +8,71 @@ import com.pdrosoft.matchmaking.stratego.enums.Rank;
 @Service
 public class RankServiceImpl implements RankService {
 
+	private static final int NUM_RANKS = Rank.values().length;
+	private static final byte INVALID = Byte.MIN_VALUE;
+
+	// Outcome of every engagement, indexed by [attacker ordinal * NUM_RANKS + defender ordinal]
+	private static final byte[] OUTCOMES = buildOutcomes();
+
+	private static byte[] buildOutcomes() {
+		var outcomes = new byte[NUM_RANKS * NUM_RANKS];
+		for (var attacker : Rank.values()) {
+			for (var defender : Rank.values()) {
+				outcomes[attacker.ordinal() * NUM_RANKS + defender.ordinal()] = resolve(attacker, defender);
+			}
+		}
+		return outcomes;
+	}
+
+	private static byte resolve(Rank rankAttacker, Rank rankDefender) {
+		if (Rank.BOMB.equals(rankAttacker) || Rank.FLAG.equals(rankAttacker) || Rank.DISABLED.equals(rankAttacker)
+				|| Rank.DISABLED.equals(rankDefender)) {
+			return INVALID;
+		}
+
+		if (rankAttacker.equals(rankDefender)) {
+			return 0;
+		}
+
+		var attackerWins = switch (rankDefender) {
+		case FLAG -> true;
+		case BOMB -> Rank.MINER.equals(rankAttacker);
+		case MARSHAL -> Rank.SPY.equals(rankAttacker);
+		// GENERAL to SPY: only the ranks declared before the defender win
+		default -> rankAttacker.ordinal() < rankDefender.ordinal();
+		};
+
+		return (byte) (attackerWins ? 1 : -1);
+	}
+
 	@Override
 	public int compareRanks(Rank rankAttacker, Rank rankDefender) {
-		var immobileRanks = List.of(Rank.BOMB, Rank.FLAG, Rank.DISABLED);
-		if (immobileRanks.contains(rankAttacker) || Rank.DISABLED.equals(rankDefender)) {
+		return compareRanks(rankAttacker.ordinal(), rankDefender.ordinal());
+	}
+
+	@Override
+	public int compareRanks(int attackerOrdinal, int defenderOrdinal) {
+		if (attackerOrdinal < 0 || attackerOrdinal >= NUM_RANKS || defenderOrdinal < 0
+				|| defenderOrdinal >= NUM_RANKS) {
 			throw new MatchmakingValidationException("Invalid ranks compared");
 		}
 
-		if (Objects.equals(rankAttacker, rankDefender)) {
-			return 0;
+		var outcome = OUTCOMES[attackerOrdinal * NUM_RANKS + defenderOrdinal];
+		if (outcome == INVALID) {
+			throw new MatchmakingValidationException("Invalid ranks compared");
 		}
 
-		List<Rank> upperRanks = List.of();
-		switch (rankDefender) {
-		case FLAG:
-			upperRanks = Arrays.asList(Rank.values());
-			break;
-		case BOMB:
-			upperRanks = List.of(Rank.MINER);
-			break;
-		case MARSHAL:
-			upperRanks = List.of(Rank.SPY);
-			break;
-		case GENERAL:
-			upperRanks = List.of(Rank.MARSHAL);
-			break;
-		case COLONEL:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL);
-			break;
-		case MAJOR:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL, Rank.COLONEL);
-			break;
-		case CAPTAIN:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL, Rank.COLONEL, Rank.MAJOR);
-			break;
-		case LIEUTENANT:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL, Rank.COLONEL, Rank.MAJOR, Rank.CAPTAIN);
-			break;
-		case SERGEANT:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL, Rank.COLONEL, Rank.MAJOR, Rank.CAPTAIN, Rank.LIEUTENANT);
-			break;
-		case MINER:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL, Rank.COLONEL, Rank.MAJOR, Rank.CAPTAIN, Rank.LIEUTENANT,
-					Rank.SERGEANT);
-			break;
-		case SCOUT:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL, Rank.COLONEL, Rank.MAJOR, Rank.CAPTAIN, Rank.LIEUTENANT,
-					Rank.SERGEANT, Rank.MINER);
-			break;
-		case SPY:
-		default:
-			upperRanks = List.of(Rank.MARSHAL, Rank.GENERAL, Rank.COLONEL, Rank.MAJOR, Rank.CAPTAIN, Rank.LIEUTENANT,
-					Rank.SERGEANT, Rank.MINER, Rank.SCOUT);
-			break;
+		return outcome;
+	}
+
+	@Override
+	public void compareRanks(int[] attackerOrdinals, int[] defenderOrdinals, int[] results) {
+		if (attackerOrdinals.length != defenderOrdinals.length || results.length < attackerOrdinals.length) {
+			throw new IllegalArgumentException("Attackers, defenders and results must have the same length");
 		}
 
-		return upperRanks.contains(rankAttacker) ? 1 : -1;
+		for (int i = 0; i < attackerOrdinals.length; i++) {
+			results[i] = compareRanks(attackerOrdinals[i], defenderOrdinals[i]);
+		}
 	}
 }
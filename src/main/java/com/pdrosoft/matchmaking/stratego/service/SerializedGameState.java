@@ -0,0 +1,10 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+/**
+ * Game state already written as JSON for one viewer, with what the response
+ * headers need to know about it.
+ */
+public record SerializedGameState(Long version, Integer playerId, GamePhase phase, byte[] json) {
+}
@@ -1,7 +1,10 @@
 package com.pdrosoft.matchmaking.stratego.service;
 
+import java.util.List;
+
 import com.pdrosoft.matchmaking.model.Player;
 import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
+import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
 import com.pdrosoft.matchmaking.stratego.dto.GameStateDTO;
 import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
 
@@ -13,4 +16,24 @@ public interface StrategoService {
 
 	GameStateDTO getStatus(Long gameId, Player player);
 
+	/**
+	 * With a {@code sinceVersion} still covered by the game's change log, the
+	 * result holds the changed squares instead of the whole board.
+	 */
+	GameStateDTO getStatus(Long gameId, Player player, Long sinceVersion);
+
+	/**
+	 * {@link #getStatus(Long, Player, Long)} as JSON. Whole boards for the host
+	 * and the guest are serialized once per state version.
+	 */
+	SerializedGameState getSerializedStatus(Long gameId, Player player, Long sinceVersion);
+
+	/**
+	 * Board of the game as it was at the given state version, rebuilt from the
+	 * game log and seen by {@code player}.
+	 */
+	List<List<BoardTileDTO>> getBoard(Long gameId, Player player, Long version);
+
+	List<StrategoMovementDTO> getMovements(Long gameId, Player player, Integer afterId, Integer limit);
+
 }
@@ -1,11 +1,16 @@
 package com.pdrosoft.matchmaking.stratego.service;
 
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +20,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdrosoft.matchmaking.chat.dto.NotificationDTO;
 import com.pdrosoft.matchmaking.chat.service.NotificationService;
+import com.pdrosoft.matchmaking.datasource.ReadYourWritesGuard;
 import com.pdrosoft.matchmaking.dto.PlayerDTO;
 import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
 import com.pdrosoft.matchmaking.model.Game;
@@ -23,14 +29,18 @@ import com.pdrosoft.matchmaking.model.StrategoMovement;
 import com.pdrosoft.matchmaking.model.StrategoStatus;
 import com.pdrosoft.matchmaking.repository.GameRepository;
 import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
-import com.pdrosoft.matchmaking.repository.StrategoStatusRepository;
 import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
+import com.pdrosoft.matchmaking.stratego.dto.BoardChangeDTO;
 import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
 import com.pdrosoft.matchmaking.stratego.dto.GameStateDTO;
 import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
 import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementResultDTO;
+import com.pdrosoft.matchmaking.stratego.engine.MovementOutcome;
+import com.pdrosoft.matchmaking.stratego.engine.PieceCounts;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.engine.Viewer;
+import com.pdrosoft.matchmaking.stratego.engine.Zobrist;
 import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
-import com.pdrosoft.matchmaking.stratego.enums.Rank;
 
 import jakarta.validation.Valid;
 import lombok.NonNull;
@@ -40,90 +50,107 @@ import lombok.RequiredArgsConstructor;
 @Service
 public class StrategoServiceImpl implements StrategoService {
 
+	private static final int DEFAULT_MOVEMENTS_LIMIT = 50;
+	private static final int MAX_MOVEMENTS_LIMIT = 200;
+	private static final Set<GamePhase> EXPIRING_PHASES = EnumSet.of(GamePhase.WAITING_FOR_SETUP_2_PLAYERS,
+			GamePhase.WAITING_FOR_SETUP_1_PLAYER, GamePhase.PLAYING);
+	private static final TypeReference<List<StrategoMovementResultDTO>> LEGACY_RESULT_TYPE = new TypeReference<>() {
+	};
+
 	@NonNull
 	private final GameRepository gameRepository;
 	@NonNull
 	private final PasswordEncoder passwordEncoder;
 	@NonNull
-	private final StrategoStatusRepository strategoStatusRepository;
-	@NonNull
 	private final StrategoMovementRepository strategoMovementRepository;
 	@NonNull
+	private final ActiveGameCache activeGameCache;
+	@NonNull
+	private final GameExecutor gameExecutor;
+	@NonNull
+	private final GameLogService gameLogService;
+	@NonNull
 	private final RankService rankService;
 	@NonNull
 	private final ObjectMapper mapper;
 	@NonNull
 	private final NotificationService notificationService;
+	@NonNull
+	private final ApplicationEventPublisher eventPublisher;
+	@NonNull
+	private final TurnClockService turnClockService;
+	@NonNull
+	private final ReadYourWritesGuard readYourWritesGuard;
 
 	private PlayerDTO toPlayerDTO(Player player) {
 		return PlayerDTO.builder().id(player.getId()).username(player.getUserName()).build();
 
 	}
 
-	private List<List<BoardTileDTO>> getEmptyBoard() {
-		var disa = BoardTileDTO.builder().rank(Rank.DISABLED).build();
-		var row1 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-		var row2 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-		var row3 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-		var row4 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-		var row5 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, disa, disa, null, null, disa, disa, null, null));
-		var row6 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, disa, disa, null, null, disa, disa, null, null));
-		var row7 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-		var row8 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-		var row9 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-		var row10 = new ArrayList<BoardTileDTO>(
-				Arrays.asList(null, null, null, null, null, null, null, null, null, null));
-
-		var board = new ArrayList<List<BoardTileDTO>>(
-				Arrays.asList(row1, row2, row3, row4, row5, row6, row7, row8, row9, row10));
-
-		return board;
-	}
-
-	private void copySetupHost(ArmySetupDTO setupDto, List<List<BoardTileDTO>> board) {
+	private void copySetupHost(ArmySetupDTO setupDto, StrategoBoard board) {
 		var offset = 0;
 		for (int iRow = 0; iRow <= 3; iRow++) {
 			var setupRow = setupDto.getArmy().get(iRow);
-			var boardRow = board.get(offset + iRow);
 
 			for (int iCol = 0; iCol < 10; iCol++) {
-				var tile = BoardTileDTO.builder().rank(setupRow.get(iCol)).isHostOwner(true).build();
-				boardRow.set(iCol, tile);
+				board.set(offset + iRow, iCol, StrategoBoard.encode(setupRow.get(iCol), true));
 			}
 		}
 	}
 
-	private void copySetupGuest(ArmySetupDTO setupDto, List<List<BoardTileDTO>> board) {
+	private void copySetupGuest(ArmySetupDTO setupDto, StrategoBoard board) {
 		for (int iRow = 0; iRow <= 3; iRow++) {
 			var setupRow = setupDto.getArmy().get(iRow);
-			var boardRow = board.get(9 - iRow);
 
 			for (int iCol = 0; iCol < 10; iCol++) {
-				var tile = BoardTileDTO.builder().rank(setupRow.get(9 - iCol)).isHostOwner(false).build();
-				boardRow.set(iCol, tile);
+				board.set(9 - iRow, iCol, StrategoBoard.encode(setupRow.get(9 - iCol), false));
 			}
 		}
 	}
 
-	private StrategoStatus getNewStrategoGame(Game game) {
+	private StrategoStatus getNewStrategoGame(ActiveGame activeGame) {
 		var status = new StrategoStatus();
 
-		status.setBoard(getEmptyBoard());
-		status.setGame(game);
+		status.setBoard(StrategoBoard.empty());
+		status.setGame(activeGame.getGame());
 		status.setIsGuestTurn(false);
 		status.setIsHostInitialized(false);
 		status.setIsGuestInitialized(false);
+		status.setStateVersion(0L);
+		status.setPositionHash(Zobrist.hash(status.getBoard(), false));
+
+		activeGame.setStatus(status);
+		activeGameCache.saveStatus(activeGame);
+		return status;
+	}
 
-		return strategoStatusRepository.save(status);
+	private void nextVersion(ActiveGame activeGame, int... changedIndices) {
+		var status = activeGame.getStatus();
+		var version = status.getStateVersion() + 1;
+		status.setStateVersion(version);
+		status.setLastActivity(Instant.now());
+		activeGame.getChangeLog().record(version, changedIndices);
+		activeGame.getSerializedStates().clear();
+	}
+
+	private static int[] getSetupIndices(boolean isHost) {
+		var firstRow = isHost ? 0 : 6;
+		return IntStream.range(StrategoBoard.index(firstRow, 0), StrategoBoard.index(firstRow + 4, 0)).toArray();
+	}
+
+	private Game findGame(Long gameId) {
+		return gameRepository.findById(gameId)
+				.orElseThrow(() -> new MatchmakingValidationException("Game does not exist"));
+	}
+
+	private ActiveGame loadGame(Long gameId) {
+		return activeGameCache.findGame(gameId)
+				.orElseThrow(() -> new MatchmakingValidationException("Game does not exist"));
+	}
+
+	private StrategoStatus getStartedStatus(ActiveGame activeGame) {
+		return Optional.ofNullable(activeGame.getStatus())
+				.orElseThrow(() -> new MatchmakingValidationException("Game has not been started"));
 	}
 	
 	private void sendNotification(Long gameId, GamePhase gamePhase, String message) {
@@ -135,16 +162,43 @@ public class StrategoServiceImpl implements StrategoService {
 		notificationService.sendNotification(roomId, notification);
 	}
 
+	private void publishUpdate(ActiveGame activeGame) {
+		var game = activeGame.getGame();
+		// Games aborted before the first setup have no status
+		var status = Optional.ofNullable(activeGame.getStatus());
+		var guestPlayerId = Optional.ofNullable(game.getGuest()).map(Player::getId).orElse(null);
+		eventPublisher.publishEvent(new GameUpdatedEvent(activeGame.getGameId(), game.getPhase(), guestPlayerId,
+				status.map(StrategoStatus::getIsGuestTurn).orElse(false),
+				status.map(StrategoStatus::getStateVersion).orElse(0L)));
+	}
+
+	/**
+	 * Starts the clock of the next turn, or of the setups, and stops it when
+	 * the game is over.
+	 */
+	private void restartClock(ActiveGame activeGame) {
+		var deadline = turnClockService.getDeadline(activeGame.getGame().getPhase());
+		activeGame.getStatus().setTurnDeadline(deadline);
+		turnClockService.schedule(activeGame.getGameId(), deadline);
+	}
+
 	private boolean isPlayerId(Integer playerId, Player player2) {
-		return Optional.ofNullable(player2).map(Player::getId).filter(id -> id == playerId).isPresent();
+		return Optional.ofNullable(player2).map(Player::getId).filter(playerId::equals).isPresent();
+	}
+
+	private Viewer getViewer(Game game, Player player) {
+		return Viewer.of(isPlayerId(player.getId(), game.getHost()), isPlayerId(player.getId(), game.getGuest()));
 	}
 
 	@Override
-	@Transactional(rollbackFor = Exception.class)
 	public GameStateDTO addSetup(Long gameId, Player player, @Valid ArmySetupDTO setupDto) {
+		return gameExecutor.executeInTransaction(gameId, () -> doAddSetup(gameId, player, setupDto));
+	}
 
-		var game = gameRepository.findById(gameId)
-				.orElseThrow(() -> new MatchmakingValidationException("Game does not exist"));
+	private GameStateDTO doAddSetup(Long gameId, Player player, ArmySetupDTO setupDto) {
+		activeGameCache.evictOnRollback(gameId);
+		var activeGame = loadGame(gameId);
+		var game = activeGame.getGame();
 
 		var setupPhases = List.of(GamePhase.WAITING_FOR_SETUP_1_PLAYER, GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
 
@@ -152,10 +206,9 @@ public class StrategoServiceImpl implements StrategoService {
 			throw new MatchmakingValidationException("Game not in setup state");
 		}
 
-		List<List<BoardTileDTO>> board = null;
-		var status = strategoStatusRepository.findByGameId(gameId).orElseGet(() -> getNewStrategoGame(game));
+		var status = Optional.ofNullable(activeGame.getStatus()).orElseGet(() -> getNewStrategoGame(activeGame));
 
-		board = status.getBoard();
+		var board = status.getBoard();
 
 		var isHost = isPlayerId(player.getId(), game.getHost());
 		var isGuest = isPlayerId(player.getId(), game.getGuest());
@@ -171,18 +224,24 @@ public class StrategoServiceImpl implements StrategoService {
 		}
 
 		status.setBoard(board);
+		status.setPositionHash(Zobrist.hash(board, status.getIsGuestTurn()));
+		activeGame.setPieceCounts(null);
+		nextVersion(activeGame, getSetupIndices(isHost));
+		activeGameCache.addSetup(activeGame, gameLogService.getSetup(activeGame, isHost));
 
 		if (GamePhase.WAITING_FOR_SETUP_1_PLAYER.equals(game.getPhase())) {
 			game.setPhase(GamePhase.PLAYING);
 		} else { // if (GamePhase.WAITING_FOR_SETUP_2_PLAYERS.equals(game.getPhase())) {
 			game.setPhase(GamePhase.WAITING_FOR_SETUP_1_PLAYER);
 		}
+		restartClock(activeGame);
 
-		gameRepository.save(game);
+		activeGameCache.saveGame(activeGame);
 
-		strategoStatusRepository.save(status);
+		activeGameCache.saveStatus(activeGame);
 		
 		sendNotification(gameId, game.getPhase(), "Add setup");
+		publishUpdate(activeGame);
 
 		return GameStateDTO.builder() //
 				.currentPlayer(toPlayerDTO(player)) //
@@ -191,7 +250,9 @@ public class StrategoServiceImpl implements StrategoService {
 				.gameId(gameId) //
 				.phase(game.getPhase()) //
 				.movement(null) //
-				.board(board) //
+				.version(status.getStateVersion()) //
+				.board(board.toTiles(Viewer.of(isHost, isGuest))) //
+				.turnDeadline(status.getTurnDeadline()) //
 				.isMyTurn(isHost) //
 				.build();
 	}
@@ -203,8 +264,7 @@ public class StrategoServiceImpl implements StrategoService {
 		return isHost && !status.getIsGuestTurn() || isGuest && status.getIsGuestTurn();
 	}
 
-	private void checkValidMovement(StrategoMovementDTO movementDto, Game game, StrategoStatus status,
-			Integer playerId) {
+	void checkValidMovement(StrategoMovementDTO movementDto, Game game, StrategoStatus status, Integer playerId) {
 
 		var isMyTurn = getIsMyTurn(playerId, game, status);
 		if (!isMyTurn) {
@@ -212,122 +272,158 @@ public class StrategoServiceImpl implements StrategoService {
 		}
 
 		var isHost = isPlayerId(playerId, game.getHost());
-		List<List<BoardTileDTO>> board = status.getBoard();
-		var initialTile = board.get(movementDto.getRowInitial()).get(movementDto.getColInitial());
-		if (initialTile == null || initialTile.isHostOwner() != isHost || Rank.DISABLED.equals(initialTile.getRank())) {
+		var board = status.getBoard();
+		var initialSquare = board.get(movementDto.getRowInitial(), movementDto.getColInitial());
+		if (StrategoBoard.isEmpty(initialSquare) || StrategoBoard.isHostOwner(initialSquare) != isHost
+				|| StrategoBoard.isDisabled(initialSquare)) {
 			throw new MatchmakingValidationException("Invalid chosen square");
 		}
 
-		if (isInmobileRank(initialTile.getRank())) {
+		if (isInmobileRank(initialSquare)) {
 			throw new MatchmakingValidationException("This square cannot move");
 		}
 
-		var finalTile = board.get(movementDto.getRowFinal()).get(movementDto.getColFinal());
-		if (finalTile != null && (finalTile.isHostOwner() == isHost || Rank.DISABLED.equals(finalTile.getRank()))) {
+		var finalSquare = board.get(movementDto.getRowFinal(), movementDto.getColFinal());
+		if (!StrategoBoard.isEmpty(finalSquare)
+				&& (StrategoBoard.isHostOwner(finalSquare) == isHost || StrategoBoard.isDisabled(finalSquare))) {
 			throw new MatchmakingValidationException("Invalid destination square");
 		}
 	}
 
-	private List<StrategoMovementResultDTO> applyMovement(StrategoMovementDTO movementDto,
-			List<List<BoardTileDTO>> board) {
-		var initialTile = board.get(movementDto.getRowInitial()).get(movementDto.getColInitial());
-		var finalTile = board.get(movementDto.getRowFinal()).get(movementDto.getColFinal());
-		if (finalTile != null) {
-			var result = rankService.compareRanks(initialTile.getRank(), finalTile.getRank());
+	private StrategoMovementResultDTO toMovementResult(byte square) {
+		return StrategoMovementResultDTO.builder() //
+				.rank(StrategoBoard.rankOf(square)) //
+				.isHost(StrategoBoard.isHostOwner(square)) //
+				.build();
+	}
+
+	private List<StrategoMovementResultDTO> toMovementResult(short outcome) {
+		return switch (MovementOutcome.size(outcome)) {
+		case 0 -> List.of();
+		case 1 -> List.of(toMovementResult(MovementOutcome.get(outcome, 0)));
+		default -> List.of(toMovementResult(MovementOutcome.get(outcome, 0)),
+				toMovementResult(MovementOutcome.get(outcome, 1)));
+		};
+	}
+
+	/**
+	 * Moves the piece on {@code status}'s board and returns the
+	 * {@link MovementOutcome} of the pieces removed.
+	 */
+	short applyMovement(StrategoMovementDTO movementDto, StrategoStatus status,
+			PieceCounts pieceCounts) {
+		var board = status.getBoard();
+		var initialIndex = StrategoBoard.index(movementDto.getRowInitial(), movementDto.getColInitial());
+		var finalIndex = StrategoBoard.index(movementDto.getRowFinal(), movementDto.getColFinal());
+		var initialSquare = board.get(initialIndex);
+		var finalSquare = board.get(finalIndex);
+		if (!StrategoBoard.isEmpty(finalSquare)) {
+			var result = rankService.compareRanks(StrategoBoard.rankOf(initialSquare),
+					StrategoBoard.rankOf(finalSquare));
+
+			board.move(initialIndex, finalIndex, result);
+			status.setPositionHash(Zobrist.move(status.getPositionHash(), initialIndex, finalIndex, initialSquare,
+					finalSquare, result));
 
 			if (result < 0) {
 				// player lost, destination tile stays
-				setBoardPosition(board, movementDto.getRowInitial(), movementDto.getColInitial(), null);
-				return List.of(StrategoMovementResultDTO.builder() //
-						.rank(initialTile.getRank()) //
-						.isHost(initialTile.isHostOwner()) //
-						.build());
+				pieceCounts.remove(initialSquare);
+				return MovementOutcome.of(initialSquare);
 			} else if (result == 0) {
 				// Tie, both squares are deleted
-				setBoardPosition(board, movementDto.getRowInitial(), movementDto.getColInitial(), null);
-				setBoardPosition(board, movementDto.getRowFinal(), movementDto.getColFinal(), null);
-				return List.of(//
-						StrategoMovementResultDTO.builder() //
-								.rank(initialTile.getRank()) //
-								.isHost(initialTile.isHostOwner()) //
-								.build(), //
-						StrategoMovementResultDTO.builder() //
-								.rank(finalTile.getRank()) //
-								.isHost(finalTile.isHostOwner()) //
-								.build() //
-				);
+				pieceCounts.remove(initialSquare);
+				pieceCounts.remove(finalSquare);
+				return MovementOutcome.of(initialSquare, finalSquare);
 			} else { // result > 0
 				// player won
-				setBoardPosition(board, movementDto.getRowInitial(), movementDto.getColInitial(), null);
-				setBoardPosition(board, movementDto.getRowFinal(), movementDto.getColFinal(), initialTile);
-
-				return List.of(StrategoMovementResultDTO.builder() //
-						.rank(finalTile.getRank()) //
-						.isHost(finalTile.isHostOwner()) //
-						.build());
+				pieceCounts.remove(finalSquare);
+				return MovementOutcome.of(finalSquare);
 			}
 		} else {
 			// empty final tile, move directly
-			setBoardPosition(board, movementDto.getRowInitial(), movementDto.getColInitial(), null);
-			setBoardPosition(board, movementDto.getRowFinal(), movementDto.getColFinal(), initialTile);
+			board.move(initialIndex, finalIndex, 1);
+			status.setPositionHash(Zobrist.move(status.getPositionHash(), initialIndex, finalIndex, initialSquare,
+					finalSquare, 1));
 
-			return List.of();
+			return MovementOutcome.NONE;
 		}
 	}
 
-	private boolean isInmobileRank(Rank rank) {
-		var inmobileRanks = List.of(Rank.BOMB, Rank.DISABLED, Rank.FLAG);
-		return inmobileRanks.contains(rank);
+	private boolean isInmobileRank(byte square) {
+		return StrategoBoard.isInmobileRank(square);
 	}
 
-	private void setBoardPosition(List<List<BoardTileDTO>> board, Integer row, Integer col, BoardTileDTO tile) {
-		board.get(row).set(col, tile);
+	private PieceCounts getPieceCounts(ActiveGame activeGame) {
+		if (activeGame.getPieceCounts() == null) {
+			activeGame.setPieceCounts(PieceCounts.of(activeGame.getStatus().getBoard()));
+		}
+		return activeGame.getPieceCounts();
+	}
+
+	private static String getGameOverMessage(PieceCounts pieceCounts) {
+		var hostLost = pieceCounts.hasLost(true);
+		var guestLost = pieceCounts.hasLost(false);
+		if (hostLost && guestLost) {
+			return "Game finished in a draw";
+		}
+		return hostLost ? "Game finished, the guest wins" : "Game finished, the host wins";
 	}
 
 	@Override
-	@Transactional(rollbackFor = Exception.class)
 	public GameStateDTO addMovement(Long gameId, Player player, @Valid StrategoMovementDTO movementDto) {
+		return gameExecutor.executeInTransaction(gameId, () -> doAddMovement(gameId, player, movementDto));
+	}
 
-		var game = gameRepository.findById(gameId)
-				.orElseThrow(() -> new MatchmakingValidationException("Game does not exist"));
+	private GameStateDTO doAddMovement(Long gameId, Player player, StrategoMovementDTO movementDto) {
+		activeGameCache.evictOnRollback(gameId);
+		var activeGame = loadGame(gameId);
+		var game = activeGame.getGame();
 
 		if (!GamePhase.PLAYING.equals(game.getPhase())) {
 			throw new MatchmakingValidationException("Game not in playing state");
 		}
 
-		var status = strategoStatusRepository.findByGameId(gameId)
-				.orElseThrow(() -> new MatchmakingValidationException("Game has not been started"));
+		var status = getStartedStatus(activeGame);
 
 		checkValidMovement(movementDto, game, status, player.getId());
 
 		var board = status.getBoard();
-		var movementResult = applyMovement(movementDto, board);
+		var pieceCounts = getPieceCounts(activeGame);
+		var outcome = applyMovement(movementDto, status, pieceCounts);
 		status.setBoard(board);
 
 		var isGuestTurn = status.getIsGuestTurn();
 		status.setIsGuestTurn(!isGuestTurn);
-		strategoStatusRepository.save(status);
-
-		String resultString;
-		try {
-			resultString = mapper.writeValueAsString(movementResult);
-		} catch (JsonProcessingException e) {
-			resultString = "";
+		var initialIndex = StrategoBoard.index(movementDto.getRowInitial(), movementDto.getColInitial());
+		var finalIndex = StrategoBoard.index(movementDto.getRowFinal(), movementDto.getColFinal());
+		nextVersion(activeGame, initialIndex, finalIndex);
+		// The flag was captured, or a side has no piece left that can move
+		var isGameOver = pieceCounts.hasLost(true) || pieceCounts.hasLost(false);
+		if (isGameOver) {
+			game.setPhase(GamePhase.FINISHED);
 		}
+		restartClock(activeGame);
+		activeGameCache.saveStatus(activeGame);
 
 		var move = new StrategoMovement();
 		move.setGame(game);
 		move.setRank(movementDto.getRank());
-		move.setRowInitial(movementDto.getRowInitial());
-		move.setColInitial(movementDto.getColInitial());
-		move.setRowFinal(movementDto.getRowFinal());
-		move.setColFinal(movementDto.getColFinal());
+		move.setSquares(initialIndex, finalIndex);
 		move.setIsGuestTurn(isGuestTurn);
-		move.setResult(resultString);
+		move.setOutcome(outcome);
+		move.setStateVersion(status.getStateVersion());
 
-		strategoMovementRepository.save(move);
+		activeGameCache.addMovement(activeGame, move);
+		gameLogService.getSnapshot(activeGame)
+				.ifPresent(snapshot -> activeGameCache.addSnapshot(activeGame, snapshot));
 
-		sendNotification(gameId, game.getPhase(), "Add movement");
+		if (isGameOver) {
+			activeGameCache.saveGame(activeGame);
+			sendNotification(gameId, game.getPhase(), getGameOverMessage(pieceCounts));
+		} else {
+			sendNotification(gameId, game.getPhase(), "Add movement");
+		}
+		publishUpdate(activeGame);
 		
 		return GameStateDTO.builder() //
 				.currentPlayer(toPlayerDTO(player)) //
@@ -335,12 +431,70 @@ public class StrategoServiceImpl implements StrategoService {
 				.guestPlayerId(Optional.ofNullable(game.getGuest()).map(Player::getId).orElse(0)) //
 				.gameId(gameId) //
 				.phase(game.getPhase()) //
-				.movement(addMovementResult(movementDto, movementResult)) //
-				.board(board) //
+				.movement(addMovementResult(movementDto, toMovementResult(outcome))) //
+				.version(status.getStateVersion()) //
+				.board(board.toTiles(getViewer(game, player))) //
+				.turnDeadline(status.getTurnDeadline()) //
 				.isMyTurn(false) //
 				.build();
 	}
 
+	@EventListener
+	public void onTurnExpired(TurnExpiredEvent event) {
+		gameExecutor.executeInTransaction(event.gameId(), () -> doExpireTurn(event.gameId()));
+	}
+
+	private Void doExpireTurn(Long gameId) {
+		activeGameCache.evictOnRollback(gameId);
+		var activeGame = activeGameCache.findGame(gameId).orElse(null);
+		if (activeGame == null) {
+			return null;
+		}
+		var game = activeGame.getGame();
+		var status = activeGame.getStatus();
+
+		var deadline = Optional.ofNullable(status).map(StrategoStatus::getTurnDeadline);
+		if (deadline.filter(Instant.now()::isBefore).isPresent()) {
+			// A setup or movement started a new turn after the expired deadline was scheduled
+			turnClockService.schedule(gameId, deadline.get());
+			return null;
+		}
+		// Every node schedules every deadline, and this copy may be older than the one
+		// of the node playing the game. Its deadline is read from the primary
+		var stored = gameRepository.findTurnDeadline(gameId.intValue()).orElse(null);
+		if (stored == null || !EXPIRING_PHASES.contains(stored.getPhase())) {
+			return null;
+		}
+		var storedDeadline = Optional.ofNullable(stored.getTurnDeadline());
+		if (storedDeadline.filter(Instant.now()::isBefore).isPresent()) {
+			turnClockService.schedule(gameId, storedDeadline.get());
+			return null;
+		}
+
+		String message;
+		if (GamePhase.PLAYING.equals(game.getPhase())) {
+			// The player to move forfeits
+			game.setPhase(GamePhase.FINISHED);
+			message = status.getIsGuestTurn() ? "Time is over, the host wins" : "Time is over, the guest wins";
+		} else if (GamePhase.WAITING_FOR_SETUP_2_PLAYERS.equals(game.getPhase())
+				|| GamePhase.WAITING_FOR_SETUP_1_PLAYER.equals(game.getPhase())) {
+			game.setPhase(GamePhase.ABORTED);
+			message = "Time is over, the game has been aborted";
+		} else {
+			return null;
+		}
+
+		if (status != null) {
+			status.setTurnDeadline(null);
+			activeGameCache.saveStatus(activeGame);
+		}
+		activeGameCache.saveGame(activeGame);
+
+		sendNotification(gameId, game.getPhase(), message);
+		publishUpdate(activeGame);
+		return null;
+	}
+
 	private StrategoMovementDTO addMovementResult(StrategoMovementDTO movementDto,
 			List<StrategoMovementResultDTO> result) {
 		return StrategoMovementDTO.builder().rank(movementDto.getRank()) //
@@ -353,56 +507,163 @@ public class StrategoServiceImpl implements StrategoService {
 	}
 
 	private List<StrategoMovementResultDTO> getMovementResult(StrategoMovement movement) {
+		if (movement.getOutcome() != null) {
+			return toMovementResult(movement.getOutcome());
+		}
+		// Movements stored before the outcome keep their result as JSON
 		return Optional.ofNullable(movement.getResult()).map(str -> {
 			try {
-				return mapper.readValue(str, new TypeReference<List<StrategoMovementResultDTO>>() {
-				});
+				return mapper.readValue(str, LEGACY_RESULT_TYPE);
 			} catch (JsonProcessingException e) {
 				return null;
 			}
 		}).orElse(List.of());
 	}
 
-	private StrategoMovementDTO toMovementDTO(StrategoMovement movement) {
+	/**
+	 * Whether {@code viewer} knows the rank of the piece moved: its own pieces
+	 * and the ones revealed by an attack or a scout run.
+	 */
+	private boolean isVisibleMovement(StrategoMovement movement, List<StrategoMovementResultDTO> result,
+			Viewer viewer) {
+		var distance = Math.abs(movement.getRowFinal() - movement.getRowInitial())
+				+ Math.abs(movement.getColFinal() - movement.getColInitial());
+		return viewer.owns(!movement.getIsGuestTurn()) || !result.isEmpty() || distance > 1;
+	}
+
+	private StrategoMovementDTO toMovementDTO(StrategoMovement movement, Viewer viewer) {
+		var result = getMovementResult(movement);
 		return StrategoMovementDTO.builder() //
-				.rank(movement.getRank()) //
+				.id(movement.getId()) //
+				.rank(isVisibleMovement(movement, result, viewer) ? movement.getRank() : null) //
 				.rowInitial(movement.getRowInitial()) //
 				.rowFinal(movement.getRowFinal()) //
 				.colInitial(movement.getColInitial()) //
 				.colFinal(movement.getColFinal()) //
-				.result(getMovementResult(movement)) //
+				.result(result) //
 				.build();
 	}
 
+	private List<BoardChangeDTO> getChanges(ActiveGame activeGame, Viewer viewer, Long sinceVersion) {
+		if (sinceVersion == null) {
+			return null;
+		}
+
+		var status = activeGame.getStatus();
+		var changedIndices = activeGame.getChangeLog().changedSince(sinceVersion, status.getStateVersion());
+		if (changedIndices == null) {
+			return null;
+		}
+
+		var board = status.getBoard();
+		return Arrays.stream(changedIndices).mapToObj(index -> {
+			var row = index / StrategoBoard.SIZE;
+			var col = index % StrategoBoard.SIZE;
+			return BoardChangeDTO.builder().row(row).col(col).tile(board.getTile(row, col, viewer)).build();
+		}).toList();
+	}
+
 	@Override
-	@Transactional(readOnly = true)
 	public GameStateDTO getStatus(Long gameId, Player player) {
-		var game = gameRepository.findById(gameId)
-				.orElseThrow(() -> new MatchmakingValidationException("Game does not exist"));
+		return getStatus(gameId, player, null);
+	}
 
-		List<List<BoardTileDTO>> board = null;
-		var status = strategoStatusRepository.findByGameId(gameId)
-				.orElseThrow(() -> new MatchmakingValidationException("Game has not been started"));
+	@Override
+	public GameStateDTO getStatus(Long gameId, Player player, Long sinceVersion) {
+		// Not transactional: active games are served from memory
+		return gameExecutor.execute(gameId, () -> doGetStatus(gameId, player, sinceVersion));
+	}
 
-		board = status.getBoard();
+	@Override
+	public SerializedGameState getSerializedStatus(Long gameId, Player player, Long sinceVersion) {
+		return gameExecutor.execute(gameId, () -> doGetSerializedStatus(gameId, player, sinceVersion));
+	}
+
+	private GameStateDTO doGetStatus(Long gameId, Player player, Long sinceVersion) {
+		var activeGame = loadGame(gameId);
+		var viewer = getViewer(activeGame.getGame(), player);
+		return toGameState(activeGame, player, viewer, getChanges(activeGame, viewer, sinceVersion));
+	}
+
+	private SerializedGameState doGetSerializedStatus(Long gameId, Player player, Long sinceVersion) {
+		var activeGame = loadGame(gameId);
+		var game = activeGame.getGame();
+		var status = getStartedStatus(activeGame);
+		var viewer = getViewer(game, player);
+		var changes = getChanges(activeGame, viewer, sinceVersion);
+
+		// Spectators get their own player in the status, only the two players share one per version
+		var isCached = changes == null && !Viewer.SPECTATOR.equals(viewer);
+		if (isCached) {
+			var serializedState = activeGame.getSerializedStates().get(viewer);
+			if (serializedState != null && serializedState.version().equals(status.getStateVersion())
+					&& serializedState.phase() == game.getPhase()) {
+				return serializedState;
+			}
+		}
+
+		byte[] json;
+		try {
+			json = mapper.writeValueAsBytes(toGameState(activeGame, player, viewer, changes));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("The game status could not be serialized", e);
+		}
+
+		var serializedState = new SerializedGameState(status.getStateVersion(), player.getId(), game.getPhase(),
+				json);
+		if (isCached) {
+			activeGame.getSerializedStates().put(viewer, serializedState);
+		}
+		return serializedState;
+	}
 
-		// var movement = strategoMovementRepository.findAllByGameId(gameId).getLast();
-		var allMovements = strategoMovementRepository.findAllByGameId(gameId);
-		var movement = Optional
-				.ofNullable((allMovements == null || allMovements.size() == 0) ? null : allMovements.getLast());
+	private GameStateDTO toGameState(ActiveGame activeGame, Player player, Viewer viewer,
+			List<BoardChangeDTO> changes) {
+		var game = activeGame.getGame();
+		var status = getStartedStatus(activeGame);
 
-		var isHost = player.equals(status.getGame().getHost());
+		var board = status.getBoard();
+		var movement = Optional.ofNullable(activeGame.getLastMovement());
+
+		var isHost = Viewer.HOST.equals(viewer);
 		var statusdto = GameStateDTO.builder() //
 				.currentPlayer(toPlayerDTO(player)) //
 				.hostPlayerId(Optional.ofNullable(game.getHost()).map(Player::getId).orElse(0)) //
 				.guestPlayerId(Optional.ofNullable(game.getGuest()).map(Player::getId).orElse(0)) //
-				.gameId(gameId) //
+				.gameId(activeGame.getGameId()) //
 				.phase(game.getPhase()) //
-				.movement(movement.map(this::toMovementDTO).orElse(null)) //
-				.board(board) //
+				.movement(movement.map(lastMovement -> toMovementDTO(lastMovement, viewer)).orElse(null)) //
+				.version(status.getStateVersion()) //
+				// Full board when the client version is unknown or too old for the change log
+				.board(changes == null ? board.toTiles(viewer) : null) //
+				.turnDeadline(status.getTurnDeadline()) //
+				.changes(changes) //
 				.isMyTurn(isHost && !status.getIsGuestTurn() || !isHost && status.getIsGuestTurn()) //
 				.build();
 		return statusdto;
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<StrategoMovementDTO> getMovements(Long gameId, Player player, Integer afterId, Integer limit) {
+		var pageSize = Optional.ofNullable(limit).orElse(DEFAULT_MOVEMENTS_LIMIT);
+		if (pageSize < 1 || pageSize > MAX_MOVEMENTS_LIMIT) {
+			throw new MatchmakingValidationException(
+					"The limit must be between 1 and %d".formatted(MAX_MOVEMENTS_LIMIT));
+		}
+
+		readYourWritesGuard.readGame(gameId);
+		var viewer = getViewer(findGame(gameId), player);
+		return strategoMovementRepository.findPageByGameId(gameId, Optional.ofNullable(afterId).orElse(0), pageSize)
+				.stream().map(movement -> toMovementDTO(movement, viewer)).toList();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<List<BoardTileDTO>> getBoard(Long gameId, Player player, Long version) {
+		readYourWritesGuard.readGame(gameId);
+		var viewer = getViewer(findGame(gameId), player);
+		return gameLogService.rebuildBoard(gameId, version).toTiles(viewer);
+	}
+
 }
@@ -0,0 +1,121 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: every deadline is rounded up to a tick and hashed into
+ * a ring of buckets by that tick, so scheduling and cancelling are O(1) and
+ * advancing the wheel only visits the buckets of the ticks that went by.
+ * Deadlines further away than a whole turn of the wheel share buckets with
+ * closer ones and are skipped until their tick comes.
+ * <p>
+ * Each key has at most one deadline, scheduling it again replaces it.
+ * Deadlines never expire early, and late by up to one tick plus the delay
+ * between calls to {@link #advance(long)}.
+ */
+public final class TimingWheel<K> {
+
+	private static final class Entry<K> {
+		private final K key;
+		private final long deadlineTick;
+		private Entry<K> previous;
+		private Entry<K> next;
+
+		private Entry(K key, long deadlineTick) {
+			this.key = key;
+			this.deadlineTick = deadlineTick;
+		}
+	}
+
+	private final long tickMillis;
+	// Dummy heads of circular doubly linked lists, so an entry unlinks itself
+	private final Entry<K>[] buckets;
+	private final int mask;
+	private final Map<K, Entry<K>> entries = new HashMap<>();
+	// Last tick advanced to
+	private long currentTick;
+
+	/**
+	 * @param tick        resolution of the deadlines
+	 * @param wheelSize   number of buckets, rounded up to a power of two
+	 * @param startMillis current time, in epoch milliseconds
+	 */
+	@SuppressWarnings("unchecked")
+	public TimingWheel(Duration tick, int wheelSize, long startMillis) {
+		if (tick.toMillis() < 1 || wheelSize < 1) {
+			throw new IllegalArgumentException("The tick and the wheel size must be positive");
+		}
+		this.tickMillis = tick.toMillis();
+		var size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+		this.buckets = new Entry[size];
+		for (int i = 0; i < size; i++) {
+			var head = new Entry<K>(null, Long.MAX_VALUE);
+			head.previous = head;
+			head.next = head;
+			buckets[i] = head;
+		}
+		this.mask = size - 1;
+		this.currentTick = startMillis / tickMillis;
+	}
+
+	/**
+	 * Deadline of {@code key} at {@code deadlineMillis}, in epoch milliseconds.
+	 * A deadline already gone by expires on the next advance.
+	 */
+	public synchronized void schedule(K key, long deadlineMillis) {
+		unlink(entries.remove(key));
+
+		var deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+		var entry = new Entry<>(key, deadlineTick);
+		var head = buckets[(int) (deadlineTick & mask)];
+		entry.previous = head.previous;
+		entry.next = head;
+		head.previous.next = entry;
+		head.previous = entry;
+		entries.put(key, entry);
+	}
+
+	public synchronized boolean cancel(K key) {
+		var entry = entries.remove(key);
+		unlink(entry);
+		return entry != null;
+	}
+
+	private static <K> void unlink(Entry<K> entry) {
+		if (entry != null) {
+			entry.previous.next = entry.next;
+			entry.next.previous = entry.previous;
+		}
+	}
+
+	/**
+	 * Moves the wheel to {@code nowMillis} and removes the keys whose deadline
+	 * has gone by.
+	 */
+	public synchronized List<K> advance(long nowMillis) {
+		var nowTick = nowMillis / tickMillis;
+		// After a long pause every bucket is visited once
+		var steps = Math.min(nowTick - currentTick, buckets.length);
+		var expired = new ArrayList<K>();
+		for (long step = 1; step <= steps; step++) {
+			var head = buckets[(int) ((currentTick + step) & mask)];
+			for (var entry = head.next; entry != head; entry = entry.next) {
+				if (entry.deadlineTick <= nowTick) {
+					unlink(entry);
+					entries.remove(entry.key);
+					expired.add(entry.key);
+				}
+			}
+		}
+		currentTick = Math.max(currentTick, nowTick);
+		return expired;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+}
@@ -0,0 +1,22 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.time.Instant;
+
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+public interface TurnClockService {
+
+	/**
+	 * Deadline for a turn, or for the setups, starting now in {@code phase}.
+	 * Null when the phase has no clock.
+	 */
+	Instant getDeadline(GamePhase phase);
+
+	/**
+	 * Publishes a {@link TurnExpiredEvent} for the game once {@code deadline}
+	 * has gone by, replacing its previous deadline. A null deadline cancels it.
+	 */
+	void schedule(Long gameId, Instant deadline);
+
+	void cancel(Long gameId);
+}
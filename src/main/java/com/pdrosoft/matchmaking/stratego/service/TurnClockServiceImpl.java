@@ -0,0 +1,144 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turn deadlines of all the active games of this node in one
+ * {@link TimingWheel}, advanced by a single scheduled task. Deadlines are
+ * stored with the game status, and scheduled again from the database when the
+ * application starts.
+ * <p>
+ * The scheduled task only finds the expired deadlines. Their
+ * {@link TurnExpiredEvent}s are published on {@code stratego.clock.threads}
+ * threads of their own, so expiring a turn never delays the next tick or the
+ * other scheduled tasks.
+ */
+@Slf4j
+@Service
+public class TurnClockServiceImpl implements TurnClockService {
+
+	private static final Set<GamePhase> SETUP_PHASES = EnumSet.of(GamePhase.WAITING_FOR_SETUP_2_PLAYERS,
+			GamePhase.WAITING_FOR_SETUP_1_PLAYER);
+
+	@NonNull
+	private final GameRepository gameRepository;
+	@NonNull
+	private final ApplicationEventPublisher eventPublisher;
+	@NonNull
+	private final Executor expirations;
+
+	private final Duration setupTimeout;
+	private final Duration turnTimeout;
+	private final TimingWheel<Long> wheel;
+
+	@Autowired
+	public TurnClockServiceImpl(@NonNull GameRepository gameRepository,
+			@NonNull ApplicationEventPublisher eventPublisher,
+			@Value("${stratego.clock.setup-timeout:PT15M}") Duration setupTimeout,
+			@Value("${stratego.clock.turn-timeout:PT2M}") Duration turnTimeout,
+			@Value("${stratego.clock.tick:PT1S}") Duration tick,
+			@Value("${stratego.clock.wheel-size:4096}") int wheelSize,
+			@Value("${stratego.clock.threads:2}") int threads) {
+		this(gameRepository, eventPublisher, setupTimeout, turnTimeout, tick, wheelSize,
+				Executors.newFixedThreadPool(Math.max(1, threads)));
+	}
+
+	TurnClockServiceImpl(@NonNull GameRepository gameRepository, @NonNull ApplicationEventPublisher eventPublisher,
+			Duration setupTimeout, Duration turnTimeout, Duration tick, int wheelSize, @NonNull Executor expirations) {
+		this.gameRepository = gameRepository;
+		this.eventPublisher = eventPublisher;
+		this.expirations = expirations;
+		this.setupTimeout = setupTimeout;
+		this.turnTimeout = turnTimeout;
+		this.wheel = new TimingWheel<>(tick, wheelSize, System.currentTimeMillis());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (expirations instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	private Optional<Duration> getTimeout(GamePhase phase) {
+		if (SETUP_PHASES.contains(phase)) {
+			return Optional.of(setupTimeout);
+		}
+		return GamePhase.PLAYING.equals(phase) ? Optional.of(turnTimeout) : Optional.empty();
+	}
+
+	@Override
+	public Instant getDeadline(GamePhase phase) {
+		// A zero timeout turns the clock off
+		return getTimeout(phase).filter(Duration::isPositive).map(Instant.now()::plus).orElse(null);
+	}
+
+	@Override
+	public void schedule(Long gameId, Instant deadline) {
+		if (deadline == null) {
+			cancel(gameId);
+		} else {
+			wheel.schedule(gameId, deadline.toEpochMilli());
+		}
+	}
+
+	@Override
+	public void cancel(Long gameId) {
+		wheel.cancel(gameId);
+	}
+
+	/**
+	 * Deadlines of the games that were active when the application stopped.
+	 * Games without one get a whole turn from now.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadDeadlines() {
+		var phases = EnumSet.copyOf(SETUP_PHASES);
+		phases.add(GamePhase.PLAYING);
+		var deadlines = gameRepository.findTurnDeadlines(phases);
+		deadlines.forEach(deadline -> schedule(deadline.getGameId().longValue(),
+				Optional.ofNullable(deadline.getTurnDeadline()).orElseGet(() -> getDeadline(deadline.getPhase()))));
+		log.info("Scheduled the turn deadlines of {} games", deadlines.size());
+	}
+
+	@Scheduled(fixedDelayString = "${stratego.clock.tick:PT1S}")
+	public void tick() {
+		tick(System.currentTimeMillis());
+	}
+
+	void tick(long nowMillis) {
+		wheel.advance(nowMillis).forEach(gameId -> expirations.execute(() -> {
+			try {
+				eventPublisher.publishEvent(new TurnExpiredEvent(gameId));
+			} catch (RuntimeException e) {
+				log.error("Error expiring the turn of game {}", gameId, e);
+			}
+		}));
+	}
+
+	int size() {
+		return wheel.size();
+	}
+}
@@ -0,0 +1,8 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+/**
+ * Published by {@link TurnClockService} when the turn deadline of a game goes
+ * by. The deadline may have moved since it was scheduled.
+ */
+public record TurnExpiredEvent(Long gameId) {
+}
@@ -1,8 +1,6 @@
 package com.pdrosoft.matchmaking.stratego.validation;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.pdrosoft.matchmaking.stratego.enums.Rank;
 
@@ -11,75 +9,64 @@ import jakarta.validation.ConstraintValidatorContext;
 
 public class ArmySetupValidator implements ConstraintValidator<ArmySetupValidation, List<List<Rank>>> {
 
-	private static final Integer NUM_MARSHALS = 1;
-	private static final Integer NUM_GENERALS = 1;
-	private static final Integer NUM_COLONELS = 2;
-	private static final Integer NUM_MAJORS = 3;
-	private static final Integer NUM_CAPTAINS = 4;
-	private static final Integer NUM_LIEUTENANTS = 4;
-	private static final Integer NUM_SERGEANTS = 4;
-	private static final Integer NUM_MINERS = 5;
-	private static final Integer NUM_SCOUTS = 8;
-	
-	private static final Integer NUM_SPIES = 1;
-	private static final Integer NUM_BOMBS = 6;
-	private static final Integer NUM_FLAGS = 1;
-	
-	private static final Integer NUM_ROWS = 4;
-	private static final Integer NUM_RANKS_PER_ROW = 10;
+	private static final int NUM_ROWS = 4;
+	private static final int NUM_RANKS_PER_ROW = 10;
 
-	private Map<Rank,Integer> getValidSetup() {
-		var setupMap = new HashMap<Rank, Integer>();
-		setupMap.put(Rank.MARSHAL, NUM_MARSHALS);
-		setupMap.put(Rank.GENERAL, NUM_GENERALS);
-		setupMap.put(Rank.COLONEL, NUM_COLONELS);
-		setupMap.put(Rank.MAJOR, NUM_MAJORS);
-		setupMap.put(Rank.CAPTAIN, NUM_CAPTAINS);
-		setupMap.put(Rank.LIEUTENANT, NUM_LIEUTENANTS);
-		setupMap.put(Rank.SERGEANT, NUM_SERGEANTS);
-		setupMap.put(Rank.MINER, NUM_MINERS);
-		setupMap.put(Rank.SCOUT, NUM_SCOUTS);
-		setupMap.put(Rank.SPY, NUM_SPIES);
-		setupMap.put(Rank.BOMB, NUM_BOMBS);
-		setupMap.put(Rank.FLAG, NUM_FLAGS);
-		
-		return setupMap;
+	// Counts are packed in a long, COUNT_BITS per rank, so validating allocates nothing
+	private static final int COUNT_BITS = 5;
+	private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+	// Pieces of a valid army by rank ordinal, zero for DISABLED
+	private static final int[] EXPECTED_COUNTS = getExpectedCounts();
+
+	private static int[] getExpectedCounts() {
+		var counts = new int[Rank.values().length];
+		for (var rank : Rank.values()) {
+			counts[rank.ordinal()] = rank.getArmyCount();
+		}
+		return counts;
 	}
 
-	@Override
-	public boolean isValid(List<List<Rank>> army, ConstraintValidatorContext ctx) {
-		
+	/**
+	 * Whether {@code army} has four rows of ten ranks with exactly the pieces
+	 * of a Stratego army.
+	 */
+	public static boolean isValidArmy(List<List<Rank>> army) {
 		if (army == null || army.size() != NUM_ROWS) {
 			return false;
 		}
-		
-		for(var row : army) {
+
+		for (int iRow = 0; iRow < NUM_ROWS; iRow++) {
+			var row = army.get(iRow);
 			if (row == null || row.size() != NUM_RANKS_PER_ROW) {
 				return false;
 			}
 		}
-		
-		var validSetup = getValidSetup();
-		
-		var stats = new HashMap<Rank,Integer>();
-		for(var row : army) {
-			for(var rank: row) {
-				if(stats.containsKey(rank)) {
-					stats.replace(rank, stats.get(rank) + 1);
-				} else {
-					stats.put(rank, 1);
+
+		var counts = 0L;
+		for (int iRow = 0; iRow < NUM_ROWS; iRow++) {
+			var row = army.get(iRow);
+			for (int iCol = 0; iCol < NUM_RANKS_PER_ROW; iCol++) {
+				var rank = row.get(iCol);
+				if (rank == null) {
+					return false;
 				}
-			}
-		}
 
-		for(var entry : stats.entrySet()) {
-			var rank = entry.getKey();
-			if(entry.getValue() != validSetup.get(rank)) {
-				return false;
+				var shift = rank.ordinal() * COUNT_BITS;
+				if (((counts >>> shift) & COUNT_MASK) == EXPECTED_COUNTS[rank.ordinal()]) {
+					return false;
+				}
+				counts += 1L << shift;
 			}
 		}
 
+		// No rank goes over its count and the 40 pieces add up to the whole army, so every count matches
 		return true;
 	}
 
+	@Override
+	public boolean isValid(List<List<Rank>> army, ConstraintValidatorContext ctx) {
+		return isValidArmy(army);
+	}
+
 }
@@ -0,0 +1,103 @@
+package com.pdrosoft.matchmaking.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Compares JMH results in JSON format with a stored baseline. Benchmarks are
+ * measured in time per operation, so one regresses when its score is above
+ * the baseline score by more than the tolerance.
+ */
+public class BaselineComparison {
+
+	// Where the results were taken (the JVM binary and the result paths), not what they measure
+	private static final Set<String> MACHINE_FIELDS = Set.of("jvm", "jvmArgs");
+
+	public record Entry(String benchmark, double baseline, double score, boolean regressed) {
+
+		public double ratio() {
+			return score / baseline;
+		}
+	}
+
+	private BaselineComparison() {
+	}
+
+	/**
+	 * Score by benchmark name and parameters, as in
+	 * {@code com.pdrosoft...MovementBenchmark.applyMovement {kind=MOVE}}.
+	 */
+	static Map<String, Double> getScores(JsonNode results) {
+		var scores = new LinkedHashMap<String, Double>();
+		for (var result : results) {
+			var name = result.path("benchmark").asText();
+			var params = result.path("params");
+			if (!params.isMissingNode() && !params.isEmpty()) {
+				var sortedParams = new TreeMap<String, String>();
+				params.properties().forEach(param -> sortedParams.put(param.getKey(), param.getValue().asText()));
+				name += " " + sortedParams;
+			}
+			scores.put(name, result.path("primaryMetric").path("score").asDouble());
+		}
+		return scores;
+	}
+
+	/**
+	 * Benchmarks of {@code results} in order. The ones missing in the baseline
+	 * have a NaN baseline and never regress.
+	 */
+	public static List<Entry> compare(JsonNode results, JsonNode baseline, double tolerance) {
+		var baselineScores = getScores(baseline);
+		var entries = new ArrayList<Entry>();
+		getScores(results).forEach((benchmark, score) -> {
+			var baselineScore = baselineScores.getOrDefault(benchmark, Double.NaN);
+			entries.add(new Entry(benchmark, baselineScore, score, score > baselineScore * (1 + tolerance)));
+		});
+		return entries;
+	}
+
+	public static List<Entry> compare(Path results, Path baseline, double tolerance) throws IOException {
+		var mapper = new ObjectMapper();
+		return compare(mapper.readTree(results.toFile()), mapper.readTree(baseline.toFile()), tolerance);
+	}
+
+	/**
+	 * Results without the fields naming paths of the machine that took them,
+	 * so the baseline can be committed.
+	 */
+	static JsonNode toBaseline(JsonNode results) {
+		var baseline = results.deepCopy();
+		for (var result : baseline) {
+			if (result instanceof ObjectNode object) {
+				object.remove(MACHINE_FIELDS);
+			}
+		}
+		return baseline;
+	}
+
+	public static void writeBaseline(Path results, Path baseline) throws IOException {
+		var mapper = new ObjectMapper();
+		mapper.writerWithDefaultPrettyPrinter().writeValue(baseline.toFile(),
+				toBaseline(mapper.readTree(results.toFile())));
+	}
+
+	public static String format(List<Entry> entries) {
+		var report = new StringBuilder();
+		for (var entry : entries) {
+			report.append("%-100s %12.2f %12.2f %8s%s%n".formatted(entry.benchmark(), entry.baseline(),
+					entry.score(), Double.isNaN(entry.baseline()) ? "new" : "%.2fx".formatted(entry.ratio()),
+					entry.regressed() ? "  REGRESSION" : ""));
+		}
+		return report.toString();
+	}
+}
@@ -0,0 +1,88 @@
+package com.pdrosoft.matchmaking.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class BaselineComparisonTest {
+
+	private static final String BASELINE = """
+			[
+			  { "benchmark": "a.RankServiceBenchmark.compareRanks", "mode": "avgt",
+			    "primaryMetric": { "score": 100.0, "scoreUnit": "ns/op" } },
+			  { "benchmark": "a.MovementBenchmark.applyMovement", "mode": "avgt",
+			    "params": { "kind": "MOVE" }, "primaryMetric": { "score": 20.0, "scoreUnit": "ns/op" } },
+			  { "benchmark": "a.MovementBenchmark.applyMovement", "mode": "avgt",
+			    "params": { "kind": "ATTACK" }, "primaryMetric": { "score": 40.0, "scoreUnit": "ns/op" } }
+			]
+			""";
+
+	private static final String RESULTS = """
+			[
+			  { "benchmark": "a.RankServiceBenchmark.compareRanks", "mode": "avgt",
+			    "primaryMetric": { "score": 120.0, "scoreUnit": "ns/op" } },
+			  { "benchmark": "a.MovementBenchmark.applyMovement", "mode": "avgt",
+			    "params": { "kind": "MOVE" }, "primaryMetric": { "score": 10.0, "scoreUnit": "ns/op" } },
+			  { "benchmark": "a.MovementBenchmark.applyMovement", "mode": "avgt",
+			    "params": { "kind": "ATTACK" }, "primaryMetric": { "score": 60.0, "scoreUnit": "ns/op" } },
+			  { "benchmark": "a.BoardConverterBenchmark.encode", "mode": "avgt",
+			    "primaryMetric": { "score": 5.0, "scoreUnit": "ns/op" } }
+			]
+			""";
+
+	@Test
+	void testCompare() throws Exception {
+		var mapper = new ObjectMapper();
+
+		var entries = BaselineComparison.compare(mapper.readTree(RESULTS), mapper.readTree(BASELINE), 0.25);
+
+		assertThat(entries).containsExactly(
+				new BaselineComparison.Entry("a.RankServiceBenchmark.compareRanks", 100.0, 120.0, false),
+				new BaselineComparison.Entry("a.MovementBenchmark.applyMovement {kind=MOVE}", 20.0, 10.0, false),
+				new BaselineComparison.Entry("a.MovementBenchmark.applyMovement {kind=ATTACK}", 40.0, 60.0, true),
+				new BaselineComparison.Entry("a.BoardConverterBenchmark.encode", Double.NaN, 5.0, false));
+		assertThat(entries.get(2).ratio()).isEqualTo(1.5);
+
+		var report = BaselineComparison.format(entries);
+		assertThat(report.lines()).hasSize(4);
+		assertThat(report.lines().filter(line -> line.endsWith("REGRESSION")))
+				.containsExactly(report.lines().toList().get(2));
+		assertThat(report.lines().toList().get(3)).contains("new");
+	}
+
+	@Test
+	void testWriteBaseline(@TempDir Path dir) throws Exception {
+		var results = Files.writeString(dir.resolve("results.json"), """
+				[
+				  { "benchmark": "a.RankServiceBenchmark.compareRanks", "mode": "avgt",
+				    "jvm": "/opt/java/bin/java", "jvmArgs": [ "-Dbenchmark.result=/home/user/jmh-result.json" ],
+				    "jdkVersion": "21.0.1", "primaryMetric": { "score": 100.0, "scoreUnit": "ns/op" } }
+				]
+				""");
+		var baseline = dir.resolve("baseline.json");
+
+		BaselineComparison.writeBaseline(results, baseline);
+
+		var json = Files.readString(baseline);
+		assertThat(json).doesNotContain("/opt/java", "/home/user").contains("21.0.1");
+		assertThat(BaselineComparison.compare(results, baseline, 0.0)).singleElement()
+				.satisfies(entry -> assertThat(entry.baseline()).isEqualTo(100.0));
+	}
+
+	@Test
+	void testCompareFiles(@TempDir Path dir) throws Exception {
+		var results = Files.writeString(dir.resolve("results.json"), RESULTS);
+		var baseline = Files.writeString(dir.resolve("baseline.json"), RESULTS);
+
+		var entries = BaselineComparison.compare(results, baseline, 0.0);
+
+		assertThat(entries).hasSize(4).noneMatch(BaselineComparison.Entry::regressed)
+				.allSatisfy(entry -> assertThat(entry.ratio()).isEqualTo(1.0));
+	}
+}
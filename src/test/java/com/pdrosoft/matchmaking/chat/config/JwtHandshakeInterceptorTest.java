@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,6 +22,7 @@ import org.springframework.web.socket.WebSocketHandler;
 
 import com.pdrosoft.matchmaking.security.JwtUtil;
 
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
 
 @ExtendWith(MockitoExtension.class)
@@ -108,7 +110,7 @@ public class JwtHandshakeInterceptorTest {
 		Mockito.when(request.getServletRequest()).thenReturn(servletRequest);
 
 		Mockito.when(servletRequest.getHeader("Authorization")).thenReturn(getBearer(INVALID_TOKEN));
-		Mockito.when(jwtUtil.isTokenValid(INVALID_TOKEN)).thenReturn(false);
+		Mockito.when(jwtUtil.verify(INVALID_TOKEN)).thenReturn(Optional.empty());
 
 		assertThat(handshakeInterceptor.beforeHandshake(request, response, wsHandler, attributes)).isFalse();
 		assertThat(attributes.isEmpty()).isTrue();
@@ -128,8 +130,7 @@ public class JwtHandshakeInterceptorTest {
 		Mockito.when(request.getServletRequest()).thenReturn(servletRequest);
 
 		Mockito.when(servletRequest.getHeader("Authorization")).thenReturn(getBearer(VALID_TOKEN));
-		Mockito.when(jwtUtil.isTokenValid(VALID_TOKEN)).thenReturn(true);
-		Mockito.when(jwtUtil.extractUsername(VALID_TOKEN)).thenReturn(PLAYER_NAME);
+		Mockito.when(jwtUtil.verify(VALID_TOKEN)).thenReturn(Optional.of(Jwts.claims().setSubject(PLAYER_NAME)));
 
 		assertThat(handshakeInterceptor.beforeHandshake(request, response, wsHandler, attributes)).isTrue();
 		assertThat(attributes.isEmpty()).isFalse();
@@ -151,7 +152,7 @@ public class JwtHandshakeInterceptorTest {
 
 		Mockito.when(servletRequest.getHeader("Authorization")).thenReturn(null);
 		Mockito.when(servletRequest.getQueryString()).thenReturn("token=%s".formatted(INVALID_TOKEN));
-		Mockito.when(jwtUtil.isTokenValid(INVALID_TOKEN)).thenReturn(false);
+		Mockito.when(jwtUtil.verify(INVALID_TOKEN)).thenReturn(Optional.empty());
 
 		assertThat(handshakeInterceptor.beforeHandshake(request, response, wsHandler, attributes)).isFalse();
 		assertThat(attributes.isEmpty()).isTrue();
@@ -172,8 +173,7 @@ public class JwtHandshakeInterceptorTest {
 
 		Mockito.when(servletRequest.getHeader("Authorization")).thenReturn(null);
 		Mockito.when(servletRequest.getQueryString()).thenReturn("token=%s".formatted(VALID_TOKEN));
-		Mockito.when(jwtUtil.isTokenValid(VALID_TOKEN)).thenReturn(true);
-		Mockito.when(jwtUtil.extractUsername(VALID_TOKEN)).thenReturn(PLAYER_NAME);
+		Mockito.when(jwtUtil.verify(VALID_TOKEN)).thenReturn(Optional.of(Jwts.claims().setSubject(PLAYER_NAME)));
 
 		assertThat(handshakeInterceptor.beforeHandshake(request, response, wsHandler, attributes)).isTrue();
 		assertThat(attributes.isEmpty()).isFalse();
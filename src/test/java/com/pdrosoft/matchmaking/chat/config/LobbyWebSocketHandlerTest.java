@@ -0,0 +1,203 @@
+package com.pdrosoft.matchmaking.chat.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pdrosoft.matchmaking.dto.GameDTO;
+import com.pdrosoft.matchmaking.dto.LobbyEventDTO;
+import com.pdrosoft.matchmaking.service.LobbyIndex;
+
+import jakarta.websocket.Session;
+
+@ExtendWith(MockitoExtension.class)
+class LobbyWebSocketHandlerTest {
+
+	private static final String SESSION_ID = "session";
+
+	@Mock
+	private LobbyIndex lobbyIndex;
+
+	private ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	private LobbyWebSocketHandler lobbyHandler;
+
+	@BeforeEach
+	void initTest() {
+		lobbyHandler = new LobbyWebSocketHandler(mapper, lobbyIndex, Runnable::run);
+	}
+
+	private WebSocketSession getTestSession() {
+		var session = Mockito.mock(WebSocketSession.class);
+		Mockito.when(session.getId()).thenReturn(SESSION_ID);
+		Mockito.when(session.getAttributes()).thenReturn(Map.of("username", "player"));
+		Mockito.when(session.isOpen()).thenReturn(true);
+		return session;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void mockGames(List<GameDTO> games) {
+		Mockito.doAnswer(invocation -> {
+			((Consumer<List<GameDTO>>) invocation.getArgument(2)).accept(games);
+			return null;
+		}).when(lobbyIndex).withGames(Mockito.any(), Mockito.anyInt(), Mockito.any());
+	}
+
+	private List<LobbyEventDTO> getSentEvents(WebSocketSession session, int count) throws Exception {
+		var captor = ArgumentCaptor.forClass(TextMessage.class);
+		Mockito.verify(session, Mockito.times(count)).sendMessage(captor.capture());
+		var events = new ArrayList<LobbyEventDTO>();
+		for (var message : captor.getAllValues()) {
+			events.add(mapper.readValue(message.getPayload(), LobbyEventDTO.class));
+		}
+		return events;
+	}
+
+	@Test
+	void testSnapshotThenChanges() throws Exception {
+		var game = GameDTO.builder().id(1).name("game").build();
+		mockGames(List.of(game));
+		var session = getTestSession();
+
+		lobbyHandler.afterConnectionEstablished(session);
+		assertThat(lobbyHandler.getSessionIds()).containsOnly(SESSION_ID);
+
+		lobbyHandler.onLobbyEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.JOINED).gameId(1).build());
+
+		var events = getSentEvents(session, 2);
+		assertThat(events.get(0).getType()).isEqualTo(LobbyEventDTO.Type.SNAPSHOT);
+		assertThat(events.get(0).getGames()).containsExactly(game);
+		assertThat(events.get(1).getType()).isEqualTo(LobbyEventDTO.Type.JOINED);
+		assertThat(events.get(1).getGameId()).isEqualTo(1);
+	}
+
+	@Test
+	void testSnapshotLargerThanQueueLimit() throws Exception {
+		// 200 games of over 4 KB, past the 512 KB queue limit
+		var games = new ArrayList<GameDTO>();
+		for (int i = 0; i < 200; i++) {
+			games.add(GameDTO.builder().id(i).name("x".repeat(4096)).build());
+		}
+		mockGames(games);
+		var session = getTestSession();
+
+		lobbyHandler.afterConnectionEstablished(session);
+		lobbyHandler.onLobbyEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.JOINED).gameId(1).build());
+
+		assertThat(lobbyHandler.getSessionIds()).containsOnly(SESSION_ID);
+		Mockito.verify(session, Mockito.never()).close(Mockito.any());
+		var events = getSentEvents(session, 2);
+		assertThat(events.get(0).getGames()).hasSize(200);
+		assertThat(events.get(1).getType()).isEqualTo(LobbyEventDTO.Type.JOINED);
+		Mockito.verify(lobbyIndex).withGames(Mockito.any(), Mockito.eq(200), Mockito.any());
+	}
+
+	@Test
+	void testClosedSession() throws Exception {
+		mockGames(List.of());
+		var session = getTestSession();
+		lobbyHandler.afterConnectionEstablished(session);
+
+		lobbyHandler.afterConnectionClosed(session, CloseStatus.NORMAL);
+		lobbyHandler.onLobbyEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.REMOVED).gameId(1).build());
+
+		assertThat(lobbyHandler.getSessionIds()).isEmpty();
+		getSentEvents(session, 1);
+	}
+
+	@Test
+	void testTransportError() {
+		mockGames(List.of());
+		var session = getTestSession();
+		lobbyHandler.afterConnectionEstablished(session);
+
+		lobbyHandler.handleTransportError(session, new RuntimeException());
+
+		assertThat(lobbyHandler.getSessionIds()).isEmpty();
+	}
+
+	@Test
+	void testFailedSendClosesSession() throws Exception {
+		mockGames(List.of());
+		var session = getTestSession();
+		Mockito.doThrow(new IOException("timeout")).when(session).sendMessage(Mockito.any());
+
+		lobbyHandler.afterConnectionEstablished(session);
+		lobbyHandler.onLobbyEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.REMOVED).gameId(1).build());
+
+		assertThat(lobbyHandler.getSessionIds()).isEmpty();
+		Mockito.verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+		getSentEvents(session, 1);
+	}
+
+	@Test
+	void testSendTimeout() throws Exception {
+		mockGames(List.of());
+		var userProperties = new HashMap<String, Object>();
+		var standardSession = Mockito.mock(Session.class);
+		Mockito.when(standardSession.getUserProperties()).thenReturn(userProperties);
+		var session = Mockito.mock(NativeWebSocketSession.class);
+		Mockito.when(session.getId()).thenReturn(SESSION_ID);
+		Mockito.when(session.getAttributes()).thenReturn(Map.of("username", "player"));
+		Mockito.when(session.getNativeSession()).thenReturn(standardSession);
+
+		lobbyHandler.afterConnectionEstablished(session);
+
+		assertThat(userProperties).containsEntry("org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT", 10_000L);
+	}
+
+	@Test
+	void testSlowSessionDoesNotBlockPublisher() throws Exception {
+		mockGames(List.of());
+		var sender = Executors.newSingleThreadExecutor();
+		lobbyHandler = new LobbyWebSocketHandler(mapper, lobbyIndex, sender);
+		var session = getTestSession();
+		var stalled = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			stalled.countDown();
+			release.await();
+			return null;
+		}).when(session).sendMessage(Mockito.any());
+		try {
+			lobbyHandler.afterConnectionEstablished(session);
+			assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+			// The client does not read its snapshot, the events queue up until it is dropped
+			var game = GameDTO.builder().id(1).name("x".repeat(1024)).build();
+			for (int i = 0; i < 1024 && !lobbyHandler.getSessionIds().isEmpty(); i++) {
+				lobbyHandler.onLobbyEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.ADDED).game(game).build());
+			}
+
+			// Closed by the publisher, the only sender is still stuck
+			assertThat(lobbyHandler.getSessionIds()).isEmpty();
+			Mockito.verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+			assertThat(release.getCount()).isOne();
+		} finally {
+			release.countDown();
+			sender.shutdownNow();
+		}
+	}
+}
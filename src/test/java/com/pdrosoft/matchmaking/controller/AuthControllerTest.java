@@ -90,6 +90,21 @@ public class AuthControllerTest {
 		assertThat(errorDTO).isNotNull().extracting(ErrorResultDTO::getMessage).isEqualTo("Bad credentials");
 	}
 
+	@Test
+	void testSignupBotName() throws Exception {
+		var authData = UserAuthDTO.builder().username("strategobot").password("pass6").build();
+
+		var json = getObjectWriter().writeValueAsString(authData);
+		var result = mockMvc.perform(put("/api/auth/signup")//
+				.contentType(MediaType.APPLICATION_JSON)//
+				.content(json))//
+				.andExpect(status().isForbidden()).andReturn();
+
+		var errorDTO = getObjectReader().readValue(result.getResponse().getContentAsString(), ErrorResultDTO.class);
+		assertThat(errorDTO).isNotNull();
+		assertThat(errorDTO.getMessage()).isEqualTo("player already exists 'strategobot'");
+	}
+
 	@ParameterizedTest
 	@CsvSource(value = { "user10,,password cannot be empty", ",pass,username cannot be empty" })
 	void testLoginWithMissingData(String username, String password, String message) throws Exception {
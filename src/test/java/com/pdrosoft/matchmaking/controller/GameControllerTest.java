@@ -9,6 +9,8 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
@@ -17,6 +19,7 @@ import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
@@ -24,6 +27,10 @@ import org.springframework.test.annotation.DirtiesContext.ClassMode;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -33,6 +40,7 @@ import com.pdrosoft.matchmaking.dto.ErrorResultDTO;
 import com.pdrosoft.matchmaking.dto.GameDTO;
 import com.pdrosoft.matchmaking.dto.GameExtendedDTO;
 import com.pdrosoft.matchmaking.dto.GameInputDTO;
+import com.pdrosoft.matchmaking.dto.LobbyEventDTO;
 import com.pdrosoft.matchmaking.dto.LoginResultDTO;
 import com.pdrosoft.matchmaking.dto.UserAuthDTO;
 
@@ -46,6 +54,9 @@ public class GameControllerTest {
 	@Autowired
 	private MockMvc mockMvc;
 
+	@LocalServerPort
+	private int port;
+
 	private ObjectMapper mapper = null;
 
 	private ObjectMapper getObjectMapper() {
@@ -89,6 +100,109 @@ public class GameControllerTest {
 		assertThat(gameList.get(1).getId()).isEqualTo(1);
 	}
 
+	private List<GameDTO> getGameList(String token, String... params) throws Exception {
+		var request = get("/api/game").header("Authorization", "Bearer %s".formatted(token));
+		for (int i = 0; i < params.length; i += 2) {
+			request = request.param(params[i], params[i + 1]);
+		}
+		var result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+
+		return getObjectMapper().readValue(result.getResponse().getContentAsString(),
+				new TypeReference<List<GameDTO>>() {
+				});
+	}
+
+	@Test
+	void testGameListPages() throws Exception {
+		var token = getToken("testuser1", "password1");
+
+		var firstPage = getGameList(token, "date_from", "2020-04-01T00:00:00Z", "limit", "2");
+		assertThat(firstPage).extracting(GameDTO::getId).containsExactly(2, 1);
+
+		var last = firstPage.getLast();
+		var secondPage = getGameList(token, "date_from", "2020-04-01T00:00:00Z", "limit", "2", "before_date",
+				last.getCreationDate().toString(), "before_id", last.getId().toString());
+		assertThat(secondPage).extracting(GameDTO::getId).containsExactly(3);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "0", "201" })
+	void testGameListInvalidLimit(String limit) throws Exception {
+		var token = getToken("testuser1", "password1");
+
+		mockMvc.perform(get("/api/game").param("limit", limit).header("Authorization", "Bearer %s".formatted(token)))//
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testGameListFollowsJoinedGames() throws Exception {
+		var tokenHost = getToken("testuser1", "password1");
+		var tokenGuest = getToken("testuser2", "password2");
+		assertThat(getGameList(tokenHost)).isEmpty();
+
+		var json = getObjectMapper().writeValueAsString(GameInputDTO.builder().joinCode("test-code").build());
+		var result = mockMvc.perform(put("/api/game") //
+				.header("Authorization", "Bearer %s".formatted(tokenHost)) //
+				.contentType(MediaType.APPLICATION_JSON)//
+				.content(json))//
+				.andExpect(status().isOk()).andReturn();
+		var game = getObjectMapper().readValue(result.getResponse().getContentAsString(), GameDTO.class);
+
+		assertThat(getGameList(tokenGuest)).extracting(GameDTO::getId).containsExactly(game.getId());
+		assertThat(getGameList(tokenGuest).getFirst().getHost().getUsername()).isEqualTo("testuser1");
+
+		mockMvc.perform(put("/api/game/{gameId}/join", Integer.toString(game.getId())) //
+				.header("Authorization", "Bearer %s".formatted(tokenGuest)))//
+				.andExpect(status().isOk());
+
+		assertThat(getGameList(tokenGuest)).isEmpty();
+	}
+
+	@Test
+	void testLobbyFeed() throws Exception {
+		var tokenHost = getToken("testuser1", "password1");
+		var tokenGuest = getToken("testuser2", "password2");
+
+		var events = new LinkedBlockingQueue<LobbyEventDTO>();
+		var handler = new TextWebSocketHandler() {
+			@Override
+			protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+				events.add(getObjectMapper().readValue(message.getPayload(), LobbyEventDTO.class));
+			}
+		};
+		var session = new StandardWebSocketClient()
+				.execute(handler, "ws://localhost:%d/wsl?token=%s".formatted(port, tokenGuest)).get(5, TimeUnit.SECONDS);
+
+		try {
+			var snapshot = events.poll(5, TimeUnit.SECONDS);
+			assertThat(snapshot.getType()).isEqualTo(LobbyEventDTO.Type.SNAPSHOT);
+			assertThat(snapshot.getGames()).extracting(GameDTO::getId).containsExactly(2, 1, 3);
+
+			var json = getObjectMapper().writeValueAsString(GameInputDTO.builder().joinCode("test-code").build());
+			var result = mockMvc.perform(put("/api/game") //
+					.header("Authorization", "Bearer %s".formatted(tokenHost)) //
+					.contentType(MediaType.APPLICATION_JSON)//
+					.content(json))//
+					.andExpect(status().isOk()).andReturn();
+			var game = getObjectMapper().readValue(result.getResponse().getContentAsString(), GameDTO.class);
+
+			var added = events.poll(5, TimeUnit.SECONDS);
+			assertThat(added.getType()).isEqualTo(LobbyEventDTO.Type.ADDED);
+			assertThat(added.getGame().getId()).isEqualTo(game.getId());
+			assertThat(added.getGame().getHost().getUsername()).isEqualTo("testuser1");
+
+			mockMvc.perform(put("/api/game/{gameId}/join", Integer.toString(game.getId())) //
+					.header("Authorization", "Bearer %s".formatted(tokenGuest)))//
+					.andExpect(status().isOk());
+
+			var joined = events.poll(5, TimeUnit.SECONDS);
+			assertThat(joined.getType()).isEqualTo(LobbyEventDTO.Type.JOINED);
+			assertThat(joined.getGameId()).isEqualTo(game.getId());
+		} finally {
+			session.close();
+		}
+	}
+
 	@Test
 	void testGameListWithNoToken() throws Exception {
 		mockMvc.perform(get("/api/game")).andExpect(status().isForbidden());
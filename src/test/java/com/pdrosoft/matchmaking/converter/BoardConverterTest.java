@@ -0,0 +1,59 @@
+package com.pdrosoft.matchmaking.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+public class BoardConverterTest {
+
+	private final BoardConverter converter = new BoardConverter();
+
+	private StrategoBoard getTestBoard() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(3, 9, StrategoBoard.encode(Rank.SCOUT, true));
+		board.set(9, 0, StrategoBoard.encode(Rank.MARSHAL, false));
+		return board;
+	}
+
+	@Test
+	void testBinaryRoundTrip() {
+		var board = getTestBoard();
+
+		var data = converter.convertToDatabaseColumn(board);
+
+		assertThat(data).hasSize(1 + StrategoBoard.NUM_SQUARES);
+		assertThat(data[0]).isEqualTo(BoardConverter.FORMAT_V1);
+		assertThat(converter.convertToEntityAttribute(data)).isEqualTo(board);
+	}
+
+	@Test
+	void testReadLegacyJson() throws Exception {
+		var board = getTestBoard();
+		var json = new ObjectMapper().writeValueAsString(board.toTiles());
+
+		var converted = converter.convertToEntityAttribute(json.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(converted).isEqualTo(board);
+		assertThat(converted.getTile(9, 0)).isEqualTo(new BoardTileDTO(Rank.MARSHAL, false));
+	}
+
+	@Test
+	void testReadInvalidJson() {
+		assertThat(converter.convertToEntityAttribute("[[{".getBytes(StandardCharsets.UTF_8))).isNull();
+	}
+
+	@Test
+	void testNulls() {
+		assertThat(converter.convertToDatabaseColumn(null)).isNull();
+		assertThat(converter.convertToEntityAttribute(null)).isNull();
+		assertThat(converter.convertToEntityAttribute(new byte[0])).isNull();
+	}
+}
@@ -0,0 +1,86 @@
+package com.pdrosoft.matchmaking.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.repository.PlayerRepository;
+import com.pdrosoft.matchmaking.service.GameService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The replica pool points to the test database itself, the pool holding the
+ * connection during a transaction tells where it was routed.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"stratego.datasource.replica.jdbc-url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+		"stratego.datasource.replica.username=sa", "stratego.datasource.replica.pool-name=replica" })
+@Sql(scripts = "classpath:test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class DataSourceConfigurationTest {
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private HikariDataSource primary;
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private HikariDataSource replica;
+	@Autowired
+	private ReplicaHealthMonitor monitor;
+	@Autowired
+	private ReadYourWritesGuard readYourWritesGuard;
+	@Autowired
+	private GameService gameService;
+	@Autowired
+	private PlayerRepository playerRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Player player;
+	private TransactionTemplate readOnlyTemplate;
+
+	@BeforeEach
+	void setUp() {
+		player = playerRepository.findById(1L).orElseThrow();
+		monitor.check();
+		readOnlyTemplate = new TransactionTemplate(transactionManager);
+		readOnlyTemplate.setReadOnly(true);
+	}
+
+	private String getRoute(TransactionTemplate template, Long gameId) {
+		return template.execute(status -> {
+			gameService.getGame(player, gameId);
+			if (replica.getHikariPoolMXBean().getActiveConnections() > 0) {
+				return "replica";
+			}
+			return primary.getHikariPoolMXBean().getActiveConnections() > 0 ? "primary" : null;
+		});
+	}
+
+	@Test
+	void testRouting() {
+		assertThat(monitor.isHealthy()).isTrue();
+		assertThat(getRoute(readOnlyTemplate, 1L)).isEqualTo("replica");
+		assertThat(getRoute(new TransactionTemplate(transactionManager), 1L)).isEqualTo("primary");
+	}
+
+	@Test
+	void testReadYourWrites() {
+		readYourWritesGuard.recordWrite(2L);
+
+		assertThat(getRoute(readOnlyTemplate, 2L)).isEqualTo("primary");
+		assertThat(getRoute(readOnlyTemplate, 3L)).isEqualTo("replica");
+	}
+}
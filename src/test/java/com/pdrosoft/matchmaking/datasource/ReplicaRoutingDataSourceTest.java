@@ -0,0 +1,152 @@
+package com.pdrosoft.matchmaking.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica, each
+ * one telling its name.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+	private static final Long GAME_ID = 5L;
+
+	private JdbcTemplate replicaTemplate;
+	private ReplicaHealthMonitor monitor;
+	private ReadYourWritesGuard readYourWritesGuard;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readWriteTemplate;
+	private TransactionTemplate readOnlyTemplate;
+
+	private static JdbcDataSource getDatabase(String name) {
+		var dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:routing-%s;DB_CLOSE_DELAY=-1".formatted(name));
+		var template = new JdbcTemplate(dataSource);
+		template.execute("DROP TABLE IF EXISTS node");
+		template.execute("CREATE TABLE node (name VARCHAR(20))");
+		template.update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+
+	@BeforeEach
+	void setUp() {
+		var primary = getDatabase("primary");
+		var replica = getDatabase("replica");
+		replicaTemplate = new JdbcTemplate(replica);
+		replicaTemplate.execute("DROP TABLE IF EXISTS replica_lag");
+		replicaTemplate.execute("CREATE TABLE replica_lag (seconds INTEGER)");
+		replicaTemplate.update("INSERT INTO replica_lag VALUES (0)");
+
+		monitor = new ReplicaHealthMonitor(replica, "SELECT seconds FROM replica_lag", Duration.ofSeconds(5));
+		readYourWritesGuard = new ReadYourWritesGuardImpl(Duration.ofMinutes(1));
+		var dataSource = new LazyConnectionDataSourceProxy(primary);
+		dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, monitor, readYourWritesGuard));
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		var transactionManager = new DataSourceTransactionManager(dataSource);
+		readWriteTemplate = new TransactionTemplate(transactionManager);
+		readOnlyTemplate = new TransactionTemplate(transactionManager);
+		readOnlyTemplate.setReadOnly(true);
+	}
+
+	private String readNode(TransactionTemplate template) {
+		return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	private String readGameNode(Long gameId) {
+		return readOnlyTemplate.execute(status -> {
+			readYourWritesGuard.readGame(gameId);
+			return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+		});
+	}
+
+	@Test
+	void testReadOnlyTransactionsUseTheReplica() {
+		monitor.check();
+
+		assertThat(monitor.isHealthy()).isTrue();
+		assertThat(readNode(readOnlyTemplate)).isEqualTo("replica");
+		assertThat(readNode(readWriteTemplate)).isEqualTo("primary");
+	}
+
+	@Test
+	void testPrimaryBeforeTheFirstCheck() {
+		assertThat(readNode(readOnlyTemplate)).isEqualTo("primary");
+	}
+
+	@Test
+	void testLaggingReplica() {
+		replicaTemplate.update("UPDATE replica_lag SET seconds = 60");
+		monitor.check();
+		assertThat(readNode(readOnlyTemplate)).isEqualTo("primary");
+
+		replicaTemplate.update("UPDATE replica_lag SET seconds = 1");
+		monitor.check();
+		assertThat(readNode(readOnlyTemplate)).isEqualTo("replica");
+	}
+
+	@Test
+	void testStoppedReplication() {
+		replicaTemplate.update("UPDATE replica_lag SET seconds = NULL");
+		monitor.check();
+
+		assertThat(monitor.isHealthy()).isFalse();
+		assertThat(readNode(readOnlyTemplate)).isEqualTo("primary");
+	}
+
+	@Test
+	void testUnavailableReplica() {
+		monitor.check();
+		replicaTemplate.execute("DROP TABLE replica_lag");
+		monitor.check();
+
+		assertThat(monitor.isHealthy()).isFalse();
+		assertThat(readNode(readOnlyTemplate)).isEqualTo("primary");
+	}
+
+	@Test
+	void testReadYourWrites() {
+		monitor.check();
+		readWriteTemplate.executeWithoutResult(status -> {
+			readYourWritesGuard.recordWrite(GAME_ID);
+			// The write only counts once committed
+			assertThat(readYourWritesGuard.isPrimaryRequired()).isFalse();
+		});
+
+		assertThat(readGameNode(GAME_ID)).isEqualTo("primary");
+		assertThat(readGameNode(GAME_ID + 1)).isEqualTo("replica");
+		// The next transaction reads from the replica again
+		assertThat(readNode(readOnlyTemplate)).isEqualTo("replica");
+	}
+
+	@Test
+	void testReadYourWritesRolledBack() {
+		monitor.check();
+		readWriteTemplate.executeWithoutResult(status -> {
+			readYourWritesGuard.recordWrite(GAME_ID);
+			status.setRollbackOnly();
+		});
+
+		assertThat(readGameNode(GAME_ID)).isEqualTo("replica");
+	}
+
+	@Test
+	void testReadYourWritesOff() {
+		readYourWritesGuard = new ReadYourWritesGuardImpl(Duration.ZERO);
+		readYourWritesGuard.recordWrite(GAME_ID);
+
+		readOnlyTemplate.executeWithoutResult(status -> {
+			readYourWritesGuard.readGame(GAME_ID);
+			assertThat(readYourWritesGuard.isPrimaryRequired()).isFalse();
+		});
+	}
+}
@@ -0,0 +1,108 @@
+package com.pdrosoft.matchmaking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pdrosoft.matchmaking.dto.GameDTO;
+import com.pdrosoft.matchmaking.service.GameService;
+import com.pdrosoft.matchmaking.service.LobbyIndex;
+import com.pdrosoft.matchmaking.stratego.service.ActiveGameCache;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Statements run to load games and their players, so listings never go back to
+ * one query per player.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@Sql(scripts = "classpath:test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class GameRepositoryTest {
+
+	@Autowired
+	private GameRepository gameRepository;
+	@Autowired
+	private PlayerRepository playerRepository;
+	@Autowired
+	private GameService gameService;
+	@Autowired
+	private LobbyIndex lobbyIndex;
+	@Autowired
+	private ActiveGameCache activeGameCache;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void testFindByIdFetchesPlayers() {
+		statistics.clear();
+
+		var names = new TransactionTemplate(transactionManager).execute(tx -> {
+			var game = gameRepository.findById(4L).orElseThrow();
+			return game.getHost().getUserName() + "/" + game.getGuest().getUserName();
+		});
+
+		assertThat(names).isEqualTo("testuser1/testuser2");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testGetGame() {
+		var player = playerRepository.findById(1L).orElseThrow();
+		statistics.clear();
+
+		var game = gameService.getGame(player, 5L);
+
+		assertThat(game.getHost().getUsername()).isEqualTo("testuser2");
+		assertThat(game.getGuest().getUsername()).isEqualTo("testuser3");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testLobbyGames() {
+		statistics.clear();
+
+		var games = lobbyIndex.getGames(Instant.EPOCH, null, null, 10);
+		lobbyIndex.getGames(Instant.EPOCH, null, null, 10);
+
+		assertThat(games).extracting(GameDTO::getId).containsExactly(2, 1, 3);
+		assertThat(games).extracting(game -> game.getHost().getUsername()).containsExactly("testuser2", "testuser1",
+				"testuser3");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testActiveGamePlayers() {
+		statistics.clear();
+
+		var game = activeGameCache.findGame(4L).orElseThrow().getGame();
+
+		assertThat(game.getHost().getUserName()).isEqualTo("testuser1");
+		assertThat(game.getGuest().getUserName()).isEqualTo("testuser2");
+		// The game with its players and the status
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+}
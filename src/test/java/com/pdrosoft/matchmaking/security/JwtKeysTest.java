@@ -0,0 +1,74 @@
+package com.pdrosoft.matchmaking.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Base64;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+public class JwtKeysTest {
+
+	private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes();
+	private static final String ENCODED = Base64.getEncoder().encodeToString(SECRET);
+
+	@Test
+	void testConfiguredKeys() {
+		var keys = new JwtKeys("k1:" + ENCODED + ", k2:" + ENCODED, "k2", null, "");
+
+		assertThat(keys.getSigningKeyId()).isEqualTo("k2");
+		assertThat(keys.getSigningKey().getEncoded()).isEqualTo(SECRET);
+		assertThat(keys.getKey("k1")).isNotNull();
+		assertThat(keys.getKey("k3")).isNull();
+		assertThat(keys.getKey(null)).isNull();
+	}
+
+	@Test
+	void testFirstKeySigns() {
+		var keys = new JwtKeys("k1:" + ENCODED + ",k2:" + ENCODED, "", null, "");
+
+		assertThat(keys.getSigningKeyId()).isEqualTo("k1");
+	}
+
+	@Test
+	void testLocalKey() {
+		var keys = new JwtKeys("", "", null, "");
+
+		assertThat(keys.getSigningKeyId()).isEqualTo("local");
+		assertThat(keys.getSigningKey()).isNotNull();
+	}
+
+	@Test
+	void testInvalidKeys() {
+		assertThatThrownBy(() -> new JwtKeys("k1", "", null, "")).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> new JwtKeys("k1:" + Base64.getEncoder().encodeToString(new byte[16]), "", null, ""))
+				.isInstanceOf(IllegalStateException.class).hasMessageContaining("k1");
+		assertThatThrownBy(() -> new JwtKeys("k1:" + ENCODED, "k2", null, ""))
+				.isInstanceOf(IllegalStateException.class).hasMessageContaining("k2");
+	}
+
+	@Test
+	void testKeystore(@TempDir Path directory) throws Exception {
+		var password = "secret".toCharArray();
+		var keystore = KeyStore.getInstance("PKCS12");
+		keystore.load(null, password);
+		keystore.setEntry("k3", new KeyStore.SecretKeyEntry(new SecretKeySpec(SECRET, "HmacSHA256")),
+				new KeyStore.PasswordProtection(password));
+		var file = directory.resolve("jwt.p12");
+		try (var stream = Files.newOutputStream(file)) {
+			keystore.store(stream, password);
+		}
+
+		var keys = new JwtKeys("k1:" + ENCODED, "k3", new FileSystemResource(file), "secret");
+
+		assertThat(keys.getKey("k1")).isNotNull();
+		assertThat(keys.getSigningKey().getEncoded()).isEqualTo(SECRET);
+	}
+}
@@ -0,0 +1,109 @@
+package com.pdrosoft.matchmaking.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+
+public class JwtUtilTest {
+
+	private static final String KEY1 = "k1:" + Base64.getEncoder().encodeToString(new byte[32]);
+	private static final String KEY2 = "k2:" + Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+	private JwtUtil jwtUtil;
+
+	private static JwtUtil jwtUtil(String keys, String signingKeyId) {
+		return new JwtUtil(new JwtKeys(keys, signingKeyId, null, ""), 2);
+	}
+
+	@BeforeEach
+	void setUp() {
+		jwtUtil = jwtUtil("", "");
+	}
+
+	@Test
+	void testVerify() {
+		var token = jwtUtil.generateToken("testuser1");
+
+		assertThat(jwtUtil.verify(token)).hasValueSatisfying(claims -> {
+			assertThat(claims.getSubject()).isEqualTo("testuser1");
+			assertThat(claims.getExpiration()).isInTheFuture();
+		});
+	}
+
+	@Test
+	void testVerifyInvalidToken() {
+		var token = jwtUtil.generateToken("testuser1");
+		var otherToken = jwtUtil("", "").generateToken("testuser1");
+
+		assertThat(jwtUtil.verify(token.substring(0, token.length() - 2))).isEmpty();
+		assertThat(jwtUtil.verify(otherToken)).isEmpty();
+		assertThat(jwtUtil.verify("not-a-token")).isEmpty();
+		assertThat(jwtUtil.getVerifiedCount()).isZero();
+	}
+
+	@Test
+	void testVerifiedOnce() {
+		var token = jwtUtil.generateToken("testuser1");
+
+		var claims = jwtUtil.verify(token).orElseThrow();
+
+		assertThat(jwtUtil.verify(token)).containsSame(claims);
+		assertThat(jwtUtil.getVerifiedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testVerifiedTokenExpires() {
+		var token = jwtUtil.generateToken("testuser1");
+		var claims = jwtUtil.verify(token).orElseThrow();
+
+		// Past the expiration the signature is checked again
+		var later = claims.getExpiration().getTime();
+		assertThat(jwtUtil.verify(token, later)).isPresent().get().isNotSameAs(claims);
+	}
+
+	@Test
+	void testLeastRecentlyUsedGoesFirst() {
+		var token1 = jwtUtil.generateToken("testuser1");
+		var token2 = jwtUtil.generateToken("testuser2");
+		var token3 = jwtUtil.generateToken("testuser3");
+		var claims1 = jwtUtil.verify(token1).orElseThrow();
+		var claims2 = jwtUtil.verify(token2).orElseThrow();
+
+		jwtUtil.verify(token1);
+		jwtUtil.verify(token3);
+
+		assertThat(jwtUtil.getVerifiedCount()).isEqualTo(2);
+		assertThat(jwtUtil.verify(token1)).containsSame(claims1);
+		assertThat(jwtUtil.verify(token2)).get().isNotSameAs(claims2);
+	}
+
+	@Test
+	void testSharedKeys() {
+		var token = jwtUtil(KEY1, "").generateToken("testuser1");
+
+		var header = Jwts.parserBuilder().setSigningKey(new JwtKeys(KEY1, "", null, "").getKey("k1")).build()
+				.parseClaimsJws(token).getHeader();
+		assertThat(header.getKeyId()).isEqualTo("k1");
+		assertThat(jwtUtil(KEY1, "").verify(token)).get().extracting(claims -> claims.getSubject())
+				.isEqualTo("testuser1");
+	}
+
+	@Test
+	void testRotation() {
+		var oldToken = jwtUtil(KEY1, "").generateToken("testuser1");
+		// Every node knows the new key before any signs with it
+		var rotated = jwtUtil(KEY1 + "," + KEY2, "k2");
+		var newToken = rotated.generateToken("testuser2");
+
+		assertThat(rotated.verify(oldToken)).isPresent();
+		assertThat(jwtUtil(KEY1 + "," + KEY2, "k1").verify(newToken)).isPresent();
+		// Once the old key is removed its tokens are rejected
+		assertThat(jwtUtil(KEY2, "").verify(oldToken)).isEmpty();
+		assertThat(jwtUtil(KEY2, "").verify(newToken)).isPresent();
+	}
+}
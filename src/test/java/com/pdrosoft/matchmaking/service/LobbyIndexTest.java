@@ -0,0 +1,176 @@
+package com.pdrosoft.matchmaking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.pdrosoft.matchmaking.dto.GameDTO;
+import com.pdrosoft.matchmaking.dto.LobbyEventDTO;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+@ExtendWith(MockitoExtension.class)
+public class LobbyIndexTest {
+
+	private static final Instant DATE = Instant.parse("2020-05-01T00:00:00Z");
+
+	@Mock
+	private GameRepository gameRepository;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private LobbyIndexImpl lobbyIndex;
+
+	@BeforeEach
+	void setUp() {
+		lobbyIndex = new LobbyIndexImpl(gameRepository, eventPublisher, transactionManager);
+	}
+
+	private Game getGame(Integer id, Instant creationDate) {
+		var host = new Player();
+		host.setId(1);
+		host.setUserName("host");
+
+		var game = new Game();
+		game.setId(id);
+		game.setName("game %d".formatted(id));
+		game.setCreationDate(creationDate);
+		game.setHost(host);
+		return game;
+	}
+
+	private GameDTO getGameDTO(Integer id, Instant creationDate) {
+		return GameDTO.builder().id(id).name("game %d".formatted(id)).creationDate(creationDate)
+				.phase(GamePhase.WAITING_FOR_SETUP_2_PLAYERS).build();
+	}
+
+	private List<Integer> getIds(List<GameDTO> games) {
+		return games.stream().map(GameDTO::getId).toList();
+	}
+
+	@Test
+	void testLoadOnFirstRead() {
+		Mockito.when(gameRepository.findLobbyGames(Mockito.anyCollection())).thenReturn(List.of(
+				getGame(1, DATE.plusSeconds(10)), getGame(2, DATE.plusSeconds(30)), getGame(3, DATE.plusSeconds(20))));
+		// Not loaded yet, the database has it
+		lobbyIndex.add(getGameDTO(2, DATE.plusSeconds(30)));
+
+		var games = lobbyIndex.getGames(DATE, null, null, 10);
+		lobbyIndex.getGames(DATE, null, null, 10);
+
+		assertThat(getIds(games)).containsExactly(2, 3, 1);
+		assertThat(games.get(0).getHost().getUsername()).isEqualTo("host");
+		assertThat(games.get(0).getPhase()).isEqualTo(GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
+		Mockito.verify(gameRepository).findLobbyGames(Mockito.anyCollection());
+		// In a read-write transaction of its own, so from the primary database
+		Mockito.verify(transactionManager).getTransaction(Mockito.argThat(definition -> !definition.isReadOnly()
+				&& definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		Mockito.verifyNoInteractions(eventPublisher);
+	}
+
+	@Test
+	void testKeysetPages() {
+		Mockito.when(gameRepository.findLobbyGames(Mockito.anyCollection())).thenReturn(List.of(
+				getGame(1, DATE.plusSeconds(10)), getGame(2, DATE.plusSeconds(20)), getGame(3, DATE.plusSeconds(20)),
+				getGame(4, DATE.plusSeconds(40))));
+
+		var firstPage = lobbyIndex.getGames(DATE, null, null, 2);
+		assertThat(getIds(firstPage)).containsExactly(4, 3);
+
+		var last = firstPage.getLast();
+		var secondPage = lobbyIndex.getGames(DATE, last.getCreationDate(), last.getId(), 2);
+		assertThat(getIds(secondPage)).containsExactly(2, 1);
+
+		assertThat(getIds(lobbyIndex.getGames(DATE, DATE.plusSeconds(20), null, 2))).containsExactly(1);
+		assertThat(getIds(lobbyIndex.getGames(DATE.plusSeconds(10), null, null, 10))).containsExactly(4, 3, 2);
+	}
+
+	@Test
+	void testAddAndRemove() {
+		Mockito.when(gameRepository.findLobbyGames(Mockito.anyCollection()))
+				.thenReturn(List.of(getGame(1, DATE.plusSeconds(10))));
+		lobbyIndex.getGames(DATE, null, null, 10);
+
+		var game = getGameDTO(2, DATE.plusSeconds(20));
+		lobbyIndex.add(game);
+		lobbyIndex.add(game);
+		lobbyIndex.add(getGameDTO(3, DATE.plusSeconds(30)));
+		assertThat(getIds(lobbyIndex.getGames(DATE, null, null, 10))).containsExactly(3, 2, 1);
+
+		lobbyIndex.join(1);
+		lobbyIndex.remove(3);
+		lobbyIndex.remove(3);
+		lobbyIndex.join(4);
+		assertThat(getIds(lobbyIndex.getGames(DATE, null, null, 10))).containsExactly(2);
+
+		// Only the changes of the index are published, in order
+		var inOrder = Mockito.inOrder(eventPublisher);
+		inOrder.verify(eventPublisher)
+				.publishEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.ADDED).game(game).build());
+		inOrder.verify(eventPublisher).publishEvent(
+				LobbyEventDTO.builder().type(LobbyEventDTO.Type.ADDED).game(getGameDTO(3, DATE.plusSeconds(30))).build());
+		inOrder.verify(eventPublisher)
+				.publishEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.JOINED).gameId(1).build());
+		inOrder.verify(eventPublisher)
+				.publishEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.REMOVED).gameId(3).build());
+		Mockito.verifyNoMoreInteractions(eventPublisher);
+	}
+
+	@Test
+	void testWithGames() {
+		Mockito.when(gameRepository.findLobbyGames(Mockito.anyCollection()))
+				.thenReturn(List.of(getGame(1, DATE.plusSeconds(10)), getGame(2, DATE.plusSeconds(20))));
+
+		var games = new ArrayList<GameDTO>();
+		lobbyIndex.withGames(DATE.plusSeconds(10), 10, games::addAll);
+
+		// Only the games in the window, as they are listed
+		assertThat(getIds(games)).containsExactly(2);
+	}
+
+	@Test
+	void testRefreshBeforeLoad() {
+		lobbyIndex.refresh();
+
+		Mockito.verifyNoInteractions(gameRepository, eventPublisher);
+	}
+
+	@Test
+	void testRefresh() {
+		var game3 = getGame(3, DATE.plusSeconds(30));
+		Mockito.when(gameRepository.findLobbyGames(Mockito.anyCollection()))
+				.thenReturn(List.of(getGame(1, DATE.plusSeconds(10)), getGame(2, DATE.plusSeconds(20))))
+				.thenAnswer(invocation -> {
+					// Changed here while the database is read, the read does not see it
+					lobbyIndex.add(getGameDTO(4, DATE.plusSeconds(40)));
+					lobbyIndex.join(2);
+					return List.of(getGame(2, DATE.plusSeconds(20)), game3);
+				});
+		lobbyIndex.getGames(DATE, null, null, 10);
+
+		// Game 1 was joined and game 3 created on other nodes
+		lobbyIndex.refresh();
+
+		assertThat(getIds(lobbyIndex.getGames(DATE, null, null, 10))).containsExactly(4, 3);
+		Mockito.verify(eventPublisher)
+				.publishEvent(LobbyEventDTO.builder().type(LobbyEventDTO.Type.REMOVED).gameId(1).build());
+		Mockito.verify(eventPublisher).publishEvent(Mockito.<LobbyEventDTO>argThat(
+				event -> event.getType() == LobbyEventDTO.Type.ADDED && event.getGame().getId() == 3));
+	}
+}
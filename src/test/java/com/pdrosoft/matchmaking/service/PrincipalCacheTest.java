@@ -0,0 +1,144 @@
+package com.pdrosoft.matchmaking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.security.payload.MatchmakingUserDetails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class PrincipalCacheTest {
+
+	private static final long NOW = 1_000_000L;
+	private static final Duration TTL = Duration.ofMinutes(5);
+
+	@Mock
+	private MatchmakingUserDetailsService userDetailsService;
+
+	private SimpleMeterRegistry meterRegistry;
+	private PrincipalCacheImpl principalCache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		principalCache = new PrincipalCacheImpl(userDetailsService, meterRegistry, 2, TTL);
+	}
+
+	private static Player getPlayer(Integer id, String username) {
+		var player = new Player();
+		player.setId(id);
+		player.setUserName(username);
+		return player;
+	}
+
+	private MatchmakingUserDetails mockUser(Integer id, String username) {
+		var user = MatchmakingUserDetails.builder().userName(username).player(getPlayer(id, username))
+				.authorities(List.of()).build();
+		Mockito.when(userDetailsService.loadUserByUsername(username)).thenReturn(user);
+		return user;
+	}
+
+	private double count(String result) {
+		return meterRegistry.get("stratego.auth.principal.cache").tag("result", result).counter().count();
+	}
+
+	@Test
+	void testCachedPrincipal() {
+		var user = mockUser(1, "testuser1");
+
+		assertThat(principalCache.getPrincipal("testuser1", NOW)).isSameAs(user);
+		assertThat(principalCache.getPrincipal("testuser1", NOW + 1000)).isSameAs(user);
+
+		Mockito.verify(userDetailsService).loadUserByUsername("testuser1");
+		assertThat(count("hit")).isEqualTo(1);
+		assertThat(count("miss")).isEqualTo(1);
+		assertThat(meterRegistry.get("stratego.auth.principal.cache.size").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void testExpiredPrincipal() {
+		mockUser(1, "testuser1");
+
+		principalCache.getPrincipal("testuser1", NOW);
+		principalCache.getPrincipal("testuser1", NOW + TTL.toMillis());
+
+		Mockito.verify(userDetailsService, Mockito.times(2)).loadUserByUsername("testuser1");
+		assertThat(count("miss")).isEqualTo(2);
+	}
+
+	@Test
+	void testLeastRecentlyUsedGoesFirst() {
+		mockUser(1, "testuser1");
+		mockUser(2, "testuser2");
+		mockUser(3, "testuser3");
+
+		principalCache.getPrincipal("testuser1", NOW);
+		principalCache.getPrincipal("testuser2", NOW);
+		principalCache.getPrincipal("testuser1", NOW);
+		principalCache.getPrincipal("testuser3", NOW);
+		assertThat(principalCache.size()).isEqualTo(2);
+
+		principalCache.getPrincipal("testuser1", NOW);
+		principalCache.getPrincipal("testuser2", NOW);
+
+		Mockito.verify(userDetailsService).loadUserByUsername("testuser1");
+		Mockito.verify(userDetailsService, Mockito.times(2)).loadUserByUsername("testuser2");
+	}
+
+	@Test
+	void testInvalidateByPlayerId() {
+		mockUser(1, "testuser1");
+		principalCache.getPrincipal("testuser1", NOW);
+
+		// The player was renamed, the principal is found by its id
+		principalCache.invalidate(getPlayer(1, "renamed"));
+		principalCache.getPrincipal("testuser1", NOW);
+
+		Mockito.verify(userDetailsService, Mockito.times(2)).loadUserByUsername("testuser1");
+		assertThat(count("hit")).isZero();
+	}
+
+	@Test
+	void testInvalidateByUsername() {
+		mockUser(1, "testuser1");
+		principalCache.getPrincipal("testuser1", NOW);
+
+		principalCache.invalidate(getPlayer(null, "testuser1"));
+
+		assertThat(principalCache.size()).isZero();
+	}
+
+	@Test
+	void testUnknownUserNotCached() {
+		Mockito.when(userDetailsService.loadUserByUsername("nobody"))
+				.thenThrow(new UsernameNotFoundException("Not found user 'nobody'"));
+
+		assertThatThrownBy(() -> principalCache.getPrincipal("nobody", NOW))
+				.isInstanceOf(UsernameNotFoundException.class);
+		assertThat(principalCache.size()).isZero();
+	}
+
+	@Test
+	void testCacheOff() {
+		principalCache = new PrincipalCacheImpl(userDetailsService, meterRegistry, 2, Duration.ZERO);
+		mockUser(1, "testuser1");
+
+		principalCache.getPrincipal("testuser1", NOW);
+		principalCache.getPrincipal("testuser1", NOW);
+
+		Mockito.verify(userDetailsService, Mockito.times(2)).loadUserByUsername("testuser1");
+	}
+}
@@ -6,6 +6,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -297,6 +299,41 @@ public class FavouriteSetupControllerTest {
 		}
 	}
 
+	@Test
+	void testValidateSetups() throws Exception {
+		var validSetup = ArmySetupDTO.builder().army(getValidSetup()).build();
+		var invalidSetup = ArmySetupDTO.builder().army(List.of(List.of(Rank.MARSHAL, Rank.FLAG))).build();
+		var json = mapper.writeValueAsString(Arrays.asList(validSetup, invalidSetup, null, validSetup));
+
+		var token = getToken("testuser1", "password1");
+		var result = mockMvc.perform(put("/api/stratego/favourite/setup/validate") //
+				.header("Authorization", "Bearer %s".formatted(token)) //
+				.contentType(MediaType.APPLICATION_JSON) //
+				.content(json) //
+		).andExpect(status().isOk()).andReturn();
+
+		List<Boolean> resultList = mapper.readValue(result.getResponse().getContentAsString(),
+				new TypeReference<List<Boolean>>() {
+				});
+		assertThat(resultList).containsExactly(true, false, false, true);
+	}
+
+	@Test
+	void testValidateTooManySetups() throws Exception {
+		var validSetup = ArmySetupDTO.builder().army(getValidSetup()).build();
+		var json = mapper.writeValueAsString(Collections.nCopies(501, validSetup));
+
+		var token = getToken("testuser1", "password1");
+		var result = mockMvc.perform(put("/api/stratego/favourite/setup/validate") //
+				.header("Authorization", "Bearer %s".formatted(token)) //
+				.contentType(MediaType.APPLICATION_JSON) //
+				.content(json) //
+		).andExpect(status().isBadRequest()).andReturn();
+
+		var resultDto = mapper.readValue(result.getResponse().getContentAsString(), ErrorResultDTO.class);
+		assertThat(resultDto.getMessage()).isEqualTo("Up to 500 setups can be validated at once");
+	}
+
 	private List<List<Rank>> getValidSetup() {
 		return List.of(
 				List.of(Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.SPY, Rank.FLAG,
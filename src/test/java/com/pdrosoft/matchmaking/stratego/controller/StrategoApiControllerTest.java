@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.pdrosoft.matchmaking.dto.ErrorResultDTO;
+import com.pdrosoft.matchmaking.dto.GameExtendedDTO;
 import com.pdrosoft.matchmaking.dto.LoginResultDTO;
 import com.pdrosoft.matchmaking.dto.UserAuthDTO;
 import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
@@ -142,10 +143,20 @@ public class StrategoApiControllerTest {
 		assertThat(gameState2.getMovement()).isNull();
 		assertThat(gameState2.getPhase()).isEqualTo(GamePhase.PLAYING);
 
-		checkHostBoard(gameState2.getBoard(), setupDto);
+		checkHiddenBoard(gameState2.getBoard(), true);
 		checkGuestBoard(gameState2.getBoard(), setupDto);
 	}
 
+	private void checkHiddenBoard(List<List<BoardTileDTO>> board, boolean isHost) {
+		for (int row = 0; row < 4; row++) {
+			for (int col = 0; col < 10; col++) {
+				var tile = board.get(isHost ? row : 9 - row).get(col);
+				assertThat(tile.getRank()).isNull();
+				assertThat(tile.isHostOwner()).isEqualTo(isHost);
+			}
+		}
+	}
+
 	private void checkHostBoard(List<List<BoardTileDTO>> board, ArmySetupDTO setup) {
 		var ranks = setup.getArmy();
 		for (int row = 0; row < 3; row++) {
@@ -347,4 +358,264 @@ public class StrategoApiControllerTest {
 		assertThat(gameState.isMyTurn()).isFalse();
 
 	}
+
+	private void addMovement(String token, StrategoMovementDTO movementDto) throws Exception {
+		mockMvc.perform(put("/api/stratego/%d/movement".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token)) //
+				.contentType(MediaType.APPLICATION_JSON) //
+				.content(getObjectMapper().writeValueAsString(movementDto)) //
+		).andExpect(status().isOk());
+	}
+
+	private List<StrategoMovementDTO> getMovements(String token, String query) throws Exception {
+		var result = mockMvc.perform(get("/api/stratego/%d/movements%s".formatted(GAME_ID, query)) //
+				.header("Authorization", "Bearer %s".formatted(token)) //
+		).andExpect(status().isOk()).andReturn();
+
+		return getObjectMapper().readValue(result.getResponse().getContentAsString(),
+				new TypeReference<List<StrategoMovementDTO>>() {
+				});
+	}
+
+	@Test
+	void testGetMovements() throws Exception {
+
+		initializeGame();
+		var token1 = getToken("testuser1", "password1");
+		var token2 = getToken("testuser2", "password2");
+		addMovement(token1, StrategoMovementDTO.builder().rowInitial(3).colInitial(9).rowFinal(4).colFinal(9)
+				.rank(Rank.SCOUT).build());
+		addMovement(token2, StrategoMovementDTO.builder().rowInitial(6).colInitial(0).rowFinal(5).colFinal(0)
+				.rank(Rank.SCOUT).build());
+
+		var allMovements = getMovements(token1, "");
+		assertThat(allMovements).hasSize(2);
+		assertThat(allMovements.get(0).getRowInitial()).isEqualTo(3);
+		assertThat(allMovements.get(1).getRowInitial()).isEqualTo(6);
+		assertThat(allMovements.get(0).getId()).isLessThan(allMovements.get(1).getId());
+
+		assertThat(allMovements.get(0).getRank()).isEqualTo(Rank.SCOUT);
+		// The guest step does not show its rank to the host
+		assertThat(allMovements.get(1).getRank()).isNull();
+
+		var firstPage = getMovements(token2, "?limit=1");
+		assertThat(firstPage).hasSize(1).first().usingRecursiveComparison().ignoringFields("rank")
+				.isEqualTo(allMovements.get(0));
+		assertThat(firstPage.getFirst().getRank()).isNull();
+
+		var secondPage = getMovements(token2, "?limit=1&afterId=%d".formatted(firstPage.getLast().getId()));
+		assertThat(secondPage).hasSize(1).first().usingRecursiveComparison().ignoringFields("rank")
+				.isEqualTo(allMovements.get(1));
+		assertThat(secondPage.getFirst().getRank()).isEqualTo(Rank.SCOUT);
+
+		var lastPage = getMovements(token2, "?limit=1&afterId=%d".formatted(secondPage.getLast().getId()));
+		assertThat(lastPage).isEmpty();
+	}
+
+	@Test
+	void testGetMovementsInvalidLimit() throws Exception {
+
+		var token1 = getToken("testuser1", "password1");
+		var result = mockMvc.perform(get("/api/stratego/%d/movements?limit=0".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isBadRequest()).andReturn();
+
+		var resultDto = getObjectMapper().readValue(result.getResponse().getContentAsString(), ErrorResultDTO.class);
+		assertThat(resultDto.getMessage()).contains("The limit must be between 1 and 200");
+	}
+
+	@Test
+	void testGetStatusNotModified() throws Exception {
+
+		initializeGame();
+		var token1 = getToken("testuser1", "password1");
+		var token2 = getToken("testuser2", "password2");
+
+		var resultStatus = mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isOk()).andReturn();
+		var etag = resultStatus.getResponse().getHeader("ETag");
+		var gameState = getObjectMapper().readValue(resultStatus.getResponse().getContentAsString(),
+				GameStateDTO.class);
+		assertThat(etag).isNotBlank();
+		assertThat(gameState.getVersion()).isEqualTo(2L);
+
+		mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.header("If-None-Match", etag) //
+		).andExpect(status().isNotModified());
+
+		// Another viewer gets another representation
+		mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token2)) //
+				.header("If-None-Match", etag) //
+		).andExpect(status().isOk());
+
+		addMovement(token1, StrategoMovementDTO.builder().rowInitial(3).colInitial(9).rowFinal(4).colFinal(9)
+				.rank(Rank.SCOUT).build());
+
+		var resultDelta = mockMvc.perform(get("/api/stratego/%d/status?sinceVersion=2".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.header("If-None-Match", etag) //
+		).andExpect(status().isOk()).andReturn();
+		var delta = getObjectMapper().readValue(resultDelta.getResponse().getContentAsString(), GameStateDTO.class);
+		assertThat(resultDelta.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+		assertThat(delta.getVersion()).isEqualTo(3L);
+		assertThat(delta.getBoard()).isNull();
+		assertThat(delta.getChanges()).hasSize(2);
+		assertThat(delta.getChanges().get(0)).satisfies(change -> {
+			assertThat(change.getRow()).isEqualTo(3);
+			assertThat(change.getCol()).isEqualTo(9);
+			assertThat(change.getTile()).isNull();
+		});
+		assertThat(delta.getChanges().get(1)).satisfies(change -> {
+			assertThat(change.getRow()).isEqualTo(4);
+			assertThat(change.getCol()).isEqualTo(9);
+			assertThat(change.getTile().getRank()).isEqualTo(Rank.SCOUT);
+		});
+	}
+
+	@Test
+	void testGetStatusNotModifiedByRepresentation() throws Exception {
+
+		initializeGame();
+		var token1 = getToken("testuser1", "password1");
+
+		addMovement(token1, StrategoMovementDTO.builder().rowInitial(3).colInitial(9).rowFinal(4).colFinal(9)
+				.rank(Rank.SCOUT).build());
+
+		var resultStatus = mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isOk()).andReturn();
+		var etag = resultStatus.getResponse().getHeader("ETag");
+
+		// Same version, viewer and phase, but a delta is not the full board
+		var resultDelta = mockMvc.perform(get("/api/stratego/%d/status?sinceVersion=2".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.header("If-None-Match", etag) //
+		).andExpect(status().isOk()).andReturn();
+		var deltaEtag = resultDelta.getResponse().getHeader("ETag");
+		var delta = getObjectMapper().readValue(resultDelta.getResponse().getContentAsString(), GameStateDTO.class);
+		assertThat(deltaEtag).isNotEqualTo(etag);
+		assertThat(delta.getBoard()).isNull();
+
+		mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.header("If-None-Match", deltaEtag) //
+		).andExpect(status().isOk());
+		mockMvc.perform(get("/api/stratego/%d/status?sinceVersion=1".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.header("If-None-Match", deltaEtag) //
+		).andExpect(status().isOk());
+		mockMvc.perform(get("/api/stratego/%d/status?sinceVersion=2".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.header("If-None-Match", deltaEtag) //
+		).andExpect(status().isNotModified());
+	}
+
+	private List<List<BoardTileDTO>> getBoard(String token, long version) throws Exception {
+		var result = mockMvc.perform(get("/api/stratego/%d/board?version=%d".formatted(GAME_ID, version)) //
+				.header("Authorization", "Bearer %s".formatted(token)) //
+		).andExpect(status().isOk()).andReturn();
+
+		return getObjectMapper().readValue(result.getResponse().getContentAsString(),
+				new TypeReference<List<List<BoardTileDTO>>>() {
+				});
+	}
+
+	@Test
+	void testGetBoard() throws Exception {
+
+		var setupBoard = initializeGame();
+		var token1 = getToken("testuser1", "password1");
+		addMovement(token1, StrategoMovementDTO.builder().rowInitial(3).colInitial(9).rowFinal(4).colFinal(9)
+				.rank(Rank.SCOUT).build());
+
+		var resultStatus = mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isOk()).andReturn();
+		var gameState = getObjectMapper().readValue(resultStatus.getResponse().getContentAsString(),
+				GameStateDTO.class);
+
+		var token2 = getToken("testuser2", "password2");
+		assertThat(getBoard(token1, 3)).isEqualTo(gameState.getBoard());
+		assertThat(getBoard(token2, 2)).isEqualTo(setupBoard);
+		// The guest does not see the rank of the scout that stepped forward
+		assertThat(getBoard(token2, 3).get(4).get(9)).isEqualTo(new BoardTileDTO(null, true));
+	}
+
+	@Test
+	void testGetStatusHidesOpponentRanks() throws Exception {
+
+		var setupDto = ArmySetupDTO.builder().army(getValidSetup()).build();
+		initializeGame();
+		var token1 = getToken("testuser1", "password1");
+
+		var resultStatus = mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isOk()).andReturn();
+		var gameState = getObjectMapper().readValue(resultStatus.getResponse().getContentAsString(),
+				GameStateDTO.class);
+		checkHostBoard(gameState.getBoard(), setupDto);
+		checkHiddenBoard(gameState.getBoard(), false);
+
+		// Repeated polls get the same serialized state
+		var repeatedStatus = mockMvc.perform(get("/api/stratego/%d/status".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isOk()).andReturn();
+		assertThat(repeatedStatus.getResponse().getContentAsByteArray())
+				.isEqualTo(resultStatus.getResponse().getContentAsByteArray());
+	}
+
+	@Test
+	void testAddBot() throws Exception {
+
+		var botGameId = 6L;
+		var token1 = getToken("testuser1", "password1");
+		var resultBot = mockMvc.perform(put("/api/stratego/%d/bot".formatted(botGameId)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isOk()).andReturn();
+		var game = getObjectMapper().readValue(resultBot.getResponse().getContentAsString(), GameExtendedDTO.class);
+		assertThat(game.getGuest().getUsername()).isEqualTo("StrategoBot");
+		assertThat(game.getPhase()).isEqualTo(GamePhase.WAITING_FOR_SETUP_1_PLAYER);
+
+		var setupDto = ArmySetupDTO.builder().army(getValidSetup()).build();
+		mockMvc.perform(put("/api/stratego/%d/setup".formatted(botGameId)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.contentType(MediaType.APPLICATION_JSON) //
+				.content(getObjectMapper().writeValueAsString(setupDto)) //
+		).andExpect(status().isOk());
+		mockMvc.perform(put("/api/stratego/%d/movement".formatted(botGameId)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+				.contentType(MediaType.APPLICATION_JSON) //
+				.content(getObjectMapper().writeValueAsString(StrategoMovementDTO.builder().rowInitial(3)
+						.colInitial(9).rowFinal(4).colFinal(9).rank(Rank.SCOUT).build())) //
+		).andExpect(status().isOk());
+
+		// The bot answers in the background
+		GameStateDTO gameState = null;
+		for (int i = 0; i < 100 && (gameState == null || !gameState.isMyTurn()); i++) {
+			Thread.sleep(50);
+			var resultStatus = mockMvc.perform(get("/api/stratego/%d/status".formatted(botGameId)) //
+					.header("Authorization", "Bearer %s".formatted(token1)) //
+			).andExpect(status().isOk()).andReturn();
+			gameState = getObjectMapper().readValue(resultStatus.getResponse().getContentAsString(),
+					GameStateDTO.class);
+		}
+
+		assertThat(gameState.isMyTurn()).isTrue();
+		assertThat(gameState.getVersion()).isEqualTo(4L);
+	}
+
+	@Test
+	void testAddBotGameWithGuest() throws Exception {
+
+		var token1 = getToken("testuser1", "password1");
+		var result = mockMvc.perform(put("/api/stratego/%d/bot".formatted(GAME_ID)) //
+				.header("Authorization", "Bearer %s".formatted(token1)) //
+		).andExpect(status().isBadRequest()).andReturn();
+
+		var resultDto = getObjectMapper().readValue(result.getResponse().getContentAsString(), ErrorResultDTO.class);
+		assertThat(resultDto.getMessage()).contains("The game already has a guest");
+	}
 }
@@ -0,0 +1,44 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class BoardChangeLogTest {
+
+	@Test
+	void testChangedSince() {
+		var log = new BoardChangeLog(4);
+		log.record(1, 99, 0);
+		log.record(2, 63, 64);
+		log.record(3, 0, 10);
+
+		assertThat(log.changedSince(3, 3)).isEmpty();
+		assertThat(log.changedSince(2, 3)).containsExactly(0, 10);
+		assertThat(log.changedSince(1, 3)).containsExactly(0, 10, 63, 64);
+		assertThat(log.changedSince(0, 3)).containsExactly(0, 10, 63, 64, 99);
+		assertThat(log.changedSince(0, 1)).containsExactly(0, 99);
+	}
+
+	@Test
+	void testVersionNotLogged() {
+		var log = new BoardChangeLog(2);
+		log.record(6, 1);
+		log.record(7, 2);
+		log.record(8, 3);
+
+		assertThat(log.changedSince(6, 8)).containsExactly(2, 3);
+		// Version 6 was overwritten
+		assertThat(log.changedSince(5, 8)).isNull();
+		// Ahead of the current version
+		assertThat(log.changedSince(9, 8)).isNull();
+	}
+
+	@Test
+	void testEmptyLog() {
+		var log = new BoardChangeLog(2);
+
+		assertThat(log.changedSince(3, 3)).isEmpty();
+		assertThat(log.changedSince(2, 3)).isNull();
+	}
+}
@@ -0,0 +1,91 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+import com.pdrosoft.matchmaking.stratego.service.RankServiceImpl;
+
+public class MonteCarloTreeSearchTest {
+
+	private final RankServiceImpl rankService = new RankServiceImpl();
+
+	private ForkJoinPool pool;
+	private MonteCarloTreeSearch search;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ForkJoinPool(2);
+		search = new MonteCarloTreeSearch(rankService::compareRanks, pool, Duration.ofMillis(100), 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void testInvalidParallelism() {
+		assertThatThrownBy(() -> new MonteCarloTreeSearch(rankService::compareRanks, pool, Duration.ZERO, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void testNoMovements() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(9, 9, StrategoBoard.encode(Rank.SCOUT, false));
+
+		assertThat(search.search(board, true, random -> board, 1L)).isEqualTo(-1);
+	}
+
+	@Test
+	void testSingleMovement() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, false));
+		board.set(0, 1, StrategoBoard.encode(Rank.BOMB, false));
+		board.set(1, 1, StrategoBoard.encode(Rank.BOMB, false));
+		board.set(1, 0, StrategoBoard.encode(Rank.SERGEANT, false));
+		board.set(2, 0, StrategoBoard.encode(Rank.SERGEANT, true));
+
+		var move = search.search(board, false, random -> board, 1L);
+
+		assertThat(move).isEqualTo(MoveGenerator.encode(StrategoBoard.index(1, 0), StrategoBoard.index(2, 0)));
+	}
+
+	@Test
+	void testCapturesTheFlag() {
+		var board = StrategoBoard.empty();
+		board.set(9, 0, StrategoBoard.encode(Rank.FLAG, false));
+		board.set(9, 1, StrategoBoard.encode(Rank.SERGEANT, false));
+		board.set(8, 0, StrategoBoard.encode(Rank.LIEUTENANT, true));
+		board.set(8, 1, StrategoBoard.encode(Rank.SPY, true));
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+
+		var move = search.search(board, true, random -> board, 1L);
+
+		assertThat(move).isEqualTo(MoveGenerator.encode(StrategoBoard.index(8, 0), StrategoBoard.index(9, 0)));
+	}
+
+	@Test
+	void testEvaluate() {
+		var board = StrategoBoard.empty();
+		assertThat(MonteCarloTreeSearch.evaluate(board)).isEqualTo(0.5);
+
+		board.set(0, 0, StrategoBoard.encode(Rank.MARSHAL, true));
+		assertThat(MonteCarloTreeSearch.evaluate(board)).isEqualTo(1.0);
+
+		board.set(9, 0, StrategoBoard.encode(Rank.MARSHAL, false));
+		assertThat(MonteCarloTreeSearch.evaluate(board)).isEqualTo(0.5);
+
+		board.set(9, 1, StrategoBoard.encode(Rank.SCOUT, false));
+		assertThat(MonteCarloTreeSearch.evaluate(board)).isLessThan(0.5);
+	}
+}
@@ -0,0 +1,70 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+public class MoveGeneratorTest {
+
+	private int[] generate(StrategoBoard board, boolean isHost) {
+		var moves = new int[MoveGenerator.MAX_MOVES];
+		var count = MoveGenerator.generate(board, isHost, moves);
+		return Arrays.copyOf(moves, count);
+	}
+
+	private int move(int rowInitial, int colInitial, int rowFinal, int colFinal) {
+		return MoveGenerator.encode(StrategoBoard.index(rowInitial, colInitial),
+				StrategoBoard.index(rowFinal, colFinal));
+	}
+
+	@Test
+	void testEncode() {
+		var move = MoveGenerator.encode(37, 99);
+
+		assertThat(MoveGenerator.fromIndex(move)).isEqualTo(37);
+		assertThat(MoveGenerator.toIndex(move)).isEqualTo(99);
+	}
+
+	@Test
+	void testOneSquareMoves() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.MARSHAL, true));
+		board.set(0, 1, StrategoBoard.encode(Rank.GENERAL, true));
+		board.set(1, 0, StrategoBoard.encode(Rank.SPY, false));
+
+		assertThat(generate(board, true)).containsExactlyInAnyOrder( //
+				move(0, 0, 1, 0), //
+				move(0, 1, 1, 1), move(0, 1, 0, 2));
+		assertThat(generate(board, false)).containsExactlyInAnyOrder( //
+				move(1, 0, 0, 0), move(1, 0, 2, 0), move(1, 0, 1, 1));
+	}
+
+	@Test
+	void testInmobilePiecesAndLakes() {
+		var board = StrategoBoard.empty();
+		board.set(3, 2, StrategoBoard.encode(Rank.BOMB, true));
+		board.set(3, 3, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(6, 2, StrategoBoard.encode(Rank.BOMB, false));
+		board.set(3, 6, StrategoBoard.encode(Rank.SERGEANT, true));
+
+		assertThat(generate(board, true)).containsExactlyInAnyOrder( //
+				move(3, 6, 2, 6), move(3, 6, 3, 5), move(3, 6, 3, 7));
+		assertThat(generate(board, false)).isEmpty();
+	}
+
+	@Test
+	void testScoutRuns() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.SCOUT, true));
+		board.set(0, 3, StrategoBoard.encode(Rank.BOMB, true));
+		board.set(4, 0, StrategoBoard.encode(Rank.MINER, false));
+
+		assertThat(generate(board, true)).containsExactlyInAnyOrder( //
+				move(0, 0, 0, 1), move(0, 0, 0, 2), //
+				move(0, 0, 1, 0), move(0, 0, 2, 0), move(0, 0, 3, 0), move(0, 0, 4, 0));
+	}
+}
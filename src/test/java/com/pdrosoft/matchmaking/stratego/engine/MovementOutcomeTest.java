@@ -0,0 +1,33 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+public class MovementOutcomeTest {
+
+	@Test
+	void testNone() {
+		assertThat(MovementOutcome.size(MovementOutcome.NONE)).isZero();
+	}
+
+	@Test
+	void testOnePiece() {
+		var outcome = MovementOutcome.of(StrategoBoard.reveal(StrategoBoard.encode(Rank.SPY, false)));
+
+		assertThat(MovementOutcome.size(outcome)).isEqualTo(1);
+		assertThat(MovementOutcome.get(outcome, 0)).isEqualTo(StrategoBoard.encode(Rank.SPY, false));
+	}
+
+	@Test
+	void testTwoPieces() {
+		var outcome = MovementOutcome.of(StrategoBoard.encode(Rank.FLAG, true),
+				StrategoBoard.reveal(StrategoBoard.encode(Rank.MARSHAL, false)));
+
+		assertThat(MovementOutcome.size(outcome)).isEqualTo(2);
+		assertThat(MovementOutcome.get(outcome, 0)).isEqualTo(StrategoBoard.encode(Rank.FLAG, true));
+		assertThat(MovementOutcome.get(outcome, 1)).isEqualTo(StrategoBoard.encode(Rank.MARSHAL, false));
+	}
+}
@@ -0,0 +1,64 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+public class PieceCountsTest {
+
+	@Test
+	void testCounts() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(0, 1, StrategoBoard.encode(Rank.BOMB, true));
+		board.set(1, 0, StrategoBoard.encode(Rank.SCOUT, true));
+		board.set(9, 0, StrategoBoard.encode(Rank.FLAG, false));
+		board.set(9, 1, StrategoBoard.encode(Rank.MARSHAL, false));
+		board.set(9, 2, StrategoBoard.reveal(StrategoBoard.encode(Rank.SPY, false)));
+
+		var counts = PieceCounts.of(board);
+
+		assertThat(counts.getPieces(true)).isEqualTo(3);
+		assertThat(counts.getMovablePieces(true)).isEqualTo(1);
+		assertThat(counts.getPieces(false)).isEqualTo(3);
+		assertThat(counts.getMovablePieces(false)).isEqualTo(2);
+		assertThat(counts.hasFlag(true)).isTrue();
+		assertThat(counts.hasLost(true)).isFalse();
+		assertThat(counts.hasLost(false)).isFalse();
+	}
+
+	@Test
+	void testEmptyBoard() {
+		var counts = PieceCounts.of(StrategoBoard.empty());
+
+		assertThat(counts.getPieces(true)).isZero();
+		assertThat(counts.hasLost(true)).isTrue();
+		assertThat(counts.hasLost(false)).isTrue();
+	}
+
+	@Test
+	void testRemove() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(1, 0, StrategoBoard.encode(Rank.SCOUT, true));
+		board.set(9, 0, StrategoBoard.encode(Rank.FLAG, false));
+		board.set(9, 1, StrategoBoard.encode(Rank.BOMB, false));
+		board.set(8, 0, StrategoBoard.encode(Rank.MINER, false));
+		var counts = PieceCounts.of(board);
+
+		counts.remove(StrategoBoard.encode(Rank.BOMB, false));
+		assertThat(counts.getPieces(false)).isEqualTo(2);
+		assertThat(counts.getMovablePieces(false)).isEqualTo(1);
+		assertThat(counts.hasLost(false)).isFalse();
+
+		counts.remove(StrategoBoard.reveal(StrategoBoard.encode(Rank.MINER, false)));
+		assertThat(counts.getMovablePieces(false)).isZero();
+		assertThat(counts.hasLost(false)).isTrue();
+
+		counts.remove(StrategoBoard.encode(Rank.FLAG, true));
+		assertThat(counts.hasFlag(true)).isFalse();
+		assertThat(counts.hasLost(true)).isTrue();
+	}
+}
@@ -0,0 +1,145 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+public class PieceKnowledgeTest {
+
+	private static final Rank[] HOST_ROW = { Rank.FLAG, Rank.BOMB, Rank.BOMB, Rank.MARSHAL, Rank.SPY, Rank.SCOUT,
+			Rank.SCOUT, Rank.MINER, Rank.CAPTAIN, Rank.MAJOR };
+
+	private StrategoBoard getBoard() {
+		var board = StrategoBoard.empty();
+		for (int col = 0; col < StrategoBoard.SIZE; col++) {
+			board.set(0, col, StrategoBoard.encode(HOST_ROW[col], true));
+			board.set(9, col, StrategoBoard.encode(Rank.SERGEANT, false));
+		}
+		return board;
+	}
+
+	@Test
+	void testInitialKnowledge() {
+		var knowledge = new PieceKnowledge();
+
+		assertThat(knowledge.isHostPiece(StrategoBoard.index(3, 9))).isTrue();
+		assertThat(knowledge.isOccupied(StrategoBoard.index(6, 0))).isTrue();
+		assertThat(knowledge.isHostPiece(StrategoBoard.index(6, 0))).isFalse();
+		assertThat(knowledge.isOccupied(StrategoBoard.index(4, 0))).isFalse();
+		assertThat(knowledge.hasMoved(StrategoBoard.index(3, 0))).isFalse();
+		assertThat(knowledge.isRevealed(StrategoBoard.index(3, 0))).isFalse();
+	}
+
+	@Test
+	void testMoves() {
+		var knowledge = new PieceKnowledge();
+		var from = StrategoBoard.index(3, 0);
+		var step = StrategoBoard.index(4, 0);
+		var run = StrategoBoard.index(5, 1);
+
+		knowledge.move(from, step);
+
+		assertThat(knowledge.isOccupied(from)).isFalse();
+		assertThat(knowledge.isHostPiece(step)).isTrue();
+		assertThat(knowledge.hasMoved(step)).isTrue();
+		assertThat(knowledge.isRevealed(step)).isFalse();
+
+		knowledge.move(StrategoBoard.index(3, 1), run);
+
+		assertThat(knowledge.isRevealed(run)).isTrue();
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { -1, 0, 1 })
+	void testAttack(int combatResult) {
+		var knowledge = new PieceKnowledge();
+		var from = StrategoBoard.index(3, 0);
+		var to = StrategoBoard.index(4, 0);
+		var target = StrategoBoard.index(5, 0);
+		knowledge.move(StrategoBoard.index(6, 0), target);
+		knowledge.move(from, to);
+
+		knowledge.attack(to, target, combatResult);
+
+		assertThat(knowledge.isOccupied(to)).isFalse();
+		assertThat(knowledge.isOccupied(target)).isEqualTo(combatResult != 0);
+		assertThat(knowledge.isRevealed(target)).isEqualTo(combatResult != 0);
+		assertThat(knowledge.isHostPiece(target)).isEqualTo(combatResult > 0);
+	}
+
+	/**
+	 * Board as the guest sees it after the marshal won an attack and a scout
+	 * stepped forward.
+	 */
+	private StrategoBoard getGuestView(PieceKnowledge knowledge) {
+		var board = getBoard();
+		board.set(1, 3, StrategoBoard.encode(Rank.SERGEANT, false));
+		knowledge.attack(StrategoBoard.index(0, 3), StrategoBoard.index(1, 3), 1);
+		knowledge.capture(Rank.SERGEANT, false);
+		board.move(StrategoBoard.index(0, 3), StrategoBoard.index(1, 3), 1);
+		knowledge.move(StrategoBoard.index(0, 5), StrategoBoard.index(1, 5));
+		board.move(StrategoBoard.index(0, 5), StrategoBoard.index(1, 5), 1);
+		return StrategoBoard.fromTiles(board.toTiles(Viewer.GUEST));
+	}
+
+	@Test
+	void testGetHiddenCounts() {
+		var knowledge = new PieceKnowledge();
+		var board = getGuestView(knowledge);
+
+		var hostCounts = knowledge.getHiddenCounts(board, true);
+		assertThat(hostCounts[Rank.MARSHAL.ordinal()]).isZero();
+		assertThat(hostCounts[Rank.SCOUT.ordinal()]).isEqualTo(8);
+		assertThat(hostCounts[Rank.BOMB.ordinal()]).isEqualTo(6);
+
+		// The guest sergeants are all in sight but one, which was captured
+		var guestCounts = knowledge.getHiddenCounts(board, false);
+		assertThat(guestCounts[Rank.SERGEANT.ordinal()]).isZero();
+		assertThat(guestCounts[Rank.MINER.ordinal()]).isEqualTo(5);
+	}
+
+	@Test
+	void testDeterminize() {
+		var knowledge = new PieceKnowledge();
+		var board = getGuestView(knowledge);
+		var hiddenCounts = new int[Rank.values().length - 1];
+		for (var rank : HOST_ROW) {
+			hiddenCounts[rank.ordinal()]++;
+		}
+		hiddenCounts[Rank.MARSHAL.ordinal()] = 0;
+
+		var random = new SplittableRandom(7);
+		for (int i = 0; i < 100; i++) {
+			var determinization = knowledge.determinize(board, true, hiddenCounts, random);
+
+			assertThat(StrategoBoard.rankOf(determinization.get(1, 3))).isEqualTo(Rank.MARSHAL);
+			assertThat(StrategoBoard.isInmobileRank(determinization.get(1, 5))).isFalse();
+			assertThat(determinization.get(1, 5)).isNotEqualTo(StrategoBoard.encode(Rank.MARSHAL, true));
+			for (int col = 0; col < StrategoBoard.SIZE; col++) {
+				assertThat(determinization.get(9, col)).isEqualTo(board.get(9, col));
+				assertThat(StrategoBoard.isEmpty(determinization.get(0, col))).isEqualTo(board.get(0, col) == 0);
+			}
+			for (int index = 0; index < StrategoBoard.NUM_SQUARES; index++) {
+				assertThat(StrategoBoard.isHidden(determinization.get(index))).isFalse();
+			}
+
+			var counts = new int[Rank.values().length];
+			for (int index = 0; index < StrategoBoard.index(2, 0); index++) {
+				var square = determinization.get(index);
+				if (!StrategoBoard.isEmpty(square)) {
+					assertThat(StrategoBoard.isHostOwner(square)).isTrue();
+					counts[StrategoBoard.rankOrdinal(square)]++;
+				}
+			}
+			assertThat(counts[Rank.BOMB.ordinal()]).isEqualTo(2);
+			assertThat(counts[Rank.FLAG.ordinal()]).isEqualTo(1);
+			assertThat(counts[Rank.SCOUT.ordinal()]).isEqualTo(2);
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+public class StrategoBoardTest {
+
+	@ParameterizedTest
+	@EnumSource(Rank.class)
+	void testEncode(Rank rank) {
+		var hostSquare = StrategoBoard.encode(rank, true);
+		var guestSquare = StrategoBoard.encode(rank, false);
+
+		assertThat(StrategoBoard.isEmpty(hostSquare)).isFalse();
+		assertThat(StrategoBoard.isEmpty(guestSquare)).isFalse();
+		assertThat(StrategoBoard.rankOf(hostSquare)).isEqualTo(rank);
+		assertThat(StrategoBoard.rankOf(guestSquare)).isEqualTo(rank);
+		assertThat(StrategoBoard.isHostOwner(hostSquare)).isTrue();
+		assertThat(StrategoBoard.isHostOwner(guestSquare)).isFalse();
+		assertThat(StrategoBoard.isDisabled(hostSquare)).isEqualTo(Rank.DISABLED.equals(rank));
+
+		var inmobile = List.of(Rank.BOMB, Rank.FLAG, Rank.DISABLED).contains(rank);
+		assertThat(StrategoBoard.isInmobileRank(hostSquare)).isEqualTo(inmobile);
+	}
+
+	@Test
+	void testEmptySquare() {
+		assertThat(StrategoBoard.isEmpty(StrategoBoard.EMPTY)).isTrue();
+		assertThat(StrategoBoard.rankOf(StrategoBoard.EMPTY)).isNull();
+		assertThat(StrategoBoard.isInmobileRank(StrategoBoard.EMPTY)).isFalse();
+		assertThat(StrategoBoard.isDisabled(StrategoBoard.EMPTY)).isFalse();
+	}
+
+	@Test
+	void testEmptyBoard() {
+		var tiles = StrategoBoard.empty().toTiles();
+
+		assertThat(tiles).hasSize(10).allSatisfy(row -> assertThat(row).hasSize(10));
+		for (int row = 0; row < 10; row++) {
+			for (int col = 0; col < 10; col++) {
+				var isLake = (row == 4 || row == 5) && (col == 2 || col == 3 || col == 6 || col == 7);
+				if (isLake) {
+					assertThat(tiles.get(row).get(col).getRank()).isEqualTo(Rank.DISABLED);
+				} else {
+					assertThat(tiles.get(row).get(col)).isNull();
+				}
+			}
+		}
+	}
+
+	@Test
+	void testTilesRoundTrip() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.MARSHAL, true));
+		board.set(9, 9, StrategoBoard.encode(Rank.FLAG, false));
+
+		var copy = StrategoBoard.fromTiles(board.toTiles());
+
+		assertThat(copy).isEqualTo(board).hasSameHashCodeAs(board);
+		assertThat(copy.getTile(0, 0)).isEqualTo(new BoardTileDTO(Rank.MARSHAL, true));
+		assertThat(copy.getTile(9, 9)).isEqualTo(new BoardTileDTO(Rank.FLAG, false));
+		assertThat(copy.getTile(1, 1)).isNull();
+	}
+
+	@Test
+	void testFromPartialTiles() {
+		var tile = new BoardTileDTO(Rank.SCOUT, true);
+		List<List<BoardTileDTO>> tiles = Arrays.asList(Arrays.asList(tile, null), null);
+
+		var board = StrategoBoard.fromTiles(tiles);
+
+		assertThat(board.getTile(0, 0)).isEqualTo(tile);
+		assertThat(board.getTile(0, 1)).isNull();
+		assertThat(board.get(1, 0)).isEqualTo(StrategoBoard.EMPTY);
+	}
+
+	@Test
+	void testBytesRoundTrip() {
+		var board = StrategoBoard.empty();
+		board.set(StrategoBoard.index(3, 4), StrategoBoard.encode(Rank.SPY, true));
+
+		var bytes = board.toBytes();
+		var copy = StrategoBoard.fromBytes(bytes);
+		bytes[0] = 1;
+
+		assertThat(copy).isEqualTo(board);
+		assertThat(copy.get(0)).isEqualTo(StrategoBoard.EMPTY);
+	}
+
+	@Test
+	void testFromBytesInvalidSize() {
+		assertThatThrownBy(() -> StrategoBoard.fromBytes(new byte[10])).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StrategoBoard.fromBytes(null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StrategoBoard.fromBytes(new byte[StrategoBoard.NUM_SQUARES], 1))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StrategoBoard.fromBytes(new byte[StrategoBoard.NUM_SQUARES], -1))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StrategoBoard.fromBytes(null, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void testCopyAndClear() {
+		var board = StrategoBoard.empty();
+		board.set(2, 2, StrategoBoard.encode(Rank.MINER, false));
+		var copy = board.copy();
+
+		board.clear(2, 2);
+		copy.clear(StrategoBoard.index(4, 2));
+
+		assertThat(board.get(2, 2)).isEqualTo(StrategoBoard.EMPTY);
+		assertThat(copy.getTile(2, 2)).isEqualTo(new BoardTileDTO(Rank.MINER, false));
+		assertThat(copy.get(4, 2)).isEqualTo(StrategoBoard.EMPTY);
+		assertThat(board).isNotEqualTo(copy).isNotEqualTo(null);
+		assertThat(board.toString()).startsWith("StrategoBoard[");
+	}
+
+	@Test
+	void testMove() {
+		var attacker = StrategoBoard.encode(Rank.MAJOR, true);
+		var defender = StrategoBoard.encode(Rank.CAPTAIN, false);
+		var from = StrategoBoard.index(3, 0);
+		var to = StrategoBoard.index(4, 0);
+
+		var board = StrategoBoard.empty();
+		board.set(from, attacker);
+		board.set(to, defender);
+		var lost = board.copy();
+		var tie = board.copy();
+
+		board.move(from, to, 1);
+		lost.move(from, to, -1);
+		tie.move(from, to, 0);
+
+		assertThat(board.get(from)).isEqualTo(StrategoBoard.EMPTY);
+		assertThat(board.get(to)).isEqualTo(StrategoBoard.reveal(attacker));
+		assertThat(lost.get(from)).isEqualTo(StrategoBoard.EMPTY);
+		assertThat(lost.get(to)).isEqualTo(StrategoBoard.reveal(defender));
+		assertThat(tie.get(from)).isEqualTo(StrategoBoard.EMPTY);
+		assertThat(tie.get(to)).isEqualTo(StrategoBoard.EMPTY);
+	}
+
+	@Test
+	void testMoveRevealsScoutRuns() {
+		var scout = StrategoBoard.encode(Rank.SCOUT, true);
+		var board = StrategoBoard.empty();
+		board.set(3, 0, scout);
+		board.set(3, 9, scout);
+
+		board.move(StrategoBoard.index(3, 0), StrategoBoard.index(4, 0), 1);
+		board.move(StrategoBoard.index(3, 9), StrategoBoard.index(6, 9), 1);
+
+		assertThat(board.get(4, 0)).isEqualTo(scout);
+		assertThat(board.get(6, 9)).isEqualTo(StrategoBoard.reveal(scout));
+		assertThat(StrategoBoard.rankOf(board.get(6, 9))).isEqualTo(Rank.SCOUT);
+	}
+
+	@Test
+	void testProjection() {
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(9, 0, StrategoBoard.encode(Rank.MARSHAL, false));
+		board.set(9, 1, StrategoBoard.reveal(StrategoBoard.encode(Rank.SPY, false)));
+
+		var hostView = board.toTiles(Viewer.HOST);
+		assertThat(hostView.get(0).get(0)).isEqualTo(new BoardTileDTO(Rank.FLAG, true));
+		assertThat(hostView.get(9).get(0)).isEqualTo(new BoardTileDTO(null, false));
+		assertThat(hostView.get(9).get(1)).isEqualTo(new BoardTileDTO(Rank.SPY, false));
+		assertThat(hostView.get(4).get(2)).isEqualTo(new BoardTileDTO(Rank.DISABLED, false));
+		assertThat(board.getTile(9, 0, Viewer.GUEST)).isEqualTo(new BoardTileDTO(Rank.MARSHAL, false));
+
+		var spectatorView = board.toTiles(Viewer.SPECTATOR);
+		assertThat(spectatorView.get(0).get(0)).isEqualTo(new BoardTileDTO(null, true));
+		assertThat(spectatorView.get(9).get(0)).isEqualTo(new BoardTileDTO(null, false));
+		assertThat(board.toTiles()).isEqualTo(board.toTiles(null));
+
+		// Hidden pieces keep their owner when read back
+		var projected = StrategoBoard.fromTiles(hostView);
+		assertThat(StrategoBoard.isHidden(projected.get(9, 0))).isTrue();
+		assertThat(StrategoBoard.isHostOwner(projected.get(9, 0))).isFalse();
+		assertThat(StrategoBoard.rankOf(projected.get(9, 0))).isNull();
+		assertThat(projected.toTiles()).isEqualTo(hostView);
+	}
+}
@@ -0,0 +1,117 @@
+package com.pdrosoft.matchmaking.stratego.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+import com.pdrosoft.matchmaking.stratego.service.RankServiceImpl;
+
+public class ZobristTest {
+
+	private static final int[][] DIRECTIONS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+
+	private final RankServiceImpl rankService = new RankServiceImpl();
+
+	private StrategoBoard getRandomSetup(Random random) {
+		var pieces = new ArrayList<Rank>();
+		for (var rank : Rank.values()) {
+			if (!Rank.DISABLED.equals(rank)) {
+				for (int i = 0; i < 4; i++) {
+					pieces.add(rank);
+				}
+			}
+		}
+
+		var board = StrategoBoard.empty();
+		for (int row = 0; row < 4; row++) {
+			for (int col = 0; col < StrategoBoard.SIZE; col++) {
+				board.set(row, col, StrategoBoard.encode(pieces.get(random.nextInt(pieces.size())), true));
+				board.set(9 - row, col, StrategoBoard.encode(pieces.get(random.nextInt(pieces.size())), false));
+			}
+		}
+		return board;
+	}
+
+	@Test
+	void testEmptySquaresDoNotCount() {
+		var board = StrategoBoard.empty();
+		var withPiece = board.copy();
+		withPiece.set(0, 0, StrategoBoard.encode(Rank.SPY, true));
+
+		assertThat(Zobrist.key(0, StrategoBoard.EMPTY)).isZero();
+		assertThat(Zobrist.hash(withPiece, false)).isEqualTo(Zobrist.hash(board, false)
+				^ Zobrist.key(StrategoBoard.index(0, 0), StrategoBoard.encode(Rank.SPY, true)));
+		assertThat(Zobrist.hash(board, true)).isEqualTo(Zobrist.hash(board, false) ^ Zobrist.GUEST_TO_MOVE);
+	}
+
+	@Test
+	void testOwnerAndSquareChangeTheKey() {
+		var hostSpy = StrategoBoard.encode(Rank.SPY, true);
+		var guestSpy = StrategoBoard.encode(Rank.SPY, false);
+
+		assertThat(Zobrist.key(0, hostSpy)).isNotEqualTo(Zobrist.key(0, guestSpy));
+		assertThat(Zobrist.key(0, hostSpy)).isNotEqualTo(Zobrist.key(1, hostSpy));
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1L, 2L, 3L, 42L, 1234L })
+	void testIncrementalHashMatchesFullHash(long seed) {
+		var random = new Random(seed);
+		var board = getRandomSetup(random);
+		var isGuestTurn = false;
+		var hash = Zobrist.hash(board, isGuestTurn);
+
+		for (int turn = 0; turn < 500; turn++) {
+			var index = random.nextInt(StrategoBoard.NUM_SQUARES);
+			var direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+			var row = index / StrategoBoard.SIZE + direction[0];
+			var col = index % StrategoBoard.SIZE + direction[1];
+			var attacker = board.get(index);
+			if (row < 0 || row >= StrategoBoard.SIZE || col < 0 || col >= StrategoBoard.SIZE
+					|| StrategoBoard.isEmpty(attacker) || StrategoBoard.isInmobileRank(attacker)
+					|| StrategoBoard.isHostOwner(attacker) == isGuestTurn) {
+				continue;
+			}
+
+			var target = StrategoBoard.index(row, col);
+			var defender = board.get(target);
+			if (!StrategoBoard.isEmpty(defender) && (StrategoBoard.isDisabled(defender)
+					|| StrategoBoard.isHostOwner(defender) == StrategoBoard.isHostOwner(attacker))) {
+				continue;
+			}
+
+			var result = StrategoBoard.isEmpty(defender) ? 1
+					: rankService.compareRanks(StrategoBoard.rankOrdinal(attacker), StrategoBoard.rankOrdinal(defender));
+			board.move(index, target, result);
+			isGuestTurn = !isGuestTurn;
+			hash = Zobrist.move(hash, index, target, attacker, defender, result);
+
+			assertThat(hash).isEqualTo(Zobrist.hash(board, isGuestTurn));
+		}
+	}
+
+	@Test
+	void testRepeatedPositionHasSameHash() {
+		var board = StrategoBoard.empty();
+		var scout = StrategoBoard.encode(Rank.SCOUT, true);
+		var miner = StrategoBoard.encode(Rank.MINER, false);
+		board.set(0, 0, scout);
+		board.set(9, 9, miner);
+		var start = Zobrist.hash(board, false);
+
+		// Both players move forth and back
+		var hash = Zobrist.move(start, 0, 1, scout, StrategoBoard.EMPTY, 1);
+		hash = Zobrist.move(hash, 99, 98, miner, StrategoBoard.EMPTY, 1);
+		assertThat(hash).isNotEqualTo(start);
+		hash = Zobrist.move(hash, 1, 0, scout, StrategoBoard.EMPTY, 1);
+		hash = Zobrist.move(hash, 98, 99, miner, StrategoBoard.EMPTY, 1);
+
+		assertThat(hash).isEqualTo(start);
+	}
+}
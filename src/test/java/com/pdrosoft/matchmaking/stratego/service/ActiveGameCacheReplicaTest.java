@@ -0,0 +1,75 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.pdrosoft.matchmaking.datasource.ReplicaHealthMonitor;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The replica is a second H2 database holding an older copy of the test data.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"stratego.datasource.replica.jdbc-url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL",
+		"stratego.datasource.replica.username=sa", "stratego.datasource.replica.pool-name=replica" })
+@Sql(scripts = "classpath:test-gameplay-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class ActiveGameCacheReplicaTest {
+
+	private static final Long GAME_ID = 5L;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private HikariDataSource primary;
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private HikariDataSource replica;
+	@Autowired
+	private ReplicaHealthMonitor monitor;
+	@Autowired
+	private ActiveGameCache activeGameCache;
+	@Autowired
+	private GameRepository gameRepository;
+
+	@BeforeEach
+	void setUp(@TempDir Path directory) {
+		var script = directory.resolve("primary.sql").toString();
+		new JdbcTemplate(primary).execute("SCRIPT TO '%s'".formatted(script));
+		var replicaTemplate = new JdbcTemplate(replica);
+		replicaTemplate.execute("DROP ALL OBJECTS");
+		replicaTemplate.execute("RUNSCRIPT FROM '%s'".formatted(script));
+
+		// The replica has not caught up with this change yet
+		new JdbcTemplate(primary).update("UPDATE game SET phase = ? WHERE id = ?",
+				GamePhase.WAITING_FOR_SETUP_1_PLAYER.name(), GAME_ID);
+		monitor.check();
+	}
+
+	@Test
+	void testCacheMissReadsPrimary() {
+		assertThat(monitor.isHealthy()).isTrue();
+		// Plain repository reads go to the replica
+		assertThat(gameRepository.findById(GAME_ID)).get().extracting("phase")
+				.isEqualTo(GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
+
+		assertThat(activeGameCache.contains(GAME_ID)).isFalse();
+		assertThat(activeGameCache.findGame(GAME_ID)).get().extracting(activeGame -> activeGame.getGame().getPhase())
+				.isEqualTo(GamePhase.WAITING_FOR_SETUP_1_PLAYER);
+	}
+}
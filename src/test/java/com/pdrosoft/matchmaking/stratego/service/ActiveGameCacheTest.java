@@ -0,0 +1,534 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.StrategoMovement;
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+import com.pdrosoft.matchmaking.model.StrategoStatus;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSetupRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSnapshotRepository;
+import com.pdrosoft.matchmaking.repository.StrategoStatusRepository;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ActiveGameCacheTest {
+
+	private static final Long GAME_ID = 10L;
+	private static final Integer STATUS_ID = 1;
+	private static final Long STATE_VERSION = 3L;
+
+	@Mock
+	private GameRepository gameRepository;
+	@Mock
+	private StrategoStatusRepository strategoStatusRepository;
+	@Mock
+	private StrategoMovementRepository strategoMovementRepository;
+	@Mock
+	private StrategoSetupRepository strategoSetupRepository;
+	@Mock
+	private StrategoSnapshotRepository strategoSnapshotRepository;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	@Mock
+	private GameLogService gameLogService;
+
+	private ActiveGameCacheImpl getCache(int maxGames, boolean writeBehind) {
+		var gameExecutor = new GameExecutorImpl(transactionManager, new SimpleMeterRegistry(), 16);
+		return new ActiveGameCacheImpl(gameRepository, strategoStatusRepository, strategoMovementRepository,
+				strategoSetupRepository, strategoSnapshotRepository, gameExecutor, gameLogService, transactionManager, maxGames, Duration.ofMinutes(30), writeBehind);
+	}
+
+	private Game getTestGame(Long gameId, GamePhase phase) {
+		var game = new Game();
+		game.setId(gameId.intValue());
+		game.setPhase(phase);
+		return game;
+	}
+
+	private StrategoStatus getTestStatus(Game game) {
+		var status = new StrategoStatus();
+		status.setId(STATUS_ID);
+		status.setGame(game);
+		status.setBoard(StrategoBoard.empty());
+		status.setIsGuestTurn(false);
+		status.setIsHostInitialized(true);
+		status.setIsGuestInitialized(true);
+		status.setStateVersion(STATE_VERSION);
+		return status;
+	}
+
+	private void mockGame(Long gameId, GamePhase phase) {
+		var game = getTestGame(gameId, phase);
+		Mockito.when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(gameId)).thenReturn(Optional.of(getTestStatus(game)));
+	}
+
+	private void mockStatusUpdate() {
+		Mockito.when(strategoStatusRepository.updateStateVersion(Mockito.eq(STATUS_ID), Mockito.eq(STATE_VERSION),
+				Mockito.anyLong())).thenReturn(1);
+	}
+
+	@Test
+	void testFindGameIsCached() {
+		var cache = getCache(10, false);
+		var movement = new StrategoMovement();
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		Mockito.when(strategoMovementRepository.findLastByGameId(GAME_ID)).thenReturn(Optional.of(movement));
+
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		var cachedGame = cache.findGame(GAME_ID).orElseThrow();
+
+		assertThat(cachedGame).isSameAs(activeGame);
+		assertThat(activeGame.getLastMovement()).isSameAs(movement);
+		assertThat(cache.size()).isEqualTo(1);
+		Mockito.verify(gameRepository).findById(GAME_ID);
+		Mockito.verify(strategoStatusRepository).findByGameId(GAME_ID);
+	}
+
+	@Test
+	void testFindGameRebuildsUnreadableBoard() {
+		var cache = getCache(10, false);
+		var game = getTestGame(GAME_ID, GamePhase.PLAYING);
+		var status = getTestStatus(game);
+		status.setBoard(null);
+		status.setStateVersion(7L);
+		var board = StrategoBoard.empty();
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+		Mockito.when(gameLogService.rebuildBoard(GAME_ID, 7L)).thenReturn(board);
+
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+
+		assertThat(activeGame.getStatus().getBoard()).isSameAs(board);
+	}
+
+	@Test
+	void testFindGameNotFound() {
+		var cache = getCache(10, false);
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.empty());
+
+		assertThat(cache.findGame(GAME_ID)).isEmpty();
+		assertThat(cache.size()).isZero();
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = GamePhase.class, names = { "FINISHED", "ABORTED" })
+	void testInactiveGameNotCached(GamePhase phase) {
+		var cache = getCache(10, false);
+		mockGame(GAME_ID, phase);
+
+		assertThat(cache.findGame(GAME_ID)).isPresent();
+		assertThat(cache.findGame(GAME_ID)).isPresent();
+
+		assertThat(cache.size()).isZero();
+		Mockito.verify(gameRepository, Mockito.times(2)).findById(GAME_ID);
+	}
+
+	@Test
+	void testWriteThrough() {
+		var cache = getCache(10, false);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		var movement = new StrategoMovement();
+
+		cache.saveStatus(activeGame);
+		cache.addMovement(activeGame, movement);
+
+		Mockito.verify(strategoStatusRepository).save(activeGame.getStatus());
+		Mockito.verify(strategoMovementRepository).save(movement);
+		assertThat(activeGame.getLastMovement()).isSameAs(movement);
+		assertThat(activeGame.isDirty()).isFalse();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void testWriteBehind() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		var movement = new StrategoMovement();
+
+		cache.saveStatus(activeGame);
+		cache.addMovement(activeGame, movement);
+		activeGame.getStatus().setIsGuestTurn(true);
+
+		Mockito.verify(strategoStatusRepository, Mockito.never()).save(Mockito.any());
+		Mockito.verify(strategoMovementRepository, Mockito.never()).save(Mockito.any());
+		assertThat(activeGame.isDirty()).isTrue();
+
+		cache.flush();
+		cache.flush();
+
+		var statusCaptor = ArgumentCaptor.forClass(StrategoStatus.class);
+		var movementsCaptor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(strategoStatusRepository).save(statusCaptor.capture());
+		Mockito.verify(strategoMovementRepository).saveAll(movementsCaptor.capture());
+		assertThat(movementsCaptor.getValue()).containsExactly(movement);
+		assertThat(statusCaptor.getValue().getId()).isEqualTo(STATUS_ID);
+		assertThat(statusCaptor.getValue().getIsGuestTurn()).isTrue();
+		assertThat(activeGame.isDirty()).isFalse();
+		assertThat(activeGame.getPendingMovements()).isEmpty();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void testWriteBehindSnapshotWithMovements() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		var setup = new StrategoSetup();
+		var movement = new StrategoMovement();
+		var snapshot = new StrategoSnapshot();
+
+		cache.addSetup(activeGame, setup);
+		cache.addMovement(activeGame, movement);
+		cache.addSnapshot(activeGame, snapshot);
+
+		Mockito.verifyNoInteractions(strategoSetupRepository, strategoSnapshotRepository);
+		assertThat(activeGame.isDirty()).isTrue();
+
+		cache.flush();
+
+		var inOrder = Mockito.inOrder(strategoSetupRepository, strategoMovementRepository,
+				strategoSnapshotRepository);
+		inOrder.verify(strategoSetupRepository).saveAll(List.of(setup));
+		inOrder.verify(strategoMovementRepository).saveAll(List.of(movement));
+		inOrder.verify(strategoSnapshotRepository).saveAll(List.of(snapshot));
+		assertThat(activeGame.getPendingSetups()).isEmpty();
+		assertThat(activeGame.getPendingSnapshots()).isEmpty();
+	}
+
+	@Test
+	void testWriteThroughConflict() {
+		var cache = getCache(10, false);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		activeGame.getStatus().setStateVersion(STATE_VERSION + 1);
+		// Another node has written the game meanwhile
+		Mockito.when(strategoStatusRepository.updateStateVersion(STATUS_ID, STATE_VERSION, STATE_VERSION + 1))
+				.thenReturn(0);
+
+		assertThatThrownBy(() -> cache.saveStatus(activeGame))
+				.isInstanceOf(OptimisticLockingFailureException.class);
+
+		Mockito.verify(strategoStatusRepository, Mockito.never()).save(Mockito.any());
+		assertThat(cache.contains(GAME_ID)).isFalse();
+	}
+
+	@Test
+	void testWriteBehindFlushConflict() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		cache.addMovement(activeGame, new StrategoMovement());
+		Mockito.when(strategoStatusRepository.updateStateVersion(STATUS_ID, STATE_VERSION, STATE_VERSION))
+				.thenReturn(0);
+
+		cache.flush();
+		cache.flush();
+
+		// Nothing is written over the stored game, which is loaded again
+		Mockito.verify(strategoStatusRepository, Mockito.never()).save(Mockito.any());
+		Mockito.verify(strategoMovementRepository, Mockito.never()).saveAll(Mockito.anyList());
+		Mockito.verify(strategoStatusRepository).updateStateVersion(STATUS_ID, STATE_VERSION, STATE_VERSION);
+		assertThat(cache.contains(GAME_ID)).isFalse();
+		assertThat(cache.findGame(GAME_ID).orElseThrow()).isNotSameAs(activeGame);
+		Mockito.verify(strategoStatusRepository, Mockito.times(2)).findByGameId(GAME_ID);
+	}
+
+	@Test
+	void testWriteBehindFlushAfterWrite() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		Mockito.when(strategoStatusRepository.updateStateVersion(STATUS_ID, STATE_VERSION + 1, STATE_VERSION + 2))
+				.thenReturn(1);
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+
+		activeGame.getStatus().setStateVersion(STATE_VERSION + 1);
+		cache.saveStatus(activeGame);
+		cache.flush();
+		activeGame.getStatus().setStateVersion(STATE_VERSION + 2);
+		cache.saveStatus(activeGame);
+		cache.flush();
+
+		// Each flush expects the version written by the previous one
+		Mockito.verify(strategoStatusRepository, Mockito.times(2)).save(activeGame.getStatus());
+		assertThat(activeGame.getStoredVersion()).isEqualTo(STATE_VERSION + 2);
+	}
+
+	@Test
+	void testWriteThroughSetupAndSnapshot() {
+		var cache = getCache(10, false);
+		var activeGame = new ActiveGame(GAME_ID);
+		var setup = new StrategoSetup();
+		var snapshot = new StrategoSnapshot();
+
+		cache.addSetup(activeGame, setup);
+		cache.addSnapshot(activeGame, snapshot);
+
+		Mockito.verify(strategoSetupRepository).save(setup);
+		Mockito.verify(strategoSnapshotRepository).save(snapshot);
+		assertThat(activeGame.isDirty()).isFalse();
+	}
+
+	@Test
+	void testWriteBehindNewStatusIsSaved() {
+		var cache = getCache(10, true);
+		var activeGame = new ActiveGame(GAME_ID);
+		activeGame.setStatus(new StrategoStatus());
+
+		cache.saveStatus(activeGame);
+
+		Mockito.verify(strategoStatusRepository).save(activeGame.getStatus());
+		assertThat(activeGame.isDirty()).isFalse();
+	}
+
+	@Test
+	void testWriteBehindFlushError() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		var movement = new StrategoMovement();
+		cache.addMovement(activeGame, movement);
+		Mockito.when(strategoStatusRepository.save(Mockito.any())).thenThrow(new IllegalStateException("error"));
+
+		cache.flush();
+
+		assertThat(activeGame.isDirty()).isTrue();
+		assertThat(activeGame.getPendingMovements()).containsExactly(movement);
+	}
+
+	@Test
+	void testEvictFlushes() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		cache.saveStatus(activeGame);
+
+		cache.evict(GAME_ID);
+		cache.evict(GAME_ID);
+
+		assertThat(cache.size()).isZero();
+		Mockito.verify(strategoStatusRepository).save(Mockito.any());
+	}
+
+	@Test
+	void testEvictInTransactionFlushesAfterCompletion() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		var movement = new StrategoMovement();
+		cache.addMovement(activeGame, movement);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.evict(GAME_ID);
+
+			// Nothing is written, or taken as written, within the transaction
+			Mockito.verify(strategoStatusRepository, Mockito.never()).save(Mockito.any());
+			assertThat(activeGame.getPendingMovements()).containsExactly(movement);
+			assertThat(cache.contains(GAME_ID)).isTrue();
+
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		Mockito.verify(strategoStatusRepository).save(activeGame.getStatus());
+		Mockito.verify(strategoMovementRepository).saveAll(List.of(movement));
+		Mockito.verify(transactionManager).getTransaction(Mockito.argThat(
+				definition -> definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		assertThat(activeGame.isDirty()).isFalse();
+		assertThat(cache.contains(GAME_ID)).isFalse();
+	}
+
+	@Test
+	void testLeastRecentlyUsedEviction() {
+		var cache = getCache(2, true);
+		mockGame(1L, GamePhase.PLAYING);
+		mockStatusUpdate();
+		mockGame(2L, GamePhase.PLAYING);
+		mockGame(3L, GamePhase.PLAYING);
+
+		var firstGame = cache.findGame(1L).orElseThrow();
+		cache.saveStatus(firstGame);
+		cache.findGame(2L);
+		cache.findGame(1L);
+		cache.findGame(3L);
+
+		assertThat(cache.size()).isEqualTo(2);
+		Mockito.verify(strategoStatusRepository, Mockito.never()).save(Mockito.any());
+
+		// Game 2 was evicted, so once flushed it is loaded again
+		cache.flush();
+		cache.findGame(2L);
+		Mockito.verify(gameRepository, Mockito.times(2)).findById(2L);
+		Mockito.verify(gameRepository, Mockito.times(1)).findById(1L);
+	}
+
+	@Test
+	void testEvictedDirtyGameIsFlushedLater() {
+		var cache = getCache(1, true);
+		mockGame(1L, GamePhase.PLAYING);
+		mockStatusUpdate();
+		mockGame(2L, GamePhase.PLAYING);
+
+		var firstGame = cache.findGame(1L).orElseThrow();
+		cache.saveStatus(firstGame);
+		cache.findGame(2L);
+
+		// Still unflushed, so it is taken back instead of reloaded
+		assertThat(cache.findGame(1L)).containsSame(firstGame);
+		Mockito.verify(strategoStatusRepository, Mockito.times(1)).findByGameId(1L);
+		Mockito.verify(strategoStatusRepository, Mockito.never()).save(Mockito.any());
+
+		cache.findGame(2L);
+		cache.flush();
+
+		Mockito.verify(strategoStatusRepository).save(firstGame.getStatus());
+		assertThat(firstGame.isDirty()).isFalse();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void testEvictedGameFlushRetried() {
+		var cache = getCache(1, true);
+		mockGame(1L, GamePhase.PLAYING);
+		mockStatusUpdate();
+		mockGame(2L, GamePhase.PLAYING);
+		var movement = new StrategoMovement();
+
+		var firstGame = cache.findGame(1L).orElseThrow();
+		cache.addMovement(firstGame, movement);
+		cache.findGame(2L);
+		Mockito.when(strategoMovementRepository.saveAll(Mockito.anyList()))
+				.thenThrow(new IllegalStateException("error")).thenReturn(List.of());
+
+		cache.flush();
+
+		assertThat(cache.contains(1L)).isTrue();
+		assertThat(firstGame.getPendingMovements()).containsExactly(movement);
+
+		cache.flush();
+
+		var movementsCaptor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(strategoMovementRepository, Mockito.times(2)).saveAll(movementsCaptor.capture());
+		assertThat(movementsCaptor.getAllValues())
+				.allSatisfy(movements -> assertThat(movements).containsExactly(movement));
+		assertThat(cache.contains(1L)).isFalse();
+		assertThat(firstGame.isDirty()).isFalse();
+	}
+
+	@Test
+	void testEvictFlushErrorKeepsChanges() {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		mockStatusUpdate();
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		var movement = new StrategoMovement();
+		cache.addMovement(activeGame, movement);
+		Mockito.when(strategoStatusRepository.save(Mockito.any())).thenThrow(new IllegalStateException("error"));
+
+		cache.evict(GAME_ID);
+
+		assertThat(cache.size()).isZero();
+		// Taken back with its changes instead of reloaded without them
+		assertThat(cache.findGame(GAME_ID)).containsSame(activeGame);
+		assertThat(activeGame.getPendingMovements()).containsExactly(movement);
+		Mockito.verify(strategoStatusRepository, Mockito.times(1)).findByGameId(GAME_ID);
+	}
+
+	@Test
+	void testIdleEviction() {
+		var cache = getCache(10, false);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+
+		cache.evictIdleGames();
+		assertThat(cache.size()).isEqualTo(1);
+
+		activeGame.setLastAccess(0);
+		cache.evictIdleGames();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void testSaveGameEvictsFinishedGame() {
+		var cache = getCache(10, false);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+
+		activeGame.getGame().setPhase(GamePhase.FINISHED);
+		cache.saveGame(activeGame);
+
+		Mockito.verify(gameRepository).save(activeGame.getGame());
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void testEvictOnRollbackWithoutTransaction() {
+		var cache = getCache(10, false);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		cache.findGame(GAME_ID);
+
+		cache.evictOnRollback(GAME_ID);
+		cache.close();
+
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { true, false })
+	void testEvictOnRollback(boolean isDirty) {
+		var cache = getCache(10, true);
+		mockGame(GAME_ID, GamePhase.PLAYING);
+		var activeGame = cache.findGame(GAME_ID).orElseThrow();
+		activeGame.setDirty(isDirty);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.evictOnRollback(GAME_ID);
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(cache.size()).isEqualTo(isDirty ? 1 : 0);
+	}
+}
@@ -0,0 +1,337 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.pdrosoft.matchmaking.dto.GameExtendedDTO;
+import com.pdrosoft.matchmaking.dto.PlayerDTO;
+import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.PlayerRepository;
+import com.pdrosoft.matchmaking.service.GameService;
+import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
+import com.pdrosoft.matchmaking.stratego.dto.GameStateDTO;
+import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
+import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementResultDTO;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+import com.pdrosoft.matchmaking.stratego.validation.ArmySetupValidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class BotServiceTest {
+
+	private static final Long GAME_ID = 10L;
+	private static final Integer HOST_ID = 2;
+	private static final Integer BOT_ID = 7;
+	private static final String BOT_NAME = "StrategoBot";
+
+	@Mock
+	private GameService gameService;
+	@Mock
+	private StrategoService strategoService;
+	@Mock
+	private PlayerRepository playerRepository;
+	@Mock
+	private GameRepository gameRepository;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	@Mock
+	private PasswordEncoder passwordEncoder;
+
+	private BotServiceImpl botService;
+
+	@BeforeEach
+	void setUp() {
+		var gameExecutor = new GameExecutorImpl(transactionManager, new SimpleMeterRegistry(), 16);
+		botService = new BotServiceImpl(gameService, strategoService, playerRepository, gameRepository, gameExecutor,
+				passwordEncoder, new RankServiceImpl(), BOT_NAME, Duration.ofMillis(20), 2, 1, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		botService.shutdown();
+	}
+
+	private Player getPlayer(Integer id, String name) {
+		var player = new Player();
+		player.setId(id);
+		player.setUserName(name);
+		return player;
+	}
+
+	private Player getBot() {
+		var bot = getPlayer(BOT_ID, BOT_NAME);
+		bot.setIsBot(true);
+		return bot;
+	}
+
+	private GameExtendedDTO getGame(Integer guestId) {
+		return GameExtendedDTO.builder() //
+				.id(GAME_ID.intValue()) //
+				.host(PlayerDTO.builder().id(HOST_ID).build()) //
+				.guest(guestId == null ? null : PlayerDTO.builder().id(guestId).build()) //
+				.build();
+	}
+
+	private Game getGameEntity(Player guest, GamePhase phase) {
+		var game = new Game();
+		game.setId(GAME_ID.intValue());
+		game.setHost(getPlayer(HOST_ID, "host"));
+		game.setGuest(guest);
+		game.setPhase(phase);
+		return game;
+	}
+
+	@Test
+	void testGetRandomSetup() {
+		for (int i = 0; i < 20; i++) {
+			var army = botService.getRandomSetup().getArmy();
+
+			assertThat(new ArmySetupValidator().isValid(army, null)).isTrue();
+			assertThat(army.get(0)).contains(Rank.FLAG);
+		}
+	}
+
+	@Test
+	void testAddBotNotHost() {
+		var player = getPlayer(5, "other");
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.of(getBot()));
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(getGameEntity(null, null)));
+
+		assertThatThrownBy(() -> botService.addBot(player, GAME_ID))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Only the host can add a bot");
+		Mockito.verify(gameService, Mockito.never()).joinGame(Mockito.any(), Mockito.any());
+		Mockito.verifyNoInteractions(strategoService);
+	}
+
+	@Test
+	void testAddBotGameWithGuest() {
+		var host = getPlayer(HOST_ID, "host");
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.of(getBot()));
+		Mockito.when(gameRepository.findById(GAME_ID))
+				.thenReturn(Optional.of(getGameEntity(getPlayer(3, "guest"), GamePhase.WAITING_FOR_SETUP_2_PLAYERS)));
+
+		assertThatThrownBy(() -> botService.addBot(host, GAME_ID))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("The game already has a guest");
+		Mockito.verify(gameService, Mockito.never()).joinGame(Mockito.any(), Mockito.any());
+		Mockito.verifyNoInteractions(strategoService);
+	}
+
+	@Test
+	void testAddBotFinishedGame() {
+		var host = getPlayer(HOST_ID, "host");
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.of(getBot()));
+		Mockito.when(gameRepository.findById(GAME_ID))
+				.thenReturn(Optional.of(getGameEntity(null, GamePhase.FINISHED)));
+
+		assertThatThrownBy(() -> botService.addBot(host, GAME_ID))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("The game cannot be joined anymore");
+		Mockito.verify(gameService, Mockito.never()).joinGame(Mockito.any(), Mockito.any());
+		Mockito.verifyNoInteractions(strategoService);
+	}
+
+	@Test
+	void testAddBot() {
+		var host = getPlayer(HOST_ID, "host");
+		var joinedGame = getGame(BOT_ID);
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(getGameEntity(null, null)));
+		Mockito.when(gameService.getGame(host, GAME_ID)).thenReturn(joinedGame);
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.empty());
+		Mockito.when(passwordEncoder.encode(Mockito.anyString())).thenReturn("encoded");
+		Mockito.when(playerRepository.save(Mockito.any(Player.class))).thenAnswer(inv -> {
+			Player player = inv.getArgument(0);
+			player.setId(BOT_ID);
+			return player;
+		});
+
+		var result = botService.addBot(host, GAME_ID);
+
+		assertThat(result).isEqualTo(joinedGame);
+		var botCaptor = ArgumentCaptor.forClass(Player.class);
+		Mockito.verify(gameService).joinGame(botCaptor.capture(), Mockito.eq(GAME_ID));
+		assertThat(botCaptor.getValue().getUserName()).isEqualTo(BOT_NAME);
+		assertThat(botCaptor.getValue().getIsBot()).isTrue();
+		assertThat(botCaptor.getValue().getPassword()).isEqualTo("encoded");
+		Mockito.verify(strategoService).addSetup(Mockito.eq(GAME_ID), Mockito.eq(botCaptor.getValue()),
+				Mockito.any(ArmySetupDTO.class));
+	}
+
+	@Test
+	void testAddBotSetupFails() {
+		var host = getPlayer(HOST_ID, "host");
+		var bot = getBot();
+		Mockito.when(gameRepository.findById(GAME_ID))
+				.thenReturn(Optional.of(getGameEntity(null, GamePhase.WAITING_FOR_SETUP_2_PLAYERS)));
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.of(bot));
+		Mockito.when(strategoService.addSetup(Mockito.eq(GAME_ID), Mockito.eq(bot), Mockito.any()))
+				.thenThrow(new MatchmakingValidationException("Invalid player setup"));
+
+		assertThatThrownBy(() -> botService.addBot(host, GAME_ID))
+				.isInstanceOf(MatchmakingValidationException.class);
+
+		// The join is rolled back with the setup
+		Mockito.verify(gameService).joinGame(bot, GAME_ID);
+		Mockito.verify(transactionManager).getTransaction(Mockito.any());
+		Mockito.verify(transactionManager).rollback(Mockito.any());
+		Mockito.verify(transactionManager, Mockito.never()).commit(Mockito.any());
+	}
+
+	@Test
+	void testResumeGames() {
+		var bot = getBot();
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.of(bot));
+		Mockito.when(gameRepository.findIdsOnGuestTurn(bot, GamePhase.PLAYING))
+				.thenReturn(List.of(GAME_ID.intValue()));
+		Mockito.when(strategoService.getStatus(GAME_ID, bot)).thenReturn(getState(StrategoBoard.empty(), false));
+
+		botService.resumeGames();
+
+		Mockito.verify(strategoService, Mockito.timeout(5000)).getStatus(GAME_ID, bot);
+	}
+
+	@Test
+	void testOnGameUpdatedOtherGuest() {
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.of(getBot()));
+
+		botService.onGameUpdated(new GameUpdatedEvent(GAME_ID, GamePhase.PLAYING, 3, true, 4L));
+		botService.onGameUpdated(new GameUpdatedEvent(GAME_ID, GamePhase.PLAYING, null, true, 5L));
+
+		Mockito.verify(playerRepository).findPlayersByName(BOT_NAME);
+		Mockito.verifyNoInteractions(strategoService);
+	}
+
+	@Test
+	void testOnGameUpdatedPlayerWithBotName() {
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME))
+				.thenReturn(Optional.of(getPlayer(BOT_ID, BOT_NAME)));
+
+		botService.onGameUpdated(new GameUpdatedEvent(GAME_ID, GamePhase.PLAYING, BOT_ID, true, 4L));
+
+		Mockito.verifyNoInteractions(strategoService);
+	}
+
+	@Test
+	void testCheckBotPlayer() {
+		Mockito.when(playerRepository.findPlayersByName(BOT_NAME)).thenReturn(Optional.empty(),
+				Optional.of(getBot()), Optional.of(getPlayer(BOT_ID, BOT_NAME)));
+
+		botService.checkBotPlayer();
+		botService.checkBotPlayer();
+		assertThatThrownBy(() -> botService.checkBotPlayer()).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining(BOT_NAME);
+	}
+
+	@Test
+	void testIsBotName() {
+		assertThat(botService.isBotName(BOT_NAME)).isTrue();
+		assertThat(botService.isBotName("strategobot")).isTrue();
+		assertThat(botService.isBotName("testuser1")).isFalse();
+	}
+
+	private GameStateDTO getState(StrategoBoard board, boolean isMyTurn) {
+		return GameStateDTO.builder() //
+				.gameId(GAME_ID) //
+				.phase(GamePhase.PLAYING) //
+				.board(board.toTiles()) //
+				.isMyTurn(isMyTurn) //
+				.build();
+	}
+
+	@Test
+	void testPlayNotMyTurn() {
+		var bot = getBot();
+		Mockito.when(strategoService.getStatus(GAME_ID, bot)).thenReturn(getState(StrategoBoard.empty(), false));
+
+		botService.play(GAME_ID, bot);
+
+		Mockito.verify(strategoService, Mockito.never()).addMovement(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	void testPlay() {
+		var bot = getBot();
+		var board = StrategoBoard.empty();
+		board.set(9, 0, StrategoBoard.encode(Rank.FLAG, false));
+		board.set(9, 1, StrategoBoard.encode(Rank.BOMB, false));
+		board.set(8, 1, StrategoBoard.encode(Rank.BOMB, false));
+		board.set(8, 0, StrategoBoard.encode(Rank.MINER, false));
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(6, 0, StrategoBoard.encode(Rank.SCOUT, true));
+		var hostMove = StrategoMovementDTO.builder().id(1).rowInitial(3).colInitial(0).rowFinal(6).colFinal(0)
+				.rank(Rank.SCOUT).result(List.<StrategoMovementResultDTO>of()).build();
+		Mockito.when(strategoService.getStatus(GAME_ID, bot)).thenReturn(getState(board, true));
+		Mockito.when(strategoService.getMovements(GAME_ID, bot, null, 200)).thenReturn(List.of(hostMove));
+		Mockito.when(strategoService.addMovement(Mockito.eq(GAME_ID), Mockito.eq(bot), Mockito.any()))
+				.thenReturn(getState(board, false));
+
+		botService.play(GAME_ID, bot);
+
+		var movementCaptor = ArgumentCaptor.forClass(StrategoMovementDTO.class);
+		Mockito.verify(strategoService).addMovement(Mockito.eq(GAME_ID), Mockito.eq(bot), movementCaptor.capture());
+		assertThat(movementCaptor.getValue()).satisfies(movement -> {
+			assertThat(movement.getRank()).isEqualTo(Rank.MINER);
+			assertThat(movement.getRowInitial()).isEqualTo(8);
+			assertThat(movement.getColInitial()).isEqualTo(0);
+			assertThat(movement.getRowFinal()).isEqualTo(7);
+			assertThat(movement.getColFinal()).isEqualTo(0);
+		});
+	}
+
+	@Test
+	void testPlayWithWriteBehind() {
+		var bot = getBot();
+		var board = StrategoBoard.empty();
+		board.set(9, 0, StrategoBoard.encode(Rank.FLAG, false));
+		board.set(8, 0, StrategoBoard.encode(Rank.MINER, false));
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(6, 0, StrategoBoard.encode(Rank.SCOUT, true));
+		// The host movement is still in memory, it has no id and is not in the history yet
+		var hostMove = StrategoMovementDTO.builder().rowInitial(3).colInitial(0).rowFinal(6).colFinal(0)
+				.rank(Rank.SCOUT).result(List.<StrategoMovementResultDTO>of()).build();
+		var state = getState(board, true);
+		state.setMovement(hostMove);
+		state.setVersion(5L);
+		var botMove = StrategoMovementDTO.builder().rowInitial(8).colInitial(0).rowFinal(7).colFinal(0)
+				.rank(Rank.MINER).result(List.<StrategoMovementResultDTO>of()).build();
+		var played = getState(board, false);
+		played.setMovement(botMove);
+		played.setVersion(6L);
+		Mockito.when(strategoService.getStatus(GAME_ID, bot)).thenReturn(state);
+		Mockito.when(strategoService.getMovements(GAME_ID, bot, null, 200)).thenReturn(List.of());
+		Mockito.when(strategoService.addMovement(Mockito.eq(GAME_ID), Mockito.eq(bot), Mockito.any()))
+				.thenThrow(new MatchmakingValidationException("Game not in playing state")).thenReturn(played);
+
+		botService.play(GAME_ID, bot);
+		// The turn is played again from the same state, its movement is not applied twice
+		botService.play(GAME_ID, bot);
+
+		var knowledge = botService.getKnowledge(GAME_ID);
+		assertThat(knowledge.isOccupied(StrategoBoard.index(3, 0))).isFalse();
+		assertThat(knowledge.isHostPiece(StrategoBoard.index(6, 0))).isTrue();
+		assertThat(knowledge.isRevealed(StrategoBoard.index(6, 0))).isTrue();
+		assertThat(knowledge.isOccupied(StrategoBoard.index(8, 0))).isFalse();
+		assertThat(knowledge.hasMoved(StrategoBoard.index(7, 0))).isTrue();
+		// The history is read once, later movements come with the state
+		Mockito.verify(strategoService).getMovements(GAME_ID, bot, null, 200);
+	}
+}
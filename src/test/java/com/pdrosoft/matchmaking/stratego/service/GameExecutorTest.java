@@ -0,0 +1,130 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class GameExecutorTest {
+
+	private static final int NUM_THREADS = 8;
+	private static final int NUM_ITERATIONS = 1000;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private GameExecutorImpl getExecutor(int stripes) {
+		return new GameExecutorImpl(transactionManager, meterRegistry, stripes);
+	}
+
+	private static class Counter {
+		private int value;
+	}
+
+	@Test
+	void testSameGameIsSerialized() throws Exception {
+		var executor = getExecutor(16);
+		var counter = new Counter();
+
+		try (var pool = Executors.newFixedThreadPool(NUM_THREADS)) {
+			var futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < NUM_THREADS; i++) {
+				futures.add(pool.submit(() -> {
+					for (int j = 0; j < NUM_ITERATIONS; j++) {
+						executor.execute(1L, () -> {
+							// Not atomic, only correct if the game is serialized
+							var value = counter.value;
+							Thread.yield();
+							counter.value = value + 1;
+							return null;
+						});
+					}
+				}));
+			}
+			for (var future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+
+		assertThat(counter.value).isEqualTo(NUM_THREADS * NUM_ITERATIONS);
+		var waitTimer = meterRegistry.get("stratego.executor.wait").timer();
+		assertThat(waitTimer.count()).isEqualTo(NUM_THREADS * NUM_ITERATIONS);
+		assertThat(meterRegistry.get("stratego.executor.queue.depth").gauge().value()).isZero();
+		assertThat(meterRegistry.get("stratego.executor.queue.depth.max").gauge().value()).isZero();
+	}
+
+	@Test
+	void testDifferentGamesRunInParallel() throws Exception {
+		var executor = getExecutor(16);
+		assertThat(executor.getStripe(1L)).isNotEqualTo(executor.getStripe(2L));
+
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+
+		try (var pool = Executors.newSingleThreadExecutor()) {
+			var future = pool.submit(() -> executor.execute(1L, () -> {
+				started.countDown();
+				try {
+					return release.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					return false;
+				}
+			}));
+			assertThat(started.await(30, TimeUnit.SECONDS)).isTrue();
+
+			// Game 1 is busy, game 2 must not wait for it
+			assertThat(executor.execute(2L, () -> "done")).isEqualTo("done");
+			release.countDown();
+
+			assertThat(future.get(30, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+
+	@Test
+	void testReentrant() {
+		var executor = getExecutor(1);
+
+		assertThat(executor.execute(1L, () -> executor.execute(2L, () -> 3))).isEqualTo(3);
+	}
+
+	@Test
+	void testExecuteInTransaction() {
+		var executor = getExecutor(16);
+		var txStatus = Mockito.mock(TransactionStatus.class);
+		Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(txStatus);
+
+		assertThat(executor.executeInTransaction(1L, () -> "result")).isEqualTo("result");
+		Mockito.verify(transactionManager).commit(txStatus);
+
+		assertThatThrownBy(() -> executor.executeInTransaction(1L, () -> {
+			throw new IllegalStateException("error");
+		})).isInstanceOf(IllegalStateException.class);
+		Mockito.verify(transactionManager).rollback(txStatus);
+	}
+
+	@Test
+	void testStripesArePowerOfTwo() {
+		var executor = getExecutor(100);
+
+		for (long gameId = 0; gameId < 1000; gameId++) {
+			assertThat(executor.getStripe(gameId)).isBetween(0, 127);
+		}
+	}
+}
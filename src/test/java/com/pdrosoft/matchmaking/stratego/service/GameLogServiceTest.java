@@ -0,0 +1,191 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.StrategoMovement;
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+import com.pdrosoft.matchmaking.model.StrategoStatus;
+import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSetupRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSnapshotRepository;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+@ExtendWith(MockitoExtension.class)
+public class GameLogServiceTest {
+
+	private static final Long GAME_ID = 10L;
+	private static final int SNAPSHOT_INTERVAL = 4;
+
+	@Mock
+	private StrategoSetupRepository strategoSetupRepository;
+	@Mock
+	private StrategoSnapshotRepository strategoSnapshotRepository;
+	@Mock
+	private StrategoMovementRepository strategoMovementRepository;
+
+	private GameLogServiceImpl gameLogService;
+
+	@BeforeEach
+	void setUp() {
+		gameLogService = new GameLogServiceImpl(strategoSetupRepository, strategoSnapshotRepository,
+				strategoMovementRepository, new RankServiceImpl(), SNAPSHOT_INTERVAL);
+	}
+
+	private ActiveGame getActiveGame(StrategoBoard board, long version) {
+		var status = new StrategoStatus();
+		status.setBoard(board);
+		status.setStateVersion(version);
+		var activeGame = new ActiveGame(GAME_ID);
+		activeGame.setGame(new Game());
+		activeGame.setStatus(status);
+		return activeGame;
+	}
+
+	private StrategoSetup getSetup(boolean isHost, long version, Rank rank) {
+		var squares = new byte[40];
+		for (int i = 0; i < squares.length; i++) {
+			squares[i] = StrategoBoard.encode(rank, isHost);
+		}
+		var setup = new StrategoSetup();
+		setup.setIsHost(isHost);
+		setup.setStateVersion(version);
+		setup.setSquares(squares);
+		return setup;
+	}
+
+	private StrategoMovement getMovement(int rowInitial, int colInitial, int rowFinal, int colFinal) {
+		var movement = new StrategoMovement();
+		movement.setRowInitial(rowInitial);
+		movement.setColInitial(colInitial);
+		movement.setRowFinal(rowFinal);
+		movement.setColFinal(colFinal);
+		return movement;
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { true, false })
+	void testGetSetup(boolean isHost) {
+		var board = StrategoBoard.empty();
+		var firstRow = isHost ? 0 : 6;
+		board.set(firstRow, 0, StrategoBoard.encode(Rank.FLAG, isHost));
+		board.set(firstRow + 3, 9, StrategoBoard.encode(Rank.SPY, isHost));
+
+		var setup = gameLogService.getSetup(getActiveGame(board, 2), isHost);
+
+		assertThat(setup.getIsHost()).isEqualTo(isHost);
+		assertThat(setup.getStateVersion()).isEqualTo(2L);
+		assertThat(setup.getSquares()).hasSize(40);
+		assertThat(setup.getSquares()[0]).isEqualTo(StrategoBoard.encode(Rank.FLAG, isHost));
+		assertThat(setup.getSquares()[39]).isEqualTo(StrategoBoard.encode(Rank.SPY, isHost));
+	}
+
+	@Test
+	void testGetSnapshot() {
+		var board = StrategoBoard.empty();
+
+		assertThat(gameLogService.getSnapshot(getActiveGame(board, SNAPSHOT_INTERVAL - 1))).isEmpty();
+
+		assertThat(gameLogService.getSnapshot(getActiveGame(board, SNAPSHOT_INTERVAL))).hasValueSatisfying(snapshot -> {
+			assertThat(snapshot.getStateVersion()).isEqualTo(SNAPSHOT_INTERVAL);
+			assertThat(snapshot.getBoard()).isEqualTo(board).isNotSameAs(board);
+		});
+		Mockito.verifyNoInteractions(strategoSetupRepository, strategoSnapshotRepository);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 0, -1 })
+	void testNoSnapshots(int snapshotInterval) {
+		var noSnapshots = new GameLogServiceImpl(strategoSetupRepository, strategoSnapshotRepository,
+				strategoMovementRepository, new RankServiceImpl(), snapshotInterval);
+
+		assertThat(noSnapshots.getSnapshot(getActiveGame(StrategoBoard.empty(), 0))).isEmpty();
+		assertThat(noSnapshots.getSnapshot(getActiveGame(StrategoBoard.empty(), SNAPSHOT_INTERVAL))).isEmpty();
+	}
+
+	@Test
+	void testRebuildFromSetups() {
+		Mockito.when(strategoSnapshotRepository.findLatestByGameId(GAME_ID, 4L)).thenReturn(Optional.empty());
+		Mockito.when(strategoSetupRepository.findAllByGameId(GAME_ID, 4L))
+				.thenReturn(List.of(getSetup(true, 1, Rank.SCOUT), getSetup(false, 2, Rank.MINER)));
+		// A scout runs up to the lakes and a miner steps forward
+		Mockito.when(strategoMovementRepository.findAllByGameId(GAME_ID, 2L, 4L))
+				.thenReturn(List.of(getMovement(3, 0, 5, 0), getMovement(6, 1, 5, 1)));
+
+		var board = gameLogService.rebuildBoard(GAME_ID, 4L);
+
+		assertThat(board.get(0, 0)).isEqualTo(StrategoBoard.encode(Rank.SCOUT, true));
+		assertThat(board.get(3, 0)).isEqualTo(StrategoBoard.EMPTY);
+		// The scout run reveals its rank
+		assertThat(board.get(5, 0)).isEqualTo(StrategoBoard.reveal(StrategoBoard.encode(Rank.SCOUT, true)));
+		assertThat(board.get(6, 1)).isEqualTo(StrategoBoard.EMPTY);
+		assertThat(board.get(5, 1)).isEqualTo(StrategoBoard.encode(Rank.MINER, false));
+		assertThat(board.get(9, 9)).isEqualTo(StrategoBoard.encode(Rank.MINER, false));
+		assertThat(board.get(4, 2)).isEqualTo(StrategoBoard.encode(Rank.DISABLED, false));
+	}
+
+	@Test
+	void testRebuildFromSnapshot() {
+		var snapshotBoard = StrategoBoard.empty();
+		snapshotBoard.set(3, 0, StrategoBoard.encode(Rank.MARSHAL, true));
+		snapshotBoard.set(6, 0, StrategoBoard.encode(Rank.GENERAL, false));
+		var snapshot = new StrategoSnapshot();
+		snapshot.setStateVersion(8L);
+		snapshot.setBoard(snapshotBoard);
+		Mockito.when(strategoSnapshotRepository.findLatestByGameId(GAME_ID, 10L)).thenReturn(Optional.of(snapshot));
+		Mockito.when(strategoMovementRepository.findAllByGameId(GAME_ID, 8L, 10L))
+				.thenReturn(List.of(getMovement(3, 0, 4, 0), getMovement(6, 0, 5, 0), getMovement(4, 0, 5, 0)));
+
+		var board = gameLogService.rebuildBoard(GAME_ID, 10L);
+
+		assertThat(board.get(5, 0)).isEqualTo(StrategoBoard.reveal(StrategoBoard.encode(Rank.MARSHAL, true)));
+		assertThat(board.get(4, 0)).isEqualTo(StrategoBoard.EMPTY);
+		assertThat(board.get(6, 0)).isEqualTo(StrategoBoard.EMPTY);
+		Mockito.verifyNoInteractions(strategoSetupRepository);
+
+		// The stored snapshot is left as it was
+		assertThat(board).isNotSameAs(snapshotBoard);
+		assertThat(snapshot.getBoard().get(3, 0)).isEqualTo(StrategoBoard.encode(Rank.MARSHAL, true));
+		assertThat(snapshot.getBoard().get(6, 0)).isEqualTo(StrategoBoard.encode(Rank.GENERAL, false));
+		assertThat(snapshot.getBoard().get(5, 0)).isEqualTo(StrategoBoard.EMPTY);
+	}
+
+	@Test
+	void testRebuildNotStarted() {
+		Mockito.when(strategoSnapshotRepository.findLatestByGameId(GAME_ID, 0L)).thenReturn(Optional.empty());
+		Mockito.when(strategoSetupRepository.findAllByGameId(GAME_ID, 0L)).thenReturn(List.of());
+
+		assertThatThrownBy(() -> gameLogService.rebuildBoard(GAME_ID, 0L))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Game has not been started");
+	}
+
+	@Test
+	void testRebuildInconsistentLog() {
+		var movement = getMovement(4, 0, 5, 0);
+		movement.setId(3);
+		Mockito.when(strategoSnapshotRepository.findLatestByGameId(GAME_ID, 3L)).thenReturn(Optional.empty());
+		Mockito.when(strategoSetupRepository.findAllByGameId(GAME_ID, 3L))
+				.thenReturn(List.of(getSetup(true, 1, Rank.SCOUT)));
+		Mockito.when(strategoMovementRepository.findAllByGameId(GAME_ID, 1L, 3L)).thenReturn(List.of(movement));
+
+		assertThatThrownBy(() -> gameLogService.rebuildBoard(GAME_ID, 3L))
+				.isInstanceOf(MatchmakingValidationException.class)
+				.hasMessage("Movement 3 does not match the game log");
+	}
+}
@@ -0,0 +1,209 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.pdrosoft.matchmaking.dto.GameDTO;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.StrategoMovement;
+import com.pdrosoft.matchmaking.model.StrategoSetup;
+import com.pdrosoft.matchmaking.model.StrategoSnapshot;
+import com.pdrosoft.matchmaking.model.StrategoStatus;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.PlayerRepository;
+import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSetupRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSnapshotRepository;
+import com.pdrosoft.matchmaking.repository.StrategoStatusRepository;
+import com.pdrosoft.matchmaking.service.LobbyIndex;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "stratego.reaper.batch-size=2")
+@Sql(scripts = "classpath:test-gameplay-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class GameReaperServiceTest {
+
+	private static final Instant OLD_DATE = Instant.parse("2020-06-01T00:00:00Z");
+
+	@Autowired
+	private GameReaperService gameReaperService;
+	@Autowired
+	private ActiveGameCache activeGameCache;
+	@Autowired
+	private GameExecutor gameExecutor;
+	@Autowired
+	private LobbyIndex lobbyIndex;
+	@Autowired
+	private GameRepository gameRepository;
+	@Autowired
+	private PlayerRepository playerRepository;
+	@Autowired
+	private StrategoStatusRepository strategoStatusRepository;
+	@Autowired
+	private StrategoMovementRepository strategoMovementRepository;
+	@Autowired
+	private StrategoSetupRepository strategoSetupRepository;
+	@Autowired
+	private StrategoSnapshotRepository strategoSnapshotRepository;
+
+	private Game addGame(Instant creationDate, GamePhase phase) {
+		var game = new Game();
+		game.setName("reaper game");
+		game.setJoinCode("code");
+		game.setCreationDate(creationDate);
+		game.setHost(playerRepository.findById(1L).orElseThrow());
+		game.setGuest(phase != null ? playerRepository.findById(2L).orElseThrow() : null);
+		game.setPhase(phase);
+		return gameRepository.save(game);
+	}
+
+	private StrategoStatus addStatus(Game game, long stateVersion, Instant lastActivity) {
+		var status = new StrategoStatus();
+		status.setGame(game);
+		status.setBoard(StrategoBoard.empty());
+		status.setIsGuestTurn(false);
+		status.setIsHostInitialized(true);
+		status.setIsGuestInitialized(true);
+		status.setStateVersion(stateVersion);
+		status.setLastActivity(lastActivity);
+		return strategoStatusRepository.save(status);
+	}
+
+	private void addGameLog(Game game, int numMovements) {
+		addStatus(game, (long) numMovements + 2, null);
+
+		var setup = new StrategoSetup();
+		setup.setGame(game);
+		setup.setIsHost(true);
+		setup.setStateVersion(1L);
+		setup.setSquares(new byte[40]);
+		strategoSetupRepository.save(setup);
+
+		var snapshot = new StrategoSnapshot();
+		snapshot.setGame(game);
+		snapshot.setStateVersion(2L);
+		snapshot.setBoard(StrategoBoard.empty());
+		strategoSnapshotRepository.save(snapshot);
+
+		for (int i = 0; i < numMovements; i++) {
+			var movement = new StrategoMovement();
+			movement.setGame(game);
+			movement.setIsGuestTurn(i % 2 == 1);
+			movement.setRank(Rank.SCOUT);
+			movement.setRowInitial(3);
+			movement.setColInitial(0);
+			movement.setRowFinal(4);
+			movement.setColFinal(0);
+			movement.setStateVersion((long) i + 3);
+			strategoMovementRepository.save(movement);
+		}
+	}
+
+	private GamePhase getPhase(Integer gameId) {
+		return gameRepository.findById(gameId.longValue()).orElseThrow().getPhase();
+	}
+
+	@Test
+	void testAbortStaleGames() {
+		var lobbyGame = addGame(OLD_DATE, null);
+		var playingGame = addGame(OLD_DATE.plusSeconds(1), GamePhase.PLAYING);
+		var finishedGame = addGame(OLD_DATE.plusSeconds(2), GamePhase.FINISHED);
+		var newGame = addGame(Instant.now(), GamePhase.PLAYING);
+		var idleGame = addGame(OLD_DATE.plusSeconds(3), GamePhase.PLAYING);
+		addStatus(idleGame, 10, OLD_DATE.plusSeconds(60));
+		// Old, but moved in an hour ago
+		var recentGame = addGame(OLD_DATE.plusSeconds(4), GamePhase.PLAYING);
+		addStatus(recentGame, 10, Instant.now().minus(Duration.ofHours(1)));
+		// Game 6 of the test data is being played
+		activeGameCache.findGame(6L);
+		assertThat(lobbyIndex.getGames(Instant.EPOCH, null, null, 10)).extracting(GameDTO::getId)
+				.contains(lobbyGame.getId());
+
+		var aborted = gameReaperService.abortStaleGames(Instant.now().minus(Duration.ofDays(1)));
+
+		assertThat(aborted).isEqualTo(4);
+		assertThat(getPhase(5)).isEqualTo(GamePhase.ABORTED);
+		assertThat(getPhase(lobbyGame.getId())).isEqualTo(GamePhase.ABORTED);
+		assertThat(getPhase(playingGame.getId())).isEqualTo(GamePhase.ABORTED);
+		assertThat(getPhase(6)).isEqualTo(GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
+		assertThat(getPhase(finishedGame.getId())).isEqualTo(GamePhase.FINISHED);
+		assertThat(getPhase(newGame.getId())).isEqualTo(GamePhase.PLAYING);
+		assertThat(getPhase(idleGame.getId())).isEqualTo(GamePhase.ABORTED);
+		assertThat(getPhase(recentGame.getId())).isEqualTo(GamePhase.PLAYING);
+		assertThat(lobbyIndex.getGames(Instant.EPOCH, null, null, 10)).extracting(GameDTO::getId)
+				.doesNotContain(lobbyGame.getId());
+
+		assertThat(gameReaperService.abortStaleGames(Instant.now().minus(Duration.ofDays(1)))).isZero();
+	}
+
+	@Test
+	void testAbortSkipsGameLoadedMeanwhile() throws Exception {
+		var locked = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		// A request holds game 5 while the reaper runs, and plays it
+		var request = CompletableFuture.runAsync(() -> gameExecutor.execute(5L, () -> {
+			locked.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return activeGameCache.findGame(5L);
+		}));
+		locked.await();
+
+		var aborted = CompletableFuture
+				.supplyAsync(() -> gameReaperService.abortStaleGames(Instant.now().minus(Duration.ofDays(1))));
+		Thread.sleep(200);
+		release.countDown();
+		request.get(10, TimeUnit.SECONDS);
+
+		assertThat(aborted.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(getPhase(5)).isEqualTo(GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
+		assertThat(activeGameCache.findGame(5L)).get().extracting(activeGame -> activeGame.getGame().getPhase())
+				.isEqualTo(GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
+	}
+
+	@Test
+	void testPurgeGames() {
+		var finishedGame = addGame(OLD_DATE, GamePhase.FINISHED);
+		addGameLog(finishedGame, 5);
+		var abortedGame = addGame(OLD_DATE.plusSeconds(1), GamePhase.ABORTED);
+		addGameLog(abortedGame, 1);
+		var playingGame = addGame(OLD_DATE.plusSeconds(2), GamePhase.PLAYING);
+		addGameLog(playingGame, 2);
+		var newGame = addGame(Instant.now(), GamePhase.FINISHED);
+		addGameLog(newGame, 3);
+
+		var purged = gameReaperService.purgeGames(Instant.now().minus(Duration.ofDays(30)));
+
+		assertThat(purged).isEqualTo(2);
+		assertThat(strategoStatusRepository.findByGameId(finishedGame.getId().longValue())).isEmpty();
+		assertThat(strategoStatusRepository.findByGameId(abortedGame.getId().longValue())).isEmpty();
+		assertThat(strategoStatusRepository.count()).isEqualTo(2);
+		assertThat(strategoMovementRepository.count()).isEqualTo(5);
+		assertThat(strategoSetupRepository.count()).isEqualTo(2);
+		assertThat(strategoSnapshotRepository.count()).isEqualTo(2);
+		// The games themselves are kept
+		assertThat(getPhase(finishedGame.getId())).isEqualTo(GamePhase.FINISHED);
+		assertThat(getPhase(abortedGame.getId())).isEqualTo(GamePhase.ABORTED);
+
+		assertThat(gameReaperService.purgeGames(Instant.now().minus(Duration.ofDays(30)))).isZero();
+	}
+}
@@ -5,12 +5,15 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.ArgumentsProvider;
 import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -491,4 +494,57 @@ public class RankServiceTest {
 		}
 	}
 
+	@ParameterizedTest
+	@EnumSource(Rank.class)
+	void testCompareByOrdinal(Rank attacker) {
+		for (var defender : Rank.values()) {
+			Integer expected;
+			try {
+				expected = rankService.compareRanks(attacker, defender);
+			} catch (MatchmakingValidationException e) {
+				expected = null;
+			}
+
+			if (expected == null) {
+				assertThatThrownBy(() -> rankService.compareRanks(attacker.ordinal(), defender.ordinal()))
+						.isInstanceOf(MatchmakingValidationException.class).hasMessage("Invalid ranks compared");
+			} else {
+				assertThat(rankService.compareRanks(attacker.ordinal(), defender.ordinal())).isEqualTo(expected);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "-1, 0", "0, -1", "13, 0", "0, 13" })
+	void testCompareByOrdinalOutOfRange(int attackerOrdinal, int defenderOrdinal) {
+		assertThatThrownBy(() -> rankService.compareRanks(attackerOrdinal, defenderOrdinal))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Invalid ranks compared");
+	}
+
+	@Test
+	void testCompareBulk() {
+		var attackers = new int[] { Rank.MARSHAL.ordinal(), Rank.SPY.ordinal(), Rank.MINER.ordinal(),
+				Rank.SCOUT.ordinal() };
+		var defenders = new int[] { Rank.GENERAL.ordinal(), Rank.MARSHAL.ordinal(), Rank.BOMB.ordinal(),
+				Rank.SCOUT.ordinal() };
+		var results = new int[attackers.length];
+
+		rankService.compareRanks(attackers, defenders, results);
+
+		assertThat(results).containsExactly(1, 1, 1, 0);
+	}
+
+	@Test
+	void testCompareBulkInvalid() {
+		var attackers = new int[] { Rank.MARSHAL.ordinal(), Rank.BOMB.ordinal() };
+		var defenders = new int[] { Rank.GENERAL.ordinal(), Rank.MARSHAL.ordinal() };
+
+		assertThatThrownBy(() -> rankService.compareRanks(attackers, defenders, new int[2]))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Invalid ranks compared");
+		assertThatThrownBy(() -> rankService.compareRanks(attackers, new int[1], new int[2]))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> rankService.compareRanks(attackers, defenders, new int[1]))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
 }
@@ -3,6 +3,7 @@ package com.pdrosoft.matchmaking.stratego.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,6 +11,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -20,11 +22,12 @@ import org.junit.jupiter.params.provider.ArgumentsSource;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -32,6 +35,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdrosoft.matchmaking.chat.dto.NotificationDTO;
 import com.pdrosoft.matchmaking.chat.service.NotificationService;
+import com.pdrosoft.matchmaking.datasource.ReadYourWritesGuard;
 import com.pdrosoft.matchmaking.exception.MatchmakingValidationException;
 import com.pdrosoft.matchmaking.model.Game;
 import com.pdrosoft.matchmaking.model.Player;
@@ -40,14 +44,23 @@ import com.pdrosoft.matchmaking.model.StrategoStatus;
 import com.pdrosoft.matchmaking.repository.GameRepository;
 import com.pdrosoft.matchmaking.repository.PlayerRepository;
 import com.pdrosoft.matchmaking.repository.StrategoMovementRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSetupRepository;
+import com.pdrosoft.matchmaking.repository.StrategoSnapshotRepository;
 import com.pdrosoft.matchmaking.repository.StrategoStatusRepository;
 import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
+import com.pdrosoft.matchmaking.stratego.dto.BoardChangeDTO;
 import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
 import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
 import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementResultDTO;
+import com.pdrosoft.matchmaking.stratego.engine.MovementOutcome;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.engine.Viewer;
+import com.pdrosoft.matchmaking.stratego.engine.Zobrist;
 import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
 import com.pdrosoft.matchmaking.stratego.enums.Rank;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class StrategoServiceTest {
 
@@ -76,9 +89,41 @@ public class StrategoServiceTest {
 	@Mock
 	private NotificationService notificationService;
 
-	@InjectMocks
+	@Mock
+	private StrategoSetupRepository strategoSetupRepository;
+	@Mock
+	private StrategoSnapshotRepository strategoSnapshotRepository;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+	@Mock
+	private GameLogService gameLogService;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@Mock
+	private TurnClockService turnClockService;
+	@Mock
+	private ReadYourWritesGuard readYourWritesGuard;
+
+	private ActiveGameCache activeGameCache;
 	private StrategoServiceImpl strategoService;
 
+	@BeforeEach
+	void setUp() {
+		var gameExecutor = new GameExecutorImpl(transactionManager, new SimpleMeterRegistry(), 16);
+		activeGameCache = new ActiveGameCacheImpl(gameRepository, strategoStatusRepository, strategoMovementRepository,
+				strategoSetupRepository, strategoSnapshotRepository, gameExecutor, gameLogService, transactionManager, 100, Duration.ofMinutes(30), false);
+		strategoService = new StrategoServiceImpl(gameRepository, passwordEncoder, strategoMovementRepository,
+				activeGameCache, gameExecutor, gameLogService, rankService, mapper, notificationService, eventPublisher,
+				turnClockService, readYourWritesGuard);
+		mockStatusUpdate();
+	}
+
+	private void mockStatusUpdate() {
+		// No other node writes the games of these tests
+		Mockito.lenient().when(strategoStatusRepository.updateStateVersion(Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenReturn(1);
+	}
+
 	@Test
 	void testGetStatusNoGame() {
 		var player = getTestPlayer();
@@ -123,13 +168,13 @@ public class StrategoServiceTest {
 
 		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
 
-		var board = (List<List<BoardTileDTO>>) Mockito.mock(List.class);
+		var board = StrategoBoard.empty();
 		var status = Mockito.mock(StrategoStatus.class);
-		Mockito.when(status.getGame()).thenReturn(game);
 		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
 		Mockito.when(status.getBoard()).thenReturn(board);
 
-		Mockito.when(strategoMovementRepository.findAllByGameId(GAME_ID)).thenReturn(movements);
+		Mockito.when(strategoMovementRepository.findLastByGameId(GAME_ID))
+				.thenReturn(movements.stream().reduce((first, second) -> second));
 
 		if (movements.size() > 0) {
 			Mockito.when(mapper.readValue(Mockito.anyString(), Mockito.any(TypeReference.class)))
@@ -144,7 +189,7 @@ public class StrategoServiceTest {
 		assertThat(statusDto.getGuestPlayerId()).isEqualTo(GUEST_ID);
 		assertThat(statusDto.getGameId()).isEqualTo(GAME_ID);
 		assertThat(statusDto.getPhase()).isEqualTo(GamePhase.PLAYING);
-		assertThat(statusDto.getBoard()).isEqualTo(board);
+		assertThat(statusDto.getBoard()).isEqualTo(board.toTiles());
 		assertThat(statusDto.isMyTurn()).isTrue();
 
 		if (movements.size() == 0) {
@@ -166,6 +211,164 @@ public class StrategoServiceTest {
 		Mockito.verifyNoMoreInteractions(notificationService);
 	}
 
+	@ParameterizedTest
+	@ValueSource(ints = { 0, 201 })
+	void testGetMovementsInvalidLimit(int limit) {
+		assertThatThrownBy(() -> strategoService.getMovements(GAME_ID, getTestPlayer(), null, limit))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("The limit must be between 1 and 200");
+		Mockito.verifyNoInteractions(strategoMovementRepository);
+	}
+
+	@Test
+	void testGetMovementsNoGame() {
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> strategoService.getMovements(GAME_ID, getTestPlayer(), 5, 10))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Game does not exist");
+		Mockito.verifyNoInteractions(strategoMovementRepository);
+	}
+
+	@Test
+	void testGetMovements() {
+		var movement = getTestMovement();
+		movement.setId(7);
+		movement.setResult(null);
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(movement.getGame()));
+		Mockito.when(strategoMovementRepository.findPageByGameId(GAME_ID, 0, 50)).thenReturn(List.of(movement));
+
+		var movements = strategoService.getMovements(GAME_ID, getTestPlayer(), null, null);
+
+		assertThat(movements).hasSize(1).first().satisfies(movementDto -> {
+			assertThat(movementDto.getId()).isEqualTo(7);
+			assertThat(movementDto.getRank()).isEqualTo(Rank.BOMB);
+			assertThat(movementDto.getRowInitial()).isEqualTo(1);
+			assertThat(movementDto.getColFinal()).isEqualTo(4);
+			assertThat(movementDto.getResult()).isEmpty();
+		});
+	}
+
+	@Test
+	void testGetMovementsHidesOpponentRanks() {
+		var movement = getTestMovement();
+		movement.setRowFinal(2);
+		movement.setColFinal(2);
+		movement.setResult(null);
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(movement.getGame()));
+		Mockito.when(strategoMovementRepository.findPageByGameId(GAME_ID, 0, 50)).thenReturn(List.of(movement));
+
+		// A one square step without combat only shows the rank to the guest that moved
+		assertThat(strategoService.getMovements(GAME_ID, getTestPlayer(HOST_ID), null, null)).singleElement()
+				.satisfies(movementDto -> assertThat(movementDto.getRank()).isNull());
+		assertThat(strategoService.getMovements(GAME_ID, getTestPlayer(GUEST_ID), null, null)).singleElement()
+				.satisfies(movementDto -> assertThat(movementDto.getRank()).isEqualTo(Rank.BOMB));
+	}
+
+	@Test
+	void testGetMovementsOutcome() {
+		var movement = getTestMovement();
+		movement.setResult(null);
+		movement.setOutcome(MovementOutcome.of(StrategoBoard.encode(Rank.MARSHAL, false),
+				StrategoBoard.reveal(StrategoBoard.encode(Rank.MARSHAL, true))));
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(movement.getGame()));
+		Mockito.when(strategoMovementRepository.findPageByGameId(GAME_ID, 0, 50)).thenReturn(List.of(movement));
+
+		assertThat(strategoService.getMovements(GAME_ID, getTestPlayer(HOST_ID), null, null)).singleElement()
+				.satisfies(movementDto -> {
+					assertThat(movementDto.getRank()).isEqualTo(Rank.BOMB);
+					assertThat(movementDto.getResult()).containsExactly(
+							StrategoMovementResultDTO.builder().rank(Rank.MARSHAL).isHost(false).build(),
+							StrategoMovementResultDTO.builder().rank(Rank.MARSHAL).isHost(true).build());
+				});
+		Mockito.verifyNoInteractions(mapper);
+	}
+
+	@Test
+	void testGetStatusDelta() {
+		var player = getTestPlayer();
+		var guest = getTestPlayer(GUEST_ID);
+		var game = getTestGame(player, guest);
+		var movementDto = getTestMovementDto();
+		var status = getTestStatus(getBoard(new BoardTileDTO(Rank.SCOUT, true), 1, 2), game);
+		status.setIsGuestTurn(false);
+		addRemainingPieces(status.getBoard());
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+
+		var movedState = strategoService.addMovement(GAME_ID, player, movementDto);
+		assertThat(movedState.getVersion()).isEqualTo(1L);
+
+		var delta = strategoService.getStatus(GAME_ID, player, 0L);
+		assertThat(delta.getVersion()).isEqualTo(1L);
+		assertThat(delta.getBoard()).isNull();
+		assertThat(delta.getChanges()).containsExactly(BoardChangeDTO.builder().row(1).col(2).tile(null).build(),
+				BoardChangeDTO.builder().row(3).col(4).tile(new BoardTileDTO(Rank.SCOUT, true)).build());
+
+		var unchanged = strategoService.getStatus(GAME_ID, player, 1L);
+		assertThat(unchanged.getBoard()).isNull();
+		assertThat(unchanged.getChanges()).isEmpty();
+
+		var unknownVersion = strategoService.getStatus(GAME_ID, player, 5L);
+		assertThat(unknownVersion.getChanges()).isNull();
+		assertThat(unknownVersion.getBoard()).isEqualTo(status.getBoard().toTiles(Viewer.HOST));
+
+		var fullState = strategoService.getStatus(GAME_ID, player);
+		assertThat(fullState.getChanges()).isNull();
+		assertThat(fullState.getBoard()).isEqualTo(status.getBoard().toTiles(Viewer.HOST));
+	}
+
+	@Test
+	void testGetSerializedStatus() throws JsonProcessingException {
+		var player = getTestPlayer();
+		var guest = getTestPlayer(GUEST_ID);
+		var game = getTestGame(player, guest);
+		var status = getTestStatus(getBoard(new BoardTileDTO(Rank.SCOUT, true), 1, 2), game);
+		status.setIsGuestTurn(false);
+		addRemainingPieces(status.getBoard());
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+		Mockito.when(mapper.writeValueAsBytes(Mockito.any())).thenReturn(new byte[] { 1 }, new byte[] { 2 },
+				new byte[] { 3 });
+
+		var serialized = strategoService.getSerializedStatus(GAME_ID, player, null);
+		assertThat(serialized.version()).isZero();
+		assertThat(serialized.playerId()).isEqualTo(PLAYER_ID);
+		assertThat(serialized.json()).containsExactly(1);
+		// Polls of the same version reuse the serialized state
+		assertThat(strategoService.getSerializedStatus(GAME_ID, player, null)).isSameAs(serialized);
+		assertThat(strategoService.getSerializedStatus(GAME_ID, guest, null).json()).containsExactly(2);
+		Mockito.verify(mapper, Mockito.times(2)).writeValueAsBytes(Mockito.any());
+
+		strategoService.addMovement(GAME_ID, player, getTestMovementDto());
+
+		var moved = strategoService.getSerializedStatus(GAME_ID, player, null);
+		assertThat(moved.version()).isEqualTo(1L);
+		assertThat(moved.json()).containsExactly(3);
+	}
+
+	@Test
+	void testGetBoard() {
+		var host = getTestPlayer(HOST_ID);
+		var guest = getTestPlayer(GUEST_ID);
+		var board = StrategoBoard.empty();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(getTestGame(host, guest)));
+		Mockito.when(gameLogService.rebuildBoard(GAME_ID, 3L)).thenReturn(board);
+
+		assertThat(strategoService.getBoard(GAME_ID, host, 3L)).isEqualTo(board.toTiles());
+		assertThat(strategoService.getBoard(GAME_ID, guest, 3L).get(0).get(0)).isEqualTo(new BoardTileDTO(null, true));
+	}
+
+	@Test
+	void testGetBoardNoGame() {
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> strategoService.getBoard(GAME_ID, getTestPlayer(), 3L))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Game does not exist");
+		Mockito.verifyNoInteractions(gameLogService);
+	}
+
 	@Test
 	void testAddMovementNoGame() {
 		var player = getTestPlayer();
@@ -210,14 +413,26 @@ public class StrategoServiceTest {
 		Mockito.verifyNoMoreInteractions(notificationService);
 	}
 
+	/**
+	 * Flags and spare scouts for both sides, so the movement under test does not
+	 * finish the game.
+	 */
+	private static void addRemainingPieces(StrategoBoard board) {
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(0, 9, StrategoBoard.encode(Rank.SCOUT, true));
+		board.set(9, 0, StrategoBoard.encode(Rank.FLAG, false));
+		board.set(9, 9, StrategoBoard.encode(Rank.SCOUT, false));
+	}
+
 	private StrategoStatus getTestStatus(List<List<BoardTileDTO>> board, Game game) {
 		var status = new StrategoStatus();
-		status.setBoard(board);
+		status.setBoard(StrategoBoard.fromTiles(board));
 		status.setGame(game);
 		status.setId(STATUS_ID);
 		status.setIsGuestInitialized(true);
 		status.setIsHostInitialized(true);
 		status.setIsGuestTurn(true);
+		status.setStateVersion(0L);
 		return status;
 	}
 
@@ -363,6 +578,7 @@ public class StrategoServiceTest {
 		);
 		var status = getTestStatus(board, game);
 		status.setIsGuestTurn(false);
+		addRemainingPieces(status.getBoard());
 
 		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
 		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
@@ -393,19 +609,18 @@ public class StrategoServiceTest {
 			} else {
 				result = List.of();
 			}
-
-			Mockito.when(mapper.writeValueAsString(result)).thenReturn("json");
 		}
 
-		strategoService.addMovement(GAME_ID, player, movementDto);
+		var state = strategoService.addMovement(GAME_ID, player, movementDto);
+		assertThat(state.getMovement().getResult()).isEqualTo(result);
 
 		var captor = ArgumentCaptor.forClass(StrategoStatus.class);
 		Mockito.verify(strategoStatusRepository).save(captor.capture());
 
 		assertThat(captor.getValue()).isNotNull().satisfies(savedStatus -> {
 			var savedBoard = savedStatus.getBoard();
-			var init = savedBoard.get(1).get(2);
-			var dest = savedBoard.get(3).get(4);
+			var init = savedBoard.getTile(1, 2);
+			var dest = savedBoard.getTile(3, 4);
 
 			assertThat(init).isNull();
 
@@ -414,12 +629,25 @@ public class StrategoServiceTest {
 			} else {
 				assertThat(dest.getRank()).isEqualTo(finalRank);
 			}
+			assertThat(savedStatus.getPositionHash())
+					.isEqualTo(Zobrist.hash(savedBoard, savedStatus.getIsGuestTurn()));
 		});
 
-		var resultCaptor = ArgumentCaptor.forClass(List.class);
-
-		Mockito.verify(mapper).writeValueAsString(resultCaptor.capture());
-		assertThat(resultCaptor.getValue()).isEqualTo(result);
+		var movementCaptor = ArgumentCaptor.forClass(StrategoMovement.class);
+		Mockito.verify(strategoMovementRepository).save(movementCaptor.capture());
+		var movement = movementCaptor.getValue();
+		assertThat(movement.getStateVersion()).isEqualTo(1L);
+		assertThat(movement.getFromIndex()).isEqualTo(12);
+		assertThat(movement.getToIndex()).isEqualTo(34);
+		assertThat(MovementOutcome.size(movement.getOutcome())).isEqualTo(result.size());
+		assertThat(movement.getResult()).isNull();
+		Mockito.verifyNoInteractions(mapper);
+		Mockito.verify(gameLogService).getSnapshot(Mockito.any(ActiveGame.class));
+
+		var eventCaptor = ArgumentCaptor.forClass(GameUpdatedEvent.class);
+		Mockito.verify(eventPublisher).publishEvent(eventCaptor.capture());
+		assertThat(eventCaptor.getValue())
+				.isEqualTo(new GameUpdatedEvent(GAME_ID, GamePhase.PLAYING, GUEST_ID, true, 1L));
 
 		var notificationCaptor = ArgumentCaptor.forClass(NotificationDTO.class);
 		Mockito.verify(notificationService).sendNotification(Mockito.eq(GAME_ID.toString()),
@@ -430,6 +658,180 @@ public class StrategoServiceTest {
 		Mockito.verifyNoMoreInteractions(notificationService);
 	}
 
+	private static class GameOverArguments implements ArgumentsProvider {
+		@Override
+		public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+			return Stream.of(//
+					Arguments.of(Rank.FLAG, 1, "Game finished, the host wins"), // Flag captured
+					Arguments.of(Rank.SCOUT, 1, "Game finished, the host wins"), // Last guest movable piece
+					Arguments.of(Rank.SCOUT, -1, "Game finished, the guest wins"), // Last host movable piece
+					Arguments.of(Rank.SCOUT, 0, "Game finished in a draw") // No movable pieces left
+			);
+		}
+	}
+
+	@ParameterizedTest
+	@ArgumentsSource(value = GameOverArguments.class)
+	void testAddMovementFinishesGame(Rank defenderRank, int combatResult, String message) {
+		var host = getTestPlayer();
+		var guest = getTestPlayer(GUEST_ID);
+		var game = getTestGame(host, guest);
+		var status = getTestStatus(getEmptyBoard(), game);
+		status.setIsGuestTurn(false);
+		var board = status.getBoard();
+		board.set(0, 0, StrategoBoard.encode(Rank.FLAG, true));
+		board.set(1, 2, StrategoBoard.encode(Rank.MINER, true));
+		board.set(9, 1, StrategoBoard.encode(Rank.BOMB, false));
+		board.set(2, 2, StrategoBoard.encode(defenderRank, false));
+		if (defenderRank == Rank.FLAG) {
+			// The guest keeps a movable piece, only the flag ends the game
+			board.set(9, 9, StrategoBoard.encode(Rank.SCOUT, false));
+		} else {
+			board.set(9, 0, StrategoBoard.encode(Rank.FLAG, false));
+		}
+		var movementDto = StrategoMovementDTO.builder().rank(Rank.MINER).rowInitial(1).colInitial(2).rowFinal(2)
+				.colFinal(2).build();
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+		Mockito.when(rankService.compareRanks(Rank.MINER, defenderRank)).thenReturn(combatResult);
+
+		var gameState = strategoService.addMovement(GAME_ID, host, movementDto);
+
+		assertThat(gameState.getPhase()).isEqualTo(GamePhase.FINISHED);
+		Mockito.verify(gameRepository).save(game);
+		assertThat(activeGameCache.size()).isZero();
+
+		var notificationCaptor = ArgumentCaptor.forClass(NotificationDTO.class);
+		Mockito.verify(notificationService).sendNotification(Mockito.eq(GAME_ID.toString()),
+				notificationCaptor.capture());
+		assertThat(notificationCaptor.getValue().getGamePhase()).isEqualTo(GamePhase.FINISHED);
+		assertThat(notificationCaptor.getValue().getMessage()).isEqualTo(message);
+
+		// The finished game has no clock
+		Mockito.verify(turnClockService).getDeadline(GamePhase.FINISHED);
+		Mockito.verify(turnClockService).schedule(GAME_ID, null);
+
+		assertThatThrownBy(() -> strategoService.addMovement(GAME_ID, guest, movementDto))
+				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Game not in playing state");
+	}
+
+	private void mockStoredDeadline(GamePhase phase, Instant deadline) {
+		var stored = Mockito.mock(GameRepository.TurnDeadline.class);
+		Mockito.when(stored.getPhase()).thenReturn(phase);
+		Mockito.lenient().when(stored.getTurnDeadline()).thenReturn(deadline);
+		Mockito.when(gameRepository.findTurnDeadline(GAME_ID.intValue())).thenReturn(Optional.of(stored));
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { true, false })
+	void testExpireTurnPlaying(boolean isGuestTurn) {
+		var game = getTestGame(getTestPlayer(), getTestPlayer(GUEST_ID));
+		game.setPhase(GamePhase.PLAYING);
+		var status = getTestStatus(getEmptyBoard(), game);
+		status.setIsGuestTurn(isGuestTurn);
+		status.setTurnDeadline(Instant.now().minusSeconds(1));
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+		mockStoredDeadline(GamePhase.PLAYING, status.getTurnDeadline());
+
+		strategoService.onTurnExpired(new TurnExpiredEvent(GAME_ID));
+
+		assertThat(game.getPhase()).isEqualTo(GamePhase.FINISHED);
+		assertThat(status.getTurnDeadline()).isNull();
+		Mockito.verify(gameRepository).save(game);
+		Mockito.verify(strategoStatusRepository).save(status);
+		assertThat(activeGameCache.size()).isZero();
+
+		var notificationCaptor = ArgumentCaptor.forClass(NotificationDTO.class);
+		Mockito.verify(notificationService).sendNotification(Mockito.eq(GAME_ID.toString()),
+				notificationCaptor.capture());
+		assertThat(notificationCaptor.getValue().getGamePhase()).isEqualTo(GamePhase.FINISHED);
+		assertThat(notificationCaptor.getValue().getMessage())
+				.isEqualTo(isGuestTurn ? "Time is over, the host wins" : "Time is over, the guest wins");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = GamePhase.class, names = { "WAITING_FOR_SETUP_2_PLAYERS", "WAITING_FOR_SETUP_1_PLAYER" })
+	void testExpireTurnSetup(GamePhase phase) {
+		var game = getTestGame(getTestPlayer(), getTestPlayer(GUEST_ID));
+		game.setPhase(phase);
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.empty());
+		mockStoredDeadline(phase, null);
+
+		strategoService.onTurnExpired(new TurnExpiredEvent(GAME_ID));
+
+		assertThat(game.getPhase()).isEqualTo(GamePhase.ABORTED);
+		Mockito.verify(gameRepository).save(game);
+
+		var notificationCaptor = ArgumentCaptor.forClass(NotificationDTO.class);
+		Mockito.verify(notificationService).sendNotification(Mockito.eq(GAME_ID.toString()),
+				notificationCaptor.capture());
+		assertThat(notificationCaptor.getValue().getGamePhase()).isEqualTo(GamePhase.ABORTED);
+		assertThat(notificationCaptor.getValue().getMessage()).isEqualTo("Time is over, the game has been aborted");
+	}
+
+	@Test
+	void testExpireTurnAfterNewTurn() {
+		var game = getTestGame(getTestPlayer(), getTestPlayer(GUEST_ID));
+		game.setPhase(GamePhase.PLAYING);
+		var status = getTestStatus(getEmptyBoard(), game);
+		var deadline = Instant.now().plusSeconds(60);
+		status.setTurnDeadline(deadline);
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+
+		strategoService.onTurnExpired(new TurnExpiredEvent(GAME_ID));
+
+		assertThat(game.getPhase()).isEqualTo(GamePhase.PLAYING);
+		Mockito.verify(turnClockService).schedule(GAME_ID, deadline);
+		Mockito.verify(gameRepository, Mockito.never()).save(game);
+		Mockito.verifyNoInteractions(notificationService);
+	}
+
+	@Test
+	void testExpireTurnPlayedOnAnotherNode() {
+		var game = getTestGame(getTestPlayer(), getTestPlayer(GUEST_ID));
+		game.setPhase(GamePhase.PLAYING);
+		var status = getTestStatus(getEmptyBoard(), game);
+		status.setTurnDeadline(Instant.now().minusSeconds(1));
+		var storedDeadline = Instant.now().plusSeconds(60);
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+		// A movement made on another node started a new turn
+		mockStoredDeadline(GamePhase.PLAYING, storedDeadline);
+
+		strategoService.onTurnExpired(new TurnExpiredEvent(GAME_ID));
+
+		assertThat(game.getPhase()).isEqualTo(GamePhase.PLAYING);
+		Mockito.verify(turnClockService).schedule(GAME_ID, storedDeadline);
+		Mockito.verify(gameRepository, Mockito.never()).save(game);
+		Mockito.verifyNoInteractions(notificationService);
+	}
+
+	@Test
+	void testExpireTurnFinishedOnAnotherNode() {
+		var game = getTestGame(getTestPlayer(), getTestPlayer(GUEST_ID));
+		game.setPhase(GamePhase.PLAYING);
+		var status = getTestStatus(getEmptyBoard(), game);
+		status.setTurnDeadline(Instant.now().minusSeconds(1));
+
+		Mockito.when(gameRepository.findById(GAME_ID)).thenReturn(Optional.of(game));
+		Mockito.when(strategoStatusRepository.findByGameId(GAME_ID)).thenReturn(Optional.of(status));
+		mockStoredDeadline(GamePhase.FINISHED, null);
+
+		strategoService.onTurnExpired(new TurnExpiredEvent(GAME_ID));
+
+		assertThat(game.getPhase()).isEqualTo(GamePhase.PLAYING);
+		Mockito.verify(gameRepository, Mockito.never()).save(game);
+		Mockito.verifyNoInteractions(notificationService);
+	}
+
 	private ArmySetupDTO getValidSetup() {
 		return ArmySetupDTO.builder().army(List.of(//
 				Arrays.asList(new Rank[] { Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.BOMB, Rank.BOMB,
@@ -511,7 +913,7 @@ public class StrategoServiceTest {
 		assertThatThrownBy(() -> strategoService.addSetup(GAME_ID, player, setup))
 				.isInstanceOf(MatchmakingValidationException.class).hasMessage("Game not in setup state");
 
-		Mockito.verifyNoMoreInteractions(strategoStatusRepository);
+		Mockito.verify(strategoStatusRepository, Mockito.never()).save(Mockito.any());
 
 		Mockito.verifyNoMoreInteractions(notificationService);
 	}
@@ -580,10 +982,14 @@ public class StrategoServiceTest {
 		assertThat(captor.getAllValues()).hasSize(numInvocationsToSave).anySatisfy(aStatus -> {
 			assertThat(aStatus.getId()).isEqualTo(STATUS_ID);
 		});
+		var savedStatus = captor.getValue();
+		assertThat(savedStatus.getPositionHash())
+				.isEqualTo(Zobrist.hash(savedStatus.getBoard(), savedStatus.getIsGuestTurn()));
 
 		assertThat(gameStateDto).isNotNull().satisfies(gameState -> {
 			checkHostBoard(gameState.getBoard(), setup);
 		});
+		Mockito.verify(gameLogService).getSetup(Mockito.any(ActiveGame.class), Mockito.eq(true));
 
 		var notificationCaptor = ArgumentCaptor.forClass(NotificationDTO.class);
 		Mockito.verify(notificationService).sendNotification(Mockito.eq(GAME_ID.toString()),
@@ -866,6 +1272,8 @@ public class StrategoServiceTest {
 						&& !isDisabledSquare(rowTarget, colTarget)) {
 
 					Mockito.reset(gameRepository, strategoStatusRepository, strategoMovementRepository);
+					mockStatusUpdate();
+					activeGameCache.evict(GAME_ID);
 
 					var host = getTestPlayer(HOST_ID);
 					var guest = getTestPlayer(GUEST_ID);
@@ -892,6 +1300,7 @@ public class StrategoServiceTest {
 					Mockito.verify(strategoStatusRepository).save(captor.capture());
 					StrategoStatus status = captor.getValue();
 					assertThat(status.getIsGuestTurn()).isFalse();
+					assertThat(status.getPositionHash()).isEqualTo(Zobrist.hash(status.getBoard(), false));
 
 					var captorMove = ArgumentCaptor.forClass(StrategoMovement.class);
 					Mockito.verify(strategoMovementRepository).save(captorMove.capture());
@@ -0,0 +1,93 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+	private static final long START = 1_000_000L;
+
+	private TimingWheel<Long> getWheel() {
+		// Eight buckets of 100 ms, one turn of the wheel every 800 ms
+		return new TimingWheel<>(Duration.ofMillis(100), 8, START);
+	}
+
+	@Test
+	void testExpiresAtDeadline() {
+		var wheel = getWheel();
+		wheel.schedule(1L, START + 250);
+		wheel.schedule(2L, START + 500);
+
+		assertThat(wheel.advance(START + 200)).isEmpty();
+		// Rounded up to the next tick, never early
+		assertThat(wheel.advance(START + 299)).isEmpty();
+		assertThat(wheel.advance(START + 300)).containsExactly(1L);
+		assertThat(wheel.advance(START + 400)).isEmpty();
+		assertThat(wheel.advance(START + 500)).containsExactly(2L);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void testDeadlinesBeyondOneTurn() {
+		var wheel = getWheel();
+		// Same bucket as the first one, two turns later
+		wheel.schedule(1L, START + 100);
+		wheel.schedule(2L, START + 1700);
+
+		assertThat(wheel.advance(START + 100)).containsExactly(1L);
+		for (long now = START + 200; now < START + 1700; now += 100) {
+			assertThat(wheel.advance(now)).isEmpty();
+		}
+		assertThat(wheel.advance(START + 1700)).containsExactly(2L);
+	}
+
+	@Test
+	void testLongPause() {
+		var wheel = getWheel();
+		wheel.schedule(1L, START + 300);
+		wheel.schedule(2L, START + 5000);
+		wheel.schedule(3L, START + 9000);
+
+		assertThat(wheel.advance(START + 6000)).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advance(START + 9000)).containsExactly(3L);
+	}
+
+	@Test
+	void testRescheduleAndCancel() {
+		var wheel = getWheel();
+		wheel.schedule(1L, START + 100);
+		wheel.schedule(1L, START + 300);
+		wheel.schedule(2L, START + 100);
+		wheel.schedule(3L, START + 100);
+
+		assertThat(wheel.cancel(2L)).isTrue();
+		assertThat(wheel.cancel(2L)).isFalse();
+		assertThat(wheel.size()).isEqualTo(2);
+
+		assertThat(wheel.advance(START + 100)).containsExactly(3L);
+		assertThat(wheel.advance(START + 300)).containsExactly(1L);
+	}
+
+	@Test
+	void testPastDeadline() {
+		var wheel = getWheel();
+		wheel.advance(START + 500);
+		wheel.schedule(1L, START);
+
+		assertThat(wheel.advance(START + 500)).isEmpty();
+		assertThat(wheel.advance(START + 600)).containsExactly(1L);
+	}
+
+	@Test
+	void testInvalidSettings() {
+		assertThatThrownBy(() -> new TimingWheel<Long>(Duration.ZERO, 8, START))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TimingWheel<Long>(Duration.ofSeconds(1), 0, START))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,142 @@
+package com.pdrosoft.matchmaking.stratego.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+
+@ExtendWith(MockitoExtension.class)
+public class TurnClockServiceTest {
+
+	private static final Duration SETUP_TIMEOUT = Duration.ofMinutes(10);
+	private static final Duration TURN_TIMEOUT = Duration.ofMinutes(1);
+
+	@Mock
+	private GameRepository gameRepository;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private TurnClockServiceImpl turnClockService;
+
+	@BeforeEach
+	void setUp() {
+		turnClockService = new TurnClockServiceImpl(gameRepository, eventPublisher, SETUP_TIMEOUT, TURN_TIMEOUT,
+				Duration.ofSeconds(1), 64, Runnable::run);
+	}
+
+	private static GameRepository.TurnDeadline getTurnDeadline(Integer gameId, GamePhase phase, Instant deadline) {
+		return new GameRepository.TurnDeadline() {
+			@Override
+			public Integer getGameId() {
+				return gameId;
+			}
+
+			@Override
+			public GamePhase getPhase() {
+				return phase;
+			}
+
+			@Override
+			public Instant getTurnDeadline() {
+				return deadline;
+			}
+		};
+	}
+
+	@Test
+	void testGetDeadline() {
+		var now = Instant.now();
+
+		assertThat(turnClockService.getDeadline(GamePhase.PLAYING)).isBetween(now.plus(TURN_TIMEOUT),
+				Instant.now().plus(TURN_TIMEOUT));
+		assertThat(turnClockService.getDeadline(GamePhase.WAITING_FOR_SETUP_2_PLAYERS))
+				.isBetween(now.plus(SETUP_TIMEOUT), Instant.now().plus(SETUP_TIMEOUT));
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = GamePhase.class, names = { "FINISHED", "ABORTED" })
+	void testNoDeadlineWhenInactive(GamePhase phase) {
+		assertThat(turnClockService.getDeadline(phase)).isNull();
+	}
+
+	@Test
+	void testZeroTimeoutDisablesClock() {
+		var noClock = new TurnClockServiceImpl(gameRepository, eventPublisher, SETUP_TIMEOUT, Duration.ZERO,
+				Duration.ofSeconds(1), 64, Runnable::run);
+
+		assertThat(noClock.getDeadline(GamePhase.PLAYING)).isNull();
+	}
+
+	@Test
+	void testScheduleAndExpire() {
+		var now = Instant.now();
+		turnClockService.schedule(1L, now.plusSeconds(5));
+		turnClockService.schedule(2L, now.plusSeconds(5));
+		turnClockService.schedule(3L, now.plusSeconds(90));
+		turnClockService.cancel(2L);
+		turnClockService.schedule(3L, null);
+
+		turnClockService.tick(now.plusSeconds(4).toEpochMilli());
+		Mockito.verifyNoInteractions(eventPublisher);
+
+		turnClockService.tick(now.plusSeconds(6).toEpochMilli());
+		Mockito.verify(eventPublisher).publishEvent(new TurnExpiredEvent(1L));
+		Mockito.verifyNoMoreInteractions(eventPublisher);
+		assertThat(turnClockService.size()).isZero();
+	}
+
+	@Test
+	void testExpiredTurnsAreHandedOff() {
+		var handedOff = new ArrayList<Runnable>();
+		var clock = new TurnClockServiceImpl(gameRepository, eventPublisher, SETUP_TIMEOUT, TURN_TIMEOUT,
+				Duration.ofSeconds(1), 64, handedOff::add);
+		var now = Instant.now();
+		clock.schedule(1L, now.plusSeconds(5));
+
+		clock.tick(now.plusSeconds(6).toEpochMilli());
+		// The tick only queues the expiry
+		Mockito.verifyNoInteractions(eventPublisher);
+		assertThat(handedOff).hasSize(1);
+
+		handedOff.getFirst().run();
+		Mockito.verify(eventPublisher).publishEvent(new TurnExpiredEvent(1L));
+	}
+
+	@Test
+	void testLoadDeadlines() {
+		var now = Instant.now();
+		Mockito.when(gameRepository.findTurnDeadlines(Mockito.anyCollection())).thenReturn(List.of(
+				getTurnDeadline(1, GamePhase.PLAYING, now.plusSeconds(30)),
+				// Without a status yet, or stored before the clocks
+				getTurnDeadline(2, GamePhase.WAITING_FOR_SETUP_2_PLAYERS, null),
+				getTurnDeadline(3, GamePhase.PLAYING, null)));
+
+		turnClockService.loadDeadlines();
+		assertThat(turnClockService.size()).isEqualTo(3);
+
+		turnClockService.tick(now.plusSeconds(31).toEpochMilli());
+		Mockito.verify(eventPublisher).publishEvent(new TurnExpiredEvent(1L));
+
+		turnClockService.tick(now.plus(TURN_TIMEOUT).plusSeconds(2).toEpochMilli());
+		Mockito.verify(eventPublisher).publishEvent(new TurnExpiredEvent(3L));
+		Mockito.verifyNoMoreInteractions(eventPublisher);
+
+		turnClockService.tick(now.plus(SETUP_TIMEOUT).plusSeconds(2).toEpochMilli());
+		Mockito.verify(eventPublisher).publishEvent(new TurnExpiredEvent(2L));
+	}
+}
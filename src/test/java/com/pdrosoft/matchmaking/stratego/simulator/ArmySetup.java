@@ -0,0 +1,50 @@
+package com.pdrosoft.matchmaking.stratego.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.pdrosoft.matchmaking.stratego.dto.ArmySetupDTO;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+/**
+ * Random valid army, as the four rows sent to the setup endpoint.
+ */
+record ArmySetup(List<List<Rank>> army) {
+
+	// Pieces of an army by rank ordinal
+	private static final int[] ARMY = { 1, 1, 2, 3, 4, 4, 4, 5, 8, 1, 6, 1 };
+
+	static ArmySetup random(Random random) {
+		var ranks = new ArrayList<Rank>(40);
+		for (int ordinal = 0; ordinal < ARMY.length; ordinal++) {
+			ranks.addAll(Collections.nCopies(ARMY[ordinal], Rank.values()[ordinal]));
+		}
+		Collections.shuffle(ranks, random);
+
+		var army = new ArrayList<List<Rank>>(4);
+		for (int row = 0; row < 4; row++) {
+			army.add(List.copyOf(ranks.subList(row * 10, (row + 1) * 10)));
+		}
+		return new ArmySetup(army);
+	}
+
+	/**
+	 * Places both armies on {@code board} as the service does, the guest one
+	 * turned around from its side of the board.
+	 */
+	static void place(StrategoBoard board, ArmySetup hostSetup, ArmySetup guestSetup) {
+		for (int row = 0; row < 4; row++) {
+			for (int col = 0; col < StrategoBoard.SIZE; col++) {
+				board.set(row, col, StrategoBoard.encode(hostSetup.army().get(row).get(col), true));
+				board.set(9 - row, col, StrategoBoard.encode(guestSetup.army().get(row).get(9 - col), false));
+			}
+		}
+	}
+
+	ArmySetupDTO toDto() {
+		return ArmySetupDTO.builder().army(army).build();
+	}
+}
@@ -0,0 +1,55 @@
+package com.pdrosoft.matchmaking.stratego.simulator;
+
+import com.pdrosoft.matchmaking.stratego.engine.MoveGenerator;
+import com.pdrosoft.matchmaking.stratego.engine.PieceCounts;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.service.RankService;
+
+/**
+ * Plays on a {@link StrategoBoard} directly, as the service does once a
+ * movement has been validated, without persistence or DTOs.
+ */
+class EngineGameDriver implements GameDriver {
+
+	private final RankService rankService;
+	private final StrategoBoard board = StrategoBoard.empty();
+	private PieceCounts pieceCounts;
+
+	EngineGameDriver(RankService rankService) {
+		this.rankService = rankService;
+	}
+
+	@Override
+	public void setup(ArmySetup hostSetup, ArmySetup guestSetup) {
+		ArmySetup.place(board, hostSetup, guestSetup);
+		pieceCounts = PieceCounts.of(board);
+	}
+
+	@Override
+	public StrategoBoard getBoard() {
+		return board;
+	}
+
+	@Override
+	public boolean play(int move, boolean isHost) {
+		var fromIndex = MoveGenerator.fromIndex(move);
+		var toIndex = MoveGenerator.toIndex(move);
+		var attacker = board.get(fromIndex);
+		var defender = board.get(toIndex);
+		if (StrategoBoard.isEmpty(defender)) {
+			board.move(fromIndex, toIndex, 1);
+			return false;
+		}
+
+		var result = rankService.compareRanks(StrategoBoard.rankOrdinal(attacker),
+				StrategoBoard.rankOrdinal(defender));
+		board.move(fromIndex, toIndex, result);
+		if (result <= 0) {
+			pieceCounts.remove(attacker);
+		}
+		if (result >= 0) {
+			pieceCounts.remove(defender);
+		}
+		return pieceCounts.hasLost(true) || pieceCounts.hasLost(false);
+	}
+}
@@ -0,0 +1,23 @@
+package com.pdrosoft.matchmaking.stratego.simulator;
+
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+
+/**
+ * One simulated game, played through the engine or through the service layer.
+ */
+interface GameDriver {
+
+	/**
+	 * Places both armies.
+	 */
+	void setup(ArmySetup hostSetup, ArmySetup guestSetup);
+
+	StrategoBoard getBoard();
+
+	/**
+	 * Plays a movement packed by
+	 * {@link com.pdrosoft.matchmaking.stratego.engine.MoveGenerator} and tells
+	 * whether it finished the game.
+	 */
+	boolean play(int move, boolean isHost);
+}
@@ -0,0 +1,175 @@
+package com.pdrosoft.matchmaking.stratego.simulator;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import com.pdrosoft.matchmaking.MatchmakingApplication;
+import com.pdrosoft.matchmaking.model.Game;
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.PlayerRepository;
+import com.pdrosoft.matchmaking.stratego.engine.MoveGenerator;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.pdrosoft.matchmaking.stratego.service.RankServiceImpl;
+import com.pdrosoft.matchmaking.stratego.service.StrategoService;
+
+/**
+ * Headless simulator for capacity planning. It plays complete games with
+ * random movements, from random setups until a flag is captured, a side
+ * cannot move or {@code maxMoves} are played, on a pool of {@code threads}.
+ * <p>
+ * In {@code SERVICE} mode games go through {@link StrategoService} on an H2
+ * database with the test profile; in {@code ENGINE} mode only the board and
+ * the rank service are used. Run with
+ *
+ * <pre>
+ * mvn -Psimulator test-compile exec:java -Dsimulator.games=500 -Dsimulator.threads=8 -Dsimulator.mode=SERVICE
+ * </pre>
+ *
+ * Any other system property, like {@code stratego.cache.write-behind=true},
+ * is passed on to the application.
+ */
+public class GameSimulator {
+
+	enum Mode {
+		ENGINE, SERVICE
+	}
+
+	record Settings(int games, int threads, int maxMoves, Mode mode, long seed) {
+
+		static Settings fromSystemProperties() {
+			return new Settings(Integer.getInteger("simulator.games", 100), //
+					Integer.getInteger("simulator.threads", Runtime.getRuntime().availableProcessors()), //
+					Integer.getInteger("simulator.max-moves", 2000), //
+					Mode.valueOf(System.getProperty("simulator.mode", Mode.ENGINE.name())), //
+					Long.getLong("simulator.seed", 1L));
+		}
+	}
+
+	interface DriverFactory {
+		GameDriver newGame(int gameIndex);
+	}
+
+	private static final com.sun.management.ThreadMXBean THREAD_BEAN = ManagementFactory
+			.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+					&& bean.isThreadAllocatedMemorySupported() ? bean : null;
+
+	private final Settings settings;
+	private final DriverFactory driverFactory;
+
+	GameSimulator(Settings settings, DriverFactory driverFactory) {
+		this.settings = settings;
+		this.driverFactory = driverFactory;
+	}
+
+	SimulationReport run() throws InterruptedException, ExecutionException {
+		var start = System.nanoTime();
+		try (var executor = Executors.newFixedThreadPool(settings.threads())) {
+			var futures = new ArrayList<Future<SimulationReport.GameResult>>(settings.games());
+			for (int i = 0; i < settings.games(); i++) {
+				var gameIndex = i;
+				futures.add(executor.submit(() -> play(gameIndex)));
+			}
+
+			var results = new ArrayList<SimulationReport.GameResult>(settings.games());
+			for (var future : futures) {
+				results.add(future.get());
+			}
+			return SimulationReport.of(results, Duration.ofNanos(System.nanoTime() - start), THREAD_BEAN != null);
+		}
+	}
+
+	private static long allocatedBytes() {
+		return THREAD_BEAN == null ? 0 : THREAD_BEAN.getCurrentThreadAllocatedBytes();
+	}
+
+	private SimulationReport.GameResult play(int gameIndex) {
+		var random = new Random(settings.seed() + gameIndex);
+		var driver = driverFactory.newGame(gameIndex);
+		driver.setup(ArmySetup.random(random), ArmySetup.random(random));
+
+		var moves = new int[MoveGenerator.MAX_MOVES];
+		var latencies = new long[settings.maxMoves()];
+		var allocated = 0L;
+		var numMoves = 0;
+		var isHost = true;
+		var finished = false;
+		while (!finished && numMoves < settings.maxMoves()) {
+			var count = MoveGenerator.generate(driver.getBoard(), isHost, moves);
+			if (count == 0) {
+				finished = true;
+				break;
+			}
+
+			var move = moves[random.nextInt(count)];
+			var allocatedBefore = allocatedBytes();
+			var moveStart = System.nanoTime();
+			finished = driver.play(move, isHost);
+			latencies[numMoves++] = System.nanoTime() - moveStart;
+			allocated += allocatedBytes() - allocatedBefore;
+			isHost = !isHost;
+		}
+		return new SimulationReport.GameResult(Arrays.copyOf(latencies, numMoves), allocated, finished);
+	}
+
+	private static Player getPlayer(PlayerRepository playerRepository, String userName) {
+		return playerRepository.findPlayersByName(userName).orElseGet(() -> {
+			var player = new Player();
+			player.setUserName(userName);
+			player.setPassword("-");
+			return playerRepository.save(player);
+		});
+	}
+
+	/**
+	 * Games between the same two players, created when they are started.
+	 */
+	static DriverFactory serviceDriverFactory(StrategoService strategoService, PlayerRepository playerRepository,
+			GameRepository gameRepository) {
+		var host = getPlayer(playerRepository, "simulator-host");
+		var guest = getPlayer(playerRepository, "simulator-guest");
+		var creationDate = Instant.now();
+
+		return gameIndex -> {
+			var game = new Game();
+			game.setName("Simulated game %d".formatted(gameIndex));
+			game.setJoinCode("simulator");
+			// The creation date is unique
+			game.setCreationDate(creationDate.plusMillis(gameIndex));
+			game.setHost(host);
+			game.setGuest(guest);
+			game.setPhase(GamePhase.WAITING_FOR_SETUP_2_PLAYERS);
+			var gameId = gameRepository.save(game).getId().longValue();
+			return new ServiceGameDriver(strategoService, gameId, host, guest);
+		};
+	}
+
+	public static void main(String[] args) throws Exception {
+		var settings = Settings.fromSystemProperties();
+		System.out.println("Simulating %s".formatted(settings));
+
+		if (Mode.ENGINE.equals(settings.mode())) {
+			var rankService = new RankServiceImpl();
+			System.out.println(new GameSimulator(settings, gameIndex -> new EngineGameDriver(rankService)).run());
+			return;
+		}
+
+		try (var context = new SpringApplicationBuilder(MatchmakingApplication.class) //
+				.profiles("test") //
+				.properties("server.port=0", "spring.jpa.show-sql=false") //
+				.run(args)) {
+			var driverFactory = serviceDriverFactory(context.getBean(StrategoService.class),
+					context.getBean(PlayerRepository.class), context.getBean(GameRepository.class));
+			System.out.println(new GameSimulator(settings, driverFactory).run());
+		}
+	}
+}
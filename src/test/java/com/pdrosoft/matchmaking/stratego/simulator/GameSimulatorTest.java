@@ -0,0 +1,89 @@
+package com.pdrosoft.matchmaking.stratego.simulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.pdrosoft.matchmaking.repository.GameRepository;
+import com.pdrosoft.matchmaking.repository.PlayerRepository;
+import com.pdrosoft.matchmaking.stratego.engine.MoveGenerator;
+import com.pdrosoft.matchmaking.stratego.engine.Viewer;
+import com.pdrosoft.matchmaking.stratego.service.RankService;
+import com.pdrosoft.matchmaking.stratego.service.StrategoService;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@DirtiesContext
+public class GameSimulatorTest {
+
+	@Autowired
+	private StrategoService strategoService;
+	@Autowired
+	private RankService rankService;
+	@Autowired
+	private PlayerRepository playerRepository;
+	@Autowired
+	private GameRepository gameRepository;
+
+	@Test
+	void testEngineSimulation() throws Exception {
+		var settings = new GameSimulator.Settings(8, 2, 3000, GameSimulator.Mode.ENGINE, 1L);
+
+		var report = new GameSimulator(settings, gameIndex -> new EngineGameDriver(rankService)).run();
+
+		assertThat(report.games()).isEqualTo(8);
+		assertThat(report.finishedGames()).isBetween(0, 8);
+		assertThat(report.moves()).isPositive().isLessThanOrEqualTo(8 * 3000);
+		assertThat(report.p50Nanos()).isPositive().isLessThanOrEqualTo(report.p99Nanos());
+		assertThat(report.movesPerSecond()).isPositive();
+		assertThat(report.toString()).contains("moves/sec");
+	}
+
+	@Test
+	void testServiceSimulation() throws Exception {
+		var settings = new GameSimulator.Settings(4, 2, 20, GameSimulator.Mode.SERVICE, 1L);
+		var driverFactory = GameSimulator.serviceDriverFactory(strategoService, playerRepository, gameRepository);
+
+		var report = new GameSimulator(settings, driverFactory).run();
+
+		assertThat(report.games()).isEqualTo(4);
+		assertThat(report.moves()).isEqualTo(4 * 20);
+		assertThat(report.p50Nanos()).isLessThanOrEqualTo(report.p99Nanos());
+	}
+
+	@Test
+	void testServiceMatchesEngine() {
+		var random = new Random(7L);
+		var hostSetup = ArmySetup.random(random);
+		var guestSetup = ArmySetup.random(random);
+		var engine = new EngineGameDriver(rankService);
+		var service = (ServiceGameDriver) GameSimulator.serviceDriverFactory(strategoService, playerRepository, gameRepository)
+				.newGame(100);
+		engine.setup(hostSetup, guestSetup);
+		service.setup(hostSetup, guestSetup);
+		assertThat(service.getLastTiles()).isEqualTo(engine.getBoard().toTiles(Viewer.GUEST));
+
+		var moves = new int[MoveGenerator.MAX_MOVES];
+		var isHost = true;
+		for (int i = 0; i < 50; i++) {
+			var count = MoveGenerator.generate(engine.getBoard(), isHost, moves);
+			var move = moves[random.nextInt(count)];
+			var engineCaptured = engine.play(move, isHost);
+
+			assertThat(service.play(move, isHost)).isEqualTo(engineCaptured);
+			assertThat(service.getLastTiles())
+					.isEqualTo(engine.getBoard().toTiles(isHost ? Viewer.HOST : Viewer.GUEST));
+			assertThat(service.getBoard()).isEqualTo(engine.getBoard());
+			if (engineCaptured) {
+				break;
+			}
+			isHost = !isHost;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.pdrosoft.matchmaking.stratego.simulator;
+
+import java.util.List;
+
+import com.pdrosoft.matchmaking.model.Player;
+import com.pdrosoft.matchmaking.stratego.dto.BoardTileDTO;
+import com.pdrosoft.matchmaking.stratego.dto.StrategoMovementDTO;
+import com.pdrosoft.matchmaking.stratego.engine.MoveGenerator;
+import com.pdrosoft.matchmaking.stratego.engine.StrategoBoard;
+import com.pdrosoft.matchmaking.stratego.enums.GamePhase;
+import com.pdrosoft.matchmaking.stratego.service.StrategoService;
+
+/**
+ * Plays through {@link StrategoService}, with the game executor, the active
+ * game cache and the database behind it, as the REST controllers do. The
+ * service only shows each player its own ranks, so the driver follows the
+ * whole board from the movement results.
+ */
+class ServiceGameDriver implements GameDriver {
+
+	private final StrategoService strategoService;
+	private final Long gameId;
+	private final Player host;
+	private final Player guest;
+
+	private final StrategoBoard board = StrategoBoard.empty();
+	private List<List<BoardTileDTO>> lastTiles;
+
+	ServiceGameDriver(StrategoService strategoService, Long gameId, Player host, Player guest) {
+		this.strategoService = strategoService;
+		this.gameId = gameId;
+		this.host = host;
+		this.guest = guest;
+	}
+
+	@Override
+	public void setup(ArmySetup hostSetup, ArmySetup guestSetup) {
+		strategoService.addSetup(gameId, host, hostSetup.toDto());
+		lastTiles = strategoService.addSetup(gameId, guest, guestSetup.toDto()).getBoard();
+		ArmySetup.place(board, hostSetup, guestSetup);
+	}
+
+	@Override
+	public StrategoBoard getBoard() {
+		return board;
+	}
+
+	/**
+	 * Board returned to the player that made the last setup or movement.
+	 */
+	List<List<BoardTileDTO>> getLastTiles() {
+		return lastTiles;
+	}
+
+	@Override
+	public boolean play(int move, boolean isHost) {
+		var fromIndex = MoveGenerator.fromIndex(move);
+		var toIndex = MoveGenerator.toIndex(move);
+		var movementDto = StrategoMovementDTO.builder() //
+				.rank(StrategoBoard.rankOf(board.get(fromIndex))) //
+				.rowInitial(fromIndex / StrategoBoard.SIZE) //
+				.colInitial(fromIndex % StrategoBoard.SIZE) //
+				.rowFinal(toIndex / StrategoBoard.SIZE) //
+				.colFinal(toIndex % StrategoBoard.SIZE) //
+				.build();
+
+		var state = strategoService.addMovement(gameId, isHost ? host : guest, movementDto);
+		lastTiles = state.getBoard();
+
+		// Removed pieces: none when the square was empty or the attacker won, both on a tie
+		var result = state.getMovement().getResult();
+		var combatResult = switch (result.size()) {
+		case 0 -> 1;
+		case 1 -> result.getFirst().isHost() == isHost ? -1 : 1;
+		default -> 0;
+		};
+		board.move(fromIndex, toIndex, combatResult);
+		return GamePhase.FINISHED.equals(state.getPhase());
+	}
+}
@@ -0,0 +1,57 @@
+package com.pdrosoft.matchmaking.stratego.simulator;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Throughput and per movement latency and allocation of a simulation run.
+ * Allocation is -1 when the JVM cannot measure it.
+ */
+record SimulationReport(int games, int finishedGames, long moves, Duration elapsed, long p50Nanos, long p99Nanos,
+		long allocatedBytesPerMove) {
+
+	record GameResult(long[] latencies, long allocatedBytes, boolean finished) {
+	}
+
+	static SimulationReport of(List<GameResult> results, Duration elapsed, boolean allocationSupported) {
+		var moves = results.stream().mapToLong(result -> result.latencies().length).sum();
+		var latencies = new long[(int) moves];
+		var offset = 0;
+		for (var result : results) {
+			System.arraycopy(result.latencies(), 0, latencies, offset, result.latencies().length);
+			offset += result.latencies().length;
+		}
+		Arrays.sort(latencies);
+
+		var allocated = results.stream().mapToLong(GameResult::allocatedBytes).sum();
+		return new SimulationReport(results.size(), (int) results.stream().filter(GameResult::finished).count(),
+				moves, elapsed, percentile(latencies, 50), percentile(latencies, 99),
+				!allocationSupported ? -1 : moves == 0 ? 0 : allocated / moves);
+	}
+
+	private static long percentile(long[] sorted, int percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		var index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)];
+	}
+
+	double movesPerSecond() {
+		var seconds = elapsed.toNanos() / 1e9;
+		return seconds == 0 ? 0 : moves / seconds;
+	}
+
+	@Override
+	public String toString() {
+		return """
+				games:             %d (%d finished)
+				moves:             %d in %d ms
+				moves/sec:         %.1f
+				move latency p50:  %.1f us
+				move latency p99:  %.1f us
+				allocation/move:   %d bytes""".formatted(games, finishedGames, moves, elapsed.toMillis(),
+				movesPerSecond(), p50Nanos / 1e3, p99Nanos / 1e3, allocatedBytesPerMove);
+	}
+}
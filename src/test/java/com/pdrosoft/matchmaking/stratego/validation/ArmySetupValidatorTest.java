@@ -0,0 +1,94 @@
+package com.pdrosoft.matchmaking.stratego.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.pdrosoft.matchmaking.stratego.enums.Rank;
+
+public class ArmySetupValidatorTest {
+
+	// Pieces of an army by rank ordinal
+	private static final int[] ARMY = { 1, 1, 2, 3, 4, 4, 4, 5, 8, 1, 6, 1 };
+
+	private final ArmySetupValidator validator = new ArmySetupValidator();
+
+	private List<Rank> getRanks() {
+		var ranks = new ArrayList<Rank>(40);
+		for (int ordinal = 0; ordinal < ARMY.length; ordinal++) {
+			ranks.addAll(Collections.nCopies(ARMY[ordinal], Rank.values()[ordinal]));
+		}
+		return ranks;
+	}
+
+	private List<List<Rank>> toArmy(List<Rank> ranks) {
+		var army = new ArrayList<List<Rank>>(4);
+		for (int row = 0; row < 4; row++) {
+			army.add(new ArrayList<>(ranks.subList(row * 10, (row + 1) * 10)));
+		}
+		return army;
+	}
+
+	@Test
+	void testValidArmies() {
+		var ranks = getRanks();
+		var random = new Random(1L);
+		for (int i = 0; i < 20; i++) {
+			Collections.shuffle(ranks, random);
+			assertThat(validator.isValid(toArmy(ranks), null)).isTrue();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Rank.class)
+	void testReplacedPiece(Rank rank) {
+		// Every rank in turn replaces a piece of another rank
+		var ranks = getRanks();
+		var replaced = Rank.SCOUT.equals(rank) ? Rank.MINER : Rank.SCOUT;
+		ranks.set(ranks.indexOf(replaced), rank);
+
+		assertThat(ArmySetupValidator.isValidArmy(toArmy(ranks))).isFalse();
+	}
+
+	@Test
+	void testSinglePieceArmy() {
+		// 40 scouts must not overflow into the count of the next rank
+		var ranks = new ArrayList<Rank>(Collections.nCopies(40, Rank.SCOUT));
+
+		assertThat(ArmySetupValidator.isValidArmy(toArmy(ranks))).isFalse();
+	}
+
+	@Test
+	void testInvalidShapes() {
+		var army = toArmy(getRanks());
+		assertThat(ArmySetupValidator.isValidArmy(army)).isTrue();
+
+		assertThat(ArmySetupValidator.isValidArmy(null)).isFalse();
+		assertThat(ArmySetupValidator.isValidArmy(List.of())).isFalse();
+		assertThat(ArmySetupValidator.isValidArmy(army.subList(0, 3))).isFalse();
+
+		var nullRow = new ArrayList<>(army);
+		nullRow.set(2, null);
+		assertThat(ArmySetupValidator.isValidArmy(nullRow)).isFalse();
+
+		var shortRow = new ArrayList<>(army);
+		shortRow.set(1, army.get(1).subList(0, 9));
+		assertThat(ArmySetupValidator.isValidArmy(shortRow)).isFalse();
+
+		var nullRank = toArmy(getRanks());
+		nullRank.get(3).set(5, null);
+		assertThat(ArmySetupValidator.isValidArmy(nullRank)).isFalse();
+
+		var extraRow = new ArrayList<>(army);
+		extraRow.add(Arrays.asList(new Rank[10]));
+		assertThat(ArmySetupValidator.isValidArmy(extraRow)).isFalse();
+	}
+}
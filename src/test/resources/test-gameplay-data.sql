@@ -5,5 +5,6 @@ INSERT INTO player(id, username, password) VALUES
 ;
 
 INSERT INTO game(id, name, creation_date, join_code, host, guest, phase) VALUES
-(5, 'testuser1s game', '2020-05-01T20:04:00Z', 'code4', 1, 2, 'WAITING_FOR_SETUP_2_PLAYERS')
+(5, 'testuser1s game', '2020-05-01T20:04:00Z', 'code4', 1, 2, 'WAITING_FOR_SETUP_2_PLAYERS'),
+(6, 'testuser1s bot game', '2020-05-01T20:05:00Z', 'code5', 1, NULL, 'WAITING_FOR_SETUP_2_PLAYERS')
 ;